@@ -8,12 +8,14 @@
 #include "array.hpp"
 #include "backend.hpp"
 #include "device.hpp"
+#include "execution.hpp"
 #include "utils.hpp"
 
 class BackendJ
 {
 public:
     static void setBackend(const std::string &backendName);
+    static std::vector<std::string> getAvailableBackends();
 };
 
 class DeviceJ
@@ -31,9 +33,30 @@ public:
     void setDevice(const std::string &deviceName = "", const std::string &deviceType = "all");
     std::string getName() const;
     std::string getInfo() const;
+    void finish() const;
+    void flush() const;
+    void setWaitToFinish(bool flag);
+    bool getWaitToFinish() const;
 
     std::shared_ptr<cle::Device> get() const;
 };
+
+class EventJ
+{
+    friend class TransferQueueJ;
+
+private:
+    std::shared_ptr<void> event_;
+
+public:
+    EventJ() = default;
+
+    static EventJ enqueueBarrier(const DeviceJ &device);
+
+    bool isComplete() const;
+    void waitFor() const;
+    void enqueueWait(const DeviceJ &device) const;
+};
 class ArrayJ
 {
 
@@ -41,6 +64,7 @@ private:
     std::shared_ptr<cle::Array> array_;
 
     friend class MemoryJ;
+    friend class TransferQueueJ;
 
 protected:
     static ArrayJ create(size_t width, size_t height, size_t depth, size_t dimension, const cle::dType &data_type, const cle::mType &memory_type, const DeviceJ &device);
@@ -59,6 +83,7 @@ public:
     std::string getDataType() const;
     std::string getMemoryType() const;
     std::string getDevice() const;
+    size_t getId() const;
 
     void fillMemory(float value);
     void copyDataTo(ArrayJ &dst);
@@ -66,6 +91,23 @@ public:
     std::shared_ptr<cle::Array> get() const;
 };
 
+class TransferQueueJ
+{
+
+private:
+    std::shared_ptr<cle::Device> device_;
+    std::shared_ptr<void> queue_;
+
+    EventJ transfer(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after, bool write) const;
+
+public:
+    TransferQueueJ() = default;
+    TransferQueueJ(const DeviceJ &device);
+
+    EventJ write(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after) const;
+    EventJ read(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after) const;
+};
+
 class MemoryJ
 {
 public:
@@ -94,6 +136,15 @@ public:
     static void readUIntBuffer(const ArrayJ &array, unsigned int *data, const size_t &size);
 };
 
+class KernelJ
+{
+public:
+    static void execute(const DeviceJ &device, const std::string &kernel_name, const std::string &kernel_source,
+                        const std::vector<std::string> &array_names, const std::vector<ArrayJ> &arrays,
+                        const std::vector<std::string> &scalar_names, const std::vector<float> &scalars,
+                        const size_t &width, const size_t &height, const size_t &depth);
+};
+
 class UtilsJ
 {
 public:
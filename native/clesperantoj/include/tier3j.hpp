@@ -0,0 +1,32 @@
+/*
+ * This file is autogenerated. Do not edit manually.
+ */
+#ifndef __INCLUDE_TIER3J_HPP
+#define __INCLUDE_TIER3J_HPP
+
+#include "clesperantoj.hpp"
+
+
+class Tier3
+{
+public:
+    static std::vector<float> bounding_box(DeviceJ * device, ArrayJ * src);
+	static std::vector<float> center_of_mass(DeviceJ * device, ArrayJ * src);
+	static ArrayJ exclude_labels(DeviceJ * device, ArrayJ * src, ArrayJ * list, ArrayJ * dst);
+	static ArrayJ exclude_labels_on_edges(DeviceJ * device, ArrayJ * src, ArrayJ * dst, bool exclude_x, bool exclude_y, bool exclude_z);
+	static ArrayJ flag_existing_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+	static ArrayJ gamma_correction(DeviceJ * device, ArrayJ * src, ArrayJ * dst, float gamma);
+	static ArrayJ generate_binary_overlap_matrix(DeviceJ * device, ArrayJ * src0, ArrayJ * src1, ArrayJ * dst);
+	static ArrayJ generate_touch_matrix(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+	static ArrayJ histogram(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int nbins, float min, float max);
+	static float jaccard_index(DeviceJ * device, ArrayJ * src0, ArrayJ * src1);
+	static ArrayJ labelled_spots_to_pointlist(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+	static std::vector<float> maximum_position(DeviceJ * device, ArrayJ * src);
+	static float mean_of_all_pixels(DeviceJ * device, ArrayJ * src);
+	static std::vector<float> minimum_position(DeviceJ * device, ArrayJ * src);
+	static ArrayJ morphological_chan_vese(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int num_iter, int smoothing, float lambda1, float lambda2);
+	static std::unordered_map<std::string, std::vector<float>> statistics_of_labelled_pixels(DeviceJ * device, ArrayJ * src, ArrayJ * intensity);
+};
+
+
+#endif // __INCLUDE_TIER3J_HPP
@@ -0,0 +1,21 @@
+/*
+ * This file is autogenerated. Do not edit manually.
+ */
+#ifndef __INCLUDE_TIER4J_HPP
+#define __INCLUDE_TIER4J_HPP
+
+#include "clesperantoj.hpp"
+
+
+class Tier4
+{
+public:
+    static std::vector<float> label_bounding_box(DeviceJ * device, ArrayJ * src, int label_id);
+	static float mean_squared_error(DeviceJ * device, ArrayJ * src0, ArrayJ * src1);
+	static ArrayJ spots_to_pointlist(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+	static ArrayJ relabel_sequential(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int blocksize);
+	static ArrayJ threshold_otsu(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+};
+
+
+#endif // __INCLUDE_TIER4J_HPP
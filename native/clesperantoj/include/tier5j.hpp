@@ -0,0 +1,19 @@
+/*
+ * This file is autogenerated. Do not edit manually.
+ */
+#ifndef __INCLUDE_TIER5J_HPP
+#define __INCLUDE_TIER5J_HPP
+
+#include "clesperantoj.hpp"
+
+
+class Tier5
+{
+public:
+    static bool array_equal(DeviceJ * device, ArrayJ * src0, ArrayJ * src1);
+	static ArrayJ combine_labels(DeviceJ * device, ArrayJ * src0, ArrayJ * src1, ArrayJ * dst);
+	static ArrayJ connected_components_labeling(DeviceJ * device, ArrayJ * src, ArrayJ * dst, std::string connectivity);
+};
+
+
+#endif // __INCLUDE_TIER5J_HPP
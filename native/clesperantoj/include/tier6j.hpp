@@ -0,0 +1,21 @@
+/*
+ * This file is autogenerated. Do not edit manually.
+ */
+#ifndef __INCLUDE_TIER6J_HPP
+#define __INCLUDE_TIER6J_HPP
+
+#include "clesperantoj.hpp"
+
+
+class Tier6
+{
+public:
+    static ArrayJ dilate_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int radius);
+	static ArrayJ erode_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int radius, bool relabel);
+	static ArrayJ gauss_otsu_labeling(DeviceJ * device, ArrayJ * src0, ArrayJ * dst, float outline_sigma);
+	static ArrayJ masked_voronoi_labeling(DeviceJ * device, ArrayJ * src, ArrayJ * mask, ArrayJ * dst);
+	static ArrayJ voronoi_labeling(DeviceJ * device, ArrayJ * src, ArrayJ * dst);
+};
+
+
+#endif // __INCLUDE_TIER6J_HPP
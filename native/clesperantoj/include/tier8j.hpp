@@ -0,0 +1,18 @@
+/*
+ * This file is autogenerated. Do not edit manually.
+ */
+#ifndef __INCLUDE_TIER8J_HPP
+#define __INCLUDE_TIER8J_HPP
+
+#include "clesperantoj.hpp"
+
+
+class Tier8
+{
+public:
+    static ArrayJ smooth_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int radius);
+	static ArrayJ smooth_connected_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int radius);
+};
+
+
+#endif // __INCLUDE_TIER8J_HPP
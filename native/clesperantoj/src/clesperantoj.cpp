@@ -1,21 +1,34 @@
 #include "clesperantoj.hpp"
 
+#include <mutex>
 #include <sstream>
+#include <stdexcept>
+#include <unordered_map>
+
+namespace
+{
+    // the wait-to-finish mode of the devices, which cle::Device sets but does not expose
+    std::mutex wait_to_finish_mutex;
+    std::unordered_map<const cle::Device *, bool> wait_to_finish;
+}
 
 void BackendJ::setBackend(const std::string &backendName)
 {
     if (backendName.find("cuda") != std::string::npos)
     {
         cle::BackendManager::getInstance().setBackend("cuda");
-        std::cout << "Using CUDA backend" << std::endl;
     }
     else
     {
         cle::BackendManager::getInstance().setBackend("opencl");
-        std::cout << "Using OpenCL backend" << std::endl;
     }
 }
 
+std::vector<std::string> BackendJ::getAvailableBackends()
+{
+    return cle::BackendManager::getInstance().getBackendsList();
+}
+
 DeviceJ::DeviceJ()
 {
     this->device_ = cle::BackendManager::getInstance().getBackend().getDevice("", "all");
@@ -41,11 +54,180 @@ std::string DeviceJ::getInfo() const
     return this->device_->getInfo();
 }
 
+void DeviceJ::finish() const
+{
+    this->device_->finish();
+}
+
+void DeviceJ::flush() const
+{
+#if USE_OPENCL
+    auto opencl_device = std::dynamic_pointer_cast<cle::OpenCLDevice>(this->device_);
+    if (opencl_device != nullptr)
+    {
+        clFlush(opencl_device->getCLCommandQueue());
+        return;
+    }
+#endif
+    // the other backends submit the commands as soon as they are enqueued
+}
+
+void DeviceJ::setWaitToFinish(bool flag)
+{
+    std::lock_guard<std::mutex> lock(wait_to_finish_mutex);
+    this->device_->setWaitToFinish(flag);
+    wait_to_finish[this->device_.get()] = flag;
+}
+
+bool DeviceJ::getWaitToFinish() const
+{
+    std::lock_guard<std::mutex> lock(wait_to_finish_mutex);
+    auto mode = wait_to_finish.find(this->device_.get());
+    // the devices wait for every kernel until the mode is changed
+    return mode == wait_to_finish.end() || mode->second;
+}
+
 std::shared_ptr<cle::Device> DeviceJ::get() const
 {
     return this->device_;
 }
 
+EventJ EventJ::enqueueBarrier(const DeviceJ &device)
+{
+    EventJ barrier;
+#if USE_OPENCL
+    auto opencl_device = std::dynamic_pointer_cast<cle::OpenCLDevice>(device.get());
+    if (opencl_device != nullptr)
+    {
+        cl_event event;
+        if (clEnqueueBarrierWithWaitList(opencl_device->getCLCommandQueue(), 0, nullptr, &event) == CL_SUCCESS)
+        {
+            barrier.event_ = std::shared_ptr<void>(event, [](void *e)
+                                                   { clReleaseEvent(static_cast<cl_event>(e)); });
+            clFlush(opencl_device->getCLCommandQueue());
+            return barrier;
+        }
+    }
+#endif
+    // without events, the barrier is reached once the device has finished
+    device.finish();
+    return barrier;
+}
+
+bool EventJ::isComplete() const
+{
+    if (this->event_ == nullptr)
+    {
+        return true;
+    }
+#if USE_OPENCL
+    cl_int status = CL_COMPLETE;
+    clGetEventInfo(static_cast<cl_event>(this->event_.get()), CL_EVENT_COMMAND_EXECUTION_STATUS, sizeof(cl_int), &status, nullptr);
+    return status == CL_COMPLETE || status < 0;
+#else
+    return true;
+#endif
+}
+
+void EventJ::waitFor() const
+{
+    if (this->event_ == nullptr)
+    {
+        return;
+    }
+#if USE_OPENCL
+    cl_event event = static_cast<cl_event>(this->event_.get());
+    clWaitForEvents(1, &event);
+#endif
+}
+
+void EventJ::enqueueWait(const DeviceJ &device) const
+{
+    if (this->event_ == nullptr)
+    {
+        return;
+    }
+#if USE_OPENCL
+    auto opencl_device = std::dynamic_pointer_cast<cle::OpenCLDevice>(device.get());
+    if (opencl_device != nullptr)
+    {
+        cl_event event = static_cast<cl_event>(this->event_.get());
+        if (clEnqueueBarrierWithWaitList(opencl_device->getCLCommandQueue(), 1, &event, nullptr) == CL_SUCCESS)
+        {
+            return;
+        }
+    }
+#endif
+    // without events, the host waits in place of the queue
+    this->waitFor();
+}
+
+TransferQueueJ::TransferQueueJ(const DeviceJ &device) : device_(device.get())
+{
+#if USE_OPENCL
+    auto opencl_device = std::dynamic_pointer_cast<cle::OpenCLDevice>(this->device_);
+    if (opencl_device != nullptr)
+    {
+        cl_int err = CL_SUCCESS;
+        cl_command_queue queue = clCreateCommandQueue(opencl_device->getCLContext(), opencl_device->getCLDevice(), 0, &err);
+        if (err == CL_SUCCESS)
+        {
+            this->queue_ = std::shared_ptr<void>(queue, [](void *q)
+                                                 { clReleaseCommandQueue(static_cast<cl_command_queue>(q)); });
+        }
+    }
+#endif
+    // without a queue of its own, the transfers go through the array and block
+}
+
+EventJ TransferQueueJ::write(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after) const
+{
+    return this->transfer(array, data, size, after, true);
+}
+
+EventJ TransferQueueJ::read(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after) const
+{
+    return this->transfer(array, data, size, after, false);
+}
+
+EventJ TransferQueueJ::transfer(const ArrayJ &array, unsigned char *data, const size_t &size, const EventJ &after, bool write) const
+{
+    EventJ done;
+#if USE_OPENCL
+    if (this->queue_ != nullptr && array.get()->mtype() == cle::mType::BUFFER)
+    {
+        auto queue = static_cast<cl_command_queue>(this->queue_.get());
+        // CLIc keeps a pointer to the cl_mem of the buffer in the data of the array
+        cl_mem buffer = *static_cast<cl_mem *>(*array.get()->get());
+        cl_event wait = static_cast<cl_event>(after.event_.get());
+        cl_uint wait_count = wait == nullptr ? 0 : 1;
+        cl_event event;
+        cl_int err = write ? clEnqueueWriteBuffer(queue, buffer, CL_FALSE, 0, size, data, wait_count, wait_count ? &wait : nullptr, &event)
+                           : clEnqueueReadBuffer(queue, buffer, CL_FALSE, 0, size, data, wait_count, wait_count ? &wait : nullptr, &event);
+        if (err != CL_SUCCESS)
+        {
+            throw std::runtime_error("Error: failed to enqueue the transfer of " + std::to_string(size) + " bytes (" + std::to_string(err) + ")");
+        }
+        done.event_ = std::shared_ptr<void>(event, [](void *e)
+                                            { clReleaseEvent(static_cast<cl_event>(e)); });
+        clFlush(queue);
+        return done;
+    }
+#endif
+    after.waitFor();
+    std::array<size_t, 3> region = {array.getWidth(), array.getHeight(), array.getDepth()};
+    std::array<size_t, 3> origin = {0, 0, 0};
+    if (write)
+    {
+        array.writeFrom(static_cast<void *>(data), region, origin);
+    }
+    else
+    {
+        array.readTo(static_cast<void *>(data), region, origin);
+    }
+    return done;
+}
+
 ArrayJ::ArrayJ(const std::shared_ptr<cle::Array> &array) : array_(array)
 {
 }
@@ -105,6 +287,11 @@ std::string ArrayJ::getDevice() const
     return this->array_->device()->getName();
 }
 
+size_t ArrayJ::getId() const
+{
+    return reinterpret_cast<size_t>(this->array_.get());
+}
+
 std::shared_ptr<cle::Array> ArrayJ::get() const
 {
     return this->array_;
@@ -253,6 +440,25 @@ void MemoryJ::readUIntBuffer(const ArrayJ &array, unsigned int *data, const size
     array.readTo(static_cast<void *>(data), region, origin);
 }
 
+void KernelJ::execute(const DeviceJ &device, const std::string &kernel_name, const std::string &kernel_source,
+                      const std::vector<std::string> &array_names, const std::vector<ArrayJ> &arrays,
+                      const std::vector<std::string> &scalar_names, const std::vector<float> &scalars,
+                      const size_t &width, const size_t &height, const size_t &depth)
+{
+    cle::ParameterList parameters;
+    for (size_t i = 0; i < arrays.size(); i++)
+    {
+        parameters.push_back({array_names[i], arrays[i].get()});
+    }
+    for (size_t i = 0; i < scalars.size(); i++)
+    {
+        parameters.push_back({scalar_names[i], scalars[i]});
+    }
+    const cle::KernelInfo kernel = {kernel_name, kernel_source};
+    const cle::RangeArray range = {width, height, depth};
+    cle::execute(device.get(), kernel, parameters, range);
+}
+
 std::vector<std::string> UtilsJ::getKeys(const std::unordered_map<std::string, std::vector<float>> &map)
 {
     std::vector<std::string> keys;
@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier1j.hpp"
 #include "tier1.hpp"
 
 ArrayJ Tier1::absolute(DeviceJ * device, ArrayJ * src, ArrayJ * dst)
@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier2j.hpp"
 #include "tier2.hpp"
 
 ArrayJ Tier2::absolute_difference(DeviceJ * device, ArrayJ * src0, ArrayJ * src1, ArrayJ * dst)
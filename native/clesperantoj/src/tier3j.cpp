@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier3j.hpp"
 #include "tier3.hpp"
 
 std::vector<float> Tier3::bounding_box(DeviceJ * device, ArrayJ * src)
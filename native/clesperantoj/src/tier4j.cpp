@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier4j.hpp"
 #include "tier4.hpp"
 
 std::vector<float> Tier4::label_bounding_box(DeviceJ * device, ArrayJ * src, int label_id)
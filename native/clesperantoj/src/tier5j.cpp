@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier5j.hpp"
 #include "tier5.hpp"
 
 bool Tier5::array_equal(DeviceJ * device, ArrayJ * src0, ArrayJ * src1)
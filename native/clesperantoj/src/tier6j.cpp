@@ -2,7 +2,7 @@
 /*
  * This file is autogenerated. Do not edit manually.
  */
-#include "kernelj.hpp"
+#include "tier6j.hpp"
 #include "tier6.hpp"
 
 ArrayJ Tier6::dilate_labels(DeviceJ * device, ArrayJ * src, ArrayJ * dst, int radius)
@@ -1,5 +1,9 @@
 package net.clesperanto.core;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.logging.Logger;
+
 /**
  * Class to interact with the arrays allocated on the GPU by ClesperantoJ
  */
@@ -13,15 +17,44 @@ package net.clesperanto.core;
  */
 public class ArrayJ {
 
-	protected final net.clesperanto._internals.jclic.ArrayJ arrayj;
+	private static final Logger LOGGER = Logger.getLogger(ArrayJ.class.getName());
+
+	/** largest array that can be moved to the host memory, a direct {@link ByteBuffer} is indexed with an int */
+	public static final long MAX_SPILL_BYTES = Integer.MAX_VALUE - 8;
+
+	protected net.clesperanto._internals.jclic.ArrayJ arrayj;
 	protected final DeviceJ devicej;
 
+	private final long width;
+	private final long height;
+	private final long depth;
+	private final int nDimensions;
+	private final String dataType;
+	private final String memoryType;
+	private final String deviceName;
+
+	/** host copy of the data while the array is spilled out of the device, null otherwise */
+	private ByteBuffer spilled;
+	/** last time (System.nanoTime()) the native array was accessed */
+	volatile long lastUsed;
+	/** object used by the {@link MemoryTracker} to follow the life of the array */
+	Object trackingToken;
+
     public ArrayJ(net.clesperanto._internals.jclic.ArrayJ arrayj, DeviceJ devicej) {
-    	if (!arrayj.getDevice().equals(devicej.getName()))
+    	this.deviceName = arrayj.getDevice();
+    	if (!deviceName.equals(devicej.getName()))
     		throw new IllegalArgumentException("Device name does not coincide with ArrayJ associated name: "
-    				+ devicej.getName() + " vs " + arrayj.getDevice());
+    				+ devicej.getName() + " vs " + deviceName);
     	this.arrayj = arrayj;
     	this.devicej = devicej;
+    	this.width = arrayj.getWidth();
+    	this.height = arrayj.getHeight();
+    	this.depth = arrayj.getDepth();
+    	this.nDimensions = arrayj.getDimension();
+    	this.dataType = arrayj.getDataType();
+    	this.memoryType = arrayj.getMemoryType();
+    	this.lastUsed = System.nanoTime();
+    	MemoryTracker.forDevice(devicej).register(this);
     }
 
     /**
@@ -29,7 +62,7 @@ public class ArrayJ {
      * @return the width of the array
      */
     public long getWidth() {
-    	return arrayj.getWidth();
+    	return width;
     }
 
     /**
@@ -37,7 +70,7 @@ public class ArrayJ {
      * @return the height of the array
      */
     public long getHeight() {
-    	return arrayj.getHeight();
+    	return height;
     }
 
     /**
@@ -53,7 +86,7 @@ public class ArrayJ {
      * @return the depth of the array
      */
     public long getDepth() {
-    	return arrayj.getDepth();
+    	return depth;
     }
 
     /**
@@ -61,7 +94,7 @@ public class ArrayJ {
      * @return the number of dimensions of the array
      */
     public int getNDimensions() {
-    	return arrayj.getDimension();
+    	return nDimensions;
     }
 
     /**
@@ -69,7 +102,7 @@ public class ArrayJ {
      * @return the data type of the array
      */
     public String getDataType() {
-    	return arrayj.getDataType();
+    	return dataType;
     }
 
     /**
@@ -77,7 +110,7 @@ public class ArrayJ {
      * @return the type of object that the array represents, either an 'image' or a 'buffer'
      */
     public String getMemoryType() {
-    	return arrayj.getMemoryType();
+    	return memoryType;
     }
 
     /**
@@ -94,7 +127,7 @@ public class ArrayJ {
      * @return the name of the device where the array is allocated
      */
     public String getDeviceName() {
-    	return arrayj.getDevice();
+    	return deviceName;
     }
 
     /**
@@ -112,7 +145,7 @@ public class ArrayJ {
      * 	the value that every position in the array will adopt
      */
     public void fillMemory(float value) {
-    	this.arrayj.fillMemory(value);
+    	this.devicej.transfer("ArrayJ.fillMemory", () -> this.getRaw().fillMemory(value));
     }
 
     /*
@@ -122,7 +155,7 @@ public class ArrayJ {
      * 	the array into which the current array will be copied
      */
     public void copyDataTo(ArrayJ dst) {
-    	this.arrayj.copyDataTo(dst.arrayj);
+    	this.devicej.transfer("ArrayJ.copyDataTo", () -> this.getRaw().copyDataTo(dst.getRaw()));
     }
 
     /**
@@ -130,6 +163,105 @@ public class ArrayJ {
      * @return the raw object that is going to be sent to the native Clesperanto library. Without Java wrappers
      */
     public net.clesperanto._internals.jclic.ArrayJ getRaw() {
-    	return this.arrayj;
+    	lastUsed = System.nanoTime();
+    	synchronized (this) {
+    		if (spilled != null)
+    			restore();
+    		return this.arrayj;
+    	}
+    }
+
+    /**
+     *
+     * @return whether the data of the array has been moved to the host memory to make room on the device.
+     * 	It is moved back transparently the next time the array is used.
+     */
+    public synchronized boolean isSpilled() {
+    	return spilled != null;
+    }
+
+    /**
+     * Check whether two arrays are the same memory on the device, e.g. when the same array is given
+     * as input and output of an operation
+     * @param other
+     * 	the other array, can be null
+     * @return whether writing into one of the arrays modifies the other
+     */
+    public boolean sharesMemoryWith(ArrayJ other) {
+    	if (other == null)
+    		return false;
+    	if (other == this)
+    		return true;
+    	return deviceName.equals(other.deviceName) && getRaw().getId() == other.getRaw().getId();
+    }
+
+    /**
+     *
+     * @return whether the array is small enough to be moved to the host memory when the device runs out of memory,
+     * 	see {@link #MAX_SPILL_BYTES}
+     */
+    public boolean isSpillable() {
+    	return getSizeInBytes() <= MAX_SPILL_BYTES;
+    }
+
+    /**
+     *
+     * @return the size of the array in bytes
+     */
+    public long getSizeInBytes() {
+    	return Math.max(1, width) * Math.max(1, height) * Math.max(1, depth) * DataType.fromString(dataType).getByteSize();
+    }
+
+    /**
+     * Copy the data of the array to the host and free its device memory.
+     * Only the {@link MemoryTracker} calls this method, when the device runs out of memory.
+     * @throws IllegalStateException if the array is larger than {@link #MAX_SPILL_BYTES}
+     */
+    synchronized void spill() {
+    	if (spilled != null)
+    		return;
+    	if (!isSpillable())
+    		throw new IllegalStateException("Cannot move " + this + " to the host memory, its " + getSizeInBytes()
+    				+ " bytes exceed the " + MAX_SPILL_BYTES + " bytes of a host buffer");
+    	ByteBuffer buffer = ByteBuffer.allocateDirect((int) getSizeInBytes()).order(ByteOrder.LITTLE_ENDIAN);
+    	DataType.fromString(dataType).readToBuffer(this, buffer);
+    	LOGGER.fine("Spilling " + this + " to the host");
+    	MemoryTracker.forDevice(deviceName).unregister(this);
+    	spilled = buffer;
+    	arrayj.deallocate();
+    	arrayj = null;
+    }
+
+    /**
+     * Make this array point to the device memory of another array with the same shape and type,
+     * without copying anything. Used to bind new data to the arrays of an {@link ExecutionPlan}.
+     * @param source
+     * 	the array whose device memory is adopted
+     * @throws IllegalArgumentException if the arrays do not have the same shape, type and device
+     */
+    synchronized void rebind(ArrayJ source) {
+    	if (!dataType.equals(source.dataType) || !memoryType.equals(source.memoryType) || !deviceName.equals(source.deviceName)
+    			|| width != source.width || height != source.height || depth != source.depth)
+    		throw new IllegalArgumentException("Cannot bind " + source + " on " + deviceName + " to " + this + " on " + source.deviceName);
+    	net.clesperanto._internals.jclic.ArrayJ raw = source.getRaw();
+    	if (arrayj != null && raw.getId() == arrayj.getId())
+    		return;
+    	MemoryTracker tracker = MemoryTracker.forDevice(deviceName);
+    	tracker.unregister(this);
+    	spilled = null;
+    	arrayj = raw;
+    	lastUsed = System.nanoTime();
+    	tracker.register(this);
+    }
+
+    private void restore() {
+    	ByteBuffer buffer = spilled;
+    	ArrayJ fresh = DataType.fromString(dataType).makeEmptyArrayJ(devicej, getDimensions(), memoryType);
+    	LOGGER.fine("Restoring " + this + " from the host");
+    	arrayj = fresh.arrayj;
+    	spilled = null;
+    	MemoryTracker.forDevice(deviceName).register(this);
+    	buffer.rewind();
+    	DataType.fromString(dataType).writeToBuffer(this, buffer);
     }
 }
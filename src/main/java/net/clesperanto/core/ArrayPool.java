@@ -0,0 +1,199 @@
+package net.clesperanto.core;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Pool of free {@link ArrayJ}s of one device, so that temporary arrays of the same shape
+ * and type can be reused instead of allocated again for every operation.
+ *
+ * The arrays released to the pool keep their device memory. The pool is emptied when the device
+ * runs out of memory (see {@link OutOfMemoryPolicy}), when it grows over its maximum size, or
+ * with {@link #evict()}.
+ *
+ * The pools are shared by all the {@link DeviceJ} objects that point to the same device.
+ */
+public class ArrayPool {
+
+	private static final Map<String, ArrayPool> POOLS = new HashMap<String, ArrayPool>();
+
+	private final String deviceName;
+	/** free arrays per shape and type, the least recently released shapes first */
+	private final LinkedHashMap<String, Deque<ArrayJ>> free = new LinkedHashMap<String, Deque<ArrayJ>>(16, 0.75f, true);
+	private long pooledBytes = 0;
+	private long maxBytes = 0;
+	/** arrays released by the current thread while it captures an {@link ExecutionPlan}, kept out of the pool */
+	private final ThreadLocal<List<ArrayJ>> pinned = new ThreadLocal<List<ArrayJ>>();
+
+	private ArrayPool(String deviceName) {
+		this.deviceName = deviceName;
+	}
+
+	/**
+	 * Get the pool of the device
+	 * @param device
+	 * 	the device whose arrays are pooled
+	 * @return the {@link ArrayPool} shared by every {@link DeviceJ} pointing to the same device
+	 */
+	public static ArrayPool forDevice(DeviceJ device) {
+		Objects.requireNonNull(device, "device cannot be null");
+		return forDevice(device.getName());
+	}
+
+	static synchronized ArrayPool forDevice(String deviceName) {
+		ArrayPool pool = POOLS.get(deviceName);
+		if (pool == null) {
+			pool = new ArrayPool(deviceName);
+			POOLS.put(deviceName, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * Get an array with the wanted shape and type, reusing a free one if possible.
+	 * The content of a reused array is undefined.
+	 * @param device
+	 * 	the device where the array has to be
+	 * @param dataType
+	 * 	the data type of the array
+	 * @param dims
+	 * 	the dimensions of the array, in the order [width, height, depth]
+	 * @param memoryType
+	 * 	the memory type of the array, either "buffer" or "image"
+	 * @return an array ready to be used
+	 */
+	public ArrayJ acquire(DeviceJ device, DataType dataType, long[] dims, String memoryType) {
+		if (!deviceName.equals(device.getName()))
+			throw new IllegalArgumentException("The pool of " + deviceName + " cannot allocate on " + device.getName());
+		synchronized (this) {
+			Deque<ArrayJ> arrays = free.get(key(dataType, dims, memoryType));
+			ArrayJ array = arrays == null ? null : arrays.pollLast();
+			if (array != null) {
+				pooledBytes -= array.getSizeInBytes();
+				return array;
+			}
+		}
+		return dataType.makeEmptyArrayJ(device, dims, memoryType);
+	}
+
+	/**
+	 * Give back an array that is not used anymore so it can be reused by {@link #acquire(DeviceJ, DataType, long[], String)}.
+	 * The array must not be used by the caller after releasing it.
+	 *
+	 * The arrays released while the current thread captures an {@link ExecutionPlan} are not reused: the calls of
+	 * the plan are bound to them, so they stay with the plan until it is closed.
+	 * @param array
+	 * 	the array to release
+	 */
+	public synchronized void release(ArrayJ array) {
+		if (!deviceName.equals(array.getDeviceName()))
+			throw new IllegalArgumentException("The array is on " + array.getDeviceName() + ", not on " + deviceName);
+		List<ArrayJ> arrays = pinned.get();
+		if (arrays != null) {
+			arrays.add(array);
+			return;
+		}
+		put(array);
+	}
+
+	/**
+	 * Give back the arrays an {@link ExecutionPlan} kept while it was captured
+	 * @param arrays
+	 * 	the arrays pinned by the plan
+	 */
+	synchronized void releasePinned(List<ArrayJ> arrays) {
+		for (ArrayJ array : arrays)
+			put(array);
+	}
+
+	/**
+	 * Start or stop keeping the arrays released by the current thread out of the pool
+	 * @param arrays
+	 * 	the list where the released arrays are kept, null to stop
+	 */
+	void setPinning(List<ArrayJ> arrays) {
+		if (arrays == null)
+			pinned.remove();
+		else
+			pinned.set(arrays);
+	}
+
+	private void put(ArrayJ array) {
+		String key = key(DataType.fromString(array.getDataType()), array.getDimensions(), array.getMemoryType());
+		Deque<ArrayJ> arrays = free.get(key);
+		if (arrays == null) {
+			arrays = new ArrayDeque<ArrayJ>();
+			free.put(key, arrays);
+		}
+		arrays.addLast(array);
+		pooledBytes += array.getSizeInBytes();
+		trim();
+	}
+
+	/**
+	 * Drop every free array of the pool. Their device memory is freed once they are garbage collected,
+	 * see {@link MemoryTracker#cleanup()}.
+	 */
+	public synchronized void evict() {
+		free.clear();
+		pooledBytes = 0;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes held by the free arrays of the pool
+	 */
+	public synchronized long getPooledBytes() {
+		return pooledBytes;
+	}
+
+	/**
+	 * Set the maximum number of bytes the free arrays of the pool can hold. The arrays of the least
+	 * recently released shapes are dropped first when the pool is over the limit.
+	 * @param maxBytes
+	 * 	maximum number of bytes, 0 or less for no limit
+	 */
+	public synchronized void setMaxBytes(long maxBytes) {
+		this.maxBytes = Math.max(0, maxBytes);
+		trim();
+	}
+
+	/**
+	 *
+	 * @return the maximum number of bytes the free arrays of the pool can hold, 0 if there is no limit
+	 */
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	private void trim() {
+		while (maxBytes > 0 && pooledBytes > maxBytes && !free.isEmpty()) {
+			Map.Entry<String, Deque<ArrayJ>> eldest = free.entrySet().iterator().next();
+			ArrayJ dropped = eldest.getValue().pollFirst();
+			if (dropped != null)
+				pooledBytes -= dropped.getSizeInBytes();
+			if (eldest.getValue().isEmpty())
+				free.remove(eldest.getKey());
+		}
+	}
+
+	private static String key(DataType dataType, long[] dims, String memoryType) {
+		long[] shape = new long[] {1, 1, 1};
+		System.arraycopy(dims, 0, shape, 0, Math.min(3, dims.length));
+		// any memory type other than "image" is allocated as a buffer
+		return dataType.getName() + "/" + ("image".equals(memoryType) ? "image" : "buffer") + Arrays.toString(shape);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ArrayPool[" + deviceName + ", pooled=" + Pointer.formatBytes(pooledBytes) + "]";
+	}
+}
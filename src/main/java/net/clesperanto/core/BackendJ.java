@@ -1,11 +1,24 @@
 package net.clesperanto.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 
 /**
  * Class that contains the methods to interact and change the type of backend used for Clesperanto.
  */
 public class BackendJ {
 
+	private static final Logger LOGGER = Logger.getLogger(BackendJ.class.getName());
+
+	private static String currentBackend;
+	private static List<DeviceCandidate> candidates;
+
 	/**
 	 * Set the type of backend that Clesperanto is going to use.
 	 * @param backend
@@ -13,6 +26,82 @@ public class BackendJ {
 	 * 	if it is anything else it will be set to "opencl"
 	 */
     public static void setBackend(String backend) {
-    	net.clesperanto._internals.jclic.BackendJ.setBackend(backend);
+    	NativeLoader.loadCore();
+    	String name = backend != null && backend.contains("cuda") ? "cuda" : "opencl";
+    	long start = System.nanoTime();
+    	net.clesperanto._internals.jclic.BackendJ.setBackend(name);
+    	NativeLoader.record(NativeLoader.BACKEND_INIT, System.nanoTime() - start);
+    	if (!name.equals(currentBackend))
+    		LOGGER.fine("Using " + name + " backend");
+    	currentBackend = name;
+    }
+
+    /**
+     *
+     * @return the backend selected with the last call to {@link #setBackend(String)}, or null if none was selected yet
+     */
+    public static String getBackend() {
+    	return currentBackend;
+    }
+
+    /**
+     *
+     * @return the backends ClesperantoJ was compiled with, e.g. "opencl" and "cuda"
+     */
+    public static List<String> getAvailableBackends() {
+    	NativeLoader.loadCore();
+    	return Utils.toArrayList(net.clesperanto._internals.jclic.BackendJ.getAvailableBackends());
+    }
+
+    /**
+     * Enumerate the devices of every available backend and rank them. GPUs are preferred over
+     * other accelerators, and those over CPU OpenCL runtimes such as PoCL.
+     * The result is computed once and cached, use {@link #probe(boolean)} to refresh it.
+     * @return the devices found, best first. Empty if there is no usable device on the computer
+     */
+    public static List<DeviceCandidate> probe() {
+    	return probe(false);
+    }
+
+    /**
+     * Enumerate the devices of every available backend and rank them. GPUs are preferred over
+     * other accelerators, and those over CPU OpenCL runtimes such as PoCL.
+     * The backend that was selected before the call is selected again afterwards.
+     * @param refresh
+     * 	whether to enumerate the devices again instead of returning the cached result
+     * @return the devices found, best first. Empty if there is no usable device on the computer
+     */
+    public static synchronized List<DeviceCandidate> probe(boolean refresh) {
+    	if (candidates != null && !refresh)
+    		return candidates;
+    	String previous = currentBackend;
+    	List<DeviceCandidate> found = new ArrayList<DeviceCandidate>();
+    	List<String> backends = getAvailableBackends();
+    	// OpenCL is the default backend of ClesperantoJ, its devices win when the scores are equal
+    	if (backends.remove("opencl"))
+    		backends.add(0, "opencl");
+    	for (String backend : backends) {
+    		try {
+    			setBackend(backend);
+    			List<String> gpus = DeviceJ.getAvailableDevices("gpu");
+    			Set<String> cpus = new HashSet<String>(DeviceJ.getAvailableDevices("cpu"));
+    			for (String name : DeviceJ.getAvailableDevices("all")) {
+    				DeviceCandidate.Kind kind = gpus.contains(name) ? DeviceCandidate.Kind.GPU
+    						: cpus.contains(name) ? DeviceCandidate.Kind.CPU : DeviceCandidate.Kind.ACCELERATOR;
+    				found.add(new DeviceCandidate(backend, name, kind, found.size()));
+    			}
+    		} catch (RuntimeException ex) {
+    			LOGGER.log(Level.FINE, "Unable to probe the " + backend + " backend", ex);
+    		}
+    	}
+    	Collections.sort(found);
+    	for (DeviceCandidate candidate : found)
+    		LOGGER.fine("Found device " + candidate);
+    	if (found.isEmpty())
+    		LOGGER.warning("No OpenCL or CUDA device found");
+    	if (previous != null && !previous.equals(currentBackend))
+    		setBackend(previous);
+    	candidates = Collections.unmodifiableList(found);
+    	return candidates;
     }
 }
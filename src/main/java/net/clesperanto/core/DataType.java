@@ -11,37 +11,44 @@ public enum DataType {
     FLOAT32("float", 4, float.class, ByteBuffer::asFloatBuffer,
             (array, buffer, offset) -> MemoryJ.readFloatBuffer(array, (FloatBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeFloatBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeFloatBuffer(array, (float[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeFloatBuffer(array, (float[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeFloatBuffer(array, (FloatBuffer)buffer, offset)
             ),
     INT32("int", 4, int.class, ByteBuffer::asIntBuffer,
             (array, buffer, offset) -> MemoryJ.readIntBuffer(array, (IntBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeIntBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeIntBuffer(array, (int[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeIntBuffer(array, (int[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeIntBuffer(array, (IntBuffer)buffer, offset)
             ),
     UINT32("uint", 4, int.class, ByteBuffer::asIntBuffer,
             (array, buffer, offset) -> MemoryJ.readUIntBuffer(array, (IntBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeUIntBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeUIntBuffer(array, (int[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeUIntBuffer(array, (int[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeUIntBuffer(array, (IntBuffer)buffer, offset)
             ),
     INT16("short", 2, short.class, ByteBuffer::asShortBuffer,
             (array, buffer, offset) -> MemoryJ.readShortBuffer(array, (ShortBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeShortBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeShortBuffer(array, (short[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeShortBuffer(array, (short[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeShortBuffer(array, (ShortBuffer)buffer, offset)
             ),
     UINT16("ushort", 2, short.class, ByteBuffer::asShortBuffer,
             (array, buffer, offset) -> MemoryJ.readUShortBuffer(array, (ShortBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeUShortBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeUShortBuffer(array, (short[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeUShortBuffer(array, (short[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeUShortBuffer(array, (ShortBuffer)buffer, offset)
             ),
     INT8("char", 1, byte.class, b -> b,
             (array, buffer, offset) -> MemoryJ.readByteBuffer(array, (ByteBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeByteBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeByteBuffer(array, (byte[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeByteBuffer(array, (byte[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeByteBuffer(array, (ByteBuffer)buffer, offset)
             ),
     UINT8("uchar", 1, byte.class, b -> b,
             (array, buffer, offset) -> MemoryJ.readUByteBuffer(array, (ByteBuffer)buffer, offset),
             (device, dims, memType) -> MemoryJ.makeUByteBuffer(device, dims, memType),
-            (array, buffer, offset) -> MemoryJ.writeUByteBuffer(array, (byte[])buffer, offset)
+            (array, buffer, offset) -> MemoryJ.writeUByteBuffer(array, (byte[])buffer, offset),
+            (array, buffer, offset) -> MemoryJ.writeUByteBuffer(array, (ByteBuffer)buffer, offset)
             );
 
     private final String name;
@@ -49,16 +56,19 @@ public enum DataType {
     private final Class<?> arrayClass;
     private final MemoryReadFunction readFunction;
     private final MemoryWriteFunction writeFunction;
+    private final MemoryBufferWriteFunction bufferWriteFunction;
     private final MemoryMakeFunction makeFunction;
     private final Function<ByteBuffer, Buffer> bufferConverter;
 
     DataType(String name, int byteSize, Class<?> arrayClass, Function<ByteBuffer, Buffer> bufferConverter,
-    		 MemoryReadFunction readFunction, MemoryMakeFunction makeFunction, MemoryWriteFunction writeFunction) {
+    		 MemoryReadFunction readFunction, MemoryMakeFunction makeFunction, MemoryWriteFunction writeFunction,
+    		 MemoryBufferWriteFunction bufferWriteFunction) {
         this.name = name;
         this.byteSize = byteSize;
         this.arrayClass = arrayClass;
         this.readFunction = readFunction;
         this.writeFunction = writeFunction;
+        this.bufferWriteFunction = bufferWriteFunction;
         this.makeFunction = makeFunction;
         this.bufferConverter = bufferConverter;
     }
@@ -89,7 +99,7 @@ public enum DataType {
     }
 
     public void writeToBuffer(ArrayJ arrayj, ByteBuffer buffer) {
-    	this.writeFunction.write(arrayj, bufferConverter.apply(buffer), 0);
+    	this.bufferWriteFunction.write(arrayj, bufferConverter.apply(buffer), 0);
     }
 
     public ArrayJ makeEmptyArrayJ(DeviceJ device, long[] dims, String memoryType) {
@@ -103,6 +113,10 @@ public enum DataType {
 
     }
 
+    public void writeArray(ArrayJ arrayj, Object buffer) {
+    	this.writeFunction.write(arrayj, buffer, 0);
+    }
+
     @FunctionalInterface
     private interface MemoryReadFunction {
         void read(ArrayJ array, Buffer buffer, long offset);
@@ -113,6 +127,11 @@ public enum DataType {
         void write(ArrayJ array, Object buffer, long offset);
     }
 
+    @FunctionalInterface
+    private interface MemoryBufferWriteFunction {
+        void write(ArrayJ array, Buffer buffer, long offset);
+    }
+
     @FunctionalInterface
     private interface MemoryMakeFunction {
         ArrayJ make(DeviceJ device, long[] dims, String memoryType);
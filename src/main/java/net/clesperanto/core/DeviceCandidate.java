@@ -0,0 +1,96 @@
+package net.clesperanto.core;
+
+/**
+ * Device found by {@link BackendJ#probe()}, together with the backend it belongs to
+ * and the score used to rank it against the other devices of the computer.
+ */
+public class DeviceCandidate implements Comparable<DeviceCandidate> {
+
+	/**
+	 * Kind of hardware of a device. Devices are preferred in the order GPU, accelerator, CPU.
+	 */
+	public enum Kind {
+		GPU(300), ACCELERATOR(200), CPU(100);
+
+		private final int score;
+
+		Kind(int score) {
+			this.score = score;
+		}
+
+		/**
+		 *
+		 * @return the score of the kind of device, higher is better
+		 */
+		public int getScore() {
+			return score;
+		}
+	}
+
+	private final String backend;
+	private final String name;
+	private final Kind kind;
+	private final int index;
+
+	DeviceCandidate(String backend, String name, Kind kind, int index) {
+		this.backend = backend;
+		this.name = name;
+		this.kind = kind;
+		this.index = index;
+	}
+
+	/**
+	 *
+	 * @return the backend (opencl, cuda) where the device was found
+	 */
+	public String getBackend() {
+		return backend;
+	}
+
+	/**
+	 *
+	 * @return the name of the device
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 *
+	 * @return the kind of hardware of the device
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 *
+	 * @return the score of the device, higher is better
+	 */
+	public int getScore() {
+		return kind.getScore();
+	}
+
+	/**
+	 * Create the {@link DeviceJ} that corresponds to this candidate, selecting its backend first
+	 * @return the device ready to be used
+	 */
+	public DeviceJ open() {
+		return DeviceJ.getDevice(name, "all", backend);
+	}
+
+	/**
+	 * Sort by descending score, keeping the order in which the devices were found for equal scores
+	 */
+	@Override
+	public int compareTo(DeviceCandidate other) {
+		if (getScore() != other.getScore())
+			return Integer.compare(other.getScore(), getScore());
+		return Integer.compare(index, other.index);
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + backend + ", " + kind.name().toLowerCase() + ", score=" + getScore() + ")";
+	}
+}
@@ -0,0 +1,52 @@
+package net.clesperanto.core;
+
+/**
+ * Point in the queue of a device, returned by {@link DeviceJ#enqueueBarrier()}, or transfer of a
+ * {@link TransferQueue}. It is complete once every operation enqueued before it, or the transfer, has finished.
+ */
+public class DeviceEvent {
+
+	private final net.clesperanto._internals.jclic.EventJ eventj;
+
+	DeviceEvent(net.clesperanto._internals.jclic.EventJ eventj) {
+		this.eventj = eventj;
+	}
+
+	/**
+	 *
+	 * @return whether every operation enqueued before the event has finished
+	 */
+	public boolean isComplete() {
+		return eventj.isComplete();
+	}
+
+	/**
+	 * Block until every operation enqueued before the event has finished
+	 */
+	public void await() {
+		eventj.waitFor();
+	}
+
+	/**
+	 * Make the operations enqueued on a device after this call wait for the event, without blocking the host.
+	 * On backends without events the host waits for the event instead.
+	 * @param device
+	 * 	the device whose queue has to wait
+	 */
+	public void enqueueWait(DeviceJ device) {
+		eventj.enqueueWait(device.getRaw());
+	}
+
+	/**
+	 *
+	 * @return the raw object that is going to be sent to the native Clesperanto library. Without Java wrappers
+	 */
+	public net.clesperanto._internals.jclic.EventJ getRaw() {
+		return eventj;
+	}
+
+	@Override
+	public String toString() {
+		return "DeviceEvent[" + (isComplete() ? "complete" : "pending") + "]";
+	}
+}
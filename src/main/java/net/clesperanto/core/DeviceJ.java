@@ -3,6 +3,13 @@ package net.clesperanto.core;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import net.clesperanto._internals.jclic.StringVector;
 
@@ -11,8 +18,20 @@ import net.clesperanto._internals.jclic.StringVector;
  */
 public class DeviceJ {
 
+	private static final Logger LOGGER = Logger.getLogger(DeviceJ.class.getName());
+
+	/** one lock per device, see {@link #getLock()} */
+	private static final ConcurrentHashMap<String, Object> LOCKS = new ConcurrentHashMap<String, Object>();
+
 	protected net.clesperanto._internals.jclic.DeviceJ jcppDeviceJ;
 
+	private volatile boolean profiling = false;
+	private final List<ProfilingListener> profilingListeners = new CopyOnWriteArrayList<ProfilingListener>();
+	/** tracker of the device while the current thread runs a batch, see {@link #executeBatch(String, int, IntFunction)} */
+	private final ThreadLocal<MemoryTracker> batchTracker = new ThreadLocal<MemoryTracker>();
+	/** calls recorded while the current thread captures an {@link ExecutionPlan}, null otherwise */
+	private final ThreadLocal<List<ExecutionPlan.Call>> recording = new ThreadLocal<List<ExecutionPlan.Call>>();
+
 	/**
 	 * Constructor that initializes the default device
 	 * IMPORTANT: Does not initialize the backend.
@@ -20,7 +39,10 @@ public class DeviceJ {
 	 *
 	 */
 	protected DeviceJ() {
+		NativeLoader.loadCore();
+		long start = System.nanoTime();
 		jcppDeviceJ = new net.clesperanto._internals.jclic.DeviceJ();
+		NativeLoader.record(NativeLoader.DEVICE_INIT, System.nanoTime() - start);
 	}
 
 	/**
@@ -37,32 +59,62 @@ public class DeviceJ {
 	protected DeviceJ(String deviceName, String deviceType) {
 		Objects.requireNonNull(deviceName, "The device name cannot be null");
 		Objects.requireNonNull(deviceType, "The device type cannot be null, if any device type works, use \"all\"");
+		NativeLoader.loadCore();
+		long start = System.nanoTime();
 		jcppDeviceJ = new net.clesperanto._internals.jclic.DeviceJ();
 		jcppDeviceJ.setDevice(deviceName, deviceType);
+		NativeLoader.record(NativeLoader.DEVICE_INIT, System.nanoTime() - start);
 	}
 
 	/**
-	 * Get the first device available. By default this method tries to use an OpenCL backend.
-	 * If not OpenCL backend is available the method will fail.
+	 * Get the best device available, see {@link #getBestDevice()}.
 	 * @return the default device where Clesperanto operations can be done.
 	 */
 	public static DeviceJ getDefaultDevice() {
-		BackendJ.setBackend("");
-		return new DeviceJ();
+		return getBestDevice();
 	}
 
 	/**
 	 * Get the first device available and select the wanted backend.
-	 * If the wanted backend is not available, the method will fall back to OpenCL.
-	 * And if OpenCL is not available either the method will fail.
+	 * If the wanted backend is not available or has no device, the method will fall back
+	 * to the best device of any backend, see {@link #getBestDevice()}.
 	 * @param backend
 	 * 	the type of backend that wants to be used. It should be either "cuda" or "opencl",
 	 * 	if it is anything else it will be set to "opencl"
 	 * @return the default device where Clesperanto operations can be done.
 	 */
 	public static DeviceJ getDefaultDevice(String backend) {
-		BackendJ.setBackend(backend);
-		return new DeviceJ();
+		if (hasDevices(backend))
+			return new DeviceJ();
+		LOGGER.warning("No device available for the " + BackendJ.getBackend() + " backend, falling back to the best device available");
+		return getBestDevice();
+	}
+
+	/**
+	 * Get the best device of the computer among every backend, as ranked by {@link BackendJ#probe()}:
+	 * GPUs first, then other accelerators and finally CPU OpenCL runtimes such as PoCL.
+	 * The backend of the device is selected.
+	 * @return the best device where Clesperanto operations can be done.
+	 * @throws RuntimeException if there is no device available on the computer
+	 */
+	public static DeviceJ getBestDevice() {
+		List<DeviceCandidate> candidates = BackendJ.probe();
+		if (candidates.isEmpty())
+			throw new RuntimeException("No OpenCL or CUDA device available on this computer");
+		DeviceCandidate best = candidates.get(0);
+		LOGGER.fine("Selected device " + best);
+		BackendJ.setBackend(best.getBackend());
+		return new DeviceJ(best.getName(), "all");
+	}
+
+	private static boolean hasDevices(String backend) {
+		try {
+			BackendJ.setBackend(backend);
+			return !getAvailableDevices().isEmpty();
+		} catch (RuntimeException ex) {
+			LOGGER.log(Level.FINE, "Unable to use the " + backend + " backend", ex);
+			return false;
+		}
 	}
 
 	/**
@@ -84,8 +136,8 @@ public class DeviceJ {
 
 	/**
 	 * Get the wanted device by its name and device type. Initialize the device with
-	 * the wanted backend. If the backend is not available it will fallback to OpenCl backend.
-	 * If OpenCL backend is not available the method will fail.
+	 * the wanted backend. If the backend is not available or has no device, it will fall back
+	 * to the best device of any backend, see {@link #getBestDevice()}.
 	 *
 	 * TODO provide a better explanation of what deviceName is and what device type is
 	 *
@@ -99,7 +151,10 @@ public class DeviceJ {
 	 * @return the wanted device where Clesperanto operations can be done.
 	 */
 	public static DeviceJ getDevice(String deviceName, String deviceType, String backend) {
-		BackendJ.setBackend(backend);
+		if (!hasDevices(backend)) {
+			LOGGER.warning("No device available for the " + BackendJ.getBackend() + " backend, falling back to the best device available");
+			return getBestDevice();
+		}
 		return new DeviceJ(deviceName, deviceType);
 	}
 
@@ -181,6 +236,271 @@ public class DeviceJ {
 		return info.substring(1, ind).toLowerCase();
 	}
 
+	/**
+	 * Block until every operation enqueued on the device has finished
+	 */
+	public void finish() {
+		jcppDeviceJ.finish();
+	}
+
+	/**
+	 * Submit the operations enqueued so far to the device without waiting for them,
+	 * so that the device works while the host prepares the next ones
+	 */
+	public void flush() {
+		jcppDeviceJ.flush();
+	}
+
+	/**
+	 * Get the lock of the device, for the code that issues work to the device from several threads.
+	 * The queue of the device is in order but the native calls that fill it are not meant to be interleaved,
+	 * so such code holds the lock around its calls.
+	 * @return the lock shared by all the {@link DeviceJ} objects that point to the same device
+	 */
+	public Object getLock() {
+		return LOCKS.computeIfAbsent(getName(), name -> new Object());
+	}
+
+	/**
+	 * Enqueue a barrier: the operations enqueued after it only start once the ones enqueued before have finished.
+	 * The returned event tells when the barrier is reached, so the host can wait for part of the work only.
+	 * On backends without events the barrier waits for the device to finish before returning.
+	 * @return the event of the barrier
+	 */
+	public DeviceEvent enqueueBarrier() {
+		return new DeviceEvent(net.clesperanto._internals.jclic.EventJ.enqueueBarrier(jcppDeviceJ));
+	}
+
+	/**
+	 * Enable or disable the non-blocking mode of the device.
+	 * By default every kernel call waits for the device to finish before returning. In non-blocking mode
+	 * the {@code Tier} methods only enqueue their kernels and return, and the host only waits for the device
+	 * when it reads data back: when an array is pulled, or when a method returns a value such as
+	 * {@code Tier2.sumOfAllPixels}. Use {@link #flush()}, {@link #finish()} and {@link #enqueueBarrier()}
+	 * to control the queue explicitly. Errors of a kernel may then only be reported by a later call.
+	 *
+	 * The mode is a setting of the native device, shared by all the {@link DeviceJ} objects that point to it.
+	 * @param nonBlocking
+	 * 	whether the kernel calls return without waiting for the device
+	 */
+	public void setNonBlocking(boolean nonBlocking) {
+		jcppDeviceJ.setWaitToFinish(!nonBlocking);
+	}
+
+	/**
+	 *
+	 * @return whether the kernel calls return without waiting for the device, see {@link #setNonBlocking(boolean)}.
+	 * 	The mode is read from the native device, so it reflects changes made through any {@link DeviceJ} object.
+	 */
+	public boolean isNonBlocking() {
+		return !jcppDeviceJ.getWaitToFinish();
+	}
+
+	/**
+	 * Enable or disable the profiling of the operations executed on this device.
+	 * While profiling, every kernel call and memory transfer is timed on the host and reported to the
+	 * {@link ProfilingListener}s as an {@link OperationEvent}. The kernel calls are made in non-blocking mode
+	 * and the device is synchronized after each operation, so that the call time of an event is the time spent
+	 * on the host and its wait time the time spent on the device. Profiling slows the execution down.
+	 * @param profiling
+	 * 	whether to profile the operations
+	 */
+	public void setProfiling(boolean profiling) {
+		this.profiling = profiling;
+	}
+
+	/**
+	 *
+	 * @return whether the operations executed on this device are being profiled
+	 */
+	public boolean isProfiling() {
+		return profiling;
+	}
+
+	/**
+	 * Add a listener that receives the timings of every operation while profiling is enabled
+	 * @param listener
+	 * 	the listener to add
+	 */
+	public void addProfilingListener(ProfilingListener listener) {
+		profilingListeners.add(Objects.requireNonNull(listener, "listener cannot be null"));
+	}
+
+	/**
+	 * Remove a listener previously added with {@link #addProfilingListener(ProfilingListener)}
+	 * @param listener
+	 * 	the listener to remove
+	 */
+	public void removeProfilingListener(ProfilingListener listener) {
+		profilingListeners.remove(listener);
+	}
+
+	/**
+	 * Execute a kernel call on this device. All the {@code Tier} methods go through this method,
+	 * which profiles the call when needed and applies the {@link OutOfMemoryPolicy} of the device
+	 * if the outputs of the kernel cannot be allocated.
+	 * @param <T>
+	 * 	the type returned by the kernel
+	 * @param name
+	 * 	the name of the kernel, e.g. "Tier2.topHatBox"
+	 * @param call
+	 * 	the native call
+	 * @return the result of the call
+	 */
+	public <T> T execute(String name, Supplier<T> call) {
+		T result = run(name, call);
+		List<ExecutionPlan.Call> calls = recording.get();
+		if (calls != null)
+			calls.add(new ExecutionPlan.Call(name, call, result));
+		return result;
+	}
+
+	/**
+	 * Execute a kernel call that writes into an output array on this device, like {@link #execute(String, Supplier)}.
+	 * The {@code Tier} methods that return an array go through this method, which keeps the native call apart from
+	 * its Java wrapper so that an {@link ExecutionPlan} can replay it on the array of the capture.
+	 * @param name
+	 * 	the name of the kernel, e.g. "Tier2.topHatBox"
+	 * @param output
+	 * 	the output array, null to let the kernel allocate it
+	 * @param call
+	 * 	the native call, given the native output array or null
+	 * @return the output, or the array allocated by the kernel
+	 */
+	public ArrayJ execute(String name, ArrayJ output, UnaryOperator<net.clesperanto._internals.jclic.ArrayJ> call) {
+		net.clesperanto._internals.jclic.ArrayJ raw = run(name, () -> call.apply(output == null ? null : output.getRaw()));
+		ArrayJ result = output != null && raw.getId() == output.getRaw().getId() ? output : new ArrayJ(raw, this);
+		List<ExecutionPlan.Call> calls = recording.get();
+		if (calls != null)
+			calls.add(new ExecutionPlan.Call(name, call, result, output == null));
+		return result;
+	}
+
+	private <T> T run(String name, Supplier<T> call) {
+		MemoryTracker batch = batchTracker.get();
+		if (batch != null)
+			return batch.withRecovery(call);
+		MemoryTracker tracker = MemoryTracker.forDevice(this);
+		if (!profiling)
+			return tracker.withRecovery(call);
+		// the call only enqueues the kernel, so that the device time is measured by the wait
+		boolean waitToFinish = jcppDeviceJ.getWaitToFinish();
+		jcppDeviceJ.setWaitToFinish(false);
+		long start = System.nanoTime();
+		T result;
+		try {
+			result = tracker.withRecovery(call);
+		} finally {
+			jcppDeviceJ.setWaitToFinish(waitToFinish);
+		}
+		long returned = System.nanoTime();
+		finish();
+		fireEvent(new OperationEvent(name, OperationEvent.Kind.KERNEL, getName(), start, returned, System.nanoTime()));
+		return result;
+	}
+
+	/**
+	 * Execute a memory transfer between the host and this device, profiling it when needed
+	 * @param name
+	 * 	the name of the transfer, e.g. "MemoryJ.readFloatBuffer"
+	 * @param call
+	 * 	the native call
+	 */
+	public void transfer(String name, Runnable call) {
+		List<ExecutionPlan.Call> calls = recording.get();
+		if (calls != null)
+			calls.add(new ExecutionPlan.Call(name, () -> {
+				call.run();
+				return null;
+			}, null));
+		if (!profiling || batchTracker.get() != null) {
+			call.run();
+			return;
+		}
+		long start = System.nanoTime();
+		call.run();
+		long returned = System.nanoTime();
+		finish();
+		fireEvent(new OperationEvent(name, OperationEvent.Kind.TRANSFER, getName(), start, returned, System.nanoTime()));
+	}
+
+	/**
+	 * Execute the same operation, or the same sequence of operations, on many arrays back to back.
+	 * The device is switched to the non-blocking mode for the duration of the batch, so the kernel calls
+	 * are only enqueued and the host waits for the device once, at the end of the batch, instead of after
+	 * every call. The previous mode is restored afterwards: in the default blocking mode the results are
+	 * complete when the method returns. While profiling, the whole batch is reported as a single
+	 * {@link OperationEvent} named "name[count]". The per-call lookups of the device state are done once
+	 * for the batch. The methods of {@code net.clesperanto.kernels.Batch} go through this method.
+	 *
+	 * The mode is a setting of the native device, so the calls made by other threads on the same device
+	 * during the batch do not wait for the device either.
+	 * @param <T>
+	 * 	the type returned by each call
+	 * @param name
+	 * 	the name of the batch, e.g. "Tier2.topHatBox"
+	 * @param count
+	 * 	the number of calls of the batch
+	 * @param call
+	 * 	the call for each index of the batch
+	 * @return the results of the calls, in order
+	 */
+	public <T> List<T> executeBatch(String name, int count, IntFunction<T> call) {
+		MemoryTracker outer = batchTracker.get();
+		List<T> results = new ArrayList<T>(count);
+		if (outer != null) {
+			// nested batch, the outermost one waits for the device
+			for (int i = 0; i < count; i++)
+				results.add(call.apply(i));
+			return results;
+		}
+		boolean waitToFinish = jcppDeviceJ.getWaitToFinish();
+		long start = System.nanoTime();
+		batchTracker.set(MemoryTracker.forDevice(this));
+		jcppDeviceJ.setWaitToFinish(false);
+		try {
+			for (int i = 0; i < count; i++)
+				results.add(call.apply(i));
+		} finally {
+			batchTracker.remove();
+			jcppDeviceJ.setWaitToFinish(waitToFinish);
+		}
+		if (profiling) {
+			long returned = System.nanoTime();
+			finish();
+			fireEvent(new OperationEvent(name + "[" + count + "]", OperationEvent.Kind.KERNEL, getName(), start, returned, System.nanoTime()));
+		} else if (waitToFinish) {
+			finish();
+		}
+		return results;
+	}
+
+	/**
+	 * Start or stop recording the calls made on this device by the current thread
+	 * @param calls
+	 * 	the list where the calls are recorded, null to stop recording
+	 */
+	void setRecording(List<ExecutionPlan.Call> calls) {
+		if (calls == null)
+			recording.remove();
+		else
+			recording.set(calls);
+	}
+
+	private void fireEvent(OperationEvent event) {
+		for (ProfilingListener listener : profilingListeners)
+			listener.onEvent(event);
+	}
+
+	/**
+	 *
+	 * @return the {@link MemoryTracker} that accounts for the memory allocated on this device
+	 * 	and enforces its quotas
+	 */
+	public MemoryTracker getMemoryTracker() {
+		return MemoryTracker.forDevice(this);
+	}
+
     /**
      *
      * @return the raw object that is going to be sent to the native Clesperanto library. Without Java wrappers
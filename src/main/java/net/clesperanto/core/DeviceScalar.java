@@ -0,0 +1,298 @@
+package net.clesperanto.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Single value computed on the device and kept there, such as the maximum of an image.
+ *
+ * The methods of {@code Tier2} or {@code Tier3} that return a {@code float} wait for the device to finish
+ * and copy the value to the host. A {@link DeviceScalar} is only copied to the host when {@link #get()} is called,
+ * and it can be given to the kernels of this class directly, so a normalization does not need a round trip through
+ * the host. Like every kernel call, the reductions wait for the device in the default blocking mode; in
+ * non-blocking mode, see {@link DeviceJ#setNonBlocking(boolean)}, they are only enqueued and the host does not
+ * wait before {@link #get()}:
+ *
+ * <pre>
+ * DeviceScalar max = DeviceScalar.maximumOfAllPixels(device, input);
+ * ArrayJ normalized = max.divideImageByScalar(device, input, null);
+ * </pre>
+ *
+ * The reductions are done in several passes: every work item of the first pass reduces {@value #FAN_IN} consecutive
+ * pixels of a row, so that the first pass is spread over the whole image and not only its rows, then the partial
+ * results are reduced as a tree, each work item reducing {@value #FAN_IN} values of the previous pass, until a
+ * single value is left. The value is stored as a float in a 1x1x1 buffer.
+ */
+public class DeviceScalar {
+
+	/** number of pixels, or of partial results, reduced by one work item */
+	private static final int FAN_IN = 64;
+
+	private enum Reduction {
+		SUM("0.0f", "acc + v", "acc + v", "acc"),
+		MAXIMUM("-INFINITY", "fmax(acc, v)", "fmax(acc, v)", "acc"),
+		MINIMUM("INFINITY", "fmin(acc, v)", "fmin(acc, v)", "acc"),
+		MEAN("0.0f", "acc + v", "acc + v", "acc / count"),
+		MEAN_SQUARED_ERROR("0.0f", "acc + v * v", "acc + v", "acc / count");
+
+		private final String init;
+		/** accumulation of a pixel in the first pass */
+		private final String pixel;
+		/** accumulation of a partial result in the following passes */
+		private final String partial;
+		private final String result;
+
+		private Reduction(String init, String pixel, String partial, String result) {
+			this.init = init;
+			this.pixel = pixel;
+			this.partial = partial;
+			this.result = result;
+		}
+
+		private String kernelName() {
+			return "reduce_" + name().toLowerCase();
+		}
+
+		/**
+		 * first pass, one work item per FAN_IN pixels of a row, the partial results are stored x varying the fastest,
+		 * "src1" is only read by the mean squared error
+		 */
+		private String pixelSource() {
+			boolean pair = this == MEAN_SQUARED_ERROR;
+			return Utils.KERNEL_PREAMBLE
+					+ "__kernel void " + kernelName() + "(\n"
+					+ "    IMAGE_src0_TYPE  src0,\n"
+					+ (pair ? "    IMAGE_src1_TYPE  src1,\n" : "")
+					+ "    IMAGE_dst_TYPE  dst,\n"
+					+ "    const float width,\n"
+					+ "    const float rows,\n"
+					+ "    const float chunks\n"
+					+ ")\n{\n"
+					+ "  const int i = get_global_id(0);\n"
+					+ "  const int y = get_global_id(1);\n"
+					+ "  const int z = get_global_id(2);\n"
+					+ "  const int end = min((i + 1) * " + FAN_IN + ", (int) width);\n\n"
+					+ "  float acc = " + init + ";\n"
+					+ "  for (int x = i * " + FAN_IN + "; x < end; x++) {\n"
+					+ "    float v = (float) READ_IMAGE(src0, sampler, POS_src0_INSTANCE(x,y,z,0)).x;\n"
+					+ (pair ? "    v = v - (float) READ_IMAGE(src1, sampler, POS_src1_INSTANCE(x,y,z,0)).x;\n" : "")
+					+ "    acc = " + pixel + ";\n"
+					+ "  }\n"
+					+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(i + (int) chunks * (y + z * (int) rows),0,0,0), CONVERT_dst_PIXEL_TYPE(acc));\n"
+					+ "}\n";
+		}
+
+		/** following passes, each work item reduces FAN_IN partial results, the last pass computes the result */
+		private String treeSource() {
+			return Utils.KERNEL_PREAMBLE
+					+ "__kernel void " + kernelName() + "_tree(\n"
+					+ "    IMAGE_src_TYPE  src,\n"
+					+ "    IMAGE_dst_TYPE  dst,\n"
+					+ "    const float length,\n"
+					+ "    const float last,\n"
+					+ "    const float count\n"
+					+ ")\n{\n"
+					+ "  const int i = get_global_id(0);\n"
+					+ "  const int end = min((i + 1) * " + FAN_IN + ", (int) length);\n\n"
+					+ "  float acc = " + init + ";\n"
+					+ "  for (int j = i * " + FAN_IN + "; j < end; j++) {\n"
+					+ "    float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(j,0,0,0)).x;\n"
+					+ "    acc = " + partial + ";\n"
+					+ "  }\n"
+					+ "  if (last != 0) {\n"
+					+ "    acc = " + result + ";\n"
+					+ "  }\n"
+					+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(i,0,0,0), CONVERT_dst_PIXEL_TYPE(acc));\n"
+					+ "}\n";
+		}
+	}
+
+	private static final String APPLY_KERNEL_NAME = "apply_device_scalar";
+
+	private final DeviceJ device;
+	private final ArrayJ array;
+	private Float value;
+
+	private DeviceScalar(DeviceJ device, ArrayJ array) {
+		this.device = device;
+		this.array = array;
+	}
+
+	/**
+	 * Wrap a 1x1x1 float array that already holds a value on the device
+	 * @param array
+	 * 	the array
+	 * @return the scalar stored in the array, which keeps using the array
+	 * @throws IllegalArgumentException if the array is not a single float
+	 */
+	public static DeviceScalar wrap(ArrayJ array) {
+		Objects.requireNonNull(array, "array cannot be null");
+		if (array.getSizeInBytes() != 4 || DataType.fromString(array.getDataType()) != DataType.FLOAT32)
+			throw new IllegalArgumentException("A device scalar is a single float, not " + array);
+		return new DeviceScalar(array.getDevice(), array);
+	}
+
+	/** See {@code Tier2.sumOfAllPixels} */
+	public static DeviceScalar sumOfAllPixels(DeviceJ device, ArrayJ input) {
+		return reduce(device, "DeviceScalar.sumOfAllPixels", Reduction.SUM, input, null);
+	}
+
+	/** See {@code Tier2.maximumOfAllPixels} */
+	public static DeviceScalar maximumOfAllPixels(DeviceJ device, ArrayJ input) {
+		return reduce(device, "DeviceScalar.maximumOfAllPixels", Reduction.MAXIMUM, input, null);
+	}
+
+	/** See {@code Tier2.minimumOfAllPixels} */
+	public static DeviceScalar minimumOfAllPixels(DeviceJ device, ArrayJ input) {
+		return reduce(device, "DeviceScalar.minimumOfAllPixels", Reduction.MINIMUM, input, null);
+	}
+
+	/** See {@code Tier3.meanOfAllPixels} */
+	public static DeviceScalar meanOfAllPixels(DeviceJ device, ArrayJ input) {
+		return reduce(device, "DeviceScalar.meanOfAllPixels", Reduction.MEAN, input, null);
+	}
+
+	/** See {@code Tier4.meanSquaredError} */
+	public static DeviceScalar meanSquaredError(DeviceJ device, ArrayJ input0, ArrayJ input1) {
+		Objects.requireNonNull(input1, "input1 cannot be null");
+		if (input0 != null && (input0.getWidth() != input1.getWidth() || input0.getHeight() != input1.getHeight()
+				|| input0.getDepth() != input1.getDepth()))
+			throw new IllegalArgumentException("The images " + input0 + " and " + input1 + " do not have the same dimensions");
+		return reduce(device, "DeviceScalar.meanSquaredError", Reduction.MEAN_SQUARED_ERROR, input0, input1);
+	}
+
+	private static DeviceScalar reduce(DeviceJ device, String name, Reduction reduction, ArrayJ input0, ArrayJ input1) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(input0, "input cannot be null");
+		long rows = Math.max(1, input0.getHeight());
+		long slices = Math.max(1, input0.getDepth());
+		long chunks = (Math.max(1, input0.getWidth()) + FAN_IN - 1) / FAN_IN;
+		long count = Math.max(1, input0.getWidth()) * rows * slices;
+		ArrayJ partial = MemoryJ.makeFloatBuffer(device, new long[] {chunks * rows * slices}, "buffer");
+		ArrayJ result = MemoryJ.makeFloatBuffer(device, new long[] {1}, "buffer");
+		return device.execute(name, () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src0", input0);
+			if (input1 != null)
+				arrays.put("src1", input1);
+			arrays.put("dst", partial);
+			Map<String, Float> scalars = new LinkedHashMap<String, Float>();
+			scalars.put("width", (float) input0.getWidth());
+			scalars.put("rows", (float) rows);
+			scalars.put("chunks", (float) chunks);
+			Utils.executeKernel(device, reduction.kernelName(), reduction.pixelSource(), arrays, scalars,
+					new long[] {chunks, rows, slices});
+
+			ArrayJ src = partial;
+			long length = chunks * rows * slices;
+			do {
+				long groups = (length + FAN_IN - 1) / FAN_IN;
+				ArrayJ dst = groups == 1 ? result : MemoryJ.makeFloatBuffer(device, new long[] {groups}, "buffer");
+				arrays = new LinkedHashMap<String, ArrayJ>();
+				arrays.put("src", src);
+				arrays.put("dst", dst);
+				scalars = new LinkedHashMap<String, Float>();
+				scalars.put("length", (float) length);
+				scalars.put("last", groups == 1 ? 1f : 0f);
+				scalars.put("count", (float) count);
+				Utils.executeKernel(device, reduction.kernelName() + "_tree", reduction.treeSource(), arrays, scalars,
+						new long[] {groups, 1, 1});
+				src = dst;
+				length = groups;
+			} while (length > 1);
+			return new DeviceScalar(device, result);
+		});
+	}
+
+	/** See {@code Tier1.addImageAndScalar} */
+	public ArrayJ addImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output) {
+		return apply(device, "DeviceScalar.addImageAndScalar", "v + s", input, output);
+	}
+
+	/** Subtract the scalar from every pixel of the image */
+	public ArrayJ subtractScalarFromImage(DeviceJ device, ArrayJ input, ArrayJ output) {
+		return apply(device, "DeviceScalar.subtractScalarFromImage", "v - s", input, output);
+	}
+
+	/** See {@code Tier1.multiplyImageAndScalar} */
+	public ArrayJ multiplyImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output) {
+		return apply(device, "DeviceScalar.multiplyImageAndScalar", "v * s", input, output);
+	}
+
+	/** Divide every pixel of the image by the scalar, e.g. to normalize it by its maximum */
+	public ArrayJ divideImageByScalar(DeviceJ device, ArrayJ input, ArrayJ output) {
+		return apply(device, "DeviceScalar.divideImageByScalar", "v / s", input, output);
+	}
+
+	private ArrayJ apply(DeviceJ device, String name, String expression, ArrayJ input, ArrayJ output) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(input, "input cannot be null");
+		ArrayJ dst = output != null ? output : DataType.FLOAT32.makeEmptyArrayJ(device, input.getDimensions(), input.getMemoryType());
+		String kernelName = APPLY_KERNEL_NAME + "_" + name.substring(name.indexOf('.') + 1);
+		String source = Utils.KERNEL_PREAMBLE
+				+ "__kernel void " + kernelName + "(\n"
+				+ "    IMAGE_src_TYPE  src,\n"
+				+ "    IMAGE_scalar_TYPE  scalar,\n"
+				+ "    IMAGE_dst_TYPE  dst\n"
+				+ ")\n{\n"
+				+ "  const int x = get_global_id(0);\n"
+				+ "  const int y = get_global_id(1);\n"
+				+ "  const int z = get_global_id(2);\n\n"
+				+ "  const float s = READ_IMAGE(scalar, sampler, POS_scalar_INSTANCE(0,0,0,0)).x;\n"
+				+ "  const float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,z,0)).x;\n"
+				+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(x,y,z,0), CONVERT_dst_PIXEL_TYPE(" + expression + "));\n"
+				+ "}\n";
+		return device.execute(name, () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", input);
+			arrays.put("scalar", array);
+			arrays.put("dst", dst);
+			Utils.executeKernel(device, kernelName, source, arrays, Collections.<String, Float>emptyMap(), dst.getDimensions());
+			return dst;
+		});
+	}
+
+	/**
+	 * Read the value, waiting for the device to compute it. The value is only copied to the host once.
+	 * @return the value of the scalar
+	 */
+	public synchronized float get() {
+		if (value == null) {
+			float[] data = new float[1];
+			MemoryJ.readFloatBuffer(array, data, 1);
+			value = data[0];
+		}
+		return value;
+	}
+
+	/**
+	 *
+	 * @return whether the value has already been copied to the host
+	 */
+	public synchronized boolean isRead() {
+		return value != null;
+	}
+
+	/**
+	 *
+	 * @return the 1x1x1 float array that holds the value on the device
+	 */
+	public ArrayJ getArray() {
+		return array;
+	}
+
+	/**
+	 *
+	 * @return the device where the value is kept
+	 */
+	public DeviceJ getDevice() {
+		return device;
+	}
+
+	@Override
+	public String toString() {
+		return "DeviceScalar[" + (isRead() ? String.valueOf(value) : "not read") + "]";
+	}
+}
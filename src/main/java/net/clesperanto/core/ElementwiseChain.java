@@ -0,0 +1,298 @@
+package net.clesperanto.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chain of pointwise operations of {@code Tier1} executed as a single kernel.
+ *
+ * Each pointwise operation reads and writes the whole image from the device memory, which is what
+ * limits their speed. A chain is compiled into one OpenCL kernel that reads every pixel once, applies
+ * all the operations in registers and writes the result once:
+ *
+ * <pre>
+ * ArrayJ mask = ElementwiseChain.start()
+ * 		.addImageAndScalar(1).multiplyImageAndScalar(2).absolute().power(2).greaterConstant(5)
+ * 		.execute(device, input, null);
+ * </pre>
+ *
+ * The intermediate values are computed in float, as the {@code Tier1} operations do. The source of the kernel
+ * only depends on the sequence of operations, the scalars are kernel arguments, so the kernel is generated
+ * and compiled once per sequence and reused with any scalar.
+ *
+ * Chains are immutable, every method returns a new chain.
+ */
+public class ElementwiseChain {
+
+	private static final String KERNEL_NAME = "fused_elementwise";
+
+	/** kernel sources per signature */
+	private static final Map<String, String> SOURCES = new ConcurrentHashMap<String, String>();
+
+	private static class Step {
+		private final String name;
+		/** OpenCL expression of the step, "v" is the current value and "%1$s" the scalar */
+		private final String expression;
+		private final Float scalar;
+		/** whether the step produces a binary image */
+		private final boolean binary;
+
+		private Step(String name, String expression, Float scalar, boolean binary) {
+			this.name = name;
+			this.expression = expression;
+			this.scalar = scalar;
+			this.binary = binary;
+		}
+	}
+
+	private final List<Step> steps;
+
+	private ElementwiseChain(List<Step> steps) {
+		this.steps = Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 *
+	 * @return an empty chain, which copies its input into its output
+	 */
+	public static ElementwiseChain start() {
+		return new ElementwiseChain(new ArrayList<Step>());
+	}
+
+	private ElementwiseChain with(String name, String expression, Float scalar, boolean binary) {
+		List<Step> next = new ArrayList<Step>(steps);
+		next.add(new Step(name, expression, scalar, binary));
+		return new ElementwiseChain(next);
+	}
+
+	/**
+	 * Append another chain to this one
+	 * @param next
+	 * 	the operations to execute after the ones of this chain
+	 * @return the combined chain
+	 */
+	public ElementwiseChain then(ElementwiseChain next) {
+		List<Step> combined = new ArrayList<Step>(steps);
+		combined.addAll(next.steps);
+		return new ElementwiseChain(combined);
+	}
+
+	/** See {@code Tier1.absolute} */
+	public ElementwiseChain absolute() {
+		return with("absolute", "fabs(v)", null, false);
+	}
+
+	/** See {@code Tier1.addImageAndScalar} */
+	public ElementwiseChain addImageAndScalar(float scalar) {
+		return with("addImageAndScalar", "v + %1$s", scalar, false);
+	}
+
+	/** See {@code Tier1.multiplyImageAndScalar} */
+	public ElementwiseChain multiplyImageAndScalar(float scalar) {
+		return with("multiplyImageAndScalar", "v * %1$s", scalar, false);
+	}
+
+	/** See {@code Tier1.subtractImageFromScalar} */
+	public ElementwiseChain subtractImageFromScalar(float scalar) {
+		return with("subtractImageFromScalar", "%1$s - v", scalar, false);
+	}
+
+	/** See {@code Tier1.divideScalarByImage} */
+	public ElementwiseChain divideScalarByImage(float scalar) {
+		return with("divideScalarByImage", "%1$s / v", scalar, false);
+	}
+
+	/** See {@code Tier1.maximumImageAndScalar} */
+	public ElementwiseChain maximumImageAndScalar(float scalar) {
+		return with("maximumImageAndScalar", "fmax(v, %1$s)", scalar, false);
+	}
+
+	/** See {@code Tier1.minimumImageAndScalar} */
+	public ElementwiseChain minimumImageAndScalar(float scalar) {
+		return with("minimumImageAndScalar", "fmin(v, %1$s)", scalar, false);
+	}
+
+	/** See {@code Tier1.power} */
+	public ElementwiseChain power(float scalar) {
+		return with("power", "pow(v, %1$s)", scalar, false);
+	}
+
+	/** See {@code Tier1.exponential} */
+	public ElementwiseChain exponential() {
+		return with("exponential", "exp(v)", null, false);
+	}
+
+	/** See {@code Tier1.logarithm} */
+	public ElementwiseChain logarithm() {
+		return with("logarithm", "log(v)", null, false);
+	}
+
+	/** See {@code Tier1.squareRoot} */
+	public ElementwiseChain squareRoot() {
+		return with("squareRoot", "sqrt(v)", null, false);
+	}
+
+	/** See {@code Tier1.cubicRoot} */
+	public ElementwiseChain cubicRoot() {
+		return with("cubicRoot", "cbrt(v)", null, false);
+	}
+
+	/** See {@code Tier1.reciprocal} */
+	public ElementwiseChain reciprocal() {
+		return with("reciprocal", "1.0f / v", null, false);
+	}
+
+	/** See {@code Tier1.sign} */
+	public ElementwiseChain sign() {
+		return with("sign", "sign(v)", null, false);
+	}
+
+	/** See {@code Tier1.binaryNot} */
+	public ElementwiseChain binaryNot() {
+		return with("binaryNot", "(v != 0) ? 0.0f : 1.0f", null, true);
+	}
+
+	/** See {@code Tier1.greaterConstant} */
+	public ElementwiseChain greaterConstant(float scalar) {
+		return with("greaterConstant", "(v > %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/** See {@code Tier1.greaterOrEqualConstant} */
+	public ElementwiseChain greaterOrEqualConstant(float scalar) {
+		return with("greaterOrEqualConstant", "(v >= %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/** See {@code Tier1.smallerConstant} */
+	public ElementwiseChain smallerConstant(float scalar) {
+		return with("smallerConstant", "(v < %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/** See {@code Tier1.smallerOrEqualConstant} */
+	public ElementwiseChain smallerOrEqualConstant(float scalar) {
+		return with("smallerOrEqualConstant", "(v <= %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/** See {@code Tier1.equalConstant} */
+	public ElementwiseChain equalConstant(float scalar) {
+		return with("equalConstant", "(v == %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/** See {@code Tier1.notEqualConstant} */
+	public ElementwiseChain notEqualConstant(float scalar) {
+		return with("notEqualConstant", "(v != %1$s) ? 1.0f : 0.0f", scalar, true);
+	}
+
+	/**
+	 *
+	 * @return the number of operations of the chain
+	 */
+	public int size() {
+		return steps.size();
+	}
+
+	/**
+	 *
+	 * @return the sequence of operations of the chain, which identifies its kernel, e.g. "addImageAndScalar>absolute"
+	 */
+	public String getSignature() {
+		StringBuilder sb = new StringBuilder();
+		for (Step step : steps) {
+			if (sb.length() > 0)
+				sb.append('>');
+			sb.append(step.name);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 *
+	 * @return the data type of the output allocated when none is given: uint8 if the last operation
+	 * 	produces a binary image, float otherwise, like the {@code Tier1} operations
+	 */
+	public DataType getOutputType() {
+		return !steps.isEmpty() && steps.get(steps.size() - 1).binary ? DataType.UINT8 : DataType.FLOAT32;
+	}
+
+	/**
+	 *
+	 * @return the OpenCL source of the kernel that executes the chain
+	 */
+	public String getSource() {
+		return SOURCES.computeIfAbsent(getSignature(), signature -> generate());
+	}
+
+	/**
+	 *
+	 * @return the number of different kernels generated so far
+	 */
+	public static int getCachedKernelCount() {
+		return SOURCES.size();
+	}
+
+	private String generate() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(Utils.KERNEL_PREAMBLE);
+		sb.append("__kernel void ").append(KERNEL_NAME).append("(\n");
+		sb.append("    IMAGE_src_TYPE  src,\n");
+		sb.append("    IMAGE_dst_TYPE  dst");
+		int nScalars = 0;
+		for (Step step : steps) {
+			if (step.scalar != null)
+				sb.append(",\n    const float s").append(nScalars++);
+		}
+		sb.append("\n)\n{\n");
+		sb.append("  const int x = get_global_id(0);\n");
+		sb.append("  const int y = get_global_id(1);\n");
+		sb.append("  const int z = get_global_id(2);\n\n");
+		sb.append("  float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,z,0)).x;\n");
+		nScalars = 0;
+		for (Step step : steps) {
+			String scalar = step.scalar == null ? null : "s" + nScalars++;
+			sb.append("  v = ").append(String.format(step.expression, scalar)).append(";\n");
+		}
+		sb.append("  WRITE_IMAGE(dst, POS_dst_INSTANCE(x,y,z,0), CONVERT_dst_PIXEL_TYPE(v));\n");
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Execute the chain in a single pass over the image
+	 * @param device
+	 * 	the device where the operation is executed
+	 * @param input
+	 * 	the input image
+	 * @param output
+	 * 	the output image, with the same dimensions as the input. If null, it is allocated with
+	 * 	the type given by {@link #getOutputType()}
+	 * @return the output image
+	 */
+	public ArrayJ execute(DeviceJ device, ArrayJ input, ArrayJ output) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(input, "input cannot be null");
+		ArrayJ dst = output != null ? output : getOutputType().makeEmptyArrayJ(device, input.getDimensions(), input.getMemoryType());
+		String source = getSource();
+		Map<String, Float> scalars = new LinkedHashMap<String, Float>();
+		for (Step step : steps) {
+			if (step.scalar != null)
+				scalars.put("s" + scalars.size(), step.scalar);
+		}
+		return device.execute("Fusion." + getSignature(), () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", input);
+			arrays.put("dst", dst);
+			Utils.executeKernel(device, KERNEL_NAME, source, arrays, scalars,
+					new long[] {dst.getWidth(), dst.getHeight(), dst.getDepth()});
+			return dst;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "ElementwiseChain[" + getSignature() + "]";
+	}
+}
@@ -0,0 +1,281 @@
+package net.clesperanto.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sequence of kernel calls captured once and replayed on new data, for loops that run the
+ * same operations with the same shapes and parameters on every frame.
+ *
+ * <pre>
+ * try (ExecutionPlan plan = ExecutionPlan.capture(device, Arrays.asList(firstFrame), (d, in) -&gt; {
+ * 	ArrayJ blurred = Tier1.gaussianBlur(d, in.get(0), null, 2, 2, 0);
+ * 	return Arrays.asList(Tier2.topHatBox(d, blurred, null, 10, 10, 0));
+ * })) {
+ * 	for (ArrayJ frame : frames) {
+ * 		ArrayJ result = plan.replay(Arrays.asList(frame)).get(0);
+ * 		...
+ * 	}
+ * }
+ * </pre>
+ *
+ * The workflow is run once while capturing and every kernel call and memory transfer it makes on the
+ * device is recorded, with its arguments already bound to the arrays of the capture. A replay binds the
+ * new inputs to those arrays, without copying, and calls the recorded native functions directly: the
+ * argument checks of the {@code Tier} methods, the per-call device lookups, the Java wrappers of the results
+ * and the Java code of the workflow are skipped. The shapes and types of the new inputs are only checked once
+ * per replay.
+ *
+ * Everything the workflow decides on the host, such as parameters computed from a value read from the device,
+ * is frozen at capture time. The arrays the {@code Tier} calls allocated while capturing belong to the plan and
+ * every replay writes into them again, so a replay does not allocate any array. Calls that do not return a single
+ * array, such as the ones returning lists or values, are run through their {@code Tier} wrapper again.
+ * The scratch arrays the workflow gives back to the {@link ArrayPool} while capturing stay with the plan as
+ * well, so that no other code gets them from the pool while the plan writes into them, until the plan is closed.
+ *
+ * The arrays returned by {@link #replay(List)} belong to the plan and are overwritten by the next replay.
+ * A plan must be replayed from one thread at a time.
+ */
+public class ExecutionPlan implements AutoCloseable {
+
+	/**
+	 * Workflow to capture
+	 */
+	@FunctionalInterface
+	public interface Workflow {
+
+		/**
+		 * Run the workflow
+		 * @param device
+		 * 	the device of the plan
+		 * @param inputs
+		 * 	the input arrays of the plan
+		 * @return the results of the workflow, arrays returned by the kernels called by the workflow
+		 */
+		List<ArrayJ> run(DeviceJ device, List<ArrayJ> inputs);
+	}
+
+	/**
+	 * Kernel call or memory transfer recorded by {@link DeviceJ} while capturing
+	 */
+	static class Call {
+		private final String name;
+		/** the call through its Java wrapper, null for a native call */
+		private final Supplier<?> call;
+		/** the native call, given the native output array, null for the calls through a wrapper */
+		private final UnaryOperator<net.clesperanto._internals.jclic.ArrayJ> nativeCall;
+		/** what the call returned while capturing, the arrays are the ones later calls are bound to */
+		private final Object result;
+		/** whether the result was allocated by the call while capturing, and so belongs to the plan */
+		private final boolean allocated;
+
+		Call(String name, Supplier<?> call, Object result) {
+			this.name = name;
+			this.call = call;
+			this.nativeCall = null;
+			this.result = result;
+			this.allocated = false;
+		}
+
+		Call(String name, UnaryOperator<net.clesperanto._internals.jclic.ArrayJ> nativeCall, ArrayJ result, boolean allocated) {
+			this.name = name;
+			this.call = null;
+			this.nativeCall = nativeCall;
+			this.result = result;
+			this.allocated = allocated;
+		}
+	}
+
+	private final DeviceJ device;
+	private final MemoryTracker tracker;
+	private final List<ArrayJ> inputs;
+	private final List<ArrayJ> results;
+	/**
+	 * arrays sharing the memory allocated by the plan for each result, null for the results that are not allocated
+	 * by a call of the plan
+	 */
+	private final List<ArrayJ> resultMemory;
+	private final List<Call> calls;
+	/** the arrays released to the pool while capturing, given back when the plan is closed */
+	private final List<ArrayJ> pinned;
+	private boolean closed = false;
+
+	private ExecutionPlan(DeviceJ device, List<ArrayJ> inputs, List<ArrayJ> results, List<Call> calls, List<ArrayJ> pinned) {
+		this.device = device;
+		this.tracker = MemoryTracker.forDevice(device);
+		this.inputs = inputs;
+		this.results = Collections.unmodifiableList(results);
+		this.calls = calls;
+		this.pinned = pinned;
+		this.resultMemory = new ArrayList<ArrayJ>();
+		for (ArrayJ result : results)
+			resultMemory.add(isAllocated(result) ? new ArrayJ(result.getRaw(), device) : null);
+	}
+
+	private boolean isAllocated(ArrayJ array) {
+		for (Call call : calls) {
+			if (call.allocated && call.result == array)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Run the workflow once and record the calls it makes on the device
+	 * @param device
+	 * 	the device where the workflow runs
+	 * @param inputs
+	 * 	example inputs, with the shapes and types of the data the plan will be replayed on.
+	 * 	They are not modified, the workflow receives arrays that share their memory
+	 * @param workflow
+	 * 	the workflow
+	 * @return the captured plan
+	 */
+	public static ExecutionPlan capture(DeviceJ device, List<ArrayJ> inputs, Workflow workflow) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(inputs, "inputs cannot be null");
+		Objects.requireNonNull(workflow, "workflow cannot be null");
+		List<ArrayJ> slots = new ArrayList<ArrayJ>();
+		for (ArrayJ input : inputs)
+			slots.add(new ArrayJ(input.getRaw(), device));
+		List<Call> calls = new ArrayList<Call>();
+		List<ArrayJ> pinned = new ArrayList<ArrayJ>();
+		ArrayPool pool = ArrayPool.forDevice(device);
+		List<ArrayJ> results;
+		device.setRecording(calls);
+		pool.setPinning(pinned);
+		try {
+			results = Objects.requireNonNull(workflow.run(device, Collections.unmodifiableList(slots)),
+					"the workflow has to return its results");
+		} catch (RuntimeException | Error e) {
+			pool.releasePinned(pinned);
+			throw e;
+		} finally {
+			pool.setPinning(null);
+			device.setRecording(null);
+		}
+		return new ExecutionPlan(device, slots, new ArrayList<ArrayJ>(results), calls, pinned);
+	}
+
+	/**
+	 * Replay the plan on new inputs
+	 * @param inputs
+	 * 	the new inputs, with the same shapes and types as the ones of the capture
+	 * @return the results, overwritten by the next replay
+	 * @throws IllegalArgumentException if the inputs do not match the ones of the capture
+	 * @throws IllegalStateException if the plan is closed
+	 */
+	public List<ArrayJ> replay(List<ArrayJ> inputs) {
+		for (int i = 0; i < results.size(); i++) {
+			if (resultMemory.get(i) != null)
+				results.get(i).rebind(resultMemory.get(i));
+		}
+		run(inputs);
+		return results;
+	}
+
+	/**
+	 * Replay the plan on new inputs and write the results into the given outputs. The results allocated by the
+	 * plan are bound to the outputs, so that the calls write into them directly, the others are copied.
+	 * @param inputs
+	 * 	the new inputs, with the same shapes and types as the ones of the capture
+	 * @param outputs
+	 * 	the arrays where the results are written, one per result, with the shapes and types of the results
+	 * @return the outputs
+	 * @throws IllegalArgumentException if the inputs or the outputs do not match the ones of the capture
+	 * @throws IllegalStateException if the plan is closed
+	 */
+	public List<ArrayJ> replay(List<ArrayJ> inputs, List<ArrayJ> outputs) {
+		if (outputs.size() != results.size())
+			throw new IllegalArgumentException("The plan has " + results.size() + " results, not " + outputs.size());
+		for (int i = 0; i < outputs.size(); i++) {
+			if (resultMemory.get(i) != null)
+				results.get(i).rebind(outputs.get(i));
+		}
+		run(inputs);
+		for (int i = 0; i < outputs.size(); i++) {
+			if (resultMemory.get(i) == null)
+				results.get(i).copyDataTo(outputs.get(i));
+		}
+		return outputs;
+	}
+
+	private void run(List<ArrayJ> inputs) {
+		if (closed)
+			throw new IllegalStateException("The plan is closed");
+		if (inputs.size() != this.inputs.size())
+			throw new IllegalArgumentException("The plan was captured with " + this.inputs.size() + " inputs, not " + inputs.size());
+		for (int i = 0; i < inputs.size(); i++)
+			this.inputs.get(i).rebind(inputs.get(i));
+		for (Call call : calls) {
+			if (call.nativeCall != null) {
+				ArrayJ output = (ArrayJ) call.result;
+				tracker.withRecovery(() -> call.nativeCall.apply(output.getRaw()));
+			} else {
+				adopt(call.result, tracker.withRecovery(call.call));
+			}
+		}
+	}
+
+	/**
+	 * Bind the arrays returned by a replayed call to the arrays the following calls were captured with
+	 */
+	private static void adopt(Object captured, Object replayed) {
+		if (captured instanceof ArrayJ && replayed instanceof ArrayJ && captured != replayed) {
+			((ArrayJ) captured).rebind((ArrayJ) replayed);
+		} else if (captured instanceof List && replayed instanceof List) {
+			List<?> capturedList = (List<?>) captured;
+			List<?> replayedList = (List<?>) replayed;
+			for (int i = 0; i < Math.min(capturedList.size(), replayedList.size()); i++)
+				adopt(capturedList.get(i), replayedList.get(i));
+		}
+	}
+
+	/**
+	 *
+	 * @return the number of calls recorded in the plan
+	 */
+	public int getCallCount() {
+		return calls.size();
+	}
+
+	/**
+	 *
+	 * @return the names of the calls recorded in the plan, in order
+	 */
+	public List<String> getCallNames() {
+		List<String> names = new ArrayList<String>();
+		for (Call call : calls)
+			names.add(call.name);
+		return names;
+	}
+
+	/**
+	 *
+	 * @return the device of the plan
+	 */
+	public DeviceJ getDevice() {
+		return device;
+	}
+
+	/**
+	 * Give the scratch arrays kept by the plan back to the {@link ArrayPool}. The plan cannot be replayed anymore.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		ArrayPool.forDevice(device).releasePinned(pinned);
+		pinned.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionPlan" + getCallNames();
+	}
+}
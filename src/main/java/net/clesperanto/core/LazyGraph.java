@@ -0,0 +1,335 @@
+package net.clesperanto.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Deferred execution of a chain of operations on one device.
+ *
+ * The operations are recorded into a graph instead of being executed straight away, and nothing
+ * runs until a result is pulled with {@link #pull(Node)} or reduced with {@link #reduce(Node, Function)}.
+ * Only the operations needed for that result are executed. Every intermediate array is given back
+ * to the {@link ArrayPool} of the device as soon as the last operation that consumes it has run,
+ * and the outputs of the following operations are taken from that pool, so a long chain only
+ * needs the memory of the two or three images that are alive at the same time.
+ *
+ * <pre>
+ * LazyGraph graph = new LazyGraph(device);
+ * LazyGraph.Node input = graph.input(array);
+ * LazyGraph.Node blurred = graph.apply("gaussianBlur", (d, in, out) -&gt; Tier1.gaussianBlur(d, in[0], out, 2, 2, 0), input);
+ * LazyGraph.Node background = graph.apply("topHatBox", (d, in, out) -&gt; Tier2.topHatBox(d, in[0], out, 10, 10, 0), blurred);
+ * LazyGraph.Node labels = graph.applyAllocating("connectedComponentsLabeling",
+ * 		(d, in, out) -&gt; Tier5.connectedComponentsLabeling(d, in[0], out, "box"), background);
+ * ArrayJ result = graph.pull(labels);
+ * </pre>
+ *
+ * Pointwise operations recorded with {@link #applyElementwise(ElementwiseChain, Node)} are fused: a run of
+ * them where each intermediate has no other consumer is executed as a single {@link ElementwiseChain} kernel,
+ * and the intermediates are never allocated.
+ *
+ * The arrays given with {@link #input(ArrayJ)} and the pulled results are never reused by the graph.
+ * An intermediate that was already given back to the pool is computed again if a new operation consuming
+ * it is recorded afterwards. A graph is not thread safe.
+ */
+public class LazyGraph {
+
+	/**
+	 * Operation recorded in the graph, usually a call to one of the {@code Tier} methods
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		/**
+		 * Execute the operation
+		 * @param device
+		 * 	the device of the graph
+		 * @param inputs
+		 * 	the arrays produced by the input nodes, in the order they were given
+		 * @param output
+		 * 	the array where the result has to be written, or null if the operation has to allocate it
+		 * @return the result of the operation
+		 */
+		ArrayJ run(DeviceJ device, ArrayJ[] inputs, ArrayJ output);
+	}
+
+	/**
+	 * Node of the graph, either an input array or the result of an operation
+	 */
+	public static class Node {
+		private final LazyGraph graph;
+		private final String name;
+		private final Operation operation;
+		private final Node[] inputs;
+		private final boolean allocating;
+		/** pointwise operations of the node, null if it is not fusible */
+		private final ElementwiseChain chain;
+		/** data type of the output taken from the pool, null for the one of the first input */
+		private final DataType outputType;
+		private ArrayJ value;
+		/** number of recorded consumers that have not been executed yet */
+		private int pendingConsumers = 0;
+		/** whether the value belongs to the user and cannot be reused */
+		private boolean pinned;
+		/** whether the value was computed and given back to the pool */
+		private boolean released;
+
+		private Node(LazyGraph graph, String name, Operation operation, Node[] inputs, boolean allocating,
+				ElementwiseChain chain, DataType outputType) {
+			this.graph = graph;
+			this.name = name;
+			this.operation = operation;
+			this.inputs = inputs;
+			this.allocating = allocating;
+			this.chain = chain;
+			this.outputType = outputType;
+		}
+
+		/**
+		 *
+		 * @return the name of the operation that produces the node
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 *
+		 * @return whether the array of the node currently exists on the device
+		 */
+		public boolean isMaterialized() {
+			return value != null;
+		}
+
+		@Override
+		public String toString() {
+			return "Node[" + name + (value == null ? "" : ", " + value) + "]";
+		}
+	}
+
+	private final DeviceJ device;
+	private final ArrayPool pool;
+	private final List<Node> nodes = new ArrayList<Node>();
+	private int executed = 0;
+
+	/**
+	 * Create an empty graph
+	 * @param device
+	 * 	the device where the operations are executed
+	 */
+	public LazyGraph(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		this.pool = ArrayPool.forDevice(device);
+	}
+
+	/**
+	 * Add an existing array to the graph
+	 * @param array
+	 * 	the array, it is never modified nor reused by the graph
+	 * @return the node that represents the array
+	 */
+	public Node input(ArrayJ array) {
+		Objects.requireNonNull(array, "array cannot be null");
+		Node node = new Node(this, "input", null, new Node[0], false, null, null);
+		node.value = array;
+		node.pinned = true;
+		nodes.add(node);
+		return node;
+	}
+
+	/**
+	 * Record an operation whose output has the same shape, data type and memory type as its first input.
+	 * The output is taken from the {@link ArrayPool} of the device when the operation runs.
+	 * @param name
+	 * 	the name of the operation, used in the error messages
+	 * @param operation
+	 * 	the operation
+	 * @param inputs
+	 * 	the nodes whose arrays are the inputs of the operation, at least one
+	 * @return the node that represents the result of the operation
+	 */
+	public Node apply(String name, Operation operation, Node... inputs) {
+		if (inputs.length == 0)
+			throw new IllegalArgumentException("The operation " + name + " needs at least one input to take its output shape from");
+		return record(name, operation, inputs, false, null, null);
+	}
+
+	/**
+	 * Record an operation whose output has the same shape and memory type as its first input but another data type,
+	 * e.g. a blur of an integer image. The output is taken from the {@link ArrayPool} of the device when the operation runs.
+	 * @param name
+	 * 	the name of the operation, used in the error messages
+	 * @param outputType
+	 * 	the data type of the output
+	 * @param operation
+	 * 	the operation
+	 * @param inputs
+	 * 	the nodes whose arrays are the inputs of the operation, at least one
+	 * @return the node that represents the result of the operation
+	 */
+	public Node apply(String name, DataType outputType, Operation operation, Node... inputs) {
+		Objects.requireNonNull(outputType, "outputType cannot be null");
+		if (inputs.length == 0)
+			throw new IllegalArgumentException("The operation " + name + " needs at least one input to take its output shape from");
+		return record(name, operation, inputs, false, null, outputType);
+	}
+
+	/**
+	 * Record an operation that allocates its own output, for operations that change the shape
+	 * or the data type of the image such as projections or labelings
+	 * @param name
+	 * 	the name of the operation, used in the error messages
+	 * @param operation
+	 * 	the operation, it is always called with a null output
+	 * @param inputs
+	 * 	the nodes whose arrays are the inputs of the operation
+	 * @return the node that represents the result of the operation
+	 */
+	public Node applyAllocating(String name, Operation operation, Node... inputs) {
+		return record(name, operation, inputs, true, null, null);
+	}
+
+	/**
+	 * Record a chain of pointwise operations. It is fused with the chains recorded before and after it
+	 * when the intermediate results are not consumed by anything else.
+	 * The output is taken from the {@link ArrayPool} of the device, with the type given by
+	 * {@link ElementwiseChain#getOutputType()} and the shape of the input.
+	 * @param chain
+	 * 	the pointwise operations
+	 * @param input
+	 * 	the node whose array is the input of the operations
+	 * @return the node that represents the result of the operations
+	 */
+	public Node applyElementwise(ElementwiseChain chain, Node input) {
+		Objects.requireNonNull(chain, "chain cannot be null");
+		return record(chain.getSignature(), (d, in, out) -> chain.execute(d, in[0], out), new Node[] {input}, false, chain, null);
+	}
+
+	private Node record(String name, Operation operation, Node[] inputs, boolean allocating, ElementwiseChain chain,
+			DataType outputType) {
+		Objects.requireNonNull(operation, "operation cannot be null");
+		for (Node input : inputs) {
+			if (input.graph != this)
+				throw new IllegalArgumentException("The input " + input + " does not belong to this graph");
+			input.pendingConsumers++;
+		}
+		Node node = new Node(this, name, operation, inputs.clone(), allocating, chain, outputType);
+		nodes.add(node);
+		return node;
+	}
+
+	/**
+	 * Execute the operations needed to compute the node and return its array.
+	 * The array belongs to the caller from then on and is never reused by the graph.
+	 * @param node
+	 * 	the node of interest
+	 * @return the array of the node
+	 */
+	public ArrayJ pull(Node node) {
+		materialize(node);
+		node.pinned = true;
+		return node.value;
+	}
+
+	/**
+	 * Execute the operations needed to compute the node and reduce its array, e.g. to a single value.
+	 * The array is given back to the pool afterwards if nothing else consumes it.
+	 * @param <T>
+	 * 	the type of the result
+	 * @param node
+	 * 	the node of interest
+	 * @param reduction
+	 * 	the reduction, e.g. {@code a -> Tier2.sumOfAllPixels(device, a)}
+	 * @return the result of the reduction
+	 */
+	public <T> T reduce(Node node, Function<ArrayJ, T> reduction) {
+		materialize(node);
+		T result = reduction.apply(node.value);
+		releaseIfDead(node);
+		return result;
+	}
+
+	/**
+	 *
+	 * @return the number of operations executed so far, counting the ones executed again
+	 */
+	public int getExecutedCount() {
+		return executed;
+	}
+
+	private void materialize(Node node) {
+		if (node.graph != this)
+			throw new IllegalArgumentException("The node " + node + " does not belong to this graph");
+		if (node.value != null)
+			return;
+		Node[] inputs = node.inputs;
+		Operation operation = node.operation;
+		DataType outputType = node.outputType;
+		List<Node> fused = new ArrayList<Node>();
+		if (node.chain != null) {
+			// absorb the pointwise nodes upstream that nothing else needs
+			ElementwiseChain chain = node.chain;
+			Node source = inputs[0];
+			while (source.chain != null && source.value == null && !source.released && source.pendingConsumers == 1) {
+				chain = source.chain.then(chain);
+				fused.add(source);
+				source = source.inputs[0];
+			}
+			ElementwiseChain combined = chain;
+			inputs = new Node[] {source};
+			operation = (d, in, out) -> combined.execute(d, in[0], out);
+			outputType = combined.getOutputType();
+		}
+		ArrayJ[] arrays = new ArrayJ[inputs.length];
+		for (int i = 0; i < arrays.length; i++) {
+			Node input = inputs[i];
+			if (input.released) {
+				// computing the input again uses its own inputs once more
+				for (Node upstream : input.inputs)
+					upstream.pendingConsumers++;
+			}
+			materialize(input);
+			arrays[i] = input.value;
+		}
+		ArrayJ output = null;
+		if (!node.allocating) {
+			ArrayJ like = arrays[0];
+			DataType dataType = outputType != null ? outputType : DataType.fromString(like.getDataType());
+			output = pool.acquire(device, dataType, like.getDimensions(), like.getMemoryType());
+		}
+		try {
+			node.value = operation.run(device, arrays, output);
+		} catch (RuntimeException ex) {
+			if (output != null)
+				pool.release(output);
+			throw ex;
+		}
+		if (node.value == null)
+			throw new IllegalStateException("The operation " + node.name + " did not return any array");
+		node.released = false;
+		executed++;
+		// the fused nodes count as computed and released, consuming them later computes them again
+		for (Node skipped : fused) {
+			skipped.pendingConsumers--;
+			skipped.released = true;
+		}
+		for (Node input : inputs) {
+			input.pendingConsumers--;
+			releaseIfDead(input);
+		}
+	}
+
+	private void releaseIfDead(Node node) {
+		if (node.pinned || node.pendingConsumers > 0 || node.value == null)
+			return;
+		pool.release(node.value);
+		node.value = null;
+		node.released = true;
+	}
+
+	@Override
+	public String toString() {
+		return "LazyGraph[" + device.getName() + ", nodes=" + nodes.size() + ", executed=" + executed + "]";
+	}
+}
@@ -45,9 +45,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeFloatBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.FLOAT32, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -74,9 +73,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeFloatBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.FLOAT32, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -92,7 +90,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the float buffer
 	 */
 	public static void writeFloatBuffer(ArrayJ array, FloatBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeFloatBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeFloatBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeFloatBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -107,7 +105,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the float[]
 	 */
 	public static void writeFloatBuffer(ArrayJ array, float[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeFloatBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeFloatBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeFloatBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -125,7 +123,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link FloatBuffer}
 	 */
 	public static void readFloatBuffer(ArrayJ array, FloatBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readFloatBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readFloatBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readFloatBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -141,7 +139,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the float[]
 	 */
 	public static void readFloatBuffer(ArrayJ array, float[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readFloatBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readFloatBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readFloatBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -171,9 +169,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeByteBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT8, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -200,9 +197,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeByteBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT8, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -220,7 +216,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the ByteBuffer
 	 */
 	public static void writeByteBuffer(ArrayJ array, ByteBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -235,7 +231,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the byte[]
 	 */
 	public static void writeByteBuffer(ArrayJ array, byte[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -253,7 +249,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ByteBuffer}
 	 */
 	public static void readByteBuffer(ArrayJ array, ByteBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -269,7 +265,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the byte[]
 	 */
 	public static void readByteBuffer(ArrayJ array, byte[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -299,9 +295,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUByteBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT8, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -328,9 +323,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUByteBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT8, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -348,7 +342,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the ByteBuffer
 	 */
 	public static void writeUByteBuffer(ArrayJ array, ByteBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -363,7 +357,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the byte[]
 	 */
 	public static void writeUByteBuffer(ArrayJ array, byte[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -381,7 +375,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ByteBuffer}
 	 */
 	public static void readUByteBuffer(ArrayJ array, ByteBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -397,7 +391,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the byte[]
 	 */
 	public static void readUByteBuffer(ArrayJ array, byte[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUByteBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUByteBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUByteBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -427,9 +421,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeShortBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT16, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -456,9 +449,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeShortBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT16, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -476,7 +468,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ShortBuffer}
 	 */
 	public static void writeShortBuffer(ArrayJ array, ShortBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -491,7 +483,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the short[]
 	 */
 	public static void writeShortBuffer(ArrayJ array, short[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -509,7 +501,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ShortBuffer}
 	 */
 	public static void readShortBuffer(ArrayJ array, ShortBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -539,9 +531,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUShortBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT16, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -568,9 +559,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (device == null) device = DeviceJ.getDefaultDevice();
 		if (memoryType == null) memoryType = "";
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUShortBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT16, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -588,7 +578,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ShortBuffer}
 	 */
 	public static void writeUShortBuffer(ArrayJ array, ShortBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -603,7 +593,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the short[]
 	 */
 	public static void writeUShortBuffer(ArrayJ array, short[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -621,7 +611,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link ShortBuffer}
 	 */
 	public static void readUShortBuffer(ArrayJ array, ShortBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -637,7 +627,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the short[]
 	 */
 	public static void readUShortBuffer(ArrayJ array, short[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUShortBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUShortBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUShortBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -667,9 +657,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeIntBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT32, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -696,9 +685,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeIntBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.INT32, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -716,7 +704,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link IntBuffer}
 	 */
 	public static void writeIntBuffer(ArrayJ array, IntBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -731,7 +719,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the int[]
 	 */
 	public static void writeIntBuffer(ArrayJ array, int[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -749,7 +737,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link IntBuffer}
 	 */
 	public static void readIntBuffer(ArrayJ array, IntBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -779,9 +767,8 @@ public class MemoryJ {
 			long dimension, String memoryType ) {
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUIntBuffer(device.jcppDeviceJ, width, height, depth,
-						dimension, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT32, width, height, depth,
+				dimension, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -808,9 +795,8 @@ public class MemoryJ {
 		dims = transformDims(dims);
 		if (memoryType == null) memoryType = "";
 		if (device == null) device = DeviceJ.getDefaultDevice();
-		net.clesperanto._internals.jclic.ArrayJ arrayJ =
-				net.clesperanto._internals.jclic.MemoryJ.makeUIntBuffer(device.jcppDeviceJ, dims[0], dims[1], dims[2],
-						3, memoryType);
+		net.clesperanto._internals.jclic.ArrayJ arrayJ = allocate(device, DataType.UINT32, dims[0], dims[1], dims[2],
+				3, memoryType);
 		return new ArrayJ(arrayJ, device);
 	}
 
@@ -828,7 +814,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link IntBuffer}
 	 */
 	public static void writeUIntBuffer(ArrayJ array, IntBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -843,7 +829,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the int[]
 	 */
 	public static void writeUIntBuffer(ArrayJ array, int[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.writeUIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.writeUIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.writeUIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -861,7 +847,7 @@ public class MemoryJ {
 	 * 	the total size in bytes of the {@link IntBuffer}
 	 */
 	public static void readUIntBuffer(ArrayJ array, IntBuffer data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUIntBuffer(array.getRaw(), data, size));
 	}
 
 	/**
@@ -899,7 +885,39 @@ public class MemoryJ {
 	 * 	the total size in bytes of the int[]
 	 */
 	public static void readUIntBuffer(ArrayJ array, int[] data, long size) {
-		net.clesperanto._internals.jclic.MemoryJ.readUIntBuffer(array.arrayj, data, size);
+		array.devicej.transfer("MemoryJ.readUIntBuffer", () -> net.clesperanto._internals.jclic.MemoryJ.readUIntBuffer(array.getRaw(), data, size));
+	}
+
+	/**
+	 * Allocate the native array, checking the quotas of the device first and applying its
+	 * {@link OutOfMemoryPolicy} if the device runs out of memory
+	 */
+	private static net.clesperanto._internals.jclic.ArrayJ allocate(DeviceJ device, DataType dataType,
+			long width, long height, long depth, long dimension, String memoryType) {
+		long bytes = Math.max(1, width) * Math.max(1, height) * Math.max(1, depth) * dataType.getByteSize();
+		MemoryTracker tracker = MemoryTracker.forDevice(device);
+		tracker.checkQuota(bytes);
+		net.clesperanto._internals.jclic.DeviceJ raw = device.jcppDeviceJ;
+		return tracker.withRecovery(() -> {
+			switch (dataType) {
+				case FLOAT32:
+					return net.clesperanto._internals.jclic.MemoryJ.makeFloatBuffer(raw, width, height, depth, dimension, memoryType);
+				case INT32:
+					return net.clesperanto._internals.jclic.MemoryJ.makeIntBuffer(raw, width, height, depth, dimension, memoryType);
+				case UINT32:
+					return net.clesperanto._internals.jclic.MemoryJ.makeUIntBuffer(raw, width, height, depth, dimension, memoryType);
+				case INT16:
+					return net.clesperanto._internals.jclic.MemoryJ.makeShortBuffer(raw, width, height, depth, dimension, memoryType);
+				case UINT16:
+					return net.clesperanto._internals.jclic.MemoryJ.makeUShortBuffer(raw, width, height, depth, dimension, memoryType);
+				case INT8:
+					return net.clesperanto._internals.jclic.MemoryJ.makeByteBuffer(raw, width, height, depth, dimension, memoryType);
+				case UINT8:
+					return net.clesperanto._internals.jclic.MemoryJ.makeUByteBuffer(raw, width, height, depth, dimension, memoryType);
+				default:
+					throw new IllegalArgumentException("Unsupported data type: " + dataType);
+			}
+		});
 	}
 
 	private static long[] transformDims(long[] dims) {
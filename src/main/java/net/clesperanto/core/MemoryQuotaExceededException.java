@@ -0,0 +1,59 @@
+package net.clesperanto.core;
+
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Exception thrown when an allocation would go over the hard quota set for a device
+ * with {@link MemoryTracker#setQuota(long, long)}
+ */
+public class MemoryQuotaExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String deviceName;
+	private final long requestedBytes;
+	private final long allocatedBytes;
+	private final long quota;
+
+	MemoryQuotaExceededException(String deviceName, long requestedBytes, long allocatedBytes, long quota, String usage) {
+		super("Memory quota exceeded on device '" + deviceName + "': requested " + Pointer.formatBytes(requestedBytes)
+				+ " with " + Pointer.formatBytes(allocatedBytes) + " already allocated, but the quota is "
+				+ Pointer.formatBytes(quota) + (usage.isEmpty() ? "" : " (" + usage + ")"));
+		this.deviceName = deviceName;
+		this.requestedBytes = requestedBytes;
+		this.allocatedBytes = allocatedBytes;
+		this.quota = quota;
+	}
+
+	/**
+	 *
+	 * @return the name of the device where the allocation was requested
+	 */
+	public String getDeviceName() {
+		return deviceName;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes requested
+	 */
+	public long getRequestedBytes() {
+		return requestedBytes;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes allocated on the device when the allocation was requested
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 *
+	 * @return the hard quota of the device in bytes
+	 */
+	public long getQuota() {
+		return quota;
+	}
+}
@@ -0,0 +1,486 @@
+package net.clesperanto.core;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Class that keeps track of the memory allocated by ClesperantoJ on one device and
+ * optionally enforces a quota on it.
+ *
+ * Every {@link ArrayJ} is registered when it is created, both the ones created with the
+ * {@code MemoryJ.make*} methods and the outputs created by the {@code Tier} kernels.
+ * Its bytes are released once every {@link ArrayJ} referencing the same device memory has
+ * been garbage collected. The accounting follows the tracking token of each {@link ArrayJ}, not the
+ * address of its device memory, which can be reused by a new allocation before the arrays that
+ * referenced it are reported as collected.
+ *
+ * Two limits can be set with {@link #setQuota(long, long)}:
+ * - when the soft quota is exceeded, unreachable {@link ArrayJ}s are cleaned up so their
+ * 	device memory is freed as soon as possible. The arrays already collected are released first, and
+ * 	a garbage collection is only forced if the memory grew since the last one, at most every 100 ms
+ * - when the hard quota would be exceeded, the cleanup is run and if the memory is still over
+ * 	the quota a {@link MemoryQuotaExceededException} is thrown
+ *
+ * When the device itself runs out of memory, the {@link OutOfMemoryPolicy} of the tracker decides
+ * whether the allocation fails straight away or memory is recovered first, by evicting the
+ * {@link ArrayPool} of the device and by moving idle arrays to the host memory.
+ *
+ * The trackers are shared by all the {@link DeviceJ} objects that point to the same device.
+ */
+public class MemoryTracker {
+
+	private static final Logger LOGGER = Logger.getLogger(MemoryTracker.class.getName());
+
+	/** messages of the OpenCL and CUDA errors raised when the device memory is exhausted */
+	private static final Pattern OUT_OF_MEMORY = Pattern.compile(
+			"CL_MEM_OBJECT_ALLOCATION_FAILURE|CL_OUT_OF_RESOURCES|CUDA_ERROR_OUT_OF_MEMORY|out of memory"
+			+ "|error\\D{0,3}-[45]\\b", Pattern.CASE_INSENSITIVE);
+
+	/** minimum time in nanoseconds between two garbage collections forced by the soft quota */
+	private static final long SOFT_QUOTA_GC_INTERVAL = 100_000_000L;
+
+	private static final Map<String, MemoryTracker> TRACKERS = new HashMap<String, MemoryTracker>();
+
+	private final String deviceName;
+	private final ReferenceQueue<ArrayJ> queue = new ReferenceQueue<ArrayJ>();
+	private final Set<ArrayReference> references = new HashSet<ArrayReference>();
+	private final Set<Allocation> allocations = new HashSet<Allocation>();
+	/** allocations by native address, only used to find the memory shared by several live arrays */
+	private final Map<Long, Allocation> addresses = new HashMap<Long, Allocation>();
+	private final Map<String, Long> bytesPerType = new LinkedHashMap<String, Long>();
+	private long allocatedBytes = 0;
+	private long peakBytes = 0;
+	private long softQuota = 0;
+	private long hardQuota = 0;
+	private OutOfMemoryPolicy outOfMemoryPolicy = OutOfMemoryPolicy.SPILL;
+	private int spillCount = 0;
+	/** time and allocated bytes of the last garbage collection forced by {@link #cleanup()} */
+	private long lastGc = System.nanoTime() - SOFT_QUOTA_GC_INTERVAL;
+	private long bytesAtLastGc = 0;
+
+	private MemoryTracker(String deviceName) {
+		this.deviceName = deviceName;
+	}
+
+	/**
+	 * Get the tracker of the device
+	 * @param device
+	 * 	the device whose memory is tracked
+	 * @return the {@link MemoryTracker} shared by every {@link DeviceJ} pointing to the same device
+	 */
+	public static MemoryTracker forDevice(DeviceJ device) {
+		Objects.requireNonNull(device, "device cannot be null");
+		return forDevice(device.getName());
+	}
+
+	static synchronized MemoryTracker forDevice(String deviceName) {
+		MemoryTracker tracker = TRACKERS.get(deviceName);
+		if (tracker == null) {
+			tracker = new MemoryTracker(deviceName);
+			TRACKERS.put(deviceName, tracker);
+		}
+		return tracker;
+	}
+
+	/**
+	 * Set the quotas of the device. A value of 0 or less disables the corresponding quota.
+	 * @param softQuota
+	 * 	number of bytes above which unreachable arrays are cleaned up
+	 * @param hardQuota
+	 * 	number of bytes that cannot be exceeded
+	 * @throws IllegalArgumentException if both quotas are enabled and the soft quota is bigger than the hard one
+	 */
+	public synchronized void setQuota(long softQuota, long hardQuota) {
+		if (softQuota > 0 && hardQuota > 0 && softQuota > hardQuota)
+			throw new IllegalArgumentException("The soft quota (" + Pointer.formatBytes(softQuota)
+					+ ") cannot be bigger than the hard quota (" + Pointer.formatBytes(hardQuota) + ")");
+		this.softQuota = Math.max(0, softQuota);
+		this.hardQuota = Math.max(0, hardQuota);
+	}
+
+	/**
+	 *
+	 * @return the soft quota in bytes, 0 if disabled
+	 */
+	public synchronized long getSoftQuota() {
+		return softQuota;
+	}
+
+	/**
+	 *
+	 * @return the hard quota in bytes, 0 if disabled
+	 */
+	public synchronized long getHardQuota() {
+		return hardQuota;
+	}
+
+	/**
+	 * Set what happens when the device runs out of memory, {@link OutOfMemoryPolicy#SPILL} by default
+	 * @param policy
+	 * 	the policy to apply
+	 */
+	public synchronized void setOutOfMemoryPolicy(OutOfMemoryPolicy policy) {
+		this.outOfMemoryPolicy = Objects.requireNonNull(policy, "policy cannot be null");
+	}
+
+	/**
+	 *
+	 * @return what happens when the device runs out of memory
+	 */
+	public synchronized OutOfMemoryPolicy getOutOfMemoryPolicy() {
+		return outOfMemoryPolicy;
+	}
+
+	/**
+	 *
+	 * @return the number of times an array has been moved to the host memory because the device ran out of memory
+	 */
+	public synchronized int getSpillCount() {
+		return spillCount;
+	}
+
+	/**
+	 *
+	 * @return the name of the device tracked
+	 */
+	public String getDeviceName() {
+		return deviceName;
+	}
+
+	/**
+	 *
+	 * @return the total number of bytes currently allocated on the device by ClesperantoJ
+	 */
+	public synchronized long getAllocatedBytes() {
+		drain();
+		return allocatedBytes;
+	}
+
+	/**
+	 *
+	 * @return the maximum number of bytes that have been allocated at the same time on the device
+	 */
+	public synchronized long getPeakBytes() {
+		return peakBytes;
+	}
+
+	/**
+	 * @param dataType
+	 * 	the data type of interest
+	 * @return the number of bytes currently allocated on the device for arrays of the given data type
+	 */
+	public synchronized long getAllocatedBytes(DataType dataType) {
+		drain();
+		long bytes = 0;
+		for (Allocation allocation : allocations) {
+			if (allocation.dataType == dataType)
+				bytes += allocation.bytes;
+		}
+		return bytes;
+	}
+
+	/**
+	 * @param memoryType
+	 * 	the memory type of interest, either "buffer" or "image"
+	 * @return the number of bytes currently allocated on the device for arrays of the given memory type
+	 */
+	public synchronized long getAllocatedBytes(String memoryType) {
+		drain();
+		long bytes = 0;
+		for (Allocation allocation : allocations) {
+			if (allocation.memoryType.equals(memoryType))
+				bytes += allocation.bytes;
+		}
+		return bytes;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes currently allocated for each combination of data type and memory type.
+	 * 	The keys have the form "float/buffer"
+	 */
+	public synchronized Map<String, Long> getAllocatedBytesPerType() {
+		drain();
+		return new LinkedHashMap<String, Long>(bytesPerType);
+	}
+
+	/**
+	 *
+	 * @return the number of arrays currently allocated on the device
+	 */
+	public synchronized int getAllocationCount() {
+		drain();
+		return allocations.size();
+	}
+
+	/**
+	 * Check that allocating the wanted number of bytes does not go over the quotas of the device,
+	 * cleaning up unreachable arrays if needed.
+	 * @param bytes
+	 * 	number of bytes that are going to be allocated
+	 * @throws MemoryQuotaExceededException if the allocation would exceed the hard quota even after the cleanup
+	 */
+	public synchronized void checkQuota(long bytes) {
+		drain();
+		if (hardQuota > 0 && allocatedBytes + bytes > hardQuota)
+			cleanup();
+		else if (softQuota > 0 && allocatedBytes + bytes > softQuota)
+			relieve(bytes);
+		if (hardQuota > 0 && allocatedBytes + bytes > hardQuota)
+			throw new MemoryQuotaExceededException(deviceName, bytes, allocatedBytes, hardQuota, describe());
+	}
+
+	/**
+	 * Free the device memory of every {@link ArrayJ} that is not referenced anymore
+	 * and update the accounting.
+	 */
+	public synchronized void cleanup() {
+		System.gc();
+		Pointer.deallocateReferences();
+		drain();
+		lastGc = System.nanoTime();
+		bytesAtLastGc = allocatedBytes;
+	}
+
+	/**
+	 * Free the memory of the arrays already collected and, if the soft quota is still exceeded, force a
+	 * garbage collection unless one was forced recently or the memory did not grow since
+	 * @param bytes
+	 * 	number of bytes that are going to be allocated
+	 */
+	private void relieve(long bytes) {
+		Pointer.deallocateReferences();
+		drain();
+		if (allocatedBytes + bytes <= softQuota)
+			return;
+		if (System.nanoTime() - lastGc < SOFT_QUOTA_GC_INTERVAL || allocatedBytes + bytes <= bytesAtLastGc)
+			return;
+		cleanup();
+	}
+
+	/**
+	 * Run an operation that allocates memory on the device, applying the {@link OutOfMemoryPolicy}
+	 * if the device runs out of memory: the operation is retried after every step that frees memory,
+	 * until it succeeds or there is nothing left to free.
+	 * Arrays used since the operation started are never moved to the host.
+	 * @param <T>
+	 * 	the type returned by the operation
+	 * @param call
+	 * 	the operation
+	 * @return the result of the operation
+	 */
+	public <T> T withRecovery(Supplier<T> call) {
+		long since = System.nanoTime();
+		for (int attempt = 0; ; attempt++) {
+			try {
+				return call.get();
+			} catch (RuntimeException ex) {
+				if (!isOutOfMemory(ex) || !recover(attempt, since))
+					throw ex;
+			}
+		}
+	}
+
+	private static boolean isOutOfMemory(RuntimeException ex) {
+		if (ex instanceof MemoryQuotaExceededException || ex.getMessage() == null)
+			return false;
+		return OUT_OF_MEMORY.matcher(ex.getMessage()).find();
+	}
+
+	/**
+	 * Free device memory following the policy
+	 * @return whether some memory could be freed and the operation is worth retrying
+	 */
+	private boolean recover(int attempt, long since) {
+		OutOfMemoryPolicy policy = getOutOfMemoryPolicy();
+		if (policy == OutOfMemoryPolicy.FAIL)
+			return false;
+		if (attempt == 0) {
+			LOGGER.fine("Device " + deviceName + " out of memory, evicting the pooled arrays and cached results");
+			ArrayPool.forDevice(deviceName).evict();
+			ResultCache.forDevice(deviceName).invalidateAll();
+			cleanup();
+			return true;
+		}
+		if (policy != OutOfMemoryPolicy.SPILL)
+			return false;
+		ArrayJ victim = leastRecentlyUsed(since);
+		if (victim == null)
+			return false;
+		LOGGER.warning("Device " + deviceName + " out of memory, moving " + victim + " to the host memory");
+		// the array is spilled without holding the lock of the tracker, it needs its own lock
+		victim.spill();
+		synchronized (this) {
+			spillCount++;
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return the least recently used array that has not been used since the given time, is the only one
+	 * 	referencing its device memory and fits in a host buffer, null if there is none
+	 */
+	private synchronized ArrayJ leastRecentlyUsed(long since) {
+		drain();
+		ArrayJ lru = null;
+		for (Allocation allocation : allocations) {
+			if (allocation.tokens.size() != 1)
+				continue;
+			ArrayJ owner = allocation.tokens.iterator().next().array.get();
+			if (owner == null || owner.lastUsed - since >= 0 || !owner.isSpillable())
+				continue;
+			if (lru == null || owner.lastUsed - lru.lastUsed < 0)
+				lru = owner;
+		}
+		return lru;
+	}
+
+	/**
+	 * Register a newly created {@link ArrayJ}. Arrays that reference device memory which
+	 * is already tracked (e.g. a Tier output given as a parameter) are not counted twice.
+	 * Outputs allocated by the native kernels can only be checked against the quotas once they
+	 * exist, so the quotas are enforced here too.
+	 * @throws MemoryQuotaExceededException if the new array goes over the hard quota even after the cleanup
+	 */
+	synchronized void register(ArrayJ array) {
+		drain();
+		long id = array.getRaw().getId();
+		Allocation allocation = addresses.get(id);
+		long bytes = 0;
+		if (allocation == null || !allocation.isReachable()) {
+			// the address of memory whose arrays are all unreachable can only have been reused by a new allocation
+			DataType dataType = DataType.fromString(array.getDataType());
+			bytes = array.getWidth() * array.getHeight() * Math.max(1, array.getDepth()) * dataType.getByteSize();
+			allocation = new Allocation(id, dataType, array.getMemoryType(), bytes);
+			allocations.add(allocation);
+			addresses.put(id, allocation);
+			allocatedBytes += bytes;
+			peakBytes = Math.max(peakBytes, allocatedBytes);
+			bytesPerType.merge(allocation.key(), bytes, Long::sum);
+		}
+		ArrayReference reference = new ArrayReference(array, queue, allocation);
+		allocation.tokens.add(reference);
+		array.trackingToken = reference;
+		references.add(reference);
+		if (bytes == 0)
+			return;
+		if (hardQuota > 0 && allocatedBytes > hardQuota)
+			cleanup();
+		else if (softQuota > 0 && allocatedBytes > softQuota)
+			relieve(0);
+		if (hardQuota > 0 && allocatedBytes > hardQuota)
+			throw new MemoryQuotaExceededException(deviceName, bytes, allocatedBytes - bytes, hardQuota, describe());
+	}
+
+	/**
+	 * Stop tracking an {@link ArrayJ} whose device memory is going to be freed explicitly
+	 */
+	synchronized void unregister(ArrayJ array) {
+		ArrayReference reference = (ArrayReference) array.trackingToken;
+		array.trackingToken = null;
+		if (reference == null || !references.remove(reference))
+			return;
+		// a cleared reference is never enqueued
+		reference.clear();
+		release(reference);
+	}
+
+	private void drain() {
+		Reference<? extends ArrayJ> ref;
+		while ((ref = queue.poll()) != null) {
+			ArrayReference arrayRef = (ArrayReference) ref;
+			if (references.remove(arrayRef))
+				release(arrayRef);
+		}
+	}
+
+	private void release(ArrayReference arrayRef) {
+		Allocation allocation = arrayRef.allocation;
+		if (!allocation.tokens.remove(arrayRef) || !allocation.tokens.isEmpty())
+			return;
+		allocations.remove(allocation);
+		if (addresses.get(allocation.id) == allocation)
+			addresses.remove(allocation.id);
+		allocatedBytes -= allocation.bytes;
+		long left = bytesPerType.get(allocation.key()) - allocation.bytes;
+		if (left == 0)
+			bytesPerType.remove(allocation.key());
+		else
+			bytesPerType.put(allocation.key(), left);
+	}
+
+	private String describe() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, Long> entry : bytesPerType.entrySet()) {
+			if (sb.length() > 0)
+				sb.append(", ");
+			sb.append(entry.getKey()).append(": ").append(Pointer.formatBytes(entry.getValue()));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public synchronized String toString() {
+		drain();
+		return "MemoryTracker[" + deviceName + ", allocated=" + Pointer.formatBytes(allocatedBytes)
+				+ ", peak=" + Pointer.formatBytes(peakBytes) + ", arrays=" + allocations.size() + "]";
+	}
+
+	private static class Allocation {
+		private final long id;
+		private final DataType dataType;
+		private final String memoryType;
+		private final long bytes;
+		/** tokens of the arrays referencing the memory */
+		private final Set<ArrayReference> tokens = new HashSet<ArrayReference>();
+
+		private Allocation(long id, DataType dataType, String memoryType, long bytes) {
+			this.id = id;
+			this.dataType = dataType;
+			this.memoryType = memoryType;
+			this.bytes = bytes;
+		}
+
+		private String key() {
+			return dataType.getName() + "/" + memoryType;
+		}
+
+		/**
+		 * The weak references are cleared before the phantom references are enqueued and before
+		 * the native memory can be freed, so a reachable array means the memory is still allocated
+		 */
+		private boolean isReachable() {
+			for (ArrayReference token : tokens) {
+				if (token.array.get() != null)
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private static class ArrayReference extends PhantomReference<ArrayJ> {
+		private final Allocation allocation;
+		/** the array while it is reachable, a phantom reference always returns null */
+		private final WeakReference<ArrayJ> array;
+
+		private ArrayReference(ArrayJ array, ReferenceQueue<ArrayJ> queue, Allocation allocation) {
+			super(array, queue);
+			this.allocation = allocation;
+			this.array = new WeakReference<ArrayJ>(array);
+		}
+	}
+}
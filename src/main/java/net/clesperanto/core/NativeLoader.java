@@ -0,0 +1,124 @@
+package net.clesperanto.core;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bytedeco.javacpp.Loader;
+
+/**
+ * Class that loads the native libraries of ClesperantoJ on demand and keeps track of the
+ * time spent on each step of the startup.
+ *
+ * The core library (memory, device and backend handling) is loaded the first time a
+ * {@link BackendJ} or {@link DeviceJ} is used. Each kernel tier lives in its own native
+ * library that is only loaded when the corresponding {@code Tier} class is first used, so
+ * applications that only use {@link MemoryJ} and {@code Tier1} never load the other tiers.
+ *
+ * Extracted libraries are kept in the JavaCPP cache directory ({@link Loader#getCacheDir()}),
+ * which persists across runs, so the extraction step is almost free after the first start.
+ */
+public class NativeLoader {
+
+	/**
+	 * Name of the startup phase that extracts the native libraries into the cache
+	 */
+	public static final String EXTRACT = "extract";
+	/**
+	 * Name of the startup phase that loads the core native library
+	 */
+	public static final String DLOPEN = "dlopen";
+	/**
+	 * Name of the startup phase that selects and initializes the backend
+	 */
+	public static final String BACKEND_INIT = "backend init";
+	/**
+	 * Name of the startup phase that initializes the first device
+	 */
+	public static final String DEVICE_INIT = "device init";
+
+	private static final Class<?>[] TIERS = new Class<?>[] {
+		net.clesperanto._internals.tier1j.class, net.clesperanto._internals.tier2j.class,
+		net.clesperanto._internals.tier3j.class, net.clesperanto._internals.tier4j.class,
+		net.clesperanto._internals.tier5j.class, net.clesperanto._internals.tier6j.class,
+		net.clesperanto._internals.tier7j.class, net.clesperanto._internals.tier8j.class
+	};
+
+	private static final Map<String, Long> TIMINGS = new LinkedHashMap<String, Long>();
+
+	private static boolean coreLoaded = false;
+	private static final boolean[] tierLoaded = new boolean[TIERS.length];
+
+	/**
+	 * Load the core native library, extracting it into the cache first if needed.
+	 * Calling this method more than once has no effect.
+	 */
+	public static synchronized void loadCore() {
+		if (coreLoaded)
+			return;
+		long start = System.nanoTime();
+		try {
+			Loader.cacheResources(net.clesperanto._internals.jclic.class, Loader.getPlatform());
+		} catch (IOException e) {
+			// the libraries are not packaged as resources, Loader.load() will look for them
+		}
+		record(EXTRACT, System.nanoTime() - start);
+		start = System.nanoTime();
+		Loader.load(net.clesperanto._internals.jclic.class);
+		record(DLOPEN, System.nanoTime() - start);
+		coreLoaded = true;
+	}
+
+	/**
+	 * Load the native library of one kernel tier, and the core library if it was not loaded yet.
+	 * Calling this method more than once for the same tier has no effect.
+	 * @param tier
+	 * 	the tier to load, between 1 and 8
+	 * @throws IllegalArgumentException if the tier does not exist
+	 */
+	public static synchronized void loadTier(int tier) {
+		if (tier < 1 || tier > TIERS.length)
+			throw new IllegalArgumentException("Tier should be between 1 and " + TIERS.length + ": " + tier);
+		if (tierLoaded[tier - 1])
+			return;
+		loadCore();
+		long start = System.nanoTime();
+		Loader.load(TIERS[tier - 1]);
+		record(DLOPEN + " tier" + tier, System.nanoTime() - start);
+		tierLoaded[tier - 1] = true;
+	}
+
+	/**
+	 * Store the duration of a startup phase. Only the first occurrence of each phase is kept,
+	 * later calls (e.g. when a second device is created) are ignored.
+	 */
+	static synchronized void record(String phase, long nanos) {
+		if (!TIMINGS.containsKey(phase))
+			TIMINGS.put(phase, nanos);
+	}
+
+	/**
+	 *
+	 * @return the duration in nanoseconds of every startup phase that has happened so far, in the order
+	 * 	in which they happened
+	 */
+	public static synchronized Map<String, Long> getStartupTimings() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(TIMINGS));
+	}
+
+	/**
+	 *
+	 * @return a human readable summary of {@link #getStartupTimings()}
+	 */
+	public static synchronized String getStartupReport() {
+		StringBuilder sb = new StringBuilder("ClesperantoJ startup:");
+		long total = 0;
+		for (Map.Entry<String, Long> entry : TIMINGS.entrySet()) {
+			sb.append(String.format("%n  %-14s %8.2f ms", entry.getKey(), entry.getValue() / 1e6));
+			total += entry.getValue();
+		}
+		sb.append(String.format("%n  %-14s %8.2f ms", "total", total / 1e6));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,120 @@
+package net.clesperanto.core;
+
+/**
+ * Host-side timing of one operation (kernel call or memory transfer) executed on a {@link DeviceJ}
+ * while profiling is enabled, see {@link DeviceJ#setProfiling(boolean)}.
+ *
+ * All the timestamps are {@link System#nanoTime()} values taken on the host:
+ * - start: the Java call was made
+ * - returned: the native call returned, the arguments were set up and the work was enqueued
+ * - end: the host was done waiting for the device queue
+ *
+ * The OpenCL events of the kernels enqueued by CLIc are not accessible, so the time the device spent
+ * on the operation itself is not known: the wait covers everything left on the queue. While profiling,
+ * the device queue is drained after every operation so that the wait is not mixed with the next one.
+ */
+public class OperationEvent {
+
+	/**
+	 * Type of operation that was profiled
+	 */
+	public enum Kind {
+		KERNEL, TRANSFER
+	}
+
+	private final String name;
+	private final Kind kind;
+	private final String deviceName;
+	private final long start;
+	private final long returned;
+	private final long end;
+
+	OperationEvent(String name, Kind kind, String deviceName, long start, long returned, long end) {
+		this.name = name;
+		this.kind = kind;
+		this.deviceName = deviceName;
+		this.start = start;
+		this.returned = returned;
+		this.end = end;
+	}
+
+	/**
+	 *
+	 * @return the name of the operation, e.g. "Tier2.topHatBox" or "MemoryJ.readFloatBuffer"
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 *
+	 * @return whether the operation was a kernel call or a memory transfer
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 *
+	 * @return the name of the device where the operation was executed
+	 */
+	public String getDeviceName() {
+		return deviceName;
+	}
+
+	/**
+	 *
+	 * @return the timestamp in nanoseconds when the operation was called from Java
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 *
+	 * @return the timestamp in nanoseconds when the native call returned
+	 */
+	public long getReturned() {
+		return returned;
+	}
+
+	/**
+	 *
+	 * @return the timestamp in nanoseconds when the host was done waiting for the device
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 *
+	 * @return the time in nanoseconds spent in the native call: JNI, argument set up, program lookup or
+	 * 	compilation, output allocation and enqueueing. The kernels are profiled in non-blocking mode, so their
+	 * 	execution is not part of it, while a blocking transfer includes the copy
+	 */
+	public long getCallTime() {
+		return returned - start;
+	}
+
+	/**
+	 *
+	 * @return the time in nanoseconds the host then waited for the device queue to be finished
+	 */
+	public long getWaitTime() {
+		return end - returned;
+	}
+
+	/**
+	 *
+	 * @return the total time in nanoseconds of the operation, as seen by the host
+	 */
+	public long getTotalTime() {
+		return end - start;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s, call=%.3f ms, wait=%.3f ms, total=%.3f ms]", name, kind.name().toLowerCase(),
+				getCallTime() / 1e6, getWaitTime() / 1e6, getTotalTime() / 1e6);
+	}
+}
@@ -0,0 +1,25 @@
+package net.clesperanto.core;
+
+/**
+ * What ClesperantoJ does when a device runs out of memory while allocating an array,
+ * either with the {@code MemoryJ.make*} methods or as the output of a {@code Tier} kernel.
+ * Set it per device with {@link MemoryTracker#setOutOfMemoryPolicy(OutOfMemoryPolicy)}.
+ */
+public enum OutOfMemoryPolicy {
+	/**
+	 * Throw the error of the native library straight away
+	 */
+	FAIL,
+	/**
+	 * Free the arrays kept by the {@link ArrayPool} and the {@link ResultCache} of the device and the unreachable arrays,
+	 * then retry once before failing
+	 */
+	EVICT,
+	/**
+	 * Like {@link #EVICT}, and then move the least recently used idle arrays to the host memory
+	 * one by one, retrying after each of them, before failing. Spilled arrays are copied back to
+	 * the device transparently the next time they are used. Arrays larger than {@link ArrayJ#MAX_SPILL_BYTES}
+	 * stay on the device
+	 */
+	SPILL
+}
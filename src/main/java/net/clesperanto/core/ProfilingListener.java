@@ -0,0 +1,15 @@
+package net.clesperanto.core;
+
+/**
+ * Listener notified of every operation executed on a {@link DeviceJ} while profiling is enabled
+ */
+@FunctionalInterface
+public interface ProfilingListener {
+
+	/**
+	 * Called after an operation finished on the device
+	 * @param event
+	 * 	the timings of the operation
+	 */
+	void onEvent(OperationEvent event);
+}
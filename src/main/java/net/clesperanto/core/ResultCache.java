@@ -0,0 +1,300 @@
+package net.clesperanto.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Opt-in cache of the results of expensive operations, such as {@code Tier7.voronoiOtsuLabeling},
+ * so that re-running a workflow with unchanged inputs returns instantly.
+ *
+ * <pre>
+ * ResultCache cache = ResultCache.forDevice(device);
+ * ArrayJ labels = cache.compute("voronoiOtsuLabeling", Arrays.asList(input), new Object[] {2f, 2f},
+ * 		() -&gt; Tier7.voronoiOtsuLabeling(device, input, null, 2, 2));
+ * </pre>
+ *
+ * The results are keyed by the name of the operation, its parameters and a hash of the content of the
+ * inputs, computed on the device, so modifying an input in place is detected without any invalidation.
+ * The results are kept on the device within a memory budget, the least recently used ones are dropped first.
+ * The caches are also emptied when the device runs out of memory, see {@link OutOfMemoryPolicy}.
+ *
+ * The arrays returned by the cache are shared by every caller that asks for the same result and
+ * must not be modified.
+ *
+ * The caches are shared by all the {@link DeviceJ} objects that point to the same device.
+ */
+public class ResultCache {
+
+	private static final Map<String, ResultCache> CACHES = new HashMap<String, ResultCache>();
+
+	/** number of consecutive pixels of a row hashed by one work item */
+	private static final int HASH_BLOCK = 64;
+	private static final String HASH_KERNEL_NAME = "content_hash";
+	/** FNV-1a of every block of HASH_BLOCK pixels of a row, the host combines the blocks */
+	private static final String HASH_KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "__kernel void " + HASH_KERNEL_NAME + "(\n"
+			+ "    IMAGE_src_TYPE  src,\n"
+			+ "    IMAGE_dst_TYPE  dst,\n"
+			+ "    const float width\n"
+			+ ")\n{\n"
+			+ "  const int i = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n"
+			+ "  const int z = get_global_id(2);\n"
+			+ "  const int end = min((i + 1) * " + HASH_BLOCK + ", (int) width);\n\n"
+			+ "  uint hash = 2166136261u;\n"
+			+ "  for (int x = i * " + HASH_BLOCK + "; x < end; x++) {\n"
+			+ "    const IMAGE_src_PIXEL_TYPE value = READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,z,0)).x;\n"
+			+ "    hash = (hash ^ as_uint((float) value)) * 16777619u;\n"
+			+ "    hash = (hash ^ (uint) value) * 16777619u;\n"
+			+ "  }\n"
+			+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(i,y,z,0), CONVERT_dst_PIXEL_TYPE(hash));\n"
+			+ "}\n";
+
+	private static class Entry {
+		private final Object result;
+		private final long bytes;
+
+		private Entry(Object result, long bytes) {
+			this.result = result;
+			this.bytes = bytes;
+		}
+	}
+
+	private final String deviceName;
+	/** results in access order, the least recently used first */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private long cachedBytes = 0;
+	private long maxBytes = 256L * 1024 * 1024;
+	private long hits = 0;
+	private long misses = 0;
+
+	private ResultCache(String deviceName) {
+		this.deviceName = deviceName;
+	}
+
+	/**
+	 * Get the cache of the device
+	 * @param device
+	 * 	the device where the results are kept
+	 * @return the {@link ResultCache} shared by every {@link DeviceJ} pointing to the same device
+	 */
+	public static ResultCache forDevice(DeviceJ device) {
+		Objects.requireNonNull(device, "device cannot be null");
+		return forDevice(device.getName());
+	}
+
+	static synchronized ResultCache forDevice(String deviceName) {
+		ResultCache cache = CACHES.get(deviceName);
+		if (cache == null) {
+			cache = new ResultCache(deviceName);
+			CACHES.put(deviceName, cache);
+		}
+		return cache;
+	}
+
+	/**
+	 * Return the cached result of the operation, or compute it and cache it
+	 * @param <T>
+	 * 	the type of the result, an {@link ArrayJ}, a list of them or any value
+	 * @param name
+	 * 	the name of the operation, e.g. "Tier7.voronoiOtsuLabeling"
+	 * @param inputs
+	 * 	the arrays the operation reads
+	 * @param parameters
+	 * 	the other parameters of the operation, compared by value
+	 * @param operation
+	 * 	the operation, only called on a cache miss
+	 * @return the result of the operation
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T compute(String name, List<ArrayJ> inputs, Object[] parameters, Supplier<T> operation) {
+		Objects.requireNonNull(name, "name cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		StringBuilder key = new StringBuilder(name).append(Arrays.deepToString(parameters == null ? new Object[0] : parameters));
+		for (ArrayJ input : inputs) {
+			if (!deviceName.equals(input.getDeviceName()))
+				throw new IllegalArgumentException("The input " + input + " is not on " + deviceName);
+			key.append('|').append(input.getDataType()).append('/').append(input.getMemoryType())
+					.append(Arrays.toString(input.getDimensions())).append('#')
+					.append(Long.toHexString(contentHash(input.getDevice(), input)));
+		}
+		String id = key.toString();
+		synchronized (this) {
+			Entry entry = entries.get(id);
+			if (entry != null) {
+				hits++;
+				return (T) entry.result;
+			}
+			misses++;
+		}
+		T result = operation.get();
+		long bytes = sizeOf(result);
+		synchronized (this) {
+			if (maxBytes > 0 && bytes <= maxBytes) {
+				Entry previous = entries.put(id, new Entry(result, bytes));
+				if (previous != null)
+					cachedBytes -= previous.bytes;
+				cachedBytes += bytes;
+				trim();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compute a hash of the content of an array on the device. Only one value per block of
+	 * {@value #HASH_BLOCK} pixels of a row of the array is transferred to the host.
+	 * @param device
+	 * 	the device of the array
+	 * @param array
+	 * 	the array to hash
+	 * @return the hash of the values of the array
+	 */
+	public static long contentHash(DeviceJ device, ArrayJ array) {
+		long[] blocks = new long[] {(Math.max(1, array.getWidth()) + HASH_BLOCK - 1) / HASH_BLOCK, Math.max(1, array.getHeight()),
+				Math.max(1, array.getDepth())};
+		ArrayJ blockHashes = MemoryJ.makeUIntBuffer(device, blocks, "buffer");
+		device.execute("ResultCache.contentHash", () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", array);
+			arrays.put("dst", blockHashes);
+			Utils.executeKernel(device, HASH_KERNEL_NAME, HASH_KERNEL_SOURCE, arrays,
+					Collections.singletonMap("width", (float) array.getWidth()),
+					blocks);
+			return blockHashes;
+		});
+		int[] values = new int[(int) (blocks[0] * blocks[1] * blocks[2])];
+		MemoryJ.readUIntBuffer(blockHashes, values, values.length);
+		// 64-bit FNV-1a of the block hashes
+		long hash = 0xcbf29ce484222325L;
+		for (int value : values) {
+			hash ^= value & 0xffffffffL;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static long sizeOf(Object result) {
+		if (result instanceof ArrayJ)
+			return ((ArrayJ) result).getSizeInBytes();
+		long bytes = 0;
+		if (result instanceof List) {
+			for (Object element : (List<?>) result)
+				bytes += sizeOf(element);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Set the maximum number of bytes of device memory the cached results can take
+	 * @param maxBytes
+	 * 	the budget, 0 or less disables the cache
+	 */
+	public synchronized void setMaxBytes(long maxBytes) {
+		this.maxBytes = Math.max(0, maxBytes);
+		trim();
+	}
+
+	/**
+	 *
+	 * @return the maximum number of bytes of device memory the cached results can take, 256 MB by default
+	 */
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes of device memory taken by the cached results
+	 */
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	/**
+	 *
+	 * @return the number of results currently cached
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 *
+	 * @return the number of calls that returned a cached result
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 *
+	 * @return the number of calls that had to compute their result
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Drop the cached results of an operation
+	 * @param name
+	 * 	the name of the operation given to {@link #compute(String, List, Object[], Supplier)}
+	 */
+	public synchronized void invalidate(String name) {
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, Entry> entry = it.next();
+			if (entry.getKey().startsWith(name + "[")) {
+				cachedBytes -= entry.getValue().bytes;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Drop every cached result. Their device memory is freed once they are garbage collected,
+	 * see {@link MemoryTracker#cleanup()}.
+	 */
+	public synchronized void invalidateAll() {
+		entries.clear();
+		cachedBytes = 0;
+	}
+
+	private void trim() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (cachedBytes > maxBytes && it.hasNext()) {
+			cachedBytes -= it.next().bytes;
+			it.remove();
+		}
+	}
+
+	/**
+	 *
+	 * @return the names of the operations that currently have cached results
+	 */
+	public synchronized List<String> getCachedOperations() {
+		List<String> names = new ArrayList<String>();
+		for (String key : entries.keySet()) {
+			String name = key.substring(0, key.indexOf('['));
+			if (!names.contains(name))
+				names.add(name);
+		}
+		return names;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ResultCache[" + deviceName + ", cached=" + Pointer.formatBytes(cachedBytes) + ", results=" + entries.size()
+				+ ", hits=" + hits + ", misses=" + misses + "]";
+	}
+}
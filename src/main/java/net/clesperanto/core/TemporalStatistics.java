@@ -0,0 +1,249 @@
+package net.clesperanto.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-pixel statistics of a sequence of frames, such as the frames of a long time lapse, accumulated on the device
+ * one frame at a time.
+ *
+ * <pre>
+ * TemporalStatistics statistics = new TemporalStatistics(device, new long[] {512, 512});
+ * for (ArrayJ frame : frames) {
+ * 	statistics.add(frame);
+ * 	if (statistics.getFrameCount() % 100 == 0)
+ * 		background = statistics.getMean();
+ * }
+ * ArrayJ noise = statistics.getStandardDeviation();
+ * </pre>
+ *
+ * For every pixel the accumulator keeps the number of values, their mean, the sum of the squared differences to the
+ * mean updated with Welford's algorithm, which stays accurate over many frames where a sum of squares would lose
+ * its precision, their minimum and their maximum. NaN values are skipped, so the count of a pixel is the number of
+ * frames where it was defined.
+ *
+ * The getters return snapshots: new float arrays holding the statistics of the frames added so far, which are not
+ * affected by the frames added afterwards. Nothing is copied to the host.
+ */
+public class TemporalStatistics {
+
+	private static final String ADD_KERNEL_NAME = "add_to_temporal_statistics";
+	private static final String ADD_KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "__kernel void " + ADD_KERNEL_NAME + "(\n"
+			+ "    IMAGE_src_TYPE  src,\n"
+			+ "    IMAGE_count_TYPE  count,\n"
+			+ "    IMAGE_mean_TYPE  mean,\n"
+			+ "    IMAGE_m2_TYPE  m2,\n"
+			+ "    IMAGE_min_TYPE  min,\n"
+			+ "    IMAGE_max_TYPE  max,\n"
+			+ "    const float first\n"
+			+ ")\n{\n"
+			+ "  const int x = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n"
+			+ "  const int z = get_global_id(2);\n\n"
+			+ "  float n = 0;\n"
+			+ "  float m = 0;\n"
+			+ "  float s = 0;\n"
+			+ "  float lo = INFINITY;\n"
+			+ "  float hi = -INFINITY;\n"
+			+ "  if (first == 0) {\n"
+			+ "    n = READ_IMAGE(count, sampler, POS_count_INSTANCE(x,y,z,0)).x;\n"
+			+ "    m = READ_IMAGE(mean, sampler, POS_mean_INSTANCE(x,y,z,0)).x;\n"
+			+ "    s = READ_IMAGE(m2, sampler, POS_m2_INSTANCE(x,y,z,0)).x;\n"
+			+ "    lo = READ_IMAGE(min, sampler, POS_min_INSTANCE(x,y,z,0)).x;\n"
+			+ "    hi = READ_IMAGE(max, sampler, POS_max_INSTANCE(x,y,z,0)).x;\n"
+			+ "  }\n"
+			+ "  const float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,z,0)).x;\n"
+			+ "  if (!isnan(v)) {\n"
+			+ "    n += 1;\n"
+			+ "    const float delta = v - m;\n"
+			+ "    m += delta / n;\n"
+			+ "    s += delta * (v - m);\n"
+			+ "    lo = fmin(lo, v);\n"
+			+ "    hi = fmax(hi, v);\n"
+			+ "  }\n"
+			+ "  WRITE_IMAGE(count, POS_count_INSTANCE(x,y,z,0), n);\n"
+			+ "  WRITE_IMAGE(mean, POS_mean_INSTANCE(x,y,z,0), m);\n"
+			+ "  WRITE_IMAGE(m2, POS_m2_INSTANCE(x,y,z,0), s);\n"
+			+ "  WRITE_IMAGE(min, POS_min_INSTANCE(x,y,z,0), lo);\n"
+			+ "  WRITE_IMAGE(max, POS_max_INSTANCE(x,y,z,0), hi);\n"
+			+ "}\n";
+
+	private static final String VARIANCE_KERNEL_NAME = "temporal_variance";
+	private static final String VARIANCE_KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "__kernel void " + VARIANCE_KERNEL_NAME + "(\n"
+			+ "    IMAGE_count_TYPE  count,\n"
+			+ "    IMAGE_m2_TYPE  m2,\n"
+			+ "    IMAGE_dst_TYPE  dst,\n"
+			+ "    const float root\n"
+			+ ")\n{\n"
+			+ "  const int x = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n"
+			+ "  const int z = get_global_id(2);\n\n"
+			+ "  const float n = READ_IMAGE(count, sampler, POS_count_INSTANCE(x,y,z,0)).x;\n"
+			+ "  float variance = n > 0 ? READ_IMAGE(m2, sampler, POS_m2_INSTANCE(x,y,z,0)).x / n : 0;\n"
+			+ "  if (root != 0) {\n"
+			+ "    variance = sqrt(variance);\n"
+			+ "  }\n"
+			+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(x,y,z,0), CONVERT_dst_PIXEL_TYPE(variance));\n"
+			+ "}\n";
+
+	private final DeviceJ device;
+	private final long[] dimensions;
+	private final ArrayJ count;
+	private final ArrayJ mean;
+	private final ArrayJ m2;
+	private final ArrayJ min;
+	private final ArrayJ max;
+	private long frames = 0;
+
+	/**
+	 * Create an empty accumulator
+	 * @param device
+	 * 	the device where the statistics are kept
+	 * @param dimensions
+	 * 	the dimensions of the frames, [width, height] or [width, height, depth]
+	 */
+	public TemporalStatistics(DeviceJ device, long[] dimensions) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(dimensions, "dimensions cannot be null");
+		if (dimensions.length < 1 || dimensions.length > 3)
+			throw new IllegalArgumentException("The frames have to be 1D, 2D or 3D: " + Arrays.toString(dimensions));
+		this.dimensions = dimensions.clone();
+		this.count = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		this.mean = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		this.m2 = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		this.min = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		this.max = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+	}
+
+	/**
+	 * Add a frame to the statistics. The frame can be reused or discarded afterwards.
+	 * @param frame
+	 * 	a frame of any data type, with the dimensions of the accumulator
+	 * @throws IllegalArgumentException if the frame does not have the dimensions of the accumulator
+	 */
+	public synchronized void add(ArrayJ frame) {
+		Objects.requireNonNull(frame, "frame cannot be null");
+		if (frame.getWidth() != count.getWidth() || frame.getHeight() != count.getHeight() || frame.getDepth() != count.getDepth())
+			throw new IllegalArgumentException("The frame " + frame + " does not have the dimensions " + Arrays.toString(dimensions));
+		boolean first = frames == 0;
+		device.execute("TemporalStatistics.add", () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", frame);
+			arrays.put("count", count);
+			arrays.put("mean", mean);
+			arrays.put("m2", m2);
+			arrays.put("min", min);
+			arrays.put("max", max);
+			Utils.executeKernel(device, ADD_KERNEL_NAME, ADD_KERNEL_SOURCE, arrays,
+					Collections.singletonMap("first", first ? 1f : 0f),
+					new long[] {count.getWidth(), count.getHeight(), count.getDepth()});
+			return null;
+		});
+		frames ++;
+	}
+
+	/**
+	 * Forget every frame added so far
+	 */
+	public synchronized void reset() {
+		frames = 0;
+	}
+
+	private ArrayJ snapshot(ArrayJ statistic) {
+		if (frames == 0)
+			throw new IllegalStateException("No frame has been added yet");
+		ArrayJ result = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		statistic.copyDataTo(result);
+		return result;
+	}
+
+	private ArrayJ variance(boolean root) {
+		if (frames == 0)
+			throw new IllegalStateException("No frame has been added yet");
+		ArrayJ result = MemoryJ.makeFloatBuffer(device, dimensions, "buffer");
+		return device.execute("TemporalStatistics.variance", () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("count", count);
+			arrays.put("m2", m2);
+			arrays.put("dst", result);
+			Utils.executeKernel(device, VARIANCE_KERNEL_NAME, VARIANCE_KERNEL_SOURCE, arrays,
+					Collections.singletonMap("root", root ? 1f : 0f),
+					new long[] {count.getWidth(), count.getHeight(), count.getDepth()});
+			return result;
+		});
+	}
+
+	/**
+	 *
+	 * @return the number of values of every pixel that were not NaN, a new float image
+	 */
+	public synchronized ArrayJ getCount() {
+		return snapshot(count);
+	}
+
+	/**
+	 *
+	 * @return the mean of every pixel, a new float image
+	 */
+	public synchronized ArrayJ getMean() {
+		return snapshot(mean);
+	}
+
+	/**
+	 *
+	 * @return the variance of every pixel, normalized by its count, a new float image
+	 */
+	public synchronized ArrayJ getVariance() {
+		return variance(false);
+	}
+
+	/**
+	 *
+	 * @return the standard deviation of every pixel, normalized by its count, a new float image
+	 */
+	public synchronized ArrayJ getStandardDeviation() {
+		return variance(true);
+	}
+
+	/**
+	 *
+	 * @return the minimum of every pixel, +Infinity where all values were NaN, a new float image
+	 */
+	public synchronized ArrayJ getMinimum() {
+		return snapshot(min);
+	}
+
+	/**
+	 *
+	 * @return the maximum of every pixel, -Infinity where all values were NaN, a new float image
+	 */
+	public synchronized ArrayJ getMaximum() {
+		return snapshot(max);
+	}
+
+	/**
+	 *
+	 * @return the number of frames added since the creation or the last {@link #reset()}
+	 */
+	public synchronized long getFrameCount() {
+		return frames;
+	}
+
+	/**
+	 *
+	 * @return the dimensions of the frames
+	 */
+	public long[] getDimensions() {
+		return dimensions.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "TemporalStatistics[" + Arrays.toString(dimensions) + ", frames=" + getFrameCount() + "]";
+	}
+}
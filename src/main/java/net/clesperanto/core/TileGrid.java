@@ -0,0 +1,196 @@
+package net.clesperanto.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Regular grid of tiles covering an image, for the operations that process images too big for the device one tile
+ * at a time.
+ *
+ * <pre>
+ * TileGrid grid = new TileGrid(min, max, new long[] {512, 512, 64});
+ * for (TileGrid.Tile tile : grid) {
+ * 	TileGrid.Tile region = grid.expand(tile, halo);
+ * 	...
+ * }
+ * </pre>
+ *
+ * The tiles are iterated x varying the fastest, and their index in that order is given by {@link #indexOf(long[])}.
+ * The last tile along each dimension is cut at the border of the image.
+ */
+public class TileGrid implements Iterable<TileGrid.Tile> {
+
+	/**
+	 * Box of the image, given by its first and last positions, both inclusive
+	 */
+	public static class Tile {
+		private final long[] min;
+		private final long[] max;
+
+		private Tile(long[] min, long[] max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		/**
+		 *
+		 * @return the first position of the tile, in the coordinates of the image
+		 */
+		public long[] getMin() {
+			return min.clone();
+		}
+
+		/**
+		 *
+		 * @return the last position of the tile, in the coordinates of the image
+		 */
+		public long[] getMax() {
+			return max.clone();
+		}
+
+		/**
+		 *
+		 * @return the size of the tile along each dimension
+		 */
+		public long[] getDimensions() {
+			long[] dims = new long[min.length];
+			for (int d = 0; d < dims.length; d++)
+				dims[d] = max[d] - min[d] + 1;
+			return dims;
+		}
+
+		@Override
+		public String toString() {
+			return "Tile[" + Arrays.toString(min) + " -> " + Arrays.toString(max) + "]";
+		}
+	}
+
+	private final long[] min;
+	private final long[] max;
+	private final long[] tileSize;
+	private final long[] tileCounts;
+	private final int size;
+
+	/**
+	 * Create the grid of an image
+	 * @param min
+	 * 	the first position of the image
+	 * @param max
+	 * 	the last position of the image, inclusive
+	 * @param tileSize
+	 * 	the size of the tiles, with at least as many dimensions as the image
+	 * @throws IllegalArgumentException if a tile size is not positive or the grid has more than
+	 * 	{@link Integer#MAX_VALUE} tiles
+	 */
+	public TileGrid(long[] min, long[] max, long[] tileSize) {
+		if (min.length != max.length || tileSize.length < min.length)
+			throw new IllegalArgumentException("Cannot tile the image " + Arrays.toString(min) + " -> " + Arrays.toString(max)
+					+ " in tiles of " + Arrays.toString(tileSize));
+		this.min = min.clone();
+		this.max = max.clone();
+		this.tileSize = Arrays.copyOf(tileSize, min.length);
+		this.tileCounts = new long[min.length];
+		long count = 1;
+		for (int d = 0; d < min.length; d++) {
+			if (tileSize[d] <= 0)
+				throw new IllegalArgumentException("The tile size has to be positive: " + Arrays.toString(tileSize));
+			tileCounts[d] = (max[d] - min[d]) / tileSize[d] + 1;
+			count *= tileCounts[d];
+			if (count > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Too many tiles of " + Arrays.toString(tileSize) + ", use bigger tiles");
+		}
+		this.size = (int) count;
+	}
+
+	/**
+	 *
+	 * @return the number of tiles
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 *
+	 * @return the number of tiles along each dimension
+	 */
+	public long[] getTileCounts() {
+		return tileCounts.clone();
+	}
+
+	/**
+	 * Get a tile
+	 * @param index
+	 * 	the index of the tile, x varying the fastest
+	 * @return the tile
+	 */
+	public Tile get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Tile " + index + " of " + size);
+		long[] tileMin = new long[min.length];
+		long[] tileMax = new long[min.length];
+		long rest = index;
+		for (int d = 0; d < min.length; d++) {
+			tileMin[d] = min[d] + rest % tileCounts[d] * tileSize[d];
+			tileMax[d] = Math.min(max[d], tileMin[d] + tileSize[d] - 1);
+			rest /= tileCounts[d];
+		}
+		return new Tile(tileMin, tileMax);
+	}
+
+	/**
+	 *
+	 * @param position
+	 * 	a position of the image
+	 * @return the index of the tile holding the position
+	 */
+	public int indexOf(long[] position) {
+		long index = 0;
+		for (int d = min.length - 1; d >= 0; d--)
+			index = index * tileCounts[d] + (position[d] - min[d]) / tileSize[d];
+		return (int) index;
+	}
+
+	/**
+	 * Grow a tile by a margin, without going past the border of the image
+	 * @param tile
+	 * 	a tile of the grid
+	 * @param margin
+	 * 	the number of pixels added on both sides along each dimension, such as the halo of a filter
+	 * @return the grown tile
+	 */
+	public Tile expand(Tile tile, long[] margin) {
+		long[] regionMin = new long[min.length];
+		long[] regionMax = new long[min.length];
+		for (int d = 0; d < min.length; d++) {
+			regionMin[d] = Math.max(min[d], tile.min[d] - margin[d]);
+			regionMax[d] = Math.min(max[d], tile.max[d] + margin[d]);
+		}
+		return new Tile(regionMin, regionMax);
+	}
+
+	@Override
+	public Iterator<Tile> iterator() {
+		return new Iterator<Tile>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Tile next() {
+				if (next >= size)
+					throw new NoSuchElementException();
+				return get(next++);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "TileGrid[" + Arrays.toString(tileCounts) + " tiles of " + Arrays.toString(tileSize) + "]";
+	}
+}
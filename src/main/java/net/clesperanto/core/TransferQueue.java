@@ -0,0 +1,89 @@
+package net.clesperanto.core;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Queue of a device dedicated to memory transfers, so that copies between the host and the device run while
+ * the kernels enqueued on the queue of the device execute.
+ *
+ * <pre>
+ * TransferQueue uploads = new TransferQueue(device);
+ * DeviceEvent uploaded = uploads.write(frame, input, null);
+ * uploaded.enqueueWait(device);
+ * Tier1.gaussianBlur(device, input, output, 2, 2, 0);
+ * </pre>
+ *
+ * The transfers do not block: they return an event that is complete once the data has been copied, and they
+ * start once the given event is complete. The host buffers have to be direct and must not be touched until the
+ * event of their transfer is complete. The transfers of one queue run in the order they were enqueued.
+ *
+ * On backends without events, and for the arrays that are not buffers, the transfers are made through the
+ * array and block until they are done.
+ */
+public class TransferQueue {
+
+	private final DeviceJ device;
+	private final net.clesperanto._internals.jclic.TransferQueueJ queuej;
+
+	/**
+	 * Create a transfer queue on a device
+	 * @param device
+	 * 	the device where the data is transferred
+	 */
+	public TransferQueue(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		this.queuej = new net.clesperanto._internals.jclic.TransferQueueJ(device.getRaw());
+	}
+
+	/**
+	 * Enqueue the copy of host data into an array of the device
+	 * @param source
+	 * 	direct buffer holding the data in the layout of the array, from its position
+	 * @param target
+	 * 	the array written
+	 * @param after
+	 * 	the event the copy waits for, such as the last use of the array by a kernel, null to start at once
+	 * @return the event of the copy
+	 */
+	public DeviceEvent write(ByteBuffer source, ArrayJ target, DeviceEvent after) {
+		checkBuffer(source, target);
+		return new DeviceEvent(queuej.write(target.getRaw(), source, target.getSizeInBytes(), raw(after)));
+	}
+
+	/**
+	 * Enqueue the copy of an array of the device into host memory
+	 * @param source
+	 * 	the array read
+	 * @param target
+	 * 	direct buffer where the data is written in the layout of the array, from its position
+	 * @param after
+	 * 	the event the copy waits for, such as the kernel writing the array, null to start at once
+	 * @return the event of the copy
+	 */
+	public DeviceEvent read(ArrayJ source, ByteBuffer target, DeviceEvent after) {
+		checkBuffer(target, source);
+		return new DeviceEvent(queuej.read(source.getRaw(), target, source.getSizeInBytes(), raw(after)));
+	}
+
+	private void checkBuffer(ByteBuffer buffer, ArrayJ array) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		Objects.requireNonNull(array, "array cannot be null");
+		if (!buffer.isDirect())
+			throw new IllegalArgumentException("The transfers need a direct buffer");
+		if (buffer.remaining() < array.getSizeInBytes())
+			throw new IllegalArgumentException("The buffer has " + buffer.remaining() + " bytes left, the array has "
+					+ array.getSizeInBytes());
+		if (!device.getName().equals(array.getDeviceName()))
+			throw new IllegalArgumentException("The array is on " + array.getDeviceName() + ", not on " + device.getName());
+	}
+
+	private static net.clesperanto._internals.jclic.EventJ raw(DeviceEvent event) {
+		return event == null ? new net.clesperanto._internals.jclic.EventJ() : event.getRaw();
+	}
+
+	@Override
+	public String toString() {
+		return "TransferQueue[" + device.getName() + "]";
+	}
+}
@@ -1,17 +1,26 @@
 package net.clesperanto.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import net.clesperanto._internals.jclic.StringVector;
 import net.clesperanto._internals.jclic.FloatVector;
 import net.clesperanto._internals.jclic.ArrayJVector;
 import net.clesperanto._internals.jclic.FloatVectorMap;
+import net.clesperanto._internals.jclic.KernelJ;
 
 import net.clesperanto._internals.jclic.UtilsJ;
 
 public class Utils {
 
+	/** first line of the custom kernels, the sampler used by the READ_IMAGE macro */
+	public static final String KERNEL_PREAMBLE =
+			"__constant sampler_t sampler = CLK_NORMALIZED_COORDS_FALSE | CLK_ADDRESS_CLAMP_TO_EDGE | CLK_FILTER_NEAREST;\n\n";
+
 	public static ArrayList<String> toArrayList(StringVector vector) {
 		ArrayList<String> arr = new ArrayList<String>((int) vector.size());
 		for (int i = 0; i < vector.size(); i++) {
@@ -56,4 +65,137 @@ public class Utils {
 		return vector;
 	}
 
+	/**
+	 * Get the output of one call of a batch
+	 * @param inputs
+	 * 	the inputs of the batch
+	 * @param outputs
+	 * 	the outputs of the batch, null if the calls have to allocate them
+	 * @param index
+	 * 	the index of the call
+	 * @return the output of the call, null if it has to be allocated
+	 * @throws IllegalArgumentException if there is not one output per input
+	 */
+	public static ArrayJ batchOutput(List<ArrayJ> inputs, List<ArrayJ> outputs, int index) {
+		if (outputs == null)
+			return null;
+		if (outputs.size() != inputs.size())
+			throw new IllegalArgumentException("The batch has " + inputs.size() + " inputs but " + outputs.size() + " outputs");
+		return outputs.get(index);
+	}
+
+	/**
+	 * Run an operation that reads the neighborhood of every pixel, so that it can be given the same array
+	 * as input and output. Such an operation would read neighbors that were already overwritten, so when the
+	 * output shares its memory with the input the operation writes into a scratch array of the {@link ArrayPool}
+	 * instead, which is then copied into the output and given back to the pool. Otherwise the operation
+	 * writes directly into the output.
+	 * @param device
+	 * 	the device where the operation is executed
+	 * @param input
+	 * 	the input of the operation
+	 * @param output
+	 * 	the output of the operation, can be the input or null
+	 * @param operation
+	 * 	the operation, called with the array where it has to write
+	 * @return the output of the operation
+	 */
+	public static ArrayJ neighborhoodInPlace(DeviceJ device, ArrayJ input, ArrayJ output, UnaryOperator<ArrayJ> operation) {
+		return inPlace(device, Collections.singletonList(input), output, false, operation);
+	}
+
+	/**
+	 * Same as {@link #neighborhoodInPlace(DeviceJ, ArrayJ, ArrayJ, UnaryOperator)} for the operations with several
+	 * inputs, or that move pixels such as the transpositions: the scratch array is used when the output shares its
+	 * memory with any of the inputs.
+	 * @param device
+	 * 	the device where the operation is executed
+	 * @param inputs
+	 * 	the inputs of the operation
+	 * @param output
+	 * 	the output of the operation, can be one of the inputs or null
+	 * @param operation
+	 * 	the operation, called with the array where it has to write
+	 * @return the output of the operation
+	 */
+	public static ArrayJ neighborhoodInPlace(DeviceJ device, List<ArrayJ> inputs, ArrayJ output, UnaryOperator<ArrayJ> operation) {
+		return inPlace(device, inputs, output, false, operation);
+	}
+
+	/**
+	 * Same as {@link #neighborhoodInPlace(DeviceJ, List, ArrayJ, UnaryOperator)} for the operations that only write
+	 * some pixels of their output and keep the others, such as {@code Tier1.paste} or {@code Tier1.nonzeroMaximum}:
+	 * the scratch array starts as a copy of the output.
+	 * @param device
+	 * 	the device where the operation is executed
+	 * @param inputs
+	 * 	the inputs of the operation
+	 * @param output
+	 * 	the output of the operation, can be one of the inputs
+	 * @param operation
+	 * 	the operation, called with the array where it has to write
+	 * @return the output of the operation
+	 */
+	public static ArrayJ partialInPlace(DeviceJ device, List<ArrayJ> inputs, ArrayJ output, UnaryOperator<ArrayJ> operation) {
+		return inPlace(device, inputs, output, true, operation);
+	}
+
+	private static ArrayJ inPlace(DeviceJ device, List<ArrayJ> inputs, ArrayJ output, boolean keepOutput,
+			UnaryOperator<ArrayJ> operation) {
+		if (output == null || !sharesMemoryWithAny(output, inputs))
+			return operation.apply(output);
+		ArrayPool pool = ArrayPool.forDevice(device);
+		ArrayJ scratch = pool.acquire(device, DataType.fromString(output.getDataType()), output.getDimensions(), output.getMemoryType());
+		try {
+			if (keepOutput)
+				output.copyDataTo(scratch);
+			operation.apply(scratch).copyDataTo(output);
+		} finally {
+			pool.release(scratch);
+		}
+		return output;
+	}
+
+	private static boolean sharesMemoryWithAny(ArrayJ output, List<ArrayJ> inputs) {
+		for (ArrayJ input : inputs) {
+			if (output.sharesMemoryWith(input))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Launch a custom kernel on the device. The call is not profiled nor recorded, so it has to be made from
+	 * the call given to {@link DeviceJ#execute(String, java.util.function.Supplier)}.
+	 * @param device
+	 * 	the device where the kernel runs
+	 * @param kernelName
+	 * 	the name of the kernel function in the source
+	 * @param source
+	 * 	the source of the kernel, usually starting with {@link #KERNEL_PREAMBLE}
+	 * @param arrays
+	 * 	the array parameters of the kernel by name, in the order of the kernel signature
+	 * @param scalars
+	 * 	the float parameters of the kernel by name, in the order of the kernel signature
+	 * @param range
+	 * 	the global range of the kernel, [width, height, depth]
+	 */
+	public static void executeKernel(DeviceJ device, String kernelName, String source, Map<String, ArrayJ> arrays,
+			Map<String, Float> scalars, long[] range) {
+		StringVector arrayNames = new StringVector();
+		ArrayJVector rawArrays = new ArrayJVector();
+		for (Map.Entry<String, ArrayJ> entry : arrays.entrySet()) {
+			arrayNames.push_back(entry.getKey());
+			rawArrays.push_back(entry.getValue().getRaw());
+		}
+		StringVector scalarNames = new StringVector();
+		FloatVector values = new FloatVector();
+		for (Map.Entry<String, Float> entry : scalars.entrySet()) {
+			scalarNames.push_back(entry.getKey());
+			values.push_back(entry.getValue());
+		}
+		KernelJ.execute(device.getRaw(), kernelName, source, arrayNames, rawArrays, scalarNames, values,
+				range[0], range[1], range[2]);
+	}
+
 }
@@ -0,0 +1,194 @@
+package net.clesperanto.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Z projections of a stack that is streamed to the device slab by slab, for stacks that do not fit in its memory.
+ *
+ * <pre>
+ * ZProjectionAccumulator accumulator = ZProjectionAccumulator.project(device,
+ * 		ImgLib2Converters.slabs(hugeStack, 16, device, "buffer"));
+ * ArrayJ max = accumulator.getMaximum();
+ * ArrayJ std = accumulator.getStandardDeviation();
+ * </pre>
+ *
+ * The accumulator keeps the running maximum, mean and sum of squared differences to the mean of every pixel on the
+ * device, as float images of the size of one plane. Each slab updates them with a single kernel, following the
+ * algorithm of Welford, and can be discarded afterwards, so the memory used on the device is three planes plus one
+ * slab, whatever the depth of the stack. Unlike a sum of squares, the squared differences do not cancel out for
+ * bright pixels that vary little. The number of planes is the same for every pixel and is kept on the host.
+ * The results match {@code Tier1.maximumZProjection}, {@code Tier1.sumZProjection}, {@code Tier1.meanZProjection}
+ * and {@code Tier1.stdZProjection} up to the float rounding.
+ */
+public class ZProjectionAccumulator {
+
+	private static final String ACCUMULATE_KERNEL_NAME = "accumulate_z_projections";
+	private static final String ACCUMULATE_KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "__kernel void " + ACCUMULATE_KERNEL_NAME + "(\n"
+			+ "    IMAGE_src_TYPE  src,\n"
+			+ "    IMAGE_max_TYPE  max,\n"
+			+ "    IMAGE_mean_TYPE  mean,\n"
+			+ "    IMAGE_m2_TYPE  m2,\n"
+			+ "    const float depth,\n"
+			+ "    const float count\n"
+			+ ")\n{\n"
+			+ "  const int x = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n\n"
+			+ "  float m = -INFINITY;\n"
+			+ "  float mu = 0;\n"
+			+ "  float q = 0;\n"
+			+ "  float n = count;\n"
+			+ "  if (n > 0) {\n"
+			+ "    m = READ_IMAGE(max, sampler, POS_max_INSTANCE(x,y,0,0)).x;\n"
+			+ "    mu = READ_IMAGE(mean, sampler, POS_mean_INSTANCE(x,y,0,0)).x;\n"
+			+ "    q = READ_IMAGE(m2, sampler, POS_m2_INSTANCE(x,y,0,0)).x;\n"
+			+ "  }\n"
+			+ "  for (int z = 0; z < (int) depth; z++) {\n"
+			+ "    const float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,z,0)).x;\n"
+			+ "    m = fmax(m, v);\n"
+			+ "    n += 1;\n"
+			+ "    const float delta = v - mu;\n"
+			+ "    mu += delta / n;\n"
+			+ "    q += delta * (v - mu);\n"
+			+ "  }\n"
+			+ "  WRITE_IMAGE(max, POS_max_INSTANCE(x,y,0,0), m);\n"
+			+ "  WRITE_IMAGE(mean, POS_mean_INSTANCE(x,y,0,0), mu);\n"
+			+ "  WRITE_IMAGE(m2, POS_m2_INSTANCE(x,y,0,0), q);\n"
+			+ "}\n";
+
+	private final DeviceJ device;
+	private final long width;
+	private final long height;
+	private final ArrayJ max;
+	private final ArrayJ mean;
+	/** sum of the squared differences to the mean */
+	private final ArrayJ m2;
+	private long count = 0;
+
+	/**
+	 * Create an empty accumulator
+	 * @param device
+	 * 	the device where the accumulators are kept
+	 * @param width
+	 * 	the width of the planes of the stack
+	 * @param height
+	 * 	the height of the planes of the stack
+	 */
+	public ZProjectionAccumulator(DeviceJ device, long width, long height) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		this.width = width;
+		this.height = height;
+		long[] dims = new long[] {width, height};
+		this.max = MemoryJ.makeFloatBuffer(device, dims, "buffer");
+		this.mean = MemoryJ.makeFloatBuffer(device, dims, "buffer");
+		this.m2 = MemoryJ.makeFloatBuffer(device, dims, "buffer");
+	}
+
+	/**
+	 * Accumulate every slab of a stack
+	 * @param device
+	 * 	the device where the accumulators are kept
+	 * @param slabs
+	 * 	the slabs of the stack, in any order, all with the same width and height
+	 * @return the accumulator, or null if there is no slab
+	 */
+	public static ZProjectionAccumulator project(DeviceJ device, Iterator<ArrayJ> slabs) {
+		ZProjectionAccumulator accumulator = null;
+		while (slabs.hasNext()) {
+			ArrayJ slab = slabs.next();
+			if (accumulator == null)
+				accumulator = new ZProjectionAccumulator(device, slab.getWidth(), slab.getHeight());
+			accumulator.accumulate(slab);
+		}
+		return accumulator;
+	}
+
+	/**
+	 * Add the planes of a slab to the projections. The slab can be reused or discarded afterwards.
+	 * @param slab
+	 * 	a 2D plane or a 3D stack of planes, with the width and height of the accumulator
+	 * @throws IllegalArgumentException if the slab does not have the size of the planes
+	 */
+	public synchronized void accumulate(ArrayJ slab) {
+		Objects.requireNonNull(slab, "slab cannot be null");
+		if (slab.getWidth() != width || slab.getHeight() != height)
+			throw new IllegalArgumentException("The slab " + slab + " does not have planes of " + width + "x" + height);
+		long depth = Math.max(1, slab.getDepth());
+		float planes = count;
+		device.execute("ZProjectionAccumulator.accumulate", () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", slab);
+			arrays.put("max", max);
+			arrays.put("mean", mean);
+			arrays.put("m2", m2);
+			Map<String, Float> scalars = new LinkedHashMap<String, Float>();
+			scalars.put("depth", (float) depth);
+			scalars.put("count", planes);
+			Utils.executeKernel(device, ACCUMULATE_KERNEL_NAME, ACCUMULATE_KERNEL_SOURCE, arrays, scalars,
+					new long[] {width, height, 1});
+			return null;
+		});
+		count += depth;
+	}
+
+	private void checkNotEmpty() {
+		if (count == 0)
+			throw new IllegalStateException("No plane has been accumulated yet");
+	}
+
+	/**
+	 *
+	 * @return the maximum of every pixel along z, a new float image
+	 */
+	public synchronized ArrayJ getMaximum() {
+		checkNotEmpty();
+		ArrayJ result = MemoryJ.makeFloatBuffer(device, new long[] {width, height}, "buffer");
+		max.copyDataTo(result);
+		return result;
+	}
+
+	/**
+	 *
+	 * @return the sum of every pixel along z, a new float image
+	 */
+	public synchronized ArrayJ getSum() {
+		checkNotEmpty();
+		return ElementwiseChain.start().multiplyImageAndScalar(count).execute(device, mean, null);
+	}
+
+	/**
+	 *
+	 * @return the mean of every pixel along z, a new float image
+	 */
+	public synchronized ArrayJ getMean() {
+		checkNotEmpty();
+		ArrayJ result = MemoryJ.makeFloatBuffer(device, new long[] {width, height}, "buffer");
+		mean.copyDataTo(result);
+		return result;
+	}
+
+	/**
+	 *
+	 * @return the standard deviation of every pixel along z, normalized by the number of planes, a new float image
+	 */
+	public synchronized ArrayJ getStandardDeviation() {
+		checkNotEmpty();
+		return ElementwiseChain.start().multiplyImageAndScalar(1f / count).squareRoot().execute(device, m2, null);
+	}
+
+	/**
+	 *
+	 * @return the number of planes accumulated so far
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return "ZProjectionAccumulator[" + width + "x" + height + ", planes=" + getCount() + "]";
+	}
+}
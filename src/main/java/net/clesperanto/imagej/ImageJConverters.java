@@ -5,12 +5,15 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.function.Supplier;
 
 import ij.IJ;
 import ij.ImagePlus;
+import ij.ImageStack;
 import ij.process.ImageProcessor;
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
@@ -96,6 +99,81 @@ public class ImageJConverters {
 	    return dataType.makeAndWriteArrayJ(flatArr, device, dims, memoryType);
 	}
 
+	/**
+	 * Iterate over the planes of an {@link ImageStack} as slabs of consecutive planes copied to the device one at a
+	 * time, to be used with {@link net.clesperanto.core.ZProjectionAccumulator}. With a {@link ij.VirtualStack} only
+	 * the planes of the current slab are read from the disk, so stacks that do not fit in memory can be processed.
+	 *
+	 * The same {@link ArrayJ} is reused for every slab of the requested depth, so a slab is overwritten by the next call
+	 * to {@link Iterator#next()}. Only the last slab, if it is thinner, is copied into another array.
+	 *
+	 * @param stack
+	 * 	the 8, 16 or 32 bit stack
+	 * @param slabDepth
+	 * 	the number of planes copied to the device at once
+	 * @param device
+	 * 	the device into which the slabs are copied
+	 * @param memoryType
+	 * 	the type of memory array that we are working with. The options are image or buffer. For image use the
+	 * 	String "image", for buffer use "buffer"
+	 * @return an iterator over the slabs, from the first plane to the last one
+	 */
+	public static Iterator<ArrayJ> slabs(ImageStack stack, int slabDepth, DeviceJ device, String memoryType) {
+		if (slabDepth < 1)
+			throw new IllegalArgumentException("The slab depth has to be at least 1, not " + slabDepth);
+		ImageJDataType dataType;
+		switch (stack.getBitDepth()) {
+			case 8:
+				dataType = ImageJDataType.fromImgPlusDataType(ImagePlus.GRAY8);
+				break;
+			case 16:
+				dataType = ImageJDataType.fromImgPlusDataType(ImagePlus.GRAY16);
+				break;
+			case 32:
+				dataType = ImageJDataType.fromImgPlusDataType(ImagePlus.GRAY32);
+				break;
+			default:
+				throw new IllegalArgumentException("Data type not supported.");
+		}
+		int width = stack.getWidth();
+		int height = stack.getHeight();
+		int planeSize = width * height;
+		int depth = stack.getSize();
+		if ((long) planeSize * slabDepth * dataType.getByteSize() > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The slabs of " + slabDepth + " planes are too big to be copied at once.");
+		return new Iterator<ArrayJ>() {
+			private int z = 0;
+			private ArrayJ slab;
+			private Object flatArr;
+
+			@Override
+			public boolean hasNext() {
+				return z < depth;
+			}
+
+			@Override
+			public ArrayJ next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				int planes = Math.min(slabDepth, depth - z);
+				long[] dims = new long[] {width, height, planes};
+				Object arr = planes == slabDepth && flatArr != null ? flatArr : dataType.createArray(planeSize * planes);
+				for (int p = 0; p < planes; p ++) {
+					// ImageJ numbers the planes from 1
+					System.arraycopy(stack.getProcessor(z + p + 1).getPixels(), 0, arr, p * planeSize, planeSize);
+				}
+				z += planes;
+				if (planes != slabDepth)
+					return dataType.makeAndWriteArrayJ(arr, device, dims, memoryType);
+				flatArr = arr;
+				if (slab == null)
+					slab = dataType.makeEmptyArrayJ(device, dims, memoryType);
+				dataType.writeArray(slab, arr);
+				return slab;
+			}
+		};
+	}
+
 	private static ImagePlus fromBuffer(ByteBuffer byteBuffer, ImageJDataType type, long[] dimensions) {
 	    ImagePlus im = IJ.createImage("image", (int) dimensions[0], (int) dimensions[1], (int) dimensions[2], type.getBitDepth());
 
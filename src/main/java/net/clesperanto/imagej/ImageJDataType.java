@@ -82,6 +82,10 @@ public enum ImageJDataType {
     	return dt.makeAndWriteArrayJ(buffer, device, dims, memoryType);
     }
 
+    public void writeArray(ArrayJ arrayj, Object buffer) {
+    	dt.writeArray(arrayj, buffer);
+    }
+
     public int createType() {
         return this.getByteSize() * 8;
     }
@@ -2,10 +2,17 @@ package net.clesperanto.imglib2;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TileGrid;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.blocks.PrimitiveBlocks;
 import net.imglib2.img.array.ArrayImg;
@@ -14,7 +21,7 @@ import net.imglib2.img.basictypeaccess.nio.BufferDataAccessFactory;
 import net.imglib2.type.NativeType;
 import net.imglib2.type.NativeTypeFactory;
 import net.imglib2.util.Fraction;
-import net.imglib2.util.Util;
+import net.imglib2.view.Views;
 
 /**
  * TODO
@@ -55,6 +62,27 @@ public class ImgLib2Converters {
 		return fromBuffer(byteBuffer, type, arrayj.getDimensions());
 	}
 
+	/**
+	 * Copy several {@link ArrayJ}s, such as the levels of a {@link net.clesperanto.pipeline.PyramidBuilder} pyramid,
+	 * into ImgLib2 {@link ArrayImg}s, see {@link #copyArrayJToImgLib2(ArrayJ)}
+	 *
+	 * @param <T>
+	 * 	data type of the ImgLib2 ArrayImgs
+	 * @param <A>
+	 * 	ImgLib2 data type of the BufferAccess
+	 * @param arrayjs
+	 * 	arrays that are located in the GPU, all of the same data type
+	 * @return the ImgLib2 {@link ArrayImg}s on the CPU, in the order of the arrays
+	 */
+	public static < T extends NativeType< T >, A extends BufferAccess< A > > List< ArrayImg< T, A > > copyArrayJsToImgLib2(
+			List< ArrayJ > arrayjs )
+	{
+		List< ArrayImg< T, A > > imgs = new ArrayList<>();
+		for ( ArrayJ arrayj : arrayjs )
+			imgs.add( ImgLib2Converters.< T, A >copyArrayJToImgLib2( arrayj ) );
+		return imgs;
+	}
+
 	/**
 	 * Copy a {@link RandomAccessibleInterval} on the CPU into an {@link ArrayJ} on the device (GPU) of interest.
 	 * The {@link RandomAccessibleInterval} should have at most 3 dimensions, and the order of the dimensions
@@ -75,7 +103,7 @@ public class ImgLib2Converters {
 	public static < T extends NativeType< T > >
 		ArrayJ copyImgLib2ToArrayJ(RandomAccessibleInterval<T> rai, DeviceJ device, String memoryType) {
 		checkSize(rai);
-		T type = Util.getTypeFromInterval(rai);
+		T type = rai.getType();
 		ImgLib2DataType dataType = ImgLib2DataType.fromImgLib2DataType(type);
 		PrimitiveBlocks< T > blocks = PrimitiveBlocks.of( rai );
 		long totalSize = Arrays.stream(rai.dimensionsAsLongArray()).reduce(1L, (a, b) -> a * b);
@@ -89,6 +117,73 @@ public class ImgLib2Converters {
 	    return dataType.makeAndWriteArrayJ(flatArr, device, rai.dimensionsAsLongArray(), memoryType);
 	}
 
+	/**
+	 * Iterate over a 3D {@link RandomAccessibleInterval} as slabs of consecutive planes copied to the device one at a
+	 * time, such as a {@link net.imglib2.img.cell.CellImg} that is loaded lazily and does not fit in memory, to be used
+	 * with {@link net.clesperanto.core.ZProjectionAccumulator}. Only the planes of the current slab are read.
+	 *
+	 * The same {@link ArrayJ} is reused for every slab of the requested depth, so a slab is overwritten by the next call
+	 * to {@link Iterator#next()}. Only the last slab, if it is thinner, is copied into another array.
+	 *
+	 * @param <T>
+	 * 	the ImgLib2 data type of the {@link RandomAccessibleInterval}
+	 * @param rai
+	 * 	the stack, with dimensions [width, height, depth]
+	 * @param slabDepth
+	 * 	the number of planes copied to the device at once
+	 * @param device
+	 * 	the device into which the slabs are copied
+	 * @param memoryType
+	 * 	the type of memory array that we are working with. The options are image or buffer. For image use the
+	 * 	String "image", for buffer use "buffer"
+	 * @return an iterator over the slabs, from the first plane to the last one
+	 */
+	public static < T extends NativeType< T > >
+		Iterator<ArrayJ> slabs(RandomAccessibleInterval<T> rai, int slabDepth, DeviceJ device, String memoryType) {
+		if (rai.numDimensions() != 3)
+			throw new IllegalArgumentException("The image has to be 3D to be split into slabs, not " + rai.numDimensions() + "D.");
+		if (slabDepth < 1)
+			throw new IllegalArgumentException("The slab depth has to be at least 1, not " + slabDepth);
+		checkSize(rai);
+		ImgLib2DataType dataType = ImgLib2DataType.fromImgLib2DataType(rai.getType());
+		PrimitiveBlocks< T > blocks = PrimitiveBlocks.of( rai );
+		long[] min = rai.minAsLongArray();
+		int width = (int) rai.dimension(0);
+		int height = (int) rai.dimension(1);
+		long depth = rai.dimension(2);
+		if ((long) width * height * slabDepth * dataType.getByteSize() > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The slabs of " + slabDepth + " planes are too big to be copied at once.");
+		return new Iterator<ArrayJ>() {
+			private long z = 0;
+			private ArrayJ slab;
+			private Object flatArr;
+
+			@Override
+			public boolean hasNext() {
+				return z < depth;
+			}
+
+			@Override
+			public ArrayJ next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				int planes = (int) Math.min(slabDepth, depth - z);
+				int[] size = new int[] {width, height, planes};
+				long[] dims = new long[] {width, height, planes};
+				Object arr = planes == slabDepth && flatArr != null ? flatArr : dataType.createArray(width * height * planes);
+				blocks.copy(new long[] {min[0], min[1], min[2] + z}, arr, size);
+				z += planes;
+				if (planes != slabDepth)
+					return dataType.makeAndWriteArrayJ(arr, device, dims, memoryType);
+				flatArr = arr;
+				if (slab == null)
+					slab = dataType.makeEmptyArrayJ(device, dims, memoryType);
+				dataType.writeArray(slab, arr);
+				return slab;
+			}
+		};
+	}
+
 	private static < T extends NativeType< T >, A extends BufferAccess< A > > ArrayImg< T, A >
 		fromBuffer(ByteBuffer byteBuffer, T type, long[] dimensions) {
 
@@ -110,4 +205,19 @@ public class ImgLib2Converters {
 		}
 	}
 
+	/** interval of a tile of the image */
+	static Interval toInterval(TileGrid.Tile tile) {
+		return new FinalInterval(tile.getMin(), tile.getMax());
+	}
+
+	/**
+	 * Drop the trailing dimensions of an array copied from the device, which may have more dimensions than the
+	 * 1D or 2D image it was copied from
+	 */
+	static < T > RandomAccessibleInterval< T > sliceToDimensions(RandomAccessibleInterval< T > rai, int n) {
+		while (rai.numDimensions() > n)
+			rai = Views.hyperSlice(rai, rai.numDimensions() - 1, 0);
+		return rai;
+	}
+
 }
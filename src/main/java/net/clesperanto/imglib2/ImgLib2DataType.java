@@ -78,6 +78,10 @@ public enum ImgLib2DataType {
     	return dt.makeAndWriteArrayJ(buffer, device, dims, memoryType);
     }
 
+    public void writeArray(ArrayJ arrayj, Object buffer) {
+    	dt.writeArray(arrayj, buffer);
+    }
+
     public < T extends NativeType< T > > T createType() {
         return (T) typeSupplier.get();
     }
@@ -0,0 +1,130 @@
+package net.clesperanto.imglib2;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TileGrid;
+import net.clesperanto.pipeline.TileOperation;
+import net.imglib2.Interval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.loops.LoopBuilder;
+import net.imglib2.type.NativeType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+/**
+ * Applies a {@link TileOperation} to an image that lives on the host, such as a lazily loaded or memory mapped
+ * {@link RandomAccessibleInterval}, one tile at a time, so that volumes larger than the memory of the device,
+ * or than its maximum allocation size, can be processed.
+ *
+ * <pre>
+ * TiledExecutor executor = new TiledExecutor(device, new long[] {512, 512, 64});
+ * executor.execute(volume, TileOperation.gaussianBlur(2, 2, 1), result);
+ * </pre>
+ *
+ * Every tile is copied to the device with the halo required by the operation, processed, and only its interior is
+ * copied back into the output. Since the halo covers the whole neighborhood of the interior pixels, and the tiles
+ * that touch the border of the image see the same border as the whole image, the result is identical to processing
+ * the whole image at once.
+ */
+public class TiledExecutor {
+
+	private final DeviceJ device;
+	private final long[] tileSize;
+	private String memoryType = "buffer";
+
+	/**
+	 * Create an executor
+	 * @param device
+	 * 	the device where the tiles are processed
+	 * @param tileSize
+	 * 	the size of the interior of the tiles, along x, y and z. The tiles are bigger on the device by twice the halo
+	 */
+	public TiledExecutor(DeviceJ device, long[] tileSize) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(tileSize, "tileSize cannot be null");
+		for (long size : tileSize) {
+			if (size <= 0)
+				throw new IllegalArgumentException("The tile size has to be positive: " + Arrays.toString(tileSize));
+		}
+		this.tileSize = tileSize.clone();
+	}
+
+	/**
+	 * Set the type of the arrays the tiles are copied into
+	 * @param memoryType
+	 * 	"buffer", the default, or "image"
+	 * @return this executor
+	 */
+	public TiledExecutor setMemoryType(String memoryType) {
+		this.memoryType = Objects.requireNonNull(memoryType, "memoryType cannot be null");
+		return this;
+	}
+
+	/**
+	 * Apply the operation to the input tile by tile and write the result into the output
+	 * @param <T>
+	 * 	the type of the input
+	 * @param <U>
+	 * 	the type of the output, which has to be the type of the arrays produced by the operation
+	 * @param input
+	 * 	the input image, with at most 3 dimensions ordered [x, y, z]
+	 * @param operation
+	 * 	the local operation to apply
+	 * @param output
+	 * 	the output image, with the same interval as the input
+	 * @return the output
+	 * @throws IllegalArgumentException if the input and output do not match, or the operation produces another type
+	 * 	than the one of the output
+	 */
+	public < T extends NativeType< T >, U extends NativeType< U > > RandomAccessibleInterval< U > execute(
+			RandomAccessibleInterval< T > input, TileOperation operation, RandomAccessibleInterval< U > output) {
+		Objects.requireNonNull(input, "input cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		Objects.requireNonNull(output, "output cannot be null");
+		int n = input.numDimensions();
+		if (n > 3 || n > tileSize.length)
+			throw new IllegalArgumentException("Cannot tile an image with " + n + " dimensions in tiles of " + Arrays.toString(tileSize));
+		if (!Intervals.equals(input, output))
+			throw new IllegalArgumentException("The output " + Intervals.toString(output) + " does not match the input "
+					+ Intervals.toString(input));
+		ImgLib2DataType outputType = ImgLib2DataType.fromImgLib2DataType(output.getType());
+		long[] halo = operation.getHalo();
+		TileGrid grid = new TileGrid(input.minAsLongArray(), input.maxAsLongArray(), tileSize);
+		for (TileGrid.Tile tile : grid) {
+			processTile(input, operation, output, outputType, ImgLib2Converters.toInterval(tile),
+					ImgLib2Converters.toInterval(grid.expand(tile, halo)));
+		}
+		return output;
+	}
+
+	private < T extends NativeType< T >, U extends NativeType< U > > void processTile(RandomAccessibleInterval< T > input,
+			TileOperation operation, RandomAccessibleInterval< U > output, ImgLib2DataType outputType, Interval interior,
+			Interval region) {
+		ArrayJ tile = ImgLib2Converters.copyImgLib2ToArrayJ(Views.zeroMin(Views.interval(input, region)), device, memoryType);
+		ArrayJ result = operation.apply(device, tile, null);
+		if (ImgLib2DataType.fromString(result.getDataType()) != outputType)
+			throw new IllegalArgumentException("The operation " + operation.getName() + " produces " + result.getDataType()
+					+ " but the output is " + outputType.getName());
+		RandomAccessibleInterval< U > processed = ImgLib2Converters.copyArrayJToImgLib2(result);
+		RandomAccessibleInterval< U > placed = Views.translate(
+				ImgLib2Converters.sliceToDimensions(processed, region.numDimensions()), region.minAsLongArray());
+		LoopBuilder.setImages(Views.interval(placed, interior), Views.interval(output, interior))
+				.forEachPixel((source, target) -> target.set(source));
+	}
+
+	/**
+	 *
+	 * @return the size of the interior of the tiles
+	 */
+	public long[] getTileSize() {
+		return tileSize.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "TiledExecutor[" + device.getName() + ", tile=" + Arrays.toString(tileSize) + "]";
+	}
+}
@@ -0,0 +1,413 @@
+package net.clesperanto.imglib2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TileGrid;
+import net.clesperanto.kernels.Tier3;
+import net.imglib2.Interval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+/**
+ * Statistics of the labels of a label image and its intensity image that live on the host and do not fit on the
+ * device, such as lazily loaded or memory mapped {@link RandomAccessibleInterval}s, computed one tile at a time.
+ *
+ * <pre>
+ * TiledLabelStatistics statistics = new TiledLabelStatistics(new long[] {1024, 1024, 256}, device0, device1);
+ * HashMap&lt;String, ArrayList&lt;Float&gt;&gt; table = statistics.compute(labels, intensity);
+ * </pre>
+ *
+ * Every tile is measured on a device with {@link Tier3#statisticsOfLabelledPixels(DeviceJ, ArrayJ, ArrayJ)} after its
+ * labels have been renumbered from 1, so that the size of the table of a tile only depends on the number of labels
+ * it contains. The sums, counts, extrema and bounding boxes of each tile are turned into {@link LabelMoments}, which
+ * are merged associatively on the host. With several devices the tiles are spread over them, one thread per device.
+ *
+ * The final table has the columns label, area, bbox_min_x, bbox_min_y, bbox_min_z, bbox_max_x, bbox_max_y,
+ * bbox_max_z, bbox_width, bbox_height, bbox_depth, sum_intensity, mean_intensity, standard_deviation_intensity,
+ * min_intensity, max_intensity, sum_x, sum_y, sum_z, centroid_x, centroid_y, centroid_z, sum_intensity_times_x,
+ * sum_intensity_times_y, sum_intensity_times_z, mass_center_x, mass_center_y and mass_center_z, with one row per
+ * label present in the image, in increasing order. The statistics that need the centroid of the whole label, such as
+ * the distances to the centroid, cannot be merged from tiles and are not computed.
+ */
+public class TiledLabelStatistics {
+
+	private static final String[] AXES = new String[] {"x", "y", "z"};
+
+	/**
+	 * Mergeable statistics of one label, accumulated over the tiles it touches
+	 */
+	public static class LabelMoments {
+		private double area;
+		private double sumIntensity;
+		private double meanIntensity;
+		/** sum of the squared differences to the mean, merged with the formula of Chan et al. */
+		private double m2;
+		private double minIntensity = Double.POSITIVE_INFINITY;
+		private double maxIntensity = Double.NEGATIVE_INFINITY;
+		private final double[] sum = new double[3];
+		private final double[] sumIntensityTimes = new double[3];
+		private final double[] boundingBoxMin = new double[] {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+		private final double[] boundingBoxMax = new double[] {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+		/**
+		 * Add the statistics of another part of the same label
+		 * @param other
+		 * 	the statistics of the other part
+		 * @return this moments
+		 */
+		public LabelMoments merge(LabelMoments other) {
+			double n = area + other.area;
+			if (n > 0) {
+				double delta = other.meanIntensity - meanIntensity;
+				meanIntensity += delta * other.area / n;
+				m2 += other.m2 + delta * delta * area * other.area / n;
+			}
+			area = n;
+			sumIntensity += other.sumIntensity;
+			minIntensity = Math.min(minIntensity, other.minIntensity);
+			maxIntensity = Math.max(maxIntensity, other.maxIntensity);
+			for (int d = 0; d < 3; d++) {
+				sum[d] += other.sum[d];
+				sumIntensityTimes[d] += other.sumIntensityTimes[d];
+				boundingBoxMin[d] = Math.min(boundingBoxMin[d], other.boundingBoxMin[d]);
+				boundingBoxMax[d] = Math.max(boundingBoxMax[d], other.boundingBoxMax[d]);
+			}
+			return this;
+		}
+
+		/** @return the number of pixels */
+		public double getArea() {
+			return area;
+		}
+
+		/** @return the sum of the intensities */
+		public double getSumIntensity() {
+			return sumIntensity;
+		}
+
+		/** @return the mean of the intensities */
+		public double getMeanIntensity() {
+			return meanIntensity;
+		}
+
+		/** @return the standard deviation of the intensities, normalized by the area */
+		public double getStandardDeviationIntensity() {
+			return Math.sqrt(m2 / area);
+		}
+
+		/** @return the minimum intensity */
+		public double getMinIntensity() {
+			return minIntensity;
+		}
+
+		/** @return the maximum intensity */
+		public double getMaxIntensity() {
+			return maxIntensity;
+		}
+
+		/** @return the sum of the coordinates along the dimension d */
+		public double getSum(int d) {
+			return sum[d];
+		}
+
+		/** @return the mean of the coordinates along the dimension d */
+		public double getCentroid(int d) {
+			return sum[d] / area;
+		}
+
+		/** @return the sum of the coordinates along the dimension d weighted by the intensities */
+		public double getSumIntensityTimes(int d) {
+			return sumIntensityTimes[d];
+		}
+
+		/** @return the mean of the coordinates along the dimension d weighted by the intensities */
+		public double getMassCenter(int d) {
+			return sumIntensityTimes[d] / sumIntensity;
+		}
+
+		/** @return the smallest coordinate along the dimension d */
+		public double getBoundingBoxMin(int d) {
+			return boundingBoxMin[d];
+		}
+
+		/** @return the largest coordinate along the dimension d */
+		public double getBoundingBoxMax(int d) {
+			return boundingBoxMax[d];
+		}
+	}
+
+	private final long[] tileSize;
+	private final DeviceJ[] devices;
+	private String memoryType = "buffer";
+
+	/**
+	 * Create a tiled measurement
+	 * @param tileSize
+	 * 	the size of the tiles, along x, y and z
+	 * @param devices
+	 * 	the devices where the tiles are measured, at least one
+	 */
+	public TiledLabelStatistics(long[] tileSize, DeviceJ... devices) {
+		Objects.requireNonNull(tileSize, "tileSize cannot be null");
+		Objects.requireNonNull(devices, "devices cannot be null");
+		if (devices.length == 0)
+			throw new IllegalArgumentException("At least one device is needed");
+		for (DeviceJ device : devices)
+			Objects.requireNonNull(device, "devices cannot contain null");
+		for (long size : tileSize) {
+			if (size <= 0)
+				throw new IllegalArgumentException("The tile size has to be positive: " + Arrays.toString(tileSize));
+		}
+		this.tileSize = tileSize.clone();
+		this.devices = devices.clone();
+	}
+
+	/**
+	 * Set the type of the arrays the tiles are copied into
+	 * @param memoryType
+	 * 	"buffer", the default, or "image"
+	 * @return this measurement
+	 */
+	public TiledLabelStatistics setMemoryType(String memoryType) {
+		this.memoryType = Objects.requireNonNull(memoryType, "memoryType cannot be null");
+		return this;
+	}
+
+	/**
+	 * Measure the labels tile by tile and merge the statistics of the tiles
+	 * @param <L>
+	 * 	the type of the labels
+	 * @param <T>
+	 * 	the type of the intensities
+	 * @param labels
+	 * 	the label image, with at most 3 dimensions ordered [x, y, z]
+	 * @param intensity
+	 * 	the intensity image, with the same interval as the labels, or null to measure only the shapes
+	 * @return the statistics of every label, see {@link #toTable(Map)}
+	 * @throws IllegalArgumentException if the labels and intensities do not match
+	 */
+	public < L extends IntegerType< L >, T extends NativeType< T > > HashMap<String, ArrayList<Float>> compute(
+			RandomAccessibleInterval< L > labels, RandomAccessibleInterval< T > intensity) {
+		return toTable(computeMoments(labels, intensity));
+	}
+
+	/**
+	 * Measure the labels tile by tile and merge the statistics of the tiles
+	 * @param <L>
+	 * 	the type of the labels
+	 * @param <T>
+	 * 	the type of the intensities
+	 * @param labels
+	 * 	the label image, with at most 3 dimensions ordered [x, y, z]
+	 * @param intensity
+	 * 	the intensity image, with the same interval as the labels, or null to measure only the shapes
+	 * @return the statistics of every label, sorted by label
+	 * @throws IllegalArgumentException if the labels and intensities do not match
+	 */
+	public < L extends IntegerType< L >, T extends NativeType< T > > TreeMap<Long, LabelMoments> computeMoments(
+			RandomAccessibleInterval< L > labels, RandomAccessibleInterval< T > intensity) {
+		Objects.requireNonNull(labels, "labels cannot be null");
+		int n = labels.numDimensions();
+		if (n > 3 || n > tileSize.length)
+			throw new IllegalArgumentException("Cannot tile an image with " + n + " dimensions in tiles of " + Arrays.toString(tileSize));
+		if (intensity != null && !Intervals.equals(labels, intensity))
+			throw new IllegalArgumentException("The intensity " + Intervals.toString(intensity) + " does not match the labels "
+					+ Intervals.toString(labels));
+		List<Interval> tiles = new ArrayList<Interval>();
+		for (TileGrid.Tile tile : new TileGrid(labels.minAsLongArray(), labels.maxAsLongArray(), tileSize))
+			tiles.add(ImgLib2Converters.toInterval(tile));
+		TreeMap<Long, LabelMoments> result = new TreeMap<Long, LabelMoments>();
+		if (devices.length == 1) {
+			for (Interval tile : tiles)
+				merge(result, statisticsOfTile(devices[0], labels, intensity, tile));
+			return result;
+		}
+		BlockingQueue<DeviceJ> free = new ArrayBlockingQueue<DeviceJ>(devices.length, false, Arrays.asList(devices));
+		ExecutorService executor = Executors.newFixedThreadPool(devices.length);
+		try {
+			List<Future<Map<Long, LabelMoments>>> partials = new ArrayList<Future<Map<Long, LabelMoments>>>();
+			for (Interval tile : tiles) {
+				partials.add(executor.submit(() -> {
+					DeviceJ device = free.take();
+					try {
+						return statisticsOfTile(device, labels, intensity, tile);
+					} finally {
+						free.put(device);
+					}
+				}));
+			}
+			for (Future<Map<Long, LabelMoments>> partial : partials)
+				merge(result, partial.get());
+			return result;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while measuring the tiles", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException)
+				throw (RuntimeException) ex.getCause();
+			throw new IllegalStateException("Failed to measure a tile", ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void merge(Map<Long, LabelMoments> result, Map<Long, LabelMoments> partial) {
+		for (Map.Entry<Long, LabelMoments> entry : partial.entrySet()) {
+			LabelMoments moments = result.get(entry.getKey());
+			if (moments == null)
+				result.put(entry.getKey(), entry.getValue());
+			else
+				moments.merge(entry.getValue());
+		}
+	}
+
+	/**
+	 * Measure the labels within one tile, so that the tiles can also be distributed by the caller
+	 * @param <L>
+	 * 	the type of the labels
+	 * @param <T>
+	 * 	the type of the intensities
+	 * @param device
+	 * 	the device where the tile is measured
+	 * @param labels
+	 * 	the label image, with at most 3 dimensions ordered [x, y, z]
+	 * @param intensity
+	 * 	the intensity image, with the same interval as the labels, or null to measure only the shapes
+	 * @param tile
+	 * 	the part of the images to measure
+	 * @return the statistics of the parts of the labels within the tile, to be merged with {@link LabelMoments#merge(LabelMoments)}
+	 */
+	public < L extends IntegerType< L >, T extends NativeType< T > > Map<Long, LabelMoments> statisticsOfTile(DeviceJ device,
+			RandomAccessibleInterval< L > labels, RandomAccessibleInterval< T > intensity, Interval tile) {
+		long elements = Intervals.numElements(tile);
+		if (elements * DataType.UINT32.getByteSize() > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The tile " + Intervals.toString(tile) + " is too big to be copied at once.");
+		// renumber the labels of the tile from 1
+		int[] compact = new int[(int) elements];
+		Map<Long, Integer> ids = new HashMap<Long, Integer>();
+		List<Long> globals = new ArrayList<Long>();
+		globals.add(0L);
+		int i = 0;
+		for (L px : Views.flatIterable(Views.interval(labels, tile))) {
+			long label = px.getIntegerLong();
+			if (label != 0) {
+				Integer id = ids.get(label);
+				if (id == null) {
+					id = globals.size();
+					ids.put(label, id);
+					globals.add(label);
+				}
+				compact[i] = id;
+			}
+			i++;
+		}
+		Map<Long, LabelMoments> partial = new HashMap<Long, LabelMoments>();
+		if (ids.isEmpty())
+			return partial;
+
+		ArrayJ labelTile = DataType.UINT32.makeAndWriteArrayJ(compact, device, tile.dimensionsAsLongArray(), memoryType);
+		ArrayJ intensityTile = intensity == null ? null
+				: ImgLib2Converters.copyImgLib2ToArrayJ(Views.zeroMin(Views.interval(intensity, tile)), device, memoryType);
+		HashMap<String, ArrayList<Float>> table = Tier3.statisticsOfLabelledPixels(device, labelTile, intensityTile);
+
+		long[] offset = new long[3];
+		for (int d = 0; d < tile.numDimensions(); d++)
+			offset[d] = tile.min(d);
+		ArrayList<Float> labelColumn = table.get("label");
+		for (int row = 0; row < labelColumn.size(); row++) {
+			int id = Math.round(labelColumn.get(row));
+			double area = table.get("area").get(row);
+			if (id < 1 || id >= globals.size() || area == 0)
+				continue;
+			LabelMoments moments = new LabelMoments();
+			moments.area = area;
+			moments.sumIntensity = table.get("sum_intensity").get(row);
+			moments.meanIntensity = table.get("mean_intensity").get(row);
+			double std = table.get("standard_deviation_intensity").get(row);
+			moments.m2 = area * std * std;
+			moments.minIntensity = table.get("min_intensity").get(row);
+			moments.maxIntensity = table.get("max_intensity").get(row);
+			for (int d = 0; d < 3; d++) {
+				// back from the coordinates of the tile to the coordinates of the image
+				moments.sum[d] = table.get("sum_" + AXES[d]).get(row) + offset[d] * area;
+				moments.sumIntensityTimes[d] = table.get("sum_intensity_times_" + AXES[d]).get(row) + offset[d] * moments.sumIntensity;
+				moments.boundingBoxMin[d] = table.get("bbox_min_" + AXES[d]).get(row) + offset[d];
+				moments.boundingBoxMax[d] = table.get("bbox_max_" + AXES[d]).get(row) + offset[d];
+			}
+			partial.put(globals.get(id), moments);
+		}
+		return partial;
+	}
+
+	/**
+	 * Convert merged statistics into a table with the layout of {@link Tier3#statisticsOfLabelledPixels(DeviceJ, ArrayJ, ArrayJ)}
+	 * @param moments
+	 * 	the statistics of every label
+	 * @return the columns of the table, with one row per label in the iteration order of the map
+	 */
+	public static HashMap<String, ArrayList<Float>> toTable(Map<Long, LabelMoments> moments) {
+		HashMap<String, ArrayList<Float>> table = new HashMap<String, ArrayList<Float>>();
+		for (Map.Entry<Long, LabelMoments> entry : moments.entrySet()) {
+			LabelMoments m = entry.getValue();
+			put(table, "label", entry.getKey());
+			put(table, "area", m.getArea());
+			put(table, "sum_intensity", m.getSumIntensity());
+			put(table, "mean_intensity", m.getMeanIntensity());
+			put(table, "standard_deviation_intensity", m.getStandardDeviationIntensity());
+			put(table, "min_intensity", m.getMinIntensity());
+			put(table, "max_intensity", m.getMaxIntensity());
+			for (int d = 0; d < 3; d++) {
+				put(table, "bbox_min_" + AXES[d], m.getBoundingBoxMin(d));
+				put(table, "bbox_max_" + AXES[d], m.getBoundingBoxMax(d));
+				put(table, "sum_" + AXES[d], m.getSum(d));
+				put(table, "centroid_" + AXES[d], m.getCentroid(d));
+				put(table, "sum_intensity_times_" + AXES[d], m.getSumIntensityTimes(d));
+				put(table, "mass_center_" + AXES[d], m.getMassCenter(d));
+			}
+			put(table, "bbox_width", m.getBoundingBoxMax(0) - m.getBoundingBoxMin(0) + 1);
+			put(table, "bbox_height", m.getBoundingBoxMax(1) - m.getBoundingBoxMin(1) + 1);
+			put(table, "bbox_depth", m.getBoundingBoxMax(2) - m.getBoundingBoxMin(2) + 1);
+		}
+		return table;
+	}
+
+	private static void put(HashMap<String, ArrayList<Float>> table, String column, double value) {
+		ArrayList<Float> values = table.get(column);
+		if (values == null) {
+			values = new ArrayList<Float>();
+			table.put(column, values);
+		}
+		values.add((float) value);
+	}
+
+	/**
+	 *
+	 * @return the size of the tiles
+	 */
+	public long[] getTileSize() {
+		return tileSize.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "TiledLabelStatistics[devices=" + devices.length + ", tile=" + Arrays.toString(tileSize) + "]";
+	}
+}
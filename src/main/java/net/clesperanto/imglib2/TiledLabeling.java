@@ -0,0 +1,291 @@
+package net.clesperanto.imglib2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TileGrid;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier5;
+import net.imglib2.Interval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.loops.LoopBuilder;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+/**
+ * Connected components labeling of a binary image that lives on the host and does not fit on the device,
+ * such as a lazily loaded or memory mapped {@link RandomAccessibleInterval}, one tile at a time.
+ *
+ * <pre>
+ * TiledLabeling labeling = new TiledLabeling(device, new long[] {1024, 1024, 256});
+ * long count = labeling.connectedComponentsLabeling(mask, labels, "box");
+ * </pre>
+ *
+ * The labeling runs in two passes over the tiles:
+ * <ol>
+ * <li>every tile is labeled on the device with {@link Tier5#connectedComponentsLabeling(DeviceJ, ArrayJ, ArrayJ, String)}
+ * and its local labels are written into the output</li>
+ * <li>the labels facing each other across the faces of the tiles are merged with a union-find on the host, and every
+ * tile is relabeled on the device with {@link Tier1#replaceValues(DeviceJ, ArrayJ, ArrayJ, ArrayJ)} with the lookup
+ * table of its final labels</li>
+ * </ol>
+ * Only the labels touching a face of a tile are kept in the union-find, so the memory used on the host is
+ * proportional to the area of the faces rather than to the volume. The final labels are numbered from 1 without gaps,
+ * in the order of the tiles, x varying the fastest, like the labels of the whole image labeled at once up to
+ * their numbering.
+ */
+public class TiledLabeling {
+
+	private final DeviceJ device;
+	private final long[] tileSize;
+	private String memoryType = "buffer";
+
+	/**
+	 * Create a tiled labeling
+	 * @param device
+	 * 	the device where the tiles are labeled
+	 * @param tileSize
+	 * 	the size of the tiles, along x, y and z
+	 */
+	public TiledLabeling(DeviceJ device, long[] tileSize) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(tileSize, "tileSize cannot be null");
+		for (long size : tileSize) {
+			if (size <= 0)
+				throw new IllegalArgumentException("The tile size has to be positive: " + Arrays.toString(tileSize));
+		}
+		this.tileSize = tileSize.clone();
+	}
+
+	/**
+	 * Set the type of the arrays the tiles are copied into
+	 * @param memoryType
+	 * 	"buffer", the default, or "image"
+	 * @return this labeling
+	 */
+	public TiledLabeling setMemoryType(String memoryType) {
+		this.memoryType = Objects.requireNonNull(memoryType, "memoryType cannot be null");
+		return this;
+	}
+
+	/**
+	 * Label the connected components of a binary image tile by tile
+	 * @param <T>
+	 * 	the type of the input
+	 * @param <U>
+	 * 	the type of the output, an integer type supported on the device, large enough for the final labels
+	 * @param input
+	 * 	the binary image, with at most 3 dimensions ordered [x, y, z]
+	 * @param output
+	 * 	the label image, with the same interval as the input
+	 * @param connectivity
+	 * 	"box" or "sphere", see {@link Tier5#connectedComponentsLabeling(DeviceJ, ArrayJ, ArrayJ, String)}
+	 * @return the number of labels
+	 * @throws IllegalArgumentException if the input and output do not match or the connectivity is unknown
+	 */
+	public < T extends NativeType< T >, U extends IntegerType< U > & NativeType< U > > long connectedComponentsLabeling(
+			RandomAccessibleInterval< T > input, RandomAccessibleInterval< U > output, String connectivity) {
+		Objects.requireNonNull(input, "input cannot be null");
+		Objects.requireNonNull(output, "output cannot be null");
+		Objects.requireNonNull(connectivity, "connectivity cannot be null");
+		if (!connectivity.equals("box") && !connectivity.equals("sphere"))
+			throw new IllegalArgumentException("Unknown connectivity: " + connectivity + ", use \"box\" or \"sphere\"");
+		int n = input.numDimensions();
+		if (n > 3 || n > tileSize.length)
+			throw new IllegalArgumentException("Cannot tile an image with " + n + " dimensions in tiles of " + Arrays.toString(tileSize));
+		if (!Intervals.equals(input, output))
+			throw new IllegalArgumentException("The output " + Intervals.toString(output)
+					+ " does not match the input " + Intervals.toString(input));
+		long[] min = input.minAsLongArray();
+		long[] max = input.maxAsLongArray();
+		TileGrid grid = new TileGrid(min, max, tileSize);
+
+		// first pass, local labels and the offsets making them global
+		List<Interval> tiles = new ArrayList<Interval>(grid.size());
+		for (TileGrid.Tile tile : grid)
+			tiles.add(ImgLib2Converters.toInterval(tile));
+		long[] offsets = new long[tiles.size()];
+		long[] counts = new long[tiles.size()];
+		long total = 0;
+		for (int t = 0; t < tiles.size(); t++) {
+			ArrayJ tile = ImgLib2Converters.copyImgLib2ToArrayJ(Views.zeroMin(Views.interval(input, tiles.get(t))), device, memoryType);
+			ArrayJ labels = Tier5.connectedComponentsLabeling(device, tile, null, connectivity);
+			offsets[t] = total;
+			counts[t] = pull(labels, tiles.get(t), output);
+			total += counts[t];
+		}
+
+		// merge the labels facing each other across the faces of the tiles
+		UnionFind equivalences = new UnionFind();
+		RandomAccess< U > p = output.randomAccess();
+		RandomAccess< U > q = output.randomAccess();
+		long[] a = new long[n];
+		long[] b = new long[n];
+		for (int d = 0; d < n; d++) {
+			List<long[]> shifts = neighborShifts(n, d, connectivity);
+			for (long c = min[d] + tileSize[d]; c <= max[d]; c += tileSize[d]) {
+				long[] faceMin = min.clone();
+				long[] faceMax = max.clone();
+				faceMin[d] = c - 1;
+				faceMax[d] = c - 1;
+				long[] position = faceMin.clone();
+				do {
+					p.setPosition(position);
+					long local = p.get().getIntegerLong();
+					if (local == 0)
+						continue;
+					long first = offsets[grid.indexOf(position)] + local;
+					System.arraycopy(position, 0, a, 0, n);
+					a[d] = c;
+					for (long[] shift : shifts) {
+						boolean inside = true;
+						for (int e = 0; e < n; e++) {
+							b[e] = a[e] + shift[e];
+							inside &= b[e] >= min[e] && b[e] <= max[e];
+						}
+						if (!inside)
+							continue;
+						q.setPosition(b);
+						long other = q.get().getIntegerLong();
+						if (other != 0)
+							equivalences.union(first, offsets[grid.indexOf(b)] + other);
+					}
+				} while (next(position, faceMin, faceMax));
+			}
+		}
+
+		// second pass, relabel every tile to consecutive global labels
+		Map<Long, Long> finalLabels = new HashMap<Long, Long>();
+		long nextLabel = 1;
+		for (int t = 0; t < tiles.size(); t++) {
+			if (counts[t] > Integer.MAX_VALUE - 1)
+				throw new IllegalArgumentException("A tile has too many labels, use smaller tiles");
+			int[] lookup = new int[(int) counts[t] + 1];
+			for (int local = 1; local <= counts[t]; local++) {
+				long root = equivalences.find(offsets[t] + local);
+				Long label = finalLabels.get(root);
+				if (label == null) {
+					label = nextLabel++;
+					// labels that touch no face cannot be met again
+					if (equivalences.contains(root))
+						finalLabels.put(root, label);
+				}
+				lookup[local] = (int) (long) label;
+			}
+			Interval interval = tiles.get(t);
+			ArrayJ tile = ImgLib2Converters.copyImgLib2ToArrayJ(Views.zeroMin(Views.interval(output, interval)), device, memoryType);
+			ArrayJ values = DataType.UINT32.makeAndWriteArrayJ(lookup, device, new long[] {lookup.length}, "buffer");
+			pull(Tier1.replaceValues(device, tile, values, null), interval, output);
+		}
+		return nextLabel - 1;
+	}
+
+	/** shifts of the neighbors across a face orthogonal to the dimension d */
+	private static List<long[]> neighborShifts(int n, int d, String connectivity) {
+		List<long[]> shifts = new ArrayList<long[]>();
+		if (connectivity.equals("sphere")) {
+			shifts.add(new long[n]);
+			return shifts;
+		}
+		long[] lower = new long[n];
+		long[] upper = new long[n];
+		for (int e = 0; e < n; e++) {
+			lower[e] = e == d ? 0 : -1;
+			upper[e] = e == d ? 0 : 1;
+		}
+		long[] shift = lower.clone();
+		do {
+			shifts.add(shift.clone());
+		} while (next(shift, lower, upper));
+		return shifts;
+	}
+
+	/** move to the next position of an interval, x varying the fastest */
+	private static boolean next(long[] position, long[] min, long[] max) {
+		for (int d = 0; d < position.length; d++) {
+			if (position[d] < max[d]) {
+				position[d]++;
+				return true;
+			}
+			position[d] = min[d];
+		}
+		return false;
+	}
+
+	/** copy the labels of a tile into the output and return the largest one */
+	private < V extends IntegerType< V > & NativeType< V >, U extends IntegerType< U > > long pull(ArrayJ labels,
+			Interval interval, RandomAccessibleInterval< U > output) {
+		RandomAccessibleInterval< V > pulled = ImgLib2Converters.copyArrayJToImgLib2(labels);
+		pulled = ImgLib2Converters.sliceToDimensions(pulled, interval.numDimensions());
+		long[] largest = new long[1];
+		LoopBuilder.setImages(Views.translate(pulled, interval.minAsLongArray()), Views.interval(output, interval))
+				.forEachPixel((source, target) -> {
+					long label = source.getIntegerLong();
+					largest[0] = Math.max(largest[0], label);
+					target.setInteger(label);
+				});
+		return largest[0];
+	}
+
+	/** union-find over the global labels touching a face, with path compression */
+	private static class UnionFind {
+		private final Map<Long, Long> parents = new HashMap<Long, Long>();
+
+		private boolean contains(long label) {
+			return parents.containsKey(label);
+		}
+
+		private long find(long label) {
+			Long parent = parents.get(label);
+			if (parent == null)
+				return label;
+			long root = label;
+			while (parent != root) {
+				root = parent;
+				parent = parents.get(root);
+			}
+			// compress the path
+			long current = label;
+			while (current != root) {
+				long up = parents.get(current);
+				parents.put(current, root);
+				current = up;
+			}
+			return root;
+		}
+
+		private void union(long a, long b) {
+			if (!parents.containsKey(a))
+				parents.put(a, a);
+			if (!parents.containsKey(b))
+				parents.put(b, b);
+			long rootA = find(a);
+			long rootB = find(b);
+			if (rootA != rootB)
+				parents.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+		}
+	}
+
+	/**
+	 *
+	 * @return the size of the tiles
+	 */
+	public long[] getTileSize() {
+		return tileSize.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "TiledLabeling[" + device.getName() + ", tile=" + Arrays.toString(tileSize) + "]";
+	}
+}
@@ -0,0 +1,59 @@
+package net.clesperanto.kernels;
+
+import java.util.List;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.Utils;
+
+/**
+ * Batch versions of {@code Tier} operations: the operation is applied to every input of a list and the calls are
+ * enqueued back to back, see {@link DeviceJ#executeBatch(String, int, java.util.function.IntFunction)}.
+ *
+ * The {@code Tier} classes are generated from the kernels of CLIc, the batch versions are written by hand and so
+ * live in this class.
+ */
+public class Batch {
+
+	private Batch() {
+	}
+
+	/**
+	 * Batch version of {@link Tier1#gaussianBlur(DeviceJ, ArrayJ, ArrayJ, float, float, float)}
+	 * @param device ({@link DeviceJ}) - Device to perform the operation on.
+	 * @param inputs (List of {@link ArrayJ}) - Input images to process.
+	 * @param outputs (List of {@link ArrayJ}) - Output result images, one per input, or null to allocate them.
+	 * @param sigma_x (float) - Sigma value along the x axis.
+	 * @param sigma_y (float) - Sigma value along the y axis.
+	 * @param sigma_z (float) - Sigma value along the z axis.
+	 * @return List of {@link ArrayJ}
+	 * @throws NullPointerException if any of the device or inputs parameters are null.
+	 */
+	public static List<ArrayJ> gaussianBlur(DeviceJ device, List<ArrayJ> inputs, List<ArrayJ> outputs, float sigma_x, float sigma_y, float sigma_z) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(inputs, "inputs cannot be null");
+		return device.executeBatch("Tier1.gaussianBlur", inputs.size(),
+				i -> Tier1.gaussianBlur(device, inputs.get(i), Utils.batchOutput(inputs, outputs, i), sigma_x, sigma_y, sigma_z));
+	}
+
+	/**
+	 * Batch version of {@link Tier2#topHat(DeviceJ, ArrayJ, ArrayJ, float, float, float, String)}
+	 * @param device ({@link DeviceJ}) - Device to perform the operation on.
+	 * @param inputs (List of {@link ArrayJ}) - Input images to process.
+	 * @param outputs (List of {@link ArrayJ}) - Output result images, one per input, or null to allocate them.
+	 * @param radius_x (float) - Radius of the background determination region in X.
+	 * @param radius_y (float) - Radius of the background determination region in Y.
+	 * @param radius_z (float) - Radius of the background determination region in Z.
+	 * @param connectivity (String) - Element shape, "box" or "sphere".
+	 * @return List of {@link ArrayJ}
+	 * @throws NullPointerException if any of the device or inputs parameters are null.
+	 */
+	public static List<ArrayJ> topHat(DeviceJ device, List<ArrayJ> inputs, List<ArrayJ> outputs, float radius_x, float radius_y, float radius_z,
+			String connectivity) {
+		Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(inputs, "inputs cannot be null");
+		return device.executeBatch("Tier2.topHat", inputs.size(),
+				i -> Tier2.topHat(device, inputs.get(i), Utils.batchOutput(inputs, outputs, i), radius_x, radius_y, radius_z, connectivity));
+	}
+}
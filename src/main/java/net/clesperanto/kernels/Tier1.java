@@ -6,17 +6,32 @@ package net.clesperanto.kernels;
 
 import java.util.Objects;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
  * Class containing all functions of tier 1 category
+ *
+ * The operations that map images to another of the same shape can be given one of their inputs as output
+ * to work in place. Pointwise operations write in place directly. The ones reading other pixels than the one
+ * they write, such as {@link #meanBox}, {@link #convolve} or {@link #transposeXy}, detect that the output shares
+ * its memory with any of their inputs and write into a scratch array of the {@link net.clesperanto.core.ArrayPool},
+ * see {@link Utils#neighborhoodInPlace}. The ones writing only some pixels of their output, such as {@link #paste}
+ * or {@link #nonzeroMaximum}, start that scratch array as a copy of the output, see {@link Utils#partialInPlace}.
+ * The flag output of the latter cannot be their input.
  */
 public class Tier1 {
 
+    static {
+        NativeLoader.loadTier(1);
+    }
+
 	/**
 	 * Computes the absolute value of every individual pixel x in a given image.
 	 * <pre>f(x) = |x| </pre>.
@@ -30,7 +45,7 @@ public class Tier1 {
     public static ArrayJ absolute(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.absolute(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.absolute", output, dst -> net.clesperanto._internals.tier1j.Tier1.absolute(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -50,7 +65,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.add_images_weighted(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw(), factor0, factor1), device);
+        return device.execute("Tier1.addImagesWeighted", output, dst -> net.clesperanto._internals.tier1j.Tier1.add_images_weighted(device.getRaw(), input0.getRaw(), input1.getRaw(), dst, factor0, factor1));
     }
 
 	/**
@@ -67,7 +82,7 @@ public class Tier1 {
     public static ArrayJ addImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.add_image_and_scalar(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.addImageAndScalar", output, dst -> net.clesperanto._internals.tier1j.Tier1.add_image_and_scalar(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -86,7 +101,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_and(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.binaryAnd", output, dst -> net.clesperanto._internals.tier1j.Tier1.binary_and(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -102,7 +117,7 @@ public class Tier1 {
     public static ArrayJ binaryEdgeDetection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_edge_detection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.binaryEdgeDetection", out, dst -> net.clesperanto._internals.tier1j.Tier1.binary_edge_detection(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -118,7 +133,7 @@ public class Tier1 {
     public static ArrayJ binaryNot(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_not(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.binaryNot", output, dst -> net.clesperanto._internals.tier1j.Tier1.binary_not(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -137,7 +152,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_or(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.binaryOr", output, dst -> net.clesperanto._internals.tier1j.Tier1.binary_or(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -154,7 +169,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_subtract(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.binarySubtract", output, dst -> net.clesperanto._internals.tier1j.Tier1.binary_subtract(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -173,7 +188,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_xor(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.binaryXor", output, dst -> net.clesperanto._internals.tier1j.Tier1.binary_xor(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -188,7 +203,7 @@ public class Tier1 {
     public static ArrayJ binarySupinf(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_supinf(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.binarySupinf", out, dst -> net.clesperanto._internals.tier1j.Tier1.binary_supinf(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -203,7 +218,7 @@ public class Tier1 {
     public static ArrayJ binaryInfsup(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.binary_infsup(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.binaryInfsup", out, dst -> net.clesperanto._internals.tier1j.Tier1.binary_infsup(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -223,7 +238,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.block_enumerate(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw(), blocksize), device);
+        return Utils.neighborhoodInPlace(device, Arrays.asList(input0, input1), output, out -> device.execute("Tier1.blockEnumerate", out, dst -> net.clesperanto._internals.tier1j.Tier1.block_enumerate(device.getRaw(), input0.getRaw(), input1.getRaw(), dst, blocksize)));
     }
 
 	/**
@@ -241,7 +256,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.convolve(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, Arrays.asList(input0, input1), output, out -> device.execute("Tier1.convolve", out, dst -> net.clesperanto._internals.tier1j.Tier1.convolve(device.getRaw(), input0.getRaw(), input1.getRaw(), dst)));
     }
 
 	/**
@@ -257,7 +272,7 @@ public class Tier1 {
     public static ArrayJ copy(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.copy(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.copy", output, dst -> net.clesperanto._internals.tier1j.Tier1.copy(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -276,7 +291,7 @@ public class Tier1 {
     public static ArrayJ copySlice(DeviceJ device, ArrayJ input, ArrayJ output, int slice) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.copy_slice(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), slice), device);
+        return device.execute("Tier1.copySlice", output, dst -> net.clesperanto._internals.tier1j.Tier1.copy_slice(device.getRaw(), input.getRaw(), dst, slice));
     }
 
 	/**
@@ -292,7 +307,7 @@ public class Tier1 {
     public static ArrayJ copyHorizontalSlice(DeviceJ device, ArrayJ input, ArrayJ output, int slice) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.copy_horizontal_slice(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), slice), device);
+        return device.execute("Tier1.copyHorizontalSlice", output, dst -> net.clesperanto._internals.tier1j.Tier1.copy_horizontal_slice(device.getRaw(), input.getRaw(), dst, slice));
     }
 
 	/**
@@ -308,7 +323,7 @@ public class Tier1 {
     public static ArrayJ copyVerticalSlice(DeviceJ device, ArrayJ input, ArrayJ output, int slice) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.copy_vertical_slice(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), slice), device);
+        return device.execute("Tier1.copyVerticalSlice", output, dst -> net.clesperanto._internals.tier1j.Tier1.copy_vertical_slice(device.getRaw(), input.getRaw(), dst, slice));
     }
 
 	/**
@@ -330,7 +345,7 @@ public class Tier1 {
     public static ArrayJ crop(DeviceJ device, ArrayJ input, ArrayJ output, int start_x, int start_y, int start_z, int width, int height, int depth) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.crop(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), start_x, start_y, start_z, width, height, depth), device);
+        return device.execute("Tier1.crop", output, dst -> net.clesperanto._internals.tier1j.Tier1.crop(device.getRaw(), input.getRaw(), dst, start_x, start_y, start_z, width, height, depth));
     }
 
 	/**
@@ -344,7 +359,7 @@ public class Tier1 {
     public static ArrayJ cubicRoot(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.cubic_root(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.cubicRoot", output, dst -> net.clesperanto._internals.tier1j.Tier1.cubic_root(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -359,7 +374,7 @@ public class Tier1 {
     public static ArrayJ detectLabelEdges(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.detect_label_edges(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.detectLabelEdges", out, dst -> net.clesperanto._internals.tier1j.Tier1.detect_label_edges(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -379,7 +394,7 @@ public class Tier1 {
     public static ArrayJ dilateBox(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.dilate_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.dilateBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.dilate_box(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -397,7 +412,7 @@ public class Tier1 {
     public static ArrayJ dilateSphere(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.dilate_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.dilateSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.dilate_sphere(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -416,7 +431,7 @@ public class Tier1 {
     public static ArrayJ dilate(DeviceJ device, ArrayJ input, ArrayJ output, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.dilate(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.dilate", out, dst -> net.clesperanto._internals.tier1j.Tier1.dilate(device.getRaw(), input.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -434,7 +449,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.divide_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.divideImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.divide_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -450,7 +465,7 @@ public class Tier1 {
     public static ArrayJ divideScalarByImage(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.divide_scalar_by_image(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.divideScalarByImage", output, dst -> net.clesperanto._internals.tier1j.Tier1.divide_scalar_by_image(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -469,7 +484,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.equal(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.equal", output, dst -> net.clesperanto._internals.tier1j.Tier1.equal(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -487,7 +502,7 @@ public class Tier1 {
     public static ArrayJ equalConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.equal_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.equalConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.equal_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -507,7 +522,7 @@ public class Tier1 {
     public static ArrayJ erodeBox(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.erode_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.erodeBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.erode_box(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -525,7 +540,7 @@ public class Tier1 {
     public static ArrayJ erodeSphere(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.erode_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.erodeSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.erode_sphere(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -544,7 +559,7 @@ public class Tier1 {
     public static ArrayJ erode(DeviceJ device, ArrayJ input, ArrayJ output, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.erode(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.erode", out, dst -> net.clesperanto._internals.tier1j.Tier1.erode(device.getRaw(), input.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -560,7 +575,7 @@ public class Tier1 {
     public static ArrayJ exponential(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.exponential(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.exponential", output, dst -> net.clesperanto._internals.tier1j.Tier1.exponential(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -578,7 +593,7 @@ public class Tier1 {
     public static ArrayJ flip(DeviceJ device, ArrayJ input, ArrayJ output, boolean flip_x, boolean flip_y, boolean flip_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.flip(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), flip_x, flip_y, flip_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.flip", out, dst -> net.clesperanto._internals.tier1j.Tier1.flip(device.getRaw(), input.getRaw(), dst, flip_x, flip_y, flip_z)));
     }
 
 	/**
@@ -599,7 +614,7 @@ public class Tier1 {
     public static ArrayJ gaussianBlur(DeviceJ device, ArrayJ input, ArrayJ output, float sigma_x, float sigma_y, float sigma_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.gaussian_blur(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), sigma_x, sigma_y, sigma_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.gaussianBlur", out, dst -> net.clesperanto._internals.tier1j.Tier1.gaussian_blur(device.getRaw(), input.getRaw(), dst, sigma_x, sigma_y, sigma_z)));
     }
 
 	/**
@@ -622,7 +637,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.generate_distance_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.generateDistanceMatrix", output, dst -> net.clesperanto._internals.tier1j.Tier1.generate_distance_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -639,7 +654,7 @@ public class Tier1 {
     public static ArrayJ gradientX(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.gradient_x(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.gradientX", out, dst -> net.clesperanto._internals.tier1j.Tier1.gradient_x(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -656,7 +671,7 @@ public class Tier1 {
     public static ArrayJ gradientY(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.gradient_y(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.gradientY", out, dst -> net.clesperanto._internals.tier1j.Tier1.gradient_y(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -673,7 +688,7 @@ public class Tier1 {
     public static ArrayJ gradientZ(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.gradient_z(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.gradientZ", out, dst -> net.clesperanto._internals.tier1j.Tier1.gradient_z(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -691,7 +706,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.greater(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.greater", output, dst -> net.clesperanto._internals.tier1j.Tier1.greater(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -708,7 +723,7 @@ public class Tier1 {
     public static ArrayJ greaterConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.greater_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.greaterConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.greater_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -726,7 +741,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.greater_or_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.greaterOrEqual", output, dst -> net.clesperanto._internals.tier1j.Tier1.greater_or_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -743,7 +758,7 @@ public class Tier1 {
     public static ArrayJ greaterOrEqualConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.greater_or_equal_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.greaterOrEqualConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.greater_or_equal_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -768,7 +783,7 @@ public class Tier1 {
     public static ArrayList<ArrayJ> hessianEigenvalues(DeviceJ device, ArrayJ input, ArrayJ small_eigenvalue, ArrayJ middle_eigenvalue, ArrayJ large_eigenvalue) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier1.hessian_eigenvalues(device.getRaw(), input.getRaw(), small_eigenvalue == null ? null : small_eigenvalue.getRaw(), middle_eigenvalue == null ? null : middle_eigenvalue.getRaw(), large_eigenvalue == null ? null : large_eigenvalue.getRaw()));
+        return device.execute("Tier1.hessianEigenvalues", () -> Utils.toArrayList(net.clesperanto._internals.tier1j.Tier1.hessian_eigenvalues(device.getRaw(), input.getRaw(), small_eigenvalue == null ? null : small_eigenvalue.getRaw(), middle_eigenvalue == null ? null : middle_eigenvalue.getRaw(), large_eigenvalue == null ? null : large_eigenvalue.getRaw())));
     }
 
 	/**
@@ -784,7 +799,7 @@ public class Tier1 {
     public static ArrayJ laplaceBox(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.laplace_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.laplaceBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.laplace_box(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -800,7 +815,7 @@ public class Tier1 {
     public static ArrayJ laplaceDiamond(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.laplace_diamond(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.laplaceDiamond", out, dst -> net.clesperanto._internals.tier1j.Tier1.laplace_diamond(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -816,7 +831,7 @@ public class Tier1 {
     public static ArrayJ laplace(DeviceJ device, ArrayJ input, ArrayJ output, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.laplace(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.laplace", out, dst -> net.clesperanto._internals.tier1j.Tier1.laplace(device.getRaw(), input.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -832,7 +847,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.local_cross_correlation(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, Arrays.asList(input0, input1), output, out -> device.execute("Tier1.localCrossCorrelation", out, dst -> net.clesperanto._internals.tier1j.Tier1.local_cross_correlation(device.getRaw(), input0.getRaw(), input1.getRaw(), dst)));
     }
 
 	/**
@@ -848,7 +863,7 @@ public class Tier1 {
     public static ArrayJ logarithm(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.logarithm(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.logarithm", output, dst -> net.clesperanto._internals.tier1j.Tier1.logarithm(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -867,7 +882,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
 		Objects.requireNonNull(mask, "mask cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mask(device.getRaw(), input.getRaw(), mask.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.mask", output, dst -> net.clesperanto._internals.tier1j.Tier1.mask(device.getRaw(), input.getRaw(), mask.getRaw(), dst));
     }
 
 	/**
@@ -887,7 +902,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mask_label(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw(), label), device);
+        return device.execute("Tier1.maskLabel", output, dst -> net.clesperanto._internals.tier1j.Tier1.mask_label(device.getRaw(), input0.getRaw(), input1.getRaw(), dst, label));
     }
 
 	/**
@@ -904,7 +919,7 @@ public class Tier1 {
     public static ArrayJ maximumImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_image_and_scalar(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.maximumImageAndScalar", output, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_image_and_scalar(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -922,7 +937,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.maximumImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -942,7 +957,7 @@ public class Tier1 {
     public static ArrayJ maximumBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.maximumBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -963,7 +978,7 @@ public class Tier1 {
     public static ArrayJ maximum(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.maximum", out, dst -> net.clesperanto._internals.tier1j.Tier1.maximum(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -978,7 +993,7 @@ public class Tier1 {
     public static ArrayJ maximumXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.maximumXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -993,7 +1008,7 @@ public class Tier1 {
     public static ArrayJ maximumYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.maximumYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1008,7 +1023,7 @@ public class Tier1 {
     public static ArrayJ maximumZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.maximumZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1028,7 +1043,7 @@ public class Tier1 {
     public static ArrayJ meanBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.meanBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.mean_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1048,7 +1063,7 @@ public class Tier1 {
     public static ArrayJ meanSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.meanSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.mean_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1068,7 +1083,7 @@ public class Tier1 {
     public static ArrayJ mean(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.mean", out, dst -> net.clesperanto._internals.tier1j.Tier1.mean(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -1083,7 +1098,7 @@ public class Tier1 {
     public static ArrayJ meanXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.meanXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.mean_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1098,7 +1113,7 @@ public class Tier1 {
     public static ArrayJ meanYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.meanYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.mean_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1113,7 +1128,7 @@ public class Tier1 {
     public static ArrayJ meanZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mean_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.meanZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.mean_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1134,7 +1149,7 @@ public class Tier1 {
     public static ArrayJ medianBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.median_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.medianBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.median_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1155,7 +1170,7 @@ public class Tier1 {
     public static ArrayJ medianSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.median_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.medianSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.median_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1177,7 +1192,7 @@ public class Tier1 {
     public static ArrayJ median(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.median(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.median", out, dst -> net.clesperanto._internals.tier1j.Tier1.median(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -1197,7 +1212,7 @@ public class Tier1 {
     public static ArrayJ minimumBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.minimumBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1218,7 +1233,7 @@ public class Tier1 {
     public static ArrayJ minimum(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.minimum", out, dst -> net.clesperanto._internals.tier1j.Tier1.minimum(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -1235,7 +1250,7 @@ public class Tier1 {
     public static ArrayJ minimumImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_image_and_scalar(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.minimumImageAndScalar", output, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_image_and_scalar(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -1253,7 +1268,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.minimumImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1268,7 +1283,7 @@ public class Tier1 {
     public static ArrayJ minimumXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.minimumXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1283,7 +1298,7 @@ public class Tier1 {
     public static ArrayJ minimumYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.minimumYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1298,7 +1313,7 @@ public class Tier1 {
     public static ArrayJ minimumZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.minimumZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1320,7 +1335,7 @@ public class Tier1 {
     public static ArrayJ modeBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mode_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.modeBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.mode_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1342,7 +1357,7 @@ public class Tier1 {
     public static ArrayJ modeSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mode_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.modeSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.mode_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1365,7 +1380,7 @@ public class Tier1 {
     public static ArrayJ mode(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.mode(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.mode", out, dst -> net.clesperanto._internals.tier1j.Tier1.mode(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -1381,7 +1396,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.modulo_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.moduloImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.modulo_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1397,7 +1412,7 @@ public class Tier1 {
     public static ArrayJ multiplyImageAndPosition(DeviceJ device, ArrayJ input, ArrayJ output, int dimension) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.multiply_image_and_position(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), dimension), device);
+        return device.execute("Tier1.multiplyImageAndPosition", output, dst -> net.clesperanto._internals.tier1j.Tier1.multiply_image_and_position(device.getRaw(), input.getRaw(), dst, dimension));
     }
 
 	/**
@@ -1414,7 +1429,7 @@ public class Tier1 {
     public static ArrayJ multiplyImageAndScalar(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.multiply_image_and_scalar(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.multiplyImageAndScalar", output, dst -> net.clesperanto._internals.tier1j.Tier1.multiply_image_and_scalar(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -1432,7 +1447,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.multiply_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.multiplyImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.multiply_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1453,7 +1468,7 @@ public class Tier1 {
     public static ArrayJ nanToNum(DeviceJ device, ArrayJ input, ArrayJ output, float nan, float posinf, float neginf) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nan_to_num(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), nan, posinf, neginf), device);
+        return device.execute("Tier1.nanToNum", output, dst -> net.clesperanto._internals.tier1j.Tier1.nan_to_num(device.getRaw(), input.getRaw(), dst, nan, posinf, neginf));
     }
 
 	/**
@@ -1473,7 +1488,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMaximumBox(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_maximum_box(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMaximumBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_maximum_box(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1493,7 +1508,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMaximumDiamond(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_maximum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMaximumDiamond", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_maximum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1515,7 +1530,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMaximum(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_maximum(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw(), connectivity), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMaximum", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_maximum(device.getRaw(), input.getRaw(), output0.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -1535,7 +1550,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMinimumBox(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_minimum_box(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMinimumBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_minimum_box(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1555,7 +1570,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMinimumDiamond(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_minimum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMinimumDiamond", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_minimum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1577,7 +1592,7 @@ public class Tier1 {
     public static ArrayJ nonzeroMinimum(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.nonzero_minimum(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw(), connectivity), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.nonzeroMinimum", out, dst -> net.clesperanto._internals.tier1j.Tier1.nonzero_minimum(device.getRaw(), input.getRaw(), output0.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -1595,7 +1610,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.not_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.notEqual", output, dst -> net.clesperanto._internals.tier1j.Tier1.not_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1612,7 +1627,7 @@ public class Tier1 {
     public static ArrayJ notEqualConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.not_equal_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.notEqualConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.not_equal_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -1630,7 +1645,7 @@ public class Tier1 {
     public static ArrayJ paste(DeviceJ device, ArrayJ input, ArrayJ output, int index_x, int index_y, int index_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.paste(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), index_x, index_y, index_z), device);
+        return Utils.partialInPlace(device, Collections.singletonList(input), output, out -> device.execute("Tier1.paste", out, dst -> net.clesperanto._internals.tier1j.Tier1.paste(device.getRaw(), input.getRaw(), dst, index_x, index_y, index_z)));
     }
 
 	/**
@@ -1647,7 +1662,7 @@ public class Tier1 {
     public static ArrayJ onlyzeroOverwriteMaximumBox(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.onlyzero_overwrite_maximum_box(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.onlyzeroOverwriteMaximumBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.onlyzero_overwrite_maximum_box(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1664,7 +1679,7 @@ public class Tier1 {
     public static ArrayJ onlyzeroOverwriteMaximumDiamond(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.onlyzero_overwrite_maximum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw()), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.onlyzeroOverwriteMaximumDiamond", out, dst -> net.clesperanto._internals.tier1j.Tier1.onlyzero_overwrite_maximum_diamond(device.getRaw(), input.getRaw(), output0.getRaw(), dst)));
     }
 
 	/**
@@ -1682,7 +1697,7 @@ public class Tier1 {
     public static ArrayJ onlyzeroOverwriteMaximum(DeviceJ device, ArrayJ input, ArrayJ output0, ArrayJ output1, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.onlyzero_overwrite_maximum(device.getRaw(), input.getRaw(), output0.getRaw(), output1 == null ? null : output1.getRaw(), connectivity), device);
+        return Utils.partialInPlace(device, Arrays.asList(input, output0), output1, out -> device.execute("Tier1.onlyzeroOverwriteMaximum", out, dst -> net.clesperanto._internals.tier1j.Tier1.onlyzero_overwrite_maximum(device.getRaw(), input.getRaw(), output0.getRaw(), dst, connectivity)));
     }
 
 	/**
@@ -1699,7 +1714,7 @@ public class Tier1 {
     public static ArrayJ power(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.power(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.power", output, dst -> net.clesperanto._internals.tier1j.Tier1.power(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -1716,7 +1731,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.power_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.powerImages", output, dst -> net.clesperanto._internals.tier1j.Tier1.power_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1739,7 +1754,7 @@ public class Tier1 {
     public static ArrayJ range(DeviceJ device, ArrayJ input, ArrayJ output, int start_x, int stop_x, int step_x, int start_y, int stop_y, int step_y, int start_z, int stop_z, int step_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.range(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), start_x, stop_x, step_x, start_y, stop_y, step_y, start_z, stop_z, step_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.range", out, dst -> net.clesperanto._internals.tier1j.Tier1.range(device.getRaw(), input.getRaw(), dst, start_x, stop_x, step_x, start_y, stop_y, step_y, start_z, stop_z, step_z)));
     }
 
 	/**
@@ -1757,7 +1772,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
 		Objects.requireNonNull(list, "list cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.read_values_from_positions(device.getRaw(), input.getRaw(), list.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.readValuesFromPositions", output, dst -> net.clesperanto._internals.tier1j.Tier1.read_values_from_positions(device.getRaw(), input.getRaw(), list.getRaw(), dst));
     }
 
 	/**
@@ -1777,7 +1792,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.replace_values(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.replaceValues", output, dst -> net.clesperanto._internals.tier1j.Tier1.replace_values(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -1794,7 +1809,7 @@ public class Tier1 {
     public static ArrayJ replaceValue(DeviceJ device, ArrayJ input, ArrayJ output, float scalar0, float scalar1) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.replace_value(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar0, scalar1), device);
+        return device.execute("Tier1.replaceValue", output, dst -> net.clesperanto._internals.tier1j.Tier1.replace_value(device.getRaw(), input.getRaw(), dst, scalar0, scalar1));
     }
 
 	/**
@@ -1814,7 +1829,7 @@ public class Tier1 {
     public static ArrayJ maximumSphere(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.maximum_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.maximumSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.maximum_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1834,7 +1849,7 @@ public class Tier1 {
     public static ArrayJ minimumSphere(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.minimum_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.minimumSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.minimum_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -1852,7 +1867,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.multiply_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, Arrays.asList(input0, input1), output, out -> device.execute("Tier1.multiplyMatrix", out, dst -> net.clesperanto._internals.tier1j.Tier1.multiply_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), dst)));
     }
 
 	/**
@@ -1867,7 +1882,7 @@ public class Tier1 {
     public static ArrayJ reciprocal(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.reciprocal(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.reciprocal", output, dst -> net.clesperanto._internals.tier1j.Tier1.reciprocal(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -1883,7 +1898,7 @@ public class Tier1 {
     public static ArrayJ set(DeviceJ device, ArrayJ input, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set(device.getRaw(), input.getRaw(), scalar), device);
+        return device.execute("Tier1.set", input, dst -> net.clesperanto._internals.tier1j.Tier1.set(device.getRaw(), dst, scalar));
     }
 
 	/**
@@ -1899,7 +1914,7 @@ public class Tier1 {
     public static ArrayJ setColumn(DeviceJ device, ArrayJ input, int column, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_column(device.getRaw(), input.getRaw(), column, value), device);
+        return device.execute("Tier1.setColumn", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_column(device.getRaw(), dst, column, value));
     }
 
 	/**
@@ -1914,7 +1929,7 @@ public class Tier1 {
     public static ArrayJ setImageBorders(DeviceJ device, ArrayJ input, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_image_borders(device.getRaw(), input.getRaw(), value), device);
+        return device.execute("Tier1.setImageBorders", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_image_borders(device.getRaw(), dst, value));
     }
 
 	/**
@@ -1930,7 +1945,7 @@ public class Tier1 {
     public static ArrayJ setPlane(DeviceJ device, ArrayJ input, int plane, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_plane(device.getRaw(), input.getRaw(), plane, value), device);
+        return device.execute("Tier1.setPlane", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_plane(device.getRaw(), dst, plane, value));
     }
 
 	/**
@@ -1944,7 +1959,7 @@ public class Tier1 {
     public static ArrayJ setRampX(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_ramp_x(device.getRaw(), input.getRaw()), device);
+        return device.execute("Tier1.setRampX", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_ramp_x(device.getRaw(), dst));
     }
 
 	/**
@@ -1958,7 +1973,7 @@ public class Tier1 {
     public static ArrayJ setRampY(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_ramp_y(device.getRaw(), input.getRaw()), device);
+        return device.execute("Tier1.setRampY", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_ramp_y(device.getRaw(), dst));
     }
 
 	/**
@@ -1972,7 +1987,7 @@ public class Tier1 {
     public static ArrayJ setRampZ(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_ramp_z(device.getRaw(), input.getRaw()), device);
+        return device.execute("Tier1.setRampZ", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_ramp_z(device.getRaw(), dst));
     }
 
 	/**
@@ -1988,7 +2003,7 @@ public class Tier1 {
     public static ArrayJ setRow(DeviceJ device, ArrayJ input, int row, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_row(device.getRaw(), input.getRaw(), row, value), device);
+        return device.execute("Tier1.setRow", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_row(device.getRaw(), dst, row, value));
     }
 
 	/**
@@ -2003,7 +2018,7 @@ public class Tier1 {
     public static ArrayJ setNonzeroPixelsToPixelindex(DeviceJ device, ArrayJ input, ArrayJ output, int offset) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_nonzero_pixels_to_pixelindex(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), offset), device);
+        return device.execute("Tier1.setNonzeroPixelsToPixelindex", output, dst -> net.clesperanto._internals.tier1j.Tier1.set_nonzero_pixels_to_pixelindex(device.getRaw(), input.getRaw(), dst, offset));
     }
 
 	/**
@@ -2020,7 +2035,7 @@ public class Tier1 {
     public static ArrayJ setWhereXEqualsY(DeviceJ device, ArrayJ input, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_where_x_equals_y(device.getRaw(), input.getRaw(), value), device);
+        return device.execute("Tier1.setWhereXEqualsY", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_where_x_equals_y(device.getRaw(), dst, value));
     }
 
 	/**
@@ -2037,7 +2052,7 @@ public class Tier1 {
     public static ArrayJ setWhereXGreaterThanY(DeviceJ device, ArrayJ input, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_where_x_greater_than_y(device.getRaw(), input.getRaw(), value), device);
+        return device.execute("Tier1.setWhereXGreaterThanY", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_where_x_greater_than_y(device.getRaw(), dst, value));
     }
 
 	/**
@@ -2054,7 +2069,7 @@ public class Tier1 {
     public static ArrayJ setWhereXSmallerThanY(DeviceJ device, ArrayJ input, float value) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.set_where_x_smaller_than_y(device.getRaw(), input.getRaw(), value), device);
+        return device.execute("Tier1.setWhereXSmallerThanY", input, dst -> net.clesperanto._internals.tier1j.Tier1.set_where_x_smaller_than_y(device.getRaw(), dst, value));
     }
 
 	/**
@@ -2072,7 +2087,7 @@ public class Tier1 {
     public static ArrayJ sign(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sign(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.sign", output, dst -> net.clesperanto._internals.tier1j.Tier1.sign(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2090,7 +2105,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.smaller(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.smaller", output, dst -> net.clesperanto._internals.tier1j.Tier1.smaller(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -2107,7 +2122,7 @@ public class Tier1 {
     public static ArrayJ smallerConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.smaller_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.smallerConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.smaller_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -2125,7 +2140,7 @@ public class Tier1 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.smaller_or_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.smallerOrEqual", output, dst -> net.clesperanto._internals.tier1j.Tier1.smaller_or_equal(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -2142,7 +2157,7 @@ public class Tier1 {
     public static ArrayJ smallerOrEqualConstant(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.smaller_or_equal_constant(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.smallerOrEqualConstant", output, dst -> net.clesperanto._internals.tier1j.Tier1.smaller_or_equal_constant(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -2158,7 +2173,7 @@ public class Tier1 {
     public static ArrayJ sobel(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sobel(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.sobel", out, dst -> net.clesperanto._internals.tier1j.Tier1.sobel(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -2172,7 +2187,7 @@ public class Tier1 {
     public static ArrayJ squareRoot(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.square_root(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.squareRoot", output, dst -> net.clesperanto._internals.tier1j.Tier1.square_root(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2187,7 +2202,7 @@ public class Tier1 {
     public static ArrayJ stdZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.std_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.stdZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.std_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2204,7 +2219,7 @@ public class Tier1 {
     public static ArrayJ subtractImageFromScalar(DeviceJ device, ArrayJ input, ArrayJ output, float scalar) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.subtract_image_from_scalar(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), scalar), device);
+        return device.execute("Tier1.subtractImageFromScalar", output, dst -> net.clesperanto._internals.tier1j.Tier1.subtract_image_from_scalar(device.getRaw(), input.getRaw(), dst, scalar));
     }
 
 	/**
@@ -2221,7 +2236,7 @@ public class Tier1 {
     public static ArrayJ sumReductionX(DeviceJ device, ArrayJ input, ArrayJ output, int blocksize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sum_reduction_x(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), blocksize), device);
+        return device.execute("Tier1.sumReductionX", output, dst -> net.clesperanto._internals.tier1j.Tier1.sum_reduction_x(device.getRaw(), input.getRaw(), dst, blocksize));
     }
 
 	/**
@@ -2236,7 +2251,7 @@ public class Tier1 {
     public static ArrayJ sumXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sum_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.sumXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.sum_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2251,7 +2266,7 @@ public class Tier1 {
     public static ArrayJ sumYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sum_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.sumYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.sum_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2266,7 +2281,7 @@ public class Tier1 {
     public static ArrayJ sumZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.sum_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.sumZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.sum_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2281,7 +2296,7 @@ public class Tier1 {
     public static ArrayJ transposeXy(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.transpose_xy(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.transposeXy", out, dst -> net.clesperanto._internals.tier1j.Tier1.transpose_xy(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -2296,7 +2311,7 @@ public class Tier1 {
     public static ArrayJ transposeXz(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.transpose_xz(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.transposeXz", out, dst -> net.clesperanto._internals.tier1j.Tier1.transpose_xz(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -2311,7 +2326,7 @@ public class Tier1 {
     public static ArrayJ transposeYz(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.transpose_yz(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.transposeYz", out, dst -> net.clesperanto._internals.tier1j.Tier1.transpose_yz(device.getRaw(), input.getRaw(), dst)));
     }
 
 	/**
@@ -2326,7 +2341,7 @@ public class Tier1 {
     public static ArrayJ undefinedToZero(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.undefined_to_zero(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.undefinedToZero", output, dst -> net.clesperanto._internals.tier1j.Tier1.undefined_to_zero(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2347,7 +2362,7 @@ public class Tier1 {
     public static ArrayJ varianceBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.variance_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.varianceBox", out, dst -> net.clesperanto._internals.tier1j.Tier1.variance_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -2368,7 +2383,7 @@ public class Tier1 {
     public static ArrayJ varianceSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.variance_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.varianceSphere", out, dst -> net.clesperanto._internals.tier1j.Tier1.variance_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z)));
     }
 
 	/**
@@ -2390,7 +2405,7 @@ public class Tier1 {
     public static ArrayJ variance(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.variance(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return Utils.neighborhoodInPlace(device, input, output, out -> device.execute("Tier1.variance", out, dst -> net.clesperanto._internals.tier1j.Tier1.variance(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity)));
     }
 
 	/**
@@ -2406,7 +2421,7 @@ public class Tier1 {
     public static ArrayJ writeValuesToPositions(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.write_values_to_positions(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.writeValuesToPositions", output, dst -> net.clesperanto._internals.tier1j.Tier1.write_values_to_positions(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2421,7 +2436,7 @@ public class Tier1 {
     public static ArrayJ xPositionOfMaximumXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.x_position_of_maximum_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.xPositionOfMaximumXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.x_position_of_maximum_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2436,7 +2451,7 @@ public class Tier1 {
     public static ArrayJ xPositionOfMinimumXProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.x_position_of_minimum_x_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.xPositionOfMinimumXProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.x_position_of_minimum_x_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2451,7 +2466,7 @@ public class Tier1 {
     public static ArrayJ yPositionOfMaximumYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.y_position_of_maximum_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.yPositionOfMaximumYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.y_position_of_maximum_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2466,7 +2481,7 @@ public class Tier1 {
     public static ArrayJ yPositionOfMinimumYProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.y_position_of_minimum_y_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.yPositionOfMinimumYProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.y_position_of_minimum_y_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2481,7 +2496,7 @@ public class Tier1 {
     public static ArrayJ zPositionOfMaximumZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.z_position_of_maximum_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.zPositionOfMaximumZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.z_position_of_maximum_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -2496,7 +2511,7 @@ public class Tier1 {
     public static ArrayJ zPositionOfMinimumZProjection(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier1.z_position_of_minimum_z_projection(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier1.zPositionOfMinimumZProjection", output, dst -> net.clesperanto._internals.tier1j.Tier1.z_position_of_minimum_z_projection(device.getRaw(), input.getRaw(), dst));
     }
 
 }
@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier2 {
 
+    static {
+        NativeLoader.loadTier(2);
+    }
+
 	/**
 	 * Determines the absolute difference pixel by pixel between two images.
 	 * <pre>f(x, y) = |x y| </pre>.
@@ -32,7 +37,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.absolute_difference(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.absoluteDifference", output, dst -> net.clesperanto._internals.tier2j.Tier2.absolute_difference(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -50,7 +55,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.add_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.addImages", output, dst -> net.clesperanto._internals.tier2j.Tier2.add_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -69,7 +74,7 @@ public class Tier2 {
     public static ArrayJ bottomHatBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.bottom_hat_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.bottomHatBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.bottom_hat_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -88,7 +93,7 @@ public class Tier2 {
     public static ArrayJ bottomHatSphere(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.bottom_hat_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.bottomHatSphere", output, dst -> net.clesperanto._internals.tier2j.Tier2.bottom_hat_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -108,7 +113,7 @@ public class Tier2 {
     public static ArrayJ bottomHat(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.bottom_hat(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.bottomHat", output, dst -> net.clesperanto._internals.tier2j.Tier2.bottom_hat(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -126,7 +131,7 @@ public class Tier2 {
     public static ArrayJ clip(DeviceJ device, ArrayJ input, ArrayJ output, float min_intensity, float max_intensity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.clip(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), min_intensity, max_intensity), device);
+        return device.execute("Tier2.clip", output, dst -> net.clesperanto._internals.tier2j.Tier2.clip(device.getRaw(), input.getRaw(), dst, min_intensity, max_intensity));
     }
 
 	/**
@@ -145,7 +150,7 @@ public class Tier2 {
     public static ArrayJ closingBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.closing_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.closingBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.closing_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -164,7 +169,7 @@ public class Tier2 {
     public static ArrayJ closingSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.closing_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.closingSphere", output, dst -> net.clesperanto._internals.tier2j.Tier2.closing_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -183,7 +188,7 @@ public class Tier2 {
     public static ArrayJ closing(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.closing(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.closing", output, dst -> net.clesperanto._internals.tier2j.Tier2.closing(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -200,7 +205,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.concatenate_along_x(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.concatenateAlongX", output, dst -> net.clesperanto._internals.tier2j.Tier2.concatenate_along_x(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -217,7 +222,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.concatenate_along_y(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.concatenateAlongY", output, dst -> net.clesperanto._internals.tier2j.Tier2.concatenate_along_y(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -234,7 +239,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.concatenate_along_z(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.concatenateAlongZ", output, dst -> net.clesperanto._internals.tier2j.Tier2.concatenate_along_z(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -253,7 +258,7 @@ public class Tier2 {
     public static ArrayJ countTouchingNeighbors(DeviceJ device, ArrayJ input, ArrayJ output, boolean ignore_background) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.count_touching_neighbors(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), ignore_background), device);
+        return device.execute("Tier2.countTouchingNeighbors", output, dst -> net.clesperanto._internals.tier2j.Tier2.count_touching_neighbors(device.getRaw(), input.getRaw(), dst, ignore_background));
     }
 
 	/**
@@ -269,7 +274,7 @@ public class Tier2 {
     public static ArrayJ cropBorder(DeviceJ device, ArrayJ input, ArrayJ output, int border_size) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.crop_border(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), border_size), device);
+        return device.execute("Tier2.cropBorder", output, dst -> net.clesperanto._internals.tier2j.Tier2.crop_border(device.getRaw(), input.getRaw(), dst, border_size));
     }
 
 	/**
@@ -287,7 +292,7 @@ public class Tier2 {
     public static ArrayJ divideByGaussianBackground(DeviceJ device, ArrayJ input, ArrayJ output, float sigma_x, float sigma_y, float sigma_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.divide_by_gaussian_background(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), sigma_x, sigma_y, sigma_z), device);
+        return device.execute("Tier2.divideByGaussianBackground", output, dst -> net.clesperanto._internals.tier2j.Tier2.divide_by_gaussian_background(device.getRaw(), input.getRaw(), dst, sigma_x, sigma_y, sigma_z));
     }
 
 	/**
@@ -301,7 +306,7 @@ public class Tier2 {
     public static ArrayJ degreesToRadians(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.degrees_to_radians(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.degreesToRadians", output, dst -> net.clesperanto._internals.tier2j.Tier2.degrees_to_radians(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -321,7 +326,7 @@ public class Tier2 {
     public static ArrayJ detectMaximaBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.detect_maxima_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.detectMaximaBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.detect_maxima_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -342,7 +347,7 @@ public class Tier2 {
     public static ArrayJ detectMaxima(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.detect_maxima(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.detectMaxima", output, dst -> net.clesperanto._internals.tier2j.Tier2.detect_maxima(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -362,7 +367,7 @@ public class Tier2 {
     public static ArrayJ detectMinimaBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.detect_minima_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.detectMinimaBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.detect_minima_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -383,7 +388,7 @@ public class Tier2 {
     public static ArrayJ detectMinima(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.detect_minima(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.detectMinima", output, dst -> net.clesperanto._internals.tier2j.Tier2.detect_minima(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -405,7 +410,7 @@ public class Tier2 {
     public static ArrayJ differenceOfGaussian(DeviceJ device, ArrayJ input, ArrayJ output, float sigma1_x, float sigma1_y, float sigma1_z, float sigma2_x, float sigma2_y, float sigma2_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.difference_of_gaussian(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), sigma1_x, sigma1_y, sigma1_z, sigma2_x, sigma2_y, sigma2_z), device);
+        return device.execute("Tier2.differenceOfGaussian", output, dst -> net.clesperanto._internals.tier2j.Tier2.difference_of_gaussian(device.getRaw(), input.getRaw(), dst, sigma1_x, sigma1_y, sigma1_z, sigma2_x, sigma2_y, sigma2_z));
     }
 
 	/**
@@ -421,7 +426,7 @@ public class Tier2 {
     public static ArrayJ extendLabelingViaVoronoi(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.extend_labeling_via_voronoi(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.extendLabelingViaVoronoi", output, dst -> net.clesperanto._internals.tier2j.Tier2.extend_labeling_via_voronoi(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -438,7 +443,7 @@ public class Tier2 {
     public static ArrayJ invert(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.invert(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.invert", output, dst -> net.clesperanto._internals.tier2j.Tier2.invert(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -455,7 +460,7 @@ public class Tier2 {
     public static ArrayJ labelSpots(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.label_spots(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.labelSpots", output, dst -> net.clesperanto._internals.tier2j.Tier2.label_spots(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -469,7 +474,7 @@ public class Tier2 {
     public static ArrayJ largeHessianEigenvalue(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.large_hessian_eigenvalue(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.largeHessianEigenvalue", output, dst -> net.clesperanto._internals.tier2j.Tier2.large_hessian_eigenvalue(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -484,7 +489,7 @@ public class Tier2 {
     public static float maximumOfAllPixels(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return net.clesperanto._internals.kernelj.Tier2.maximum_of_all_pixels(device.getRaw(), input.getRaw());
+        return device.execute("Tier2.maximumOfAllPixels", () -> net.clesperanto._internals.tier2j.Tier2.maximum_of_all_pixels(device.getRaw(), input.getRaw()));
     }
 
 	/**
@@ -499,7 +504,7 @@ public class Tier2 {
     public static float minimumOfAllPixels(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return net.clesperanto._internals.kernelj.Tier2.minimum_of_all_pixels(device.getRaw(), input.getRaw());
+        return device.execute("Tier2.minimumOfAllPixels", () -> net.clesperanto._internals.tier2j.Tier2.minimum_of_all_pixels(device.getRaw(), input.getRaw()));
     }
 
 	/**
@@ -516,7 +521,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
 		Objects.requireNonNull(mask, "mask cannot be null");
-        return net.clesperanto._internals.kernelj.Tier2.minimum_of_masked_pixels(device.getRaw(), input.getRaw(), mask.getRaw());
+        return device.execute("Tier2.minimumOfMaskedPixels", () -> net.clesperanto._internals.tier2j.Tier2.minimum_of_masked_pixels(device.getRaw(), input.getRaw(), mask.getRaw()));
     }
 
 	/**
@@ -535,7 +540,7 @@ public class Tier2 {
     public static ArrayJ openingBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.opening_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.openingBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.opening_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -554,7 +559,7 @@ public class Tier2 {
     public static ArrayJ openingSphere(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.opening_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.openingSphere", output, dst -> net.clesperanto._internals.tier2j.Tier2.opening_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -573,7 +578,7 @@ public class Tier2 {
     public static ArrayJ opening(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.opening(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.opening", output, dst -> net.clesperanto._internals.tier2j.Tier2.opening(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -587,7 +592,7 @@ public class Tier2 {
     public static ArrayJ radiansToDegrees(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.radians_to_degrees(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.radiansToDegrees", output, dst -> net.clesperanto._internals.tier2j.Tier2.radians_to_degrees(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -603,7 +608,7 @@ public class Tier2 {
     public static ArrayJ reduceLabelsToLabelEdges(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.reduce_labels_to_label_edges(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.reduceLabelsToLabelEdges", output, dst -> net.clesperanto._internals.tier2j.Tier2.reduce_labels_to_label_edges(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -617,7 +622,7 @@ public class Tier2 {
     public static ArrayJ smallHessianEigenvalue(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.small_hessian_eigenvalue(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.smallHessianEigenvalue", output, dst -> net.clesperanto._internals.tier2j.Tier2.small_hessian_eigenvalue(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -633,7 +638,7 @@ public class Tier2 {
     public static ArrayJ square(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.square(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.square", output, dst -> net.clesperanto._internals.tier2j.Tier2.square(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -650,7 +655,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.squared_difference(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.squaredDifference", output, dst -> net.clesperanto._internals.tier2j.Tier2.squared_difference(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -671,7 +676,7 @@ public class Tier2 {
     public static ArrayJ standardDeviationBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.standard_deviation_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.standardDeviationBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.standard_deviation_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -692,7 +697,7 @@ public class Tier2 {
     public static ArrayJ standardDeviationSphere(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.standard_deviation_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.standardDeviationSphere", output, dst -> net.clesperanto._internals.tier2j.Tier2.standard_deviation_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -714,7 +719,7 @@ public class Tier2 {
     public static ArrayJ standardDeviation(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.standard_deviation(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.standardDeviation", output, dst -> net.clesperanto._internals.tier2j.Tier2.standard_deviation(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 	/**
@@ -732,7 +737,7 @@ public class Tier2 {
     public static ArrayJ subtractGaussianBackground(DeviceJ device, ArrayJ input, ArrayJ output, float sigma_x, float sigma_y, float sigma_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.subtract_gaussian_background(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), sigma_x, sigma_y, sigma_z), device);
+        return device.execute("Tier2.subtractGaussianBackground", output, dst -> net.clesperanto._internals.tier2j.Tier2.subtract_gaussian_background(device.getRaw(), input.getRaw(), dst, sigma_x, sigma_y, sigma_z));
     }
 
 	/**
@@ -750,7 +755,7 @@ public class Tier2 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.subtract_images(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier2.subtractImages", output, dst -> net.clesperanto._internals.tier2j.Tier2.subtract_images(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -765,7 +770,7 @@ public class Tier2 {
     public static float sumOfAllPixels(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return net.clesperanto._internals.kernelj.Tier2.sum_of_all_pixels(device.getRaw(), input == null ? null : input.getRaw());
+        return device.execute("Tier2.sumOfAllPixels", () -> net.clesperanto._internals.tier2j.Tier2.sum_of_all_pixels(device.getRaw(), input == null ? null : input.getRaw()));
     }
 
 	/**
@@ -784,7 +789,7 @@ public class Tier2 {
     public static ArrayJ topHatBox(DeviceJ device, ArrayJ input, ArrayJ output, int radius_x, int radius_y, int radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.top_hat_box(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.topHatBox", output, dst -> net.clesperanto._internals.tier2j.Tier2.top_hat_box(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -803,7 +808,7 @@ public class Tier2 {
     public static ArrayJ topHatSphere(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.top_hat_sphere(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z), device);
+        return device.execute("Tier2.topHatSphere", output, dst -> net.clesperanto._internals.tier2j.Tier2.top_hat_sphere(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z));
     }
 
 	/**
@@ -823,7 +828,7 @@ public class Tier2 {
     public static ArrayJ topHat(DeviceJ device, ArrayJ input, ArrayJ output, float radius_x, float radius_y, float radius_z, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier2.top_hat(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius_x, radius_y, radius_z, connectivity), device);
+        return device.execute("Tier2.topHat", output, dst -> net.clesperanto._internals.tier2j.Tier2.top_hat(device.getRaw(), input.getRaw(), dst, radius_x, radius_y, radius_z, connectivity));
     }
 
 }
@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier3 {
 
+    static {
+        NativeLoader.loadTier(3);
+    }
+
 	/**
 	 * Determines the bounding box of all nonzero pixels in a binary image.
 	 * The positions are returned in  an array of 6 values as follows: minX, minY, minZ, maxX, maxY, maxZ.
@@ -29,7 +34,7 @@ public class Tier3 {
     public static ArrayList<Float> boundingBox(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier3.bounding_box(device.getRaw(), input.getRaw()));
+        return device.execute("Tier3.boundingBox", () -> Utils.toArrayList(net.clesperanto._internals.tier3j.Tier3.bounding_box(device.getRaw(), input.getRaw())));
     }
 
 	/**
@@ -44,7 +49,7 @@ public class Tier3 {
     public static ArrayList<Float> centerOfMass(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier3.center_of_mass(device.getRaw(), input.getRaw()));
+        return device.execute("Tier3.centerOfMass", () -> Utils.toArrayList(net.clesperanto._internals.tier3j.Tier3.center_of_mass(device.getRaw(), input.getRaw())));
     }
 
 	/**
@@ -64,7 +69,7 @@ public class Tier3 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
 		Objects.requireNonNull(list, "list cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.exclude_labels(device.getRaw(), input.getRaw(), list.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier3.excludeLabels", output, dst -> net.clesperanto._internals.tier3j.Tier3.exclude_labels(device.getRaw(), input.getRaw(), list.getRaw(), dst));
     }
 
 	/**
@@ -83,7 +88,7 @@ public class Tier3 {
     public static ArrayJ excludeLabelsOnEdges(DeviceJ device, ArrayJ input, ArrayJ output, boolean exclude_x, boolean exclude_y, boolean exclude_z) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.exclude_labels_on_edges(device == null ? null : device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), exclude_x, exclude_y, exclude_z), device);
+        return device.execute("Tier3.excludeLabelsOnEdges", output, dst -> net.clesperanto._internals.tier3j.Tier3.exclude_labels_on_edges(device.getRaw(), input.getRaw(), dst, exclude_x, exclude_y, exclude_z));
     }
 
 	/**
@@ -98,7 +103,7 @@ public class Tier3 {
     public static ArrayJ flagExistingLabels(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.flag_existing_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier3.flagExistingLabels", output, dst -> net.clesperanto._internals.tier3j.Tier3.flag_existing_labels(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -115,7 +120,7 @@ public class Tier3 {
     public static ArrayJ gammaCorrection(DeviceJ device, ArrayJ input, ArrayJ output, float gamma) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.gamma_correction(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), gamma), device);
+        return device.execute("Tier3.gammaCorrection", output, dst -> net.clesperanto._internals.tier3j.Tier3.gamma_correction(device.getRaw(), input.getRaw(), dst, gamma));
     }
 
 	/**
@@ -133,7 +138,7 @@ public class Tier3 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.generate_binary_overlap_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier3.generateBinaryOverlapMatrix", output, dst -> net.clesperanto._internals.tier3j.Tier3.generate_binary_overlap_matrix(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -151,7 +156,7 @@ public class Tier3 {
     public static ArrayJ generateTouchMatrix(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.generate_touch_matrix(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier3.generateTouchMatrix", output, dst -> net.clesperanto._internals.tier3j.Tier3.generate_touch_matrix(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -183,7 +188,7 @@ public class Tier3 {
     public static ArrayJ histogram(DeviceJ device, ArrayJ input, ArrayJ output, int nbins, float min, float max) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.histogram(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), nbins, min, max), device);
+        return device.execute("Tier3.histogram", output, dst -> net.clesperanto._internals.tier3j.Tier3.histogram(device.getRaw(), input.getRaw(), dst, nbins, min, max));
     }
 
 	/**
@@ -202,7 +207,7 @@ public class Tier3 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return net.clesperanto._internals.kernelj.Tier3.jaccard_index(device.getRaw(), input0.getRaw(), input1.getRaw());
+        return device.execute("Tier3.jaccardIndex", () -> net.clesperanto._internals.tier3j.Tier3.jaccard_index(device.getRaw(), input0.getRaw(), input1.getRaw()));
     }
 
 	/**
@@ -219,7 +224,7 @@ public class Tier3 {
     public static ArrayJ labelledSpotsToPointlist(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.labelled_spots_to_pointlist(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier3.labelledSpotsToPointlist", output, dst -> net.clesperanto._internals.tier3j.Tier3.labelled_spots_to_pointlist(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -232,7 +237,7 @@ public class Tier3 {
     public static ArrayList<Float> maximumPosition(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier3.maximum_position(device.getRaw(), input.getRaw()));
+        return device.execute("Tier3.maximumPosition", () -> Utils.toArrayList(net.clesperanto._internals.tier3j.Tier3.maximum_position(device.getRaw(), input.getRaw())));
     }
 
 	/**
@@ -246,7 +251,7 @@ public class Tier3 {
     public static float meanOfAllPixels(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return net.clesperanto._internals.kernelj.Tier3.mean_of_all_pixels(device.getRaw(), input.getRaw());
+        return device.execute("Tier3.meanOfAllPixels", () -> net.clesperanto._internals.tier3j.Tier3.mean_of_all_pixels(device.getRaw(), input.getRaw()));
     }
 
 	/**
@@ -259,7 +264,7 @@ public class Tier3 {
     public static ArrayList<Float> minimumPosition(DeviceJ device, ArrayJ input) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier3.minimum_position(device.getRaw(), input.getRaw()));
+        return device.execute("Tier3.minimumPosition", () -> Utils.toArrayList(net.clesperanto._internals.tier3j.Tier3.minimum_position(device.getRaw(), input.getRaw())));
     }
 
 	/**
@@ -279,7 +284,7 @@ public class Tier3 {
     public static ArrayJ morphologicalChanVese(DeviceJ device, ArrayJ input, ArrayJ output, int num_iter, int smoothing, float lambda1, float lambda2) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier3.morphological_chan_vese(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), num_iter, smoothing, lambda1, lambda2), device);
+        return device.execute("Tier3.morphologicalChanVese", output, dst -> net.clesperanto._internals.tier3j.Tier3.morphological_chan_vese(device.getRaw(), input.getRaw(), dst, num_iter, smoothing, lambda1, lambda2));
     }
 
 	/**
@@ -294,7 +299,7 @@ public class Tier3 {
     public static HashMap<String, ArrayList<Float>> statisticsOfLabelledPixels(DeviceJ device, ArrayJ input, ArrayJ intensity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toHashMap(net.clesperanto._internals.kernelj.Tier3.statistics_of_labelled_pixels(device.getRaw(), input.getRaw(), intensity == null ? null : intensity.getRaw()));
+        return device.execute("Tier3.statisticsOfLabelledPixels", () -> Utils.toHashMap(net.clesperanto._internals.tier3j.Tier3.statistics_of_labelled_pixels(device.getRaw(), input.getRaw(), intensity == null ? null : intensity.getRaw())));
     }
 
 }
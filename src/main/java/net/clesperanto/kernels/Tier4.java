@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier4 {
 
+    static {
+        NativeLoader.loadTier(4);
+    }
+
 	/**
 	 * Determines the bounding box of the specified label from a label image.
 	 * The positions are returned in  an array of 6 values as follows: minX, minY, minZ, maxX, maxY, maxZ.
@@ -30,7 +35,7 @@ public class Tier4 {
     public static ArrayList<Float> labelBoundingBox(DeviceJ device, ArrayJ input, int label_id) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return Utils.toArrayList(net.clesperanto._internals.kernelj.Tier4.label_bounding_box(device.getRaw(), input.getRaw(), label_id));
+        return device.execute("Tier4.labelBoundingBox", () -> Utils.toArrayList(net.clesperanto._internals.tier4j.Tier4.label_bounding_box(device.getRaw(), input.getRaw(), label_id)));
     }
 
 	/**
@@ -47,7 +52,7 @@ public class Tier4 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return net.clesperanto._internals.kernelj.Tier4.mean_squared_error(device.getRaw(), input0.getRaw(), input1.getRaw());
+        return device.execute("Tier4.meanSquaredError", () -> net.clesperanto._internals.tier4j.Tier4.mean_squared_error(device.getRaw(), input0.getRaw(), input1.getRaw()));
     }
 
 	/**
@@ -62,7 +67,7 @@ public class Tier4 {
     public static ArrayJ spotsToPointlist(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier4.spots_to_pointlist(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier4.spotsToPointlist", output, dst -> net.clesperanto._internals.tier4j.Tier4.spots_to_pointlist(device.getRaw(), input.getRaw(), dst));
     }
 
 	/**
@@ -82,7 +87,7 @@ public class Tier4 {
     public static ArrayJ relabelSequential(DeviceJ device, ArrayJ input, ArrayJ output, int blocksize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier4.relabel_sequential(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), blocksize), device);
+        return device.execute("Tier4.relabelSequential", output, dst -> net.clesperanto._internals.tier4j.Tier4.relabel_sequential(device.getRaw(), input.getRaw(), dst, blocksize));
     }
 
 	/**
@@ -99,7 +104,7 @@ public class Tier4 {
     public static ArrayJ thresholdOtsu(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier4.threshold_otsu(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier4.thresholdOtsu", output, dst -> net.clesperanto._internals.tier4j.Tier4.threshold_otsu(device.getRaw(), input.getRaw(), dst));
     }
 
 }
@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier5 {
 
+    static {
+        NativeLoader.loadTier(5);
+    }
+
 	/**
 	 * Compares if all pixels of two images are identical.
 	 * If shape of the images or any pixel are different, returns False.
@@ -32,7 +37,7 @@ public class Tier5 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return net.clesperanto._internals.kernelj.Tier5.array_equal(device.getRaw(), input0.getRaw(), input1.getRaw());
+        return device.execute("Tier5.arrayEqual", () -> net.clesperanto._internals.tier5j.Tier5.array_equal(device.getRaw(), input0.getRaw(), input1.getRaw()));
     }
 
 	/**
@@ -50,7 +55,7 @@ public class Tier5 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
 		Objects.requireNonNull(input1, "input1 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier5.combine_labels(device.getRaw(), input0.getRaw(), input1.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier5.combineLabels", output, dst -> net.clesperanto._internals.tier5j.Tier5.combine_labels(device.getRaw(), input0.getRaw(), input1.getRaw(), dst));
     }
 
 	/**
@@ -66,7 +71,7 @@ public class Tier5 {
     public static ArrayJ connectedComponentsLabeling(DeviceJ device, ArrayJ input, ArrayJ output, String connectivity) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier5.connected_components_labeling(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), connectivity), device);
+        return device.execute("Tier5.connectedComponentsLabeling", output, dst -> net.clesperanto._internals.tier5j.Tier5.connected_components_labeling(device.getRaw(), input.getRaw(), dst, connectivity));
     }
 
 }
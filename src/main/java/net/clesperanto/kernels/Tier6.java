@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier6 {
 
+    static {
+        NativeLoader.loadTier(6);
+    }
+
 	/**
 	 * Dilates labels to a larger size.
 	 * No label overwrites another label.
@@ -31,7 +36,7 @@ public class Tier6 {
     public static ArrayJ dilateLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier6.dilate_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier6.dilateLabels", output, dst -> net.clesperanto._internals.tier6j.Tier6.dilate_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 	/**
@@ -50,7 +55,7 @@ public class Tier6 {
     public static ArrayJ erodeLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius, boolean relabel) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier6.erode_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius, relabel), device);
+        return device.execute("Tier6.erodeLabels", output, dst -> net.clesperanto._internals.tier6j.Tier6.erode_labels(device.getRaw(), input.getRaw(), dst, radius, relabel));
     }
 
 	/**
@@ -70,7 +75,7 @@ public class Tier6 {
     public static ArrayJ gaussOtsuLabeling(DeviceJ device, ArrayJ input0, ArrayJ output, float outline_sigma) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input0, "input0 cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier6.gauss_otsu_labeling(device.getRaw(), input0.getRaw(), output == null ? null : output.getRaw(), outline_sigma), device);
+        return device.execute("Tier6.gaussOtsuLabeling", output, dst -> net.clesperanto._internals.tier6j.Tier6.gauss_otsu_labeling(device.getRaw(), input0.getRaw(), dst, outline_sigma));
     }
 
 	/**
@@ -89,7 +94,7 @@ public class Tier6 {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
 		Objects.requireNonNull(mask, "mask cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier6.masked_voronoi_labeling(device.getRaw(), input.getRaw(), mask.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier6.maskedVoronoiLabeling", output, dst -> net.clesperanto._internals.tier6j.Tier6.masked_voronoi_labeling(device.getRaw(), input.getRaw(), mask.getRaw(), dst));
     }
 
 	/**
@@ -105,7 +110,7 @@ public class Tier6 {
     public static ArrayJ voronoiLabeling(DeviceJ device, ArrayJ input, ArrayJ output) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier6.voronoi_labeling(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw()), device);
+        return device.execute("Tier6.voronoiLabeling", output, dst -> net.clesperanto._internals.tier6j.Tier6.voronoi_labeling(device.getRaw(), input.getRaw(), dst));
     }
 
 }
@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier7 {
 
+    static {
+        NativeLoader.loadTier(7);
+    }
+
 	/**
 	 * Apply an affine transformation matrix to an array and return the result.
 	 * The transformation matrix must be 3x3 or 4x4 stored as a 1D array.
@@ -36,7 +41,7 @@ public class Tier7 {
     public static ArrayJ affineTransform(DeviceJ device, ArrayJ input, ArrayJ output, ArrayList<Float> transform_matrix, boolean interpolate, boolean resize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.affine_transform(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), Utils.toVector(transform_matrix), interpolate, resize), device);
+        return device.execute("Tier7.affineTransform", output, dst -> net.clesperanto._internals.tier7j.Tier7.affine_transform(device.getRaw(), input.getRaw(), dst, Utils.toVector(transform_matrix), interpolate, resize));
     }
 
 	/**
@@ -60,7 +65,7 @@ public class Tier7 {
     public static ArrayJ erodedOtsuLabeling(DeviceJ device, ArrayJ input, ArrayJ output, int number_of_erosions, float outline_sigma) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.eroded_otsu_labeling(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), number_of_erosions, outline_sigma), device);
+        return device.execute("Tier7.erodedOtsuLabeling", output, dst -> net.clesperanto._internals.tier7j.Tier7.eroded_otsu_labeling(device.getRaw(), input.getRaw(), dst, number_of_erosions, outline_sigma));
     }
 
 	/**
@@ -87,7 +92,7 @@ public class Tier7 {
     public static ArrayJ rigidTransform(DeviceJ device, ArrayJ input, ArrayJ output, float translate_x, float translate_y, float translate_z, float angle_x, float angle_y, float angle_z, boolean centered, boolean interpolate, boolean resize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.rigid_transform(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), translate_x, translate_y, translate_z, angle_x, angle_y, angle_z, centered, interpolate, resize), device);
+        return device.execute("Tier7.rigidTransform", output, dst -> net.clesperanto._internals.tier7j.Tier7.rigid_transform(device.getRaw(), input.getRaw(), dst, translate_x, translate_y, translate_z, angle_x, angle_y, angle_z, centered, interpolate, resize));
     }
 
 	/**
@@ -111,7 +116,7 @@ public class Tier7 {
     public static ArrayJ rotate(DeviceJ device, ArrayJ input, ArrayJ output, float angle_x, float angle_y, float angle_z, boolean centered, boolean interpolate, boolean resize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.rotate(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), angle_x, angle_y, angle_z, centered, interpolate, resize), device);
+        return device.execute("Tier7.rotate", output, dst -> net.clesperanto._internals.tier7j.Tier7.rotate(device.getRaw(), input.getRaw(), dst, angle_x, angle_y, angle_z, centered, interpolate, resize));
     }
 
 	/**
@@ -131,7 +136,7 @@ public class Tier7 {
     public static ArrayJ scale(DeviceJ device, ArrayJ input, ArrayJ output, float factor_x, float factor_y, float factor_z, boolean centered, boolean interpolate, boolean resize) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.scale(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), factor_x, factor_y, factor_z, centered, interpolate, resize), device);
+        return device.execute("Tier7.scale", output, dst -> net.clesperanto._internals.tier7j.Tier7.scale(device.getRaw(), input.getRaw(), dst, factor_x, factor_y, factor_z, centered, interpolate, resize));
     }
 
 	/**
@@ -149,7 +154,7 @@ public class Tier7 {
     public static ArrayJ translate(DeviceJ device, ArrayJ input, ArrayJ output, float translate_x, float translate_y, float translate_z, boolean interpolate) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.translate(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), translate_x, translate_y, translate_z, interpolate), device);
+        return device.execute("Tier7.translate", output, dst -> net.clesperanto._internals.tier7j.Tier7.translate(device.getRaw(), input.getRaw(), dst, translate_x, translate_y, translate_z, interpolate));
     }
 
 	/**
@@ -167,7 +172,7 @@ public class Tier7 {
     public static ArrayJ closingLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.closing_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier7.closingLabels", output, dst -> net.clesperanto._internals.tier7j.Tier7.closing_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 	/**
@@ -184,7 +189,7 @@ public class Tier7 {
     public static ArrayJ erodeConnectedLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.erode_connected_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier7.erodeConnectedLabels", output, dst -> net.clesperanto._internals.tier7j.Tier7.erode_connected_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 	/**
@@ -202,7 +207,7 @@ public class Tier7 {
     public static ArrayJ openingLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.opening_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier7.openingLabels", output, dst -> net.clesperanto._internals.tier7j.Tier7.opening_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 	/**
@@ -225,7 +230,7 @@ public class Tier7 {
     public static ArrayJ voronoiOtsuLabeling(DeviceJ device, ArrayJ input, ArrayJ output, float spot_sigma, float outline_sigma) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier7.voronoi_otsu_labeling(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), spot_sigma, outline_sigma), device);
+        return device.execute("Tier7.voronoiOtsuLabeling", output, dst -> net.clesperanto._internals.tier7j.Tier7.voronoi_otsu_labeling(device.getRaw(), input.getRaw(), dst, spot_sigma, outline_sigma));
     }
 
 }
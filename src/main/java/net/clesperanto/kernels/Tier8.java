@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 import net.clesperanto.core.ArrayJ;
 import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.NativeLoader;
 import net.clesperanto.core.Utils;
 
 /**
@@ -17,6 +18,10 @@ import net.clesperanto.core.Utils;
  */
 public class Tier8 {
 
+    static {
+        NativeLoader.loadTier(8);
+    }
+
 	/**
 	 * Apply a morphological opening operation to a label image and afterwards   fills gaps between the labels using voronoi-labeling.
 	 * Finally, the result   label image is masked so that all background pixels remain background pixels.
@@ -31,7 +36,7 @@ public class Tier8 {
     public static ArrayJ smoothLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier8.smooth_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier8.smoothLabels", output, dst -> net.clesperanto._internals.tier8j.Tier8.smooth_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 	/**
@@ -47,7 +52,7 @@ public class Tier8 {
     public static ArrayJ smoothConnectedLabels(DeviceJ device, ArrayJ input, ArrayJ output, int radius) {
         Objects.requireNonNull(device, "device cannot be null");
 		Objects.requireNonNull(input, "input cannot be null");
-        return new ArrayJ(net.clesperanto._internals.kernelj.Tier8.smooth_connected_labels(device.getRaw(), input.getRaw(), output == null ? null : output.getRaw(), radius), device);
+        return device.execute("Tier8.smoothConnectedLabels", output, dst -> net.clesperanto._internals.tier8j.Tier8.smooth_connected_labels(device.getRaw(), input.getRaw(), dst, radius));
     }
 
 }
@@ -0,0 +1,208 @@
+package net.clesperanto.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.Utils;
+import net.clesperanto.kernels.Tier1;
+
+/**
+ * Window of the last frames of a time series kept on the device, so that temporal filters over k frames need a
+ * single transfer per frame instead of k.
+ *
+ * <pre>
+ * FrameRingBuffer window = new FrameRingBuffer(device, 512, 512, 7);
+ * for (ArrayJ frame : frames) {
+ * 	window.push(frame);
+ * 	ArrayJ background = window.median(null);
+ * 	ArrayJ change = window.derivative(null);
+ * }
+ * </pre>
+ *
+ * The frames are copied on the device into the planes of a float stack of depth k used as a ring: every push
+ * overwrites the oldest plane. The window operators run as a single kernel over the planes filled so far, so they
+ * can be used before the window is full.
+ */
+public class FrameRingBuffer {
+
+	/** largest window the median can sort, in the private memory of a work item */
+	public static final int MAX_MEDIAN_WINDOW = 64;
+
+	private static final int MEAN = 0;
+	private static final int MEDIAN = 1;
+	private static final int DERIVATIVE = 2;
+
+	private static final String KERNEL_NAME = "ring_window_operation";
+	private static final String KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "#define MAX_WINDOW " + MAX_MEDIAN_WINDOW + "\n\n"
+			+ "__kernel void " + KERNEL_NAME + "(\n"
+			+ "    IMAGE_src_TYPE  src,\n"
+			+ "    IMAGE_dst_TYPE  dst,\n"
+			+ "    const float count,\n"
+			+ "    const float capacity,\n"
+			+ "    const float newest,\n"
+			+ "    const float mode\n"
+			+ ")\n{\n"
+			+ "  const int x = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n\n"
+			+ "  const int n = (int) count;\n"
+			+ "  const int k = (int) capacity;\n"
+			+ "  const int last = (int) newest;\n"
+			+ "  float result = 0;\n"
+			+ "  if (mode == 0) {\n"
+			+ "    for (int i = 0; i < n; i++) {\n"
+			+ "      result += READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,(last - i + k) % k,0)).x;\n"
+			+ "    }\n"
+			+ "    result /= n;\n"
+			+ "  } else if (mode == 1) {\n"
+			+ "    float values[MAX_WINDOW];\n"
+			+ "    for (int i = 0; i < n; i++) {\n"
+			+ "      const float v = READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,(last - i + k) % k,0)).x;\n"
+			+ "      int j = i;\n"
+			+ "      while (j > 0 && values[j - 1] > v) {\n"
+			+ "        values[j] = values[j - 1];\n"
+			+ "        j--;\n"
+			+ "      }\n"
+			+ "      values[j] = v;\n"
+			+ "    }\n"
+			+ "    result = n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;\n"
+			+ "  } else if (n > 1) {\n"
+			+ "    result = READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,last,0)).x\n"
+			+ "        - READ_IMAGE(src, sampler, POS_src_INSTANCE(x,y,(last - 1 + k) % k,0)).x;\n"
+			+ "  }\n"
+			+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(x,y,0,0), CONVERT_dst_PIXEL_TYPE(result));\n"
+			+ "}\n";
+
+	private final DeviceJ device;
+	private final long width;
+	private final long height;
+	private final int capacity;
+	private final ArrayJ stack;
+	/** plane holding the newest frame */
+	private int newest = -1;
+	private int count = 0;
+
+	/**
+	 * Create an empty window
+	 * @param device
+	 * 	the device where the frames are kept
+	 * @param width
+	 * 	the width of the frames
+	 * @param height
+	 * 	the height of the frames
+	 * @param capacity
+	 * 	the number of frames of the window
+	 */
+	public FrameRingBuffer(DeviceJ device, long width, long height, int capacity) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity has to be at least 1, not " + capacity);
+		this.width = width;
+		this.height = height;
+		this.capacity = capacity;
+		this.stack = MemoryJ.makeFloatBuffer(device, new long[] {width, height, capacity}, "buffer");
+	}
+
+	/**
+	 * Add a frame to the window, replacing the oldest one once the window is full. The frame is copied on the device
+	 * and can be reused afterwards, for instance to upload the next frame.
+	 * @param frame
+	 * 	a 2D frame of any data type, with the width and height of the window
+	 * @throws IllegalArgumentException if the frame does not have the size of the window
+	 */
+	public synchronized void push(ArrayJ frame) {
+		Objects.requireNonNull(frame, "frame cannot be null");
+		if (frame.getWidth() != width || frame.getHeight() != height || frame.getDepth() != 1)
+			throw new IllegalArgumentException("The frame " + frame + " is not a " + width + "x" + height + " plane");
+		int slot = (newest + 1) % capacity;
+		Tier1.paste(device, frame, stack, 0, 0, slot);
+		newest = slot;
+		count = Math.min(count + 1, capacity);
+	}
+
+	/**
+	 * Mean of the frames of the window
+	 * @param output
+	 * 	the 2D array where the result is written, null to allocate a float array
+	 * @return the output
+	 */
+	public synchronized ArrayJ mean(ArrayJ output) {
+		return apply("FrameRingBuffer.mean", MEAN, output);
+	}
+
+	/**
+	 * Median of the frames of the window
+	 * @param output
+	 * 	the 2D array where the result is written, null to allocate a float array
+	 * @return the output
+	 * @throws IllegalStateException if the window is larger than {@link #MAX_MEDIAN_WINDOW}
+	 */
+	public synchronized ArrayJ median(ArrayJ output) {
+		if (capacity > MAX_MEDIAN_WINDOW)
+			throw new IllegalStateException("The median is limited to windows of " + MAX_MEDIAN_WINDOW + " frames, not " + capacity);
+		return apply("FrameRingBuffer.median", MEDIAN, output);
+	}
+
+	/**
+	 * Difference between the newest frame and the one before, 0 while the window holds a single frame
+	 * @param output
+	 * 	the 2D array where the result is written, null to allocate a float array
+	 * @return the output
+	 */
+	public synchronized ArrayJ derivative(ArrayJ output) {
+		return apply("FrameRingBuffer.derivative", DERIVATIVE, output);
+	}
+
+	private ArrayJ apply(String name, int mode, ArrayJ output) {
+		if (count == 0)
+			throw new IllegalStateException("No frame has been pushed yet");
+		ArrayJ result = output == null ? MemoryJ.makeFloatBuffer(device, new long[] {width, height}, "buffer") : output;
+		float n = count;
+		float last = newest;
+		return device.execute(name, () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", stack);
+			arrays.put("dst", result);
+			Map<String, Float> scalars = new LinkedHashMap<String, Float>();
+			scalars.put("count", n);
+			scalars.put("capacity", (float) capacity);
+			scalars.put("newest", last);
+			scalars.put("mode", (float) mode);
+			Utils.executeKernel(device, KERNEL_NAME, KERNEL_SOURCE, arrays, scalars, new long[] {width, height, 1});
+			return result;
+		});
+	}
+
+	/**
+	 * Forget the frames of the window
+	 */
+	public synchronized void clear() {
+		newest = -1;
+		count = 0;
+	}
+
+	/**
+	 *
+	 * @return the number of frames in the window, at most its capacity
+	 */
+	public synchronized int getCount() {
+		return count;
+	}
+
+	/**
+	 *
+	 * @return the number of frames the window can hold
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		return "FrameRingBuffer[" + width + "x" + height + ", frames=" + getCount() + "/" + capacity + "]";
+	}
+}
@@ -0,0 +1,347 @@
+package net.clesperanto.pipeline;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceEvent;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TransferQueue;
+
+/**
+ * Processes a stream of frames of the same shape, such as the frames of a camera, in three stages: the upload of
+ * a frame, its processing and the download of its result.
+ *
+ * <pre>
+ * FrameStream&lt;float[], float[]&gt; stream = new FrameStream&lt;float[], float[]&gt;(device, new long[] {512, 512},
+ * 		DataType.FLOAT32, DataType.FLOAT32, 8,
+ * 		(frame, target) -&gt; target.asFloatBuffer().put(frame),
+ * 		(d, in, out) -&gt; Tier1.gaussianBlur(d, in, out, 2, 2, 0),
+ * 		source -&gt; { float[] data = new float[512 * 512]; source.asFloatBuffer().get(data); return data; },
+ * 		result -&gt; display(result));
+ * for (float[] frame : camera)
+ * 	stream.submit(frame);
+ * stream.close();
+ * </pre>
+ *
+ * Each stage runs on its own thread and works on its own device arrays: three input arrays and three output arrays
+ * rotate between the upload, the processing and the download, each with a host buffer. The uploads and the
+ * downloads are made on their own {@link TransferQueue}s, so the copies of a frame and of a result run on the
+ * device while the kernels of another frame execute. The stages do not wait for each other on the host: the
+ * kernels of a frame wait for the event of its upload, its download waits for the event of its kernels and the
+ * next upload into an input array waits for the kernels that read it. Only the kernel calls hold the lock of the
+ * device, see {@link DeviceJ#getLock()}. On backends without events the transfers block, and only the host side
+ * of the stages runs in parallel.
+ * {@link #submit(Object)} blocks while {@code capacity} frames are waiting for their upload, which bounds the memory
+ * used when the producer is faster than the device. The results are given to the consumer in the order the frames
+ * were submitted, on the download thread.
+ *
+ * The device arrays are taken from the {@link ArrayPool} of the device and given back on {@link #close()}.
+ */
+public class FrameStream<I, O> implements AutoCloseable {
+
+	/** number of arrays rotating between two stages */
+	private static final int RING_SIZE = 3;
+
+	/**
+	 * Converts a frame into the data uploaded to the device
+	 */
+	@FunctionalInterface
+	public interface FrameWriter<I> {
+
+		/**
+		 * Write a frame into the host buffer of a device array
+		 * @param frame
+		 * 	the frame on the host
+		 * @param target
+		 * 	direct buffer in the native byte order, with the size and the layout of the array on the device
+		 */
+		void write(I frame, ByteBuffer target);
+	}
+
+	/**
+	 * Converts the data downloaded from the device into a result
+	 */
+	@FunctionalInterface
+	public interface FrameReader<O> {
+
+		/**
+		 * Convert a result downloaded from the device
+		 * @param source
+		 * 	direct buffer in the native byte order holding the result, reused once the method returns
+		 * @return the result on the host
+		 */
+		O read(ByteBuffer source);
+	}
+
+	/** device array of the ring and its host buffer, passed from one stage to the next */
+	private static class Slot {
+		private final ArrayJ array;
+		private final ByteBuffer buffer;
+		/** the last transfer of the slot */
+		private DeviceEvent transferred;
+		/** the last kernels that used the array */
+		private DeviceEvent processed;
+
+		private Slot(ArrayJ array) {
+			this.array = array;
+			this.buffer = array == null ? null
+					: ByteBuffer.allocateDirect((int) array.getSizeInBytes()).order(ByteOrder.nativeOrder());
+		}
+
+		private void await() {
+			if (transferred != null)
+				transferred.await();
+			if (processed != null)
+				processed.await();
+		}
+	}
+
+	private static final Object END = new Object();
+	private static final Slot END_SLOT = new Slot(null);
+
+	private final DeviceJ device;
+	private final ArrayPool pool;
+	private final FrameWriter<I> writer;
+	private final Pipeline.Operation operation;
+	private final FrameReader<O> reader;
+	private final Consumer<O> consumer;
+	private final TransferQueue uploads;
+	private final TransferQueue downloads;
+
+	private final BlockingQueue<Object> frames;
+	private final BlockingQueue<Slot> freeInputs = new ArrayBlockingQueue<Slot>(RING_SIZE);
+	private final BlockingQueue<Slot> freeOutputs = new ArrayBlockingQueue<Slot>(RING_SIZE);
+	private final BlockingQueue<Slot> uploaded = new ArrayBlockingQueue<Slot>(RING_SIZE + 1);
+	private final BlockingQueue<Slot> processed = new ArrayBlockingQueue<Slot>(RING_SIZE + 1);
+	private final List<Slot> slots = new ArrayList<Slot>();
+	private final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+	private final AtomicLong delivered = new AtomicLong();
+	private boolean closed = false;
+
+	/**
+	 * Create a stream and start its threads
+	 * @param device
+	 * 	the device where the frames are processed
+	 * @param dimensions
+	 * 	the dimensions of the frames, [width, height] or [width, height, depth]
+	 * @param inputType
+	 * 	the data type of the frames on the device
+	 * @param outputType
+	 * 	the data type of the results on the device
+	 * @param capacity
+	 * 	the number of submitted frames that can wait for their upload before {@link #submit(Object)} blocks
+	 * @param writer
+	 * 	the conversion of a frame into the data uploaded to the device
+	 * @param operation
+	 * 	the processing of a frame, writing into the given output
+	 * @param reader
+	 * 	the conversion of the downloaded data into a result
+	 * @param consumer
+	 * 	receives the results in order, on the download thread
+	 */
+	public FrameStream(DeviceJ device, long[] dimensions, DataType inputType, DataType outputType, int capacity,
+			FrameWriter<I> writer, Pipeline.Operation operation, FrameReader<O> reader, Consumer<O> consumer) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		Objects.requireNonNull(dimensions, "dimensions cannot be null");
+		Objects.requireNonNull(inputType, "inputType cannot be null");
+		Objects.requireNonNull(outputType, "outputType cannot be null");
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity has to be at least 1, not " + capacity);
+		this.writer = Objects.requireNonNull(writer, "writer cannot be null");
+		this.operation = Objects.requireNonNull(operation, "operation cannot be null");
+		this.reader = Objects.requireNonNull(reader, "reader cannot be null");
+		this.consumer = Objects.requireNonNull(consumer, "consumer cannot be null");
+		this.pool = ArrayPool.forDevice(device);
+		this.uploads = new TransferQueue(device);
+		this.downloads = new TransferQueue(device);
+		this.frames = new ArrayBlockingQueue<Object>(capacity);
+		for (int i = 0; i < RING_SIZE; i++) {
+			Slot input = new Slot(pool.acquire(device, inputType, dimensions, "buffer"));
+			Slot output = new Slot(pool.acquire(device, outputType, dimensions, "buffer"));
+			slots.add(input);
+			slots.add(output);
+			freeInputs.add(input);
+			freeOutputs.add(output);
+		}
+		start("upload", this::upload);
+		start("process", this::process);
+		start("download", this::download);
+	}
+
+	private void start(String stage, Runnable loop) {
+		Thread thread = new Thread(() -> {
+			try {
+				loop.run();
+			} catch (Throwable ex) {
+				failure.compareAndSet(null, ex);
+				// unblock the other stages
+				for (Thread other : threads)
+					other.interrupt();
+			}
+		}, "FrameStream-" + stage + "-" + device.getName());
+		thread.setDaemon(true);
+		threads.add(thread);
+		thread.start();
+	}
+
+	private void upload() {
+		try {
+			while (true) {
+				Object frame = frames.take();
+				if (frame == END) {
+					uploaded.put(END_SLOT);
+					return;
+				}
+				Slot target = freeInputs.take();
+				@SuppressWarnings("unchecked")
+				I typed = (I) frame;
+				// the previous upload of the slot may still read its buffer
+				if (target.transferred != null)
+					target.transferred.await();
+				target.buffer.clear();
+				writer.write(typed, target.buffer);
+				target.buffer.rewind();
+				// the kernels that read the array before have to be done before it is overwritten
+				target.transferred = uploads.write(target.buffer, target.array, target.processed);
+				uploaded.put(target);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void process() {
+		try {
+			while (true) {
+				Slot input = uploaded.take();
+				if (input == END_SLOT) {
+					processed.put(END_SLOT);
+					return;
+				}
+				Slot output = freeOutputs.take();
+				DeviceEvent done;
+				synchronized (device.getLock()) {
+					input.transferred.enqueueWait(device);
+					operation.apply(device, input.array, output.array);
+					done = device.enqueueBarrier();
+				}
+				input.processed = done;
+				output.processed = done;
+				freeInputs.put(input);
+				processed.put(output);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void download() {
+		try {
+			while (true) {
+				Slot result = processed.take();
+				if (result == END_SLOT)
+					return;
+				result.transferred = downloads.read(result.array, result.buffer, result.processed);
+				result.transferred.await();
+				result.buffer.rewind();
+				O value = reader.read(result.buffer);
+				freeOutputs.put(result);
+				consumer.accept(value);
+				delivered.incrementAndGet();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Submit a frame, blocking while {@code capacity} frames are waiting for their upload
+	 * @param frame
+	 * 	the frame on the host, it must not be modified until it has been uploaded
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws IllegalStateException if the stream is closed or one of its stages failed
+	 */
+	public void submit(I frame) throws InterruptedException {
+		Objects.requireNonNull(frame, "frame cannot be null");
+		checkFailure();
+		synchronized (this) {
+			if (closed)
+				throw new IllegalStateException("The stream is closed");
+		}
+		enqueue(frame);
+	}
+
+	/** wait for room in the queue of frames, unless a stage failed and will never make room */
+	private void enqueue(Object frame) throws InterruptedException {
+		while (!frames.offer(frame, 100, TimeUnit.MILLISECONDS))
+			checkFailure();
+	}
+
+	private void checkFailure() {
+		Throwable ex = failure.get();
+		if (ex != null)
+			throw new IllegalStateException("The frame stream failed", ex);
+	}
+
+	/**
+	 *
+	 * @return the number of results given to the consumer so far
+	 */
+	public long getDeliveredCount() {
+		return delivered.get();
+	}
+
+	/**
+	 * Wait until every submitted frame has been delivered, stop the threads and give the device arrays back to the pool
+	 * @throws IllegalStateException if one of the stages failed
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+		}
+		boolean interrupted = false;
+		try {
+			if (failure.get() == null)
+				enqueue(END);
+			for (Thread thread : threads)
+				thread.join();
+		} catch (IllegalStateException ex) {
+			// a stage failed while waiting, reported below
+		} catch (InterruptedException ex) {
+			interrupted = true;
+			for (Thread thread : threads)
+				thread.interrupt();
+		}
+		for (Slot slot : slots) {
+			// after a failure, transfers or kernels may still use the array
+			slot.await();
+			pool.release(slot.array);
+		}
+		slots.clear();
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		checkFailure();
+	}
+
+	@Override
+	public String toString() {
+		return "FrameStream[" + device.getName() + ", delivered=" + delivered.get() + "]";
+	}
+}
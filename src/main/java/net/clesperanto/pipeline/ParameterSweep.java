@@ -0,0 +1,381 @@
+package net.clesperanto.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.LazyGraph;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.kernels.Tier4;
+import net.clesperanto.kernels.Tier6;
+
+/**
+ * Runs a workflow on one image for every point of a grid of parameters, computing each distinct
+ * intermediate result only once.
+ *
+ * <pre>
+ * ParameterSweep sweep = ParameterSweep.voronoiOtsuLabeling(device, new float[] {1, 2, 3}, new float[] {1, 2, 3});
+ * Map&lt;ParameterSweep.Point, Float&gt; counts = sweep.evaluate(input, labels -&gt; Tier2.maximumOfAllPixels(device, labels));
+ * </pre>
+ *
+ * The workflow is declared as named steps. Each step lists the parameters it reads and the steps, or
+ * {@link #INPUT}, whose results it consumes; the last step declared is the result of the workflow.
+ * Two grid points that give the same values to the parameters a step depends on, directly or through
+ * the steps it consumes, share the result of that step: in the example above the 3 blurs with the spot
+ * sigma are computed once each instead of once per grid point.
+ *
+ * The sweep is planned as a {@link LazyGraph}, so every intermediate is given back to the {@link net.clesperanto.core.ArrayPool}
+ * of the device as soon as the last grid point that needs it has been computed. The input array is only read,
+ * it is uploaded once by the caller and shared by all the grid points.
+ */
+public class ParameterSweep {
+
+	/** name of the input image in the inputs of the steps */
+	public static final String INPUT = "input";
+
+	/**
+	 * Operation of one step of the sweep, usually a call to one of the {@code Tier} methods
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		/**
+		 * Execute the operation
+		 * @param device
+		 * 	the device of the sweep
+		 * @param point
+		 * 	the values of the parameters the step depends on
+		 * @param inputs
+		 * 	the results of the steps the step consumes, in the order they were declared
+		 * @param output
+		 * 	the array where the result has to be written, or null if the step allocates its output
+		 * @return the result of the step
+		 */
+		ArrayJ run(DeviceJ device, Point point, ArrayJ[] inputs, ArrayJ output);
+	}
+
+	/**
+	 * Values of the parameters at one point of the grid
+	 */
+	public static class Point {
+		private final Map<String, Float> values;
+
+		private Point(Map<String, Float> values) {
+			this.values = Collections.unmodifiableMap(values);
+		}
+
+		/**
+		 * @param parameter
+		 * 	the name of the parameter
+		 * @return the value of the parameter at this point
+		 * @throws IllegalArgumentException if the parameter is unknown, or not declared by the step reading it
+		 */
+		public float get(String parameter) {
+			Float value = values.get(parameter);
+			if (value == null)
+				throw new IllegalArgumentException("The parameter " + parameter + " is not available, only " + values.keySet());
+			return value;
+		}
+
+		/**
+		 *
+		 * @return the values of the parameters, by name
+		 */
+		public Map<String, Float> getValues() {
+			return values;
+		}
+
+		private Point restrict(List<String> parameters) {
+			Map<String, Float> subset = new LinkedHashMap<String, Float>();
+			for (String parameter : parameters)
+				subset.put(parameter, get(parameter));
+			return new Point(subset);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Point && values.equals(((Point) obj).values);
+		}
+
+		@Override
+		public int hashCode() {
+			return values.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return values.toString();
+		}
+	}
+
+	private static class Step {
+		private final String name;
+		private final List<String> parameters;
+		private final List<String> inputs;
+		/** data type of the output taken from the pool, null if the step allocates its output */
+		private final DataType outputType;
+		private final Operation operation;
+
+		private Step(String name, List<String> parameters, List<String> inputs, DataType outputType, Operation operation) {
+			this.name = name;
+			this.parameters = parameters;
+			this.inputs = inputs;
+			this.outputType = outputType;
+			this.operation = operation;
+		}
+	}
+
+	private final DeviceJ device;
+	private final Map<String, float[]> parameters = new LinkedHashMap<String, float[]>();
+	private final Map<String, Step> steps = new LinkedHashMap<String, Step>();
+	private int executed = 0;
+
+	/**
+	 * Create an empty sweep
+	 * @param device
+	 * 	the device where the steps are executed
+	 */
+	public ParameterSweep(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+	}
+
+	/**
+	 * Add a parameter to the grid
+	 * @param name
+	 * 	the name of the parameter
+	 * @param values
+	 * 	the values the parameter takes, at least one
+	 * @return this sweep
+	 */
+	public ParameterSweep parameter(String name, float... values) {
+		Objects.requireNonNull(name, "name cannot be null");
+		if (values.length == 0)
+			throw new IllegalArgumentException("The parameter " + name + " needs at least one value");
+		parameters.put(name, values.clone());
+		return this;
+	}
+
+	/**
+	 * Add a step whose output has the shape and memory type of its first input and the given data type,
+	 * taken from the {@link net.clesperanto.core.ArrayPool} of the device
+	 * @param name
+	 * 	the name of the step, referenced by the steps that consume its result
+	 * @param outputType
+	 * 	the data type of the output
+	 * @param parameters
+	 * 	the parameters the step reads
+	 * @param inputs
+	 * 	the steps whose results the step consumes, or {@link #INPUT}
+	 * @param operation
+	 * 	the operation of the step
+	 * @return this sweep
+	 */
+	public ParameterSweep step(String name, DataType outputType, List<String> parameters, List<String> inputs, Operation operation) {
+		Objects.requireNonNull(outputType, "outputType cannot be null");
+		return add(name, outputType, parameters, inputs, operation);
+	}
+
+	/**
+	 * Add a step that allocates its own output, e.g. a labeling
+	 * @param name
+	 * 	the name of the step, referenced by the steps that consume its result
+	 * @param parameters
+	 * 	the parameters the step reads
+	 * @param inputs
+	 * 	the steps whose results the step consumes, or {@link #INPUT}
+	 * @param operation
+	 * 	the operation of the step, it is always called with a null output
+	 * @return this sweep
+	 */
+	public ParameterSweep stepAllocating(String name, List<String> parameters, List<String> inputs, Operation operation) {
+		return add(name, null, parameters, inputs, operation);
+	}
+
+	private ParameterSweep add(String name, DataType outputType, List<String> parameters, List<String> inputs, Operation operation) {
+		Objects.requireNonNull(name, "name cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		if (name.equals(INPUT) || steps.containsKey(name))
+			throw new IllegalArgumentException("There is already a step called " + name);
+		if (inputs.isEmpty())
+			throw new IllegalArgumentException("The step " + name + " needs at least one input");
+		for (String parameter : parameters) {
+			if (!this.parameters.containsKey(parameter))
+				throw new IllegalArgumentException("Unknown parameter " + parameter + " for the step " + name);
+		}
+		for (String input : inputs) {
+			if (!input.equals(INPUT) && !steps.containsKey(input))
+				throw new IllegalArgumentException("Unknown input " + input + " for the step " + name);
+		}
+		steps.put(name, new Step(name, new ArrayList<String>(parameters), new ArrayList<String>(inputs), outputType, operation));
+		return this;
+	}
+
+	/**
+	 *
+	 * @return every point of the grid, the last parameter varying the fastest
+	 */
+	public List<Point> getPoints() {
+		List<Point> points = new ArrayList<Point>();
+		points.add(new Point(new LinkedHashMap<String, Float>()));
+		for (Map.Entry<String, float[]> parameter : parameters.entrySet()) {
+			List<Point> next = new ArrayList<Point>();
+			for (Point point : points) {
+				for (float value : parameter.getValue()) {
+					Map<String, Float> values = new LinkedHashMap<String, Float>(point.values);
+					values.put(parameter.getKey(), value);
+					next.add(new Point(values));
+				}
+			}
+			points = next;
+		}
+		return points;
+	}
+
+	/**
+	 * Run the workflow for every point of the grid and give each result to the consumer as soon as it is computed
+	 * @param input
+	 * 	the input image, it is not modified
+	 * @param consumer
+	 * 	called with each point and its result. The result is reused once the consumer returns,
+	 * 	copy it to keep it
+	 */
+	public void run(ArrayJ input, BiConsumer<Point, ArrayJ> consumer) {
+		Objects.requireNonNull(consumer, "consumer cannot be null");
+		evaluate(input, (point, result) -> {
+			consumer.accept(point, result);
+			return null;
+		}, (point, nothing) -> { });
+	}
+
+	/**
+	 * Run the workflow for every point of the grid and reduce each result to a metric, e.g. the number of labels
+	 * @param <T>
+	 * 	the type of the metric
+	 * @param input
+	 * 	the input image, it is not modified
+	 * @param metric
+	 * 	the reduction of the result of a point
+	 * @return the metric of every point of the grid, in the order of {@link #getPoints()}
+	 */
+	public <T> Map<Point, T> evaluate(ArrayJ input, Function<ArrayJ, T> metric) {
+		Objects.requireNonNull(metric, "metric cannot be null");
+		Map<Point, T> metrics = new LinkedHashMap<Point, T>();
+		evaluate(input, (point, result) -> metric.apply(result), (point, value) -> metrics.put(point, value));
+		return metrics;
+	}
+
+	private <T> void evaluate(ArrayJ input, BiFunction<Point, ArrayJ, T> reduction, BiConsumer<Point, T> sink) {
+		Objects.requireNonNull(input, "input cannot be null");
+		if (steps.isEmpty())
+			throw new IllegalStateException("The sweep has no step");
+		LazyGraph graph = new LazyGraph(device);
+		LazyGraph.Node source = graph.input(input);
+		// plan every point first, so that the shared intermediates live until their last consumer
+		Map<String, LazyGraph.Node> nodes = new HashMap<String, LazyGraph.Node>();
+		List<Point> points = getPoints();
+		List<LazyGraph.Node> results = new ArrayList<LazyGraph.Node>();
+		String last = new ArrayList<String>(steps.keySet()).get(steps.size() - 1);
+		for (Point point : points)
+			results.add(plan(graph, source, nodes, new HashMap<String, String>(), point, last));
+		int before = graph.getExecutedCount();
+		for (int i = 0; i < points.size(); i++) {
+			Point point = points.get(i);
+			sink.accept(point, graph.reduce(results.get(i), result -> reduction.apply(point, result)));
+		}
+		executed += graph.getExecutedCount() - before;
+	}
+
+	/**
+	 * Record the node of a step for a point, or reuse the one recorded for another point
+	 * with the same values of the parameters the step depends on
+	 * @return the node of the step
+	 */
+	private LazyGraph.Node plan(LazyGraph graph, LazyGraph.Node source, Map<String, LazyGraph.Node> nodes,
+			Map<String, String> keys, Point point, String stepName) {
+		Step step = steps.get(stepName);
+		Point restricted = point.restrict(step.parameters);
+		StringBuilder key = new StringBuilder(step.name).append(restricted);
+		LazyGraph.Node[] inputs = new LazyGraph.Node[step.inputs.size()];
+		for (int i = 0; i < inputs.length; i++) {
+			String inputName = step.inputs.get(i);
+			if (inputName.equals(INPUT)) {
+				inputs[i] = source;
+				key.append('(').append(INPUT).append(')');
+			} else {
+				inputs[i] = plan(graph, source, nodes, keys, point, inputName);
+				key.append('(').append(keys.get(inputName)).append(')');
+			}
+		}
+		String id = key.toString();
+		keys.put(stepName, id);
+		LazyGraph.Node node = nodes.get(id);
+		if (node == null) {
+			LazyGraph.Operation operation = (d, in, out) -> step.operation.run(d, restricted, in, out);
+			node = step.outputType == null ? graph.applyAllocating(id, operation, inputs)
+					: graph.apply(id, step.outputType, operation, inputs);
+			nodes.put(id, node);
+		}
+		return node;
+	}
+
+	/**
+	 *
+	 * @return the number of steps executed by the runs of the sweep so far
+	 */
+	public int getExecutedCount() {
+		return executed;
+	}
+
+	/**
+	 *
+	 * @return the names of the steps, in the order they were declared
+	 */
+	public List<String> getStepNames() {
+		return new ArrayList<String>(steps.keySet());
+	}
+
+	/**
+	 * Create the sweep of {@code Tier7.voronoiOtsuLabeling}, decomposed into its steps so that the blurs, spot
+	 * detections and thresholds are computed once per sigma instead of once per grid point
+	 * @param device
+	 * 	the device where the steps are executed
+	 * @param spotSigmas
+	 * 	the values of the "spot_sigma" parameter
+	 * @param outlineSigmas
+	 * 	the values of the "outline_sigma" parameter
+	 * @return the sweep, whose results are label images
+	 */
+	public static ParameterSweep voronoiOtsuLabeling(DeviceJ device, float[] spotSigmas, float[] outlineSigmas) {
+		List<String> spot = Arrays.asList("spot_sigma");
+		List<String> outline = Arrays.asList("outline_sigma");
+		List<String> none = Collections.emptyList();
+		return new ParameterSweep(device)
+				.parameter("spot_sigma", spotSigmas)
+				.parameter("outline_sigma", outlineSigmas)
+				.step("spotBlur", DataType.FLOAT32, spot, Arrays.asList(INPUT), (d, p, in, out) -> Tier1.gaussianBlur(d, in[0], out,
+						p.get("spot_sigma"), p.get("spot_sigma"), p.get("spot_sigma")))
+				.step("spots", DataType.UINT8, none, Arrays.asList("spotBlur"), (d, p, in, out) -> Tier2.detectMaxima(d, in[0], out, 0, 0, 0, "box"))
+				.step("outlineBlur", DataType.FLOAT32, outline, Arrays.asList(INPUT), (d, p, in, out) -> Tier1.gaussianBlur(d, in[0], out,
+						p.get("outline_sigma"), p.get("outline_sigma"), p.get("outline_sigma")))
+				.step("segmentation", DataType.UINT8, none, Arrays.asList("outlineBlur"), (d, p, in, out) -> Tier4.thresholdOtsu(d, in[0], out))
+				.step("seeds", DataType.UINT8, none, Arrays.asList("spots", "segmentation"), (d, p, in, out) -> Tier1.binaryAnd(d, in[0], in[1], out))
+				.stepAllocating("labels", none, Arrays.asList("seeds", "segmentation"), (d, p, in, out) -> Tier6.maskedVoronoiLabeling(d, in[0], in[1], null));
+	}
+
+	@Override
+	public String toString() {
+		return "ParameterSweep[" + device.getName() + ", parameters=" + parameters.keySet() + ", steps=" + steps.keySet() + "]";
+	}
+}
@@ -0,0 +1,342 @@
+package net.clesperanto.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.ElementwiseChain;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.kernels.Tier3;
+import net.clesperanto.kernels.Tier4;
+import net.clesperanto.kernels.Tier5;
+import net.clesperanto.kernels.Tier6;
+import net.clesperanto.kernels.Tier7;
+
+/**
+ * Sequence of operations applied one after the other to an image, reusing the same few
+ * scratch arrays for every step.
+ *
+ * <pre>
+ * Pipeline pipeline = Pipeline.on(device).gaussianBlur(2, 2, 1).thresholdOtsu().connectedComponentsLabeling("box");
+ * for (ArrayJ frame : frames) {
+ * 	ArrayJ labels = pipeline.run(frame);
+ * 	...
+ * }
+ * pipeline.close();
+ * </pre>
+ *
+ * The outputs of the steps alternate between scratch arrays, at most two per data type produced
+ * by the steps. They are allocated on the first run and kept for the next runs as long as the input
+ * has the same shape and type, so running the pipeline on every frame of a time lapse does not allocate
+ * anything. The scratch arrays are taken from and given back to the {@link ArrayPool} of the device.
+ *
+ * The array returned by {@link #run(ArrayJ)} is one of the scratch arrays and is overwritten by the next run,
+ * use {@link #run(ArrayJ, ArrayJ)} to keep the result. The input is never modified.
+ * A pipeline is not thread safe.
+ */
+public class Pipeline implements AutoCloseable {
+
+	/**
+	 * Operation applied by one step of the pipeline, usually a call to one of the {@code Tier} methods
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		/**
+		 * Execute the operation
+		 * @param device
+		 * 	the device of the pipeline
+		 * @param input
+		 * 	the output of the previous step, or the input of the pipeline for the first step
+		 * @param output
+		 * 	the array where the result has to be written
+		 * @return the output
+		 */
+		ArrayJ apply(DeviceJ device, ArrayJ input, ArrayJ output);
+	}
+
+	private static class Step {
+		private final String name;
+		/** data type of the output, null if it is the same as the input */
+		private final DataType outputType;
+		private final Operation operation;
+
+		private Step(String name, DataType outputType, Operation operation) {
+			this.name = name;
+			this.outputType = outputType;
+			this.operation = operation;
+		}
+	}
+
+	private final DeviceJ device;
+	private final ArrayPool pool;
+	private final List<Step> steps = new ArrayList<Step>();
+
+	/** shape, type and memory type of the input the scratch arrays were planned for */
+	private long[] plannedDims;
+	private DataType plannedType;
+	private String plannedMemoryType;
+	/** output array of each step */
+	private ArrayJ[] targets;
+	private final List<ArrayJ> scratch = new ArrayList<ArrayJ>();
+
+	private Pipeline(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		this.pool = ArrayPool.forDevice(device);
+	}
+
+	/**
+	 * Start an empty pipeline
+	 * @param device
+	 * 	the device where the operations are executed
+	 * @return the pipeline, steps are added with the builder methods
+	 */
+	public static Pipeline on(DeviceJ device) {
+		return new Pipeline(device);
+	}
+
+	/**
+	 * Add a step to the pipeline
+	 * @param name
+	 * 	the name of the step, used in the error messages
+	 * @param outputType
+	 * 	the data type of the output of the step, null if it is the same as its input
+	 * @param operation
+	 * 	the operation
+	 * @return the pipeline
+	 */
+	public Pipeline then(String name, DataType outputType, Operation operation) {
+		Objects.requireNonNull(operation, "operation cannot be null");
+		steps.add(new Step(name, outputType, operation));
+		invalidate();
+		return this;
+	}
+
+	/** See {@link Tier1#gaussianBlur(DeviceJ, ArrayJ, ArrayJ, float, float, float)} */
+	public Pipeline gaussianBlur(float sigmaX, float sigmaY, float sigmaZ) {
+		return then("gaussianBlur", DataType.FLOAT32, (d, in, out) -> Tier1.gaussianBlur(d, in, out, sigmaX, sigmaY, sigmaZ));
+	}
+
+	/** See {@link Tier1#mean(DeviceJ, ArrayJ, ArrayJ, int, int, int, String)} */
+	public Pipeline meanBox(int radiusX, int radiusY, int radiusZ) {
+		return then("meanBox", DataType.FLOAT32, (d, in, out) -> Tier1.mean(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier1#median(DeviceJ, ArrayJ, ArrayJ, int, int, int, String)} */
+	public Pipeline medianBox(int radiusX, int radiusY, int radiusZ) {
+		return then("medianBox", null, (d, in, out) -> Tier1.median(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier1#maximum(DeviceJ, ArrayJ, ArrayJ, int, int, int, String)} */
+	public Pipeline maximumBox(int radiusX, int radiusY, int radiusZ) {
+		return then("maximumBox", null, (d, in, out) -> Tier1.maximum(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier1#minimum(DeviceJ, ArrayJ, ArrayJ, int, int, int, String)} */
+	public Pipeline minimumBox(int radiusX, int radiusY, int radiusZ) {
+		return then("minimumBox", null, (d, in, out) -> Tier1.minimum(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier1#binaryNot(DeviceJ, ArrayJ, ArrayJ)} */
+	public Pipeline binaryNot() {
+		return then("binaryNot", DataType.UINT8, Tier1::binaryNot);
+	}
+
+	/** See {@link Tier2#topHat(DeviceJ, ArrayJ, ArrayJ, float, float, float, String)} */
+	public Pipeline topHatBox(int radiusX, int radiusY, int radiusZ) {
+		return then("topHatBox", DataType.FLOAT32, (d, in, out) -> Tier2.topHat(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier2#differenceOfGaussian(DeviceJ, ArrayJ, ArrayJ, float, float, float, float, float, float)} */
+	public Pipeline differenceOfGaussian(float sigma1X, float sigma1Y, float sigma1Z, float sigma2X, float sigma2Y, float sigma2Z) {
+		return then("differenceOfGaussian", DataType.FLOAT32,
+				(d, in, out) -> Tier2.differenceOfGaussian(d, in, out, sigma1X, sigma1Y, sigma1Z, sigma2X, sigma2Y, sigma2Z));
+	}
+
+	/** See {@link Tier2#subtractGaussianBackground(DeviceJ, ArrayJ, ArrayJ, float, float, float)} */
+	public Pipeline subtractGaussianBackground(float sigmaX, float sigmaY, float sigmaZ) {
+		return then("subtractGaussianBackground", DataType.FLOAT32,
+				(d, in, out) -> Tier2.subtractGaussianBackground(d, in, out, sigmaX, sigmaY, sigmaZ));
+	}
+
+	/** See {@link Tier2#opening(DeviceJ, ArrayJ, ArrayJ, float, float, float, String)} */
+	public Pipeline openingBox(int radiusX, int radiusY, int radiusZ) {
+		return then("openingBox", null, (d, in, out) -> Tier2.opening(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier2#closing(DeviceJ, ArrayJ, ArrayJ, int, int, int, String)} */
+	public Pipeline closingBox(int radiusX, int radiusY, int radiusZ) {
+		return then("closingBox", null, (d, in, out) -> Tier2.closing(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@link Tier3#excludeLabelsOnEdges(DeviceJ, ArrayJ, ArrayJ, boolean, boolean, boolean)} */
+	public Pipeline excludeLabelsOnEdges(boolean excludeX, boolean excludeY, boolean excludeZ) {
+		return then("excludeLabelsOnEdges", DataType.UINT32,
+				(d, in, out) -> Tier3.excludeLabelsOnEdges(d, in, out, excludeX, excludeY, excludeZ));
+	}
+
+	/** See {@link Tier4#thresholdOtsu(DeviceJ, ArrayJ, ArrayJ)} */
+	public Pipeline thresholdOtsu() {
+		return then("thresholdOtsu", DataType.UINT8, Tier4::thresholdOtsu);
+	}
+
+	/** See {@link Tier5#connectedComponentsLabeling(DeviceJ, ArrayJ, ArrayJ, String)} */
+	public Pipeline connectedComponentsLabeling(String connectivity) {
+		return then("connectedComponentsLabeling", DataType.UINT32,
+				(d, in, out) -> Tier5.connectedComponentsLabeling(d, in, out, connectivity));
+	}
+
+	/** See {@link Tier6#dilateLabels(DeviceJ, ArrayJ, ArrayJ, int)} */
+	public Pipeline dilateLabels(int radius) {
+		return then("dilateLabels", DataType.UINT32, (d, in, out) -> Tier6.dilateLabels(d, in, out, radius));
+	}
+
+	/** See {@link Tier7#voronoiOtsuLabeling(DeviceJ, ArrayJ, ArrayJ, float, float)} */
+	public Pipeline voronoiOtsuLabeling(float spotSigma, float outlineSigma) {
+		return then("voronoiOtsuLabeling", DataType.UINT32,
+				(d, in, out) -> Tier7.voronoiOtsuLabeling(d, in, out, spotSigma, outlineSigma));
+	}
+
+	/**
+	 * Add a chain of pointwise operations, executed as a single kernel
+	 * @param chain
+	 * 	the pointwise operations
+	 * @return the pipeline
+	 */
+	public Pipeline elementwise(ElementwiseChain chain) {
+		Objects.requireNonNull(chain, "chain cannot be null");
+		return then(chain.getSignature(), chain.getOutputType(), chain::execute);
+	}
+
+	/**
+	 * Run the pipeline
+	 * @param input
+	 * 	the input image, it is not modified
+	 * @return the result of the last step. It is a scratch array of the pipeline, overwritten by the next run
+	 */
+	public ArrayJ run(ArrayJ input) {
+		return run(input, null);
+	}
+
+	/**
+	 * Run the pipeline writing the result of the last step into the given array
+	 * @param input
+	 * 	the input image, it is not modified
+	 * @param output
+	 * 	the array where the result is written, with the same shape as the input. If null, the result is
+	 * 	written into a scratch array of the pipeline, overwritten by the next run
+	 * @return the result of the last step
+	 */
+	public ArrayJ run(ArrayJ input, ArrayJ output) {
+		Objects.requireNonNull(input, "input cannot be null");
+		if (steps.isEmpty())
+			throw new IllegalStateException("The pipeline has no steps");
+		plan(input);
+		ArrayJ current = input;
+		for (int i = 0; i < steps.size(); i++) {
+			Step step = steps.get(i);
+			ArrayJ target = i == steps.size() - 1 && output != null ? output : targets[i];
+			current = step.operation.apply(device, current, target);
+			if (current == null)
+				throw new IllegalStateException("The step " + step.name + " did not return any array");
+		}
+		return current;
+	}
+
+	/**
+	 * Run the pipeline on many inputs back to back, see {@link DeviceJ#executeBatch(String, int, java.util.function.IntFunction)}.
+	 * The scratch arrays are shared by all the runs, so the result of each run is written into its own output.
+	 * @param inputs
+	 * 	the input images, they are not modified
+	 * @param outputs
+	 * 	the arrays where the results are written, one per input
+	 * @return the outputs
+	 */
+	public List<ArrayJ> run(List<ArrayJ> inputs, List<ArrayJ> outputs) {
+		Objects.requireNonNull(inputs, "inputs cannot be null");
+		Objects.requireNonNull(outputs, "outputs cannot be null, the scratch arrays are overwritten by every run");
+		if (inputs.size() != outputs.size())
+			throw new IllegalArgumentException("The batch has " + inputs.size() + " inputs but " + outputs.size() + " outputs");
+		return device.executeBatch("Pipeline" + getStepNames(), inputs.size(), i -> run(inputs.get(i), outputs.get(i)));
+	}
+
+	/**
+	 *
+	 * @return the number of scratch arrays currently held by the pipeline
+	 */
+	public int getScratchCount() {
+		return scratch.size();
+	}
+
+	/**
+	 *
+	 * @return the names of the steps of the pipeline, in order
+	 */
+	public List<String> getStepNames() {
+		List<String> names = new ArrayList<String>();
+		for (Step step : steps)
+			names.add(step.name);
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Give the scratch arrays back to the {@link ArrayPool} of the device. The pipeline can still be
+	 * used afterwards, the scratch arrays are taken again on the next run.
+	 */
+	@Override
+	public void close() {
+		invalidate();
+	}
+
+	private void plan(ArrayJ input) {
+		DataType inputType = DataType.fromString(input.getDataType());
+		if (targets != null && inputType == plannedType && Arrays.equals(input.getDimensions(), plannedDims)
+				&& input.getMemoryType().equals(plannedMemoryType))
+			return;
+		invalidate();
+		ArrayJ[] planned = new ArrayJ[steps.size()];
+		DataType type = inputType;
+		ArrayJ previous = null;
+		for (int i = 0; i < steps.size(); i++) {
+			Step step = steps.get(i);
+			type = step.outputType != null ? step.outputType : type;
+			// ping-pong: any scratch array of the right type that is not the input of the step
+			ArrayJ target = null;
+			for (ArrayJ candidate : scratch) {
+				if (candidate != previous && candidate.getDataType().equals(type.getName())) {
+					target = candidate;
+					break;
+				}
+			}
+			if (target == null) {
+				target = pool.acquire(device, type, input.getDimensions(), input.getMemoryType());
+				scratch.add(target);
+			}
+			planned[i] = target;
+			previous = target;
+		}
+		targets = planned;
+		plannedDims = input.getDimensions();
+		plannedType = inputType;
+		plannedMemoryType = input.getMemoryType();
+	}
+
+	private void invalidate() {
+		for (ArrayJ array : scratch)
+			pool.release(array);
+		scratch.clear();
+		targets = null;
+	}
+
+	@Override
+	public String toString() {
+		return "Pipeline" + getStepNames();
+	}
+}
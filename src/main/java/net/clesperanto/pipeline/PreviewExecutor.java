@@ -0,0 +1,241 @@
+package net.clesperanto.pipeline;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.kernels.Tier6;
+
+/**
+ * Runs an operation on a downsampled copy of an image first, for an immediate preview, then on the full resolution
+ * image in the background, for interactive tuning of the parameters of slow operations.
+ *
+ * <pre>
+ * PreviewExecutor executor = new PreviewExecutor(device, 4);
+ * // on every change of the slider
+ * PreviewExecutor.Preview preview = executor.preview(image, PreviewExecutor.gaussOtsuLabeling(sigma));
+ * display(preview.getCoarse());
+ * preview.getRefinement().thenAccept(labels -&gt; display(labels));
+ * </pre>
+ *
+ * The downsampled copy is made on the device with a {@link PyramidBuilder}. The operation receives the scale of the
+ * image it processes, 1 for the full resolution, so that sizes given in pixels, such as sigmas or radii, can be
+ * scaled to the coarse image. A new preview cancels the refinement of the previous one: if it has not started it is
+ * skipped, otherwise its result is discarded, since a kernel that is running cannot be stopped.
+ *
+ * The preview runs on the calling thread and the refinement on a background thread, both holding the lock of the
+ * device, see {@link DeviceJ#getLock()}, so a preview requested while a refinement runs waits for it to finish.
+ */
+public class PreviewExecutor implements AutoCloseable {
+
+	/**
+	 * Operation that adapts its parameters to the scale of the image it processes
+	 */
+	@FunctionalInterface
+	public interface ScaledOperation {
+
+		/**
+		 * Execute the operation
+		 * @param device
+		 * 	the device of the executor
+		 * @param input
+		 * 	the downsampled or full resolution image
+		 * @param output
+		 * 	always null, the operation allocates its output
+		 * @param scale
+		 * 	the size of the input relative to the full resolution image, 1 for the full resolution
+		 * @return the output
+		 */
+		ArrayJ apply(DeviceJ device, ArrayJ input, ArrayJ output, float scale);
+	}
+
+	/**
+	 * Result of a preview, available at once, and its refinement at full resolution
+	 */
+	public static class Preview {
+		private final ArrayJ coarse;
+		private final float scale;
+		private final CompletableFuture<ArrayJ> refinement = new CompletableFuture<ArrayJ>();
+		private volatile Future<?> task;
+
+		private Preview(ArrayJ coarse, float scale) {
+			this.coarse = coarse;
+			this.scale = scale;
+		}
+
+		/**
+		 *
+		 * @return the result of the operation on the downsampled image
+		 */
+		public ArrayJ getCoarse() {
+			return coarse;
+		}
+
+		/**
+		 *
+		 * @return the size of the downsampled image relative to the full resolution image
+		 */
+		public float getScale() {
+			return scale;
+		}
+
+		/**
+		 *
+		 * @return the result of the operation on the full resolution image, cancelled if the preview is cancelled
+		 */
+		public CompletableFuture<ArrayJ> getRefinement() {
+			return refinement;
+		}
+
+		/**
+		 * Cancel the refinement, which is skipped if it has not started and discarded otherwise
+		 */
+		public void cancel() {
+			refinement.cancel(false);
+			Future<?> started = task;
+			if (started != null)
+				started.cancel(false);
+		}
+
+		/**
+		 *
+		 * @return whether the refinement was cancelled
+		 */
+		public boolean isCancelled() {
+			return refinement.isCancelled();
+		}
+	}
+
+	private final DeviceJ device;
+	private final int factor;
+	private final ExecutorService executor;
+	private boolean reduceZ = true;
+	private Preview current;
+
+	/**
+	 * Create an executor and its background thread
+	 * @param device
+	 * 	the device where the operations are executed
+	 * @param factor
+	 * 	the downsampling factor of the preview, 2, 4 or 8
+	 */
+	public PreviewExecutor(DeviceJ device, int factor) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+		if (factor != 2 && factor != 4 && factor != 8)
+			throw new IllegalArgumentException("The downsampling factor has to be 2, 4 or 8, not " + factor);
+		this.factor = factor;
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "PreviewExecutor-" + device.getName());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Set whether the planes of stacks are downsampled as well, see {@link PyramidBuilder#setReduceZ(boolean)}
+	 * @param reduceZ
+	 * 	true, the default, to downsample along z
+	 * @return this executor
+	 */
+	public PreviewExecutor setReduceZ(boolean reduceZ) {
+		this.reduceZ = reduceZ;
+		return this;
+	}
+
+	/**
+	 * Run an operation on the downsampled image, and start its refinement at full resolution
+	 * @param input
+	 * 	the full resolution image, which must not be modified until the refinement is done
+	 * @param operation
+	 * 	the operation, whose parameters do not depend on the scale
+	 * @return the preview
+	 */
+	public Preview preview(ArrayJ input, Pipeline.Operation operation) {
+		Objects.requireNonNull(operation, "operation cannot be null");
+		return preview(input, (d, in, out, scale) -> operation.apply(d, in, out));
+	}
+
+	/**
+	 * Run an operation on the downsampled image, and start its refinement at full resolution, cancelling the
+	 * refinement of the previous preview
+	 * @param input
+	 * 	the full resolution image, which must not be modified until the refinement is done
+	 * @param operation
+	 * 	the operation
+	 * @return the preview
+	 */
+	public Preview preview(ArrayJ input, ScaledOperation operation) {
+		Objects.requireNonNull(input, "input cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		synchronized (this) {
+			if (current != null)
+				current.cancel();
+		}
+		int levels = Integer.numberOfTrailingZeros(factor) + 1;
+		Preview preview;
+		synchronized (device.getLock()) {
+			List<ArrayJ> pyramid = new PyramidBuilder(device).setLevels(levels).setReduceZ(reduceZ).build(input);
+			ArrayJ downsampled = pyramid.get(pyramid.size() - 1);
+			float scale = 1f / (1 << (pyramid.size() - 1));
+			preview = new Preview(operation.apply(device, downsampled, null, scale), scale);
+		}
+		synchronized (this) {
+			current = preview;
+			preview.task = executor.submit(() -> {
+				if (preview.refinement.isDone())
+					return;
+				try {
+					ArrayJ refined;
+					synchronized (device.getLock()) {
+						refined = operation.apply(device, input, null, 1);
+					}
+					preview.refinement.complete(refined);
+				} catch (Throwable ex) {
+					preview.refinement.completeExceptionally(ex);
+				}
+			});
+		}
+		return preview;
+	}
+
+	/**
+	 * Label the objects of an image with {@link Tier6#gaussOtsuLabeling(DeviceJ, ArrayJ, ArrayJ, float)}, the sigma
+	 * being scaled to the downsampled image
+	 * @param outlineSigma
+	 * 	the sigma of the blur at full resolution
+	 * @return the operation
+	 */
+	public static ScaledOperation gaussOtsuLabeling(float outlineSigma) {
+		return (d, in, out, scale) -> Tier6.gaussOtsuLabeling(d, in, out, outlineSigma * scale);
+	}
+
+	/**
+	 *
+	 * @return the downsampling factor of the previews
+	 */
+	public int getFactor() {
+		return factor;
+	}
+
+	/**
+	 * Cancel the pending refinement and stop the background thread
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (current != null)
+				current.cancel();
+		}
+		executor.shutdown();
+	}
+
+	@Override
+	public String toString() {
+		return "PreviewExecutor[" + device.getName() + ", factor=" + factor + "]";
+	}
+}
@@ -0,0 +1,195 @@
+package net.clesperanto.pipeline;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.Utils;
+import net.clesperanto.kernels.Tier1;
+
+/**
+ * Builds a multi-resolution pyramid of an image on the device, as used by BigDataViewer or OME-Zarr, each level being
+ * the previous one reduced by 2 along every axis.
+ *
+ * <pre>
+ * List&lt;ArrayJ&gt; levels = new PyramidBuilder(device).setLevels(5).setReduction(PyramidBuilder.Reduction.MEAN)
+ * 		.setSmoothing(0.5f).build(image);
+ * </pre>
+ *
+ * Every level is computed from the previous one on the device by a single kernel, optionally after a
+ * {@link Tier1#gaussianBlur(DeviceJ, ArrayJ, ArrayJ, float, float, float)}, so the image is never copied back to
+ * the host while the pyramid is built. The levels keep the data type of the image, the means
+ * of integer images being rounded to the nearest integer. An odd size is rounded up, the
+ * last pixel of a level being reduced from the pixels that remain.
+ */
+public class PyramidBuilder {
+
+	/**
+	 * How the 2x2x2 blocks of a level are reduced to one pixel of the next level
+	 */
+	public enum Reduction {
+		/** mean of the block, for intensity images */
+		MEAN,
+		/** maximum of the block, for masks or sparse signals that must not fade out */
+		MAXIMUM
+	}
+
+	private static final String KERNEL_NAME = "downsample_by_two";
+	private static final String KERNEL_SOURCE = Utils.KERNEL_PREAMBLE
+			+ "__kernel void " + KERNEL_NAME + "(\n"
+			+ "    IMAGE_src_TYPE  src,\n"
+			+ "    IMAGE_dst_TYPE  dst,\n"
+			+ "    const float width,\n"
+			+ "    const float height,\n"
+			+ "    const float depth,\n"
+			+ "    const float factor_z,\n"
+			+ "    const float maximum,\n"
+			+ "    const float integer\n"
+			+ ")\n{\n"
+			+ "  const int x = get_global_id(0);\n"
+			+ "  const int y = get_global_id(1);\n"
+			+ "  const int z = get_global_id(2);\n\n"
+			+ "  const int fz = (int) factor_z;\n"
+			+ "  float sum = 0;\n"
+			+ "  float high = -INFINITY;\n"
+			+ "  int count = 0;\n"
+			+ "  for (int dz = 0; dz < fz; dz++) {\n"
+			+ "    const int sz = z * fz + dz;\n"
+			+ "    for (int dy = 0; dy < 2; dy++) {\n"
+			+ "      const int sy = y * 2 + dy;\n"
+			+ "      for (int dx = 0; dx < 2; dx++) {\n"
+			+ "        const int sx = x * 2 + dx;\n"
+			+ "        if (sx < (int) width && sy < (int) height && sz < (int) depth) {\n"
+			+ "          const float v = (float) READ_IMAGE(src, sampler, POS_src_INSTANCE(sx,sy,sz,0)).x;\n"
+			+ "          sum += v;\n"
+			+ "          high = fmax(high, v);\n"
+			+ "          count++;\n"
+			+ "        }\n"
+			+ "      }\n"
+			+ "    }\n"
+			+ "  }\n"
+			+ "  const float mean = integer != 0 ? round(sum / count) : sum / count;\n"
+			+ "  const float value = maximum != 0 ? high : mean;\n"
+			+ "  WRITE_IMAGE(dst, POS_dst_INSTANCE(x,y,z,0), CONVERT_dst_PIXEL_TYPE(value));\n"
+			+ "}\n";
+
+	private final DeviceJ device;
+	private int levels = 4;
+	private Reduction reduction = Reduction.MEAN;
+	private float smoothing = 0;
+	private boolean reduceZ = true;
+
+	/**
+	 * Create a builder of pyramids of 4 levels reduced by their mean, without smoothing
+	 * @param device
+	 * 	the device where the pyramids are built
+	 */
+	public PyramidBuilder(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+	}
+
+	/**
+	 * Set the number of levels
+	 * @param levels
+	 * 	the number of levels including the full resolution image, at least 1. Fewer levels are built if the
+	 * 	image is reduced to a single pixel before
+	 * @return this builder
+	 */
+	public PyramidBuilder setLevels(int levels) {
+		if (levels < 1)
+			throw new IllegalArgumentException("A pyramid has at least one level, not " + levels);
+		this.levels = levels;
+		return this;
+	}
+
+	/**
+	 * Set how the blocks are reduced
+	 * @param reduction
+	 * 	the reduction, {@link Reduction#MEAN} by default
+	 * @return this builder
+	 */
+	public PyramidBuilder setReduction(Reduction reduction) {
+		this.reduction = Objects.requireNonNull(reduction, "reduction cannot be null");
+		return this;
+	}
+
+	/**
+	 * Set the sigma of the Gaussian blur applied to a level before it is reduced
+	 * @param sigma
+	 * 	the sigma in pixels of the level being reduced, 0, the default, for no smoothing
+	 * @return this builder
+	 */
+	public PyramidBuilder setSmoothing(float sigma) {
+		if (sigma < 0)
+			throw new IllegalArgumentException("The sigma cannot be negative: " + sigma);
+		this.smoothing = sigma;
+		return this;
+	}
+
+	/**
+	 * Set whether the planes are reduced as well, for stacks whose z resolution is already coarser than x and y
+	 * @param reduceZ
+	 * 	true, the default, to reduce along z
+	 * @return this builder
+	 */
+	public PyramidBuilder setReduceZ(boolean reduceZ) {
+		this.reduceZ = reduceZ;
+		return this;
+	}
+
+	/**
+	 * Build the pyramid of an image
+	 * @param input
+	 * 	the full resolution image, which is the first level
+	 * @return the levels, from the full resolution to the coarsest one
+	 */
+	public List<ArrayJ> build(ArrayJ input) {
+		Objects.requireNonNull(input, "input cannot be null");
+		List<ArrayJ> pyramid = new ArrayList<ArrayJ>();
+		pyramid.add(input);
+		ArrayJ level = input;
+		while (pyramid.size() < levels && (level.getWidth() > 1 || level.getHeight() > 1 || reduceZ && level.getDepth() > 1)) {
+			level = reduce(level);
+			pyramid.add(level);
+		}
+		return pyramid;
+	}
+
+	private ArrayJ reduce(ArrayJ level) {
+		boolean alongZ = reduceZ && level.getDepth() > 1;
+		ArrayJ source = smoothing > 0 ? Tier1.gaussianBlur(device, level, null, smoothing, smoothing, alongZ ? smoothing : 0) : level;
+		long factorZ = alongZ ? 2 : 1;
+		long[] dims = level.getNDimensions() == 3
+				? new long[] {(level.getWidth() + 1) / 2, (level.getHeight() + 1) / 2, (level.getDepth() + factorZ - 1) / factorZ}
+				: new long[] {(level.getWidth() + 1) / 2, (level.getHeight() + 1) / 2};
+		// the blur of an integer image is a float image, the levels keep the type of the input
+		DataType type = DataType.fromString(level.getDataType());
+		ArrayJ reduced = type.makeEmptyArrayJ(device, dims, level.getMemoryType());
+		return device.execute("PyramidBuilder.reduce", () -> {
+			Map<String, ArrayJ> arrays = new LinkedHashMap<String, ArrayJ>();
+			arrays.put("src", source);
+			arrays.put("dst", reduced);
+			Map<String, Float> scalars = new LinkedHashMap<String, Float>();
+			scalars.put("width", (float) level.getWidth());
+			scalars.put("height", (float) level.getHeight());
+			scalars.put("depth", (float) level.getDepth());
+			scalars.put("factor_z", (float) factorZ);
+			scalars.put("maximum", reduction == Reduction.MAXIMUM ? 1f : 0f);
+			// the conversion to an integer type truncates, the means are rounded to the nearest value first
+			scalars.put("integer", type == DataType.FLOAT32 ? 0f : 1f);
+			Utils.executeKernel(device, KERNEL_NAME, KERNEL_SOURCE, arrays, scalars,
+					new long[] {reduced.getWidth(), reduced.getHeight(), reduced.getDepth()});
+			return reduced;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "PyramidBuilder[" + device.getName() + ", levels=" + levels + ", " + reduction + ", sigma=" + smoothing + "]";
+	}
+}
@@ -0,0 +1,202 @@
+package net.clesperanto.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier3;
+
+/**
+ * Applies a {@link TileOperation} only within boxes of an image on the device, so that the work is proportional to
+ * the size of the regions of interest rather than to the size of the image.
+ *
+ * <pre>
+ * List&lt;RoiExecutor.Box&gt; nuclei = RoiExecutor.Box.ofLabels(device, labels, 2);
+ * ArrayJ refined = new RoiExecutor(device).execute(image, TileOperation.gaussianBlur(2, 2, 1), null, nuclei);
+ * </pre>
+ *
+ * Every box is cropped out of the input together with the halo of the operation, processed, and only its interior is
+ * pasted into the output, so the values inside the boxes are identical to the ones of the operation applied to the
+ * whole image. Pointwise operations are expressed as a {@link TileOperation} without halo, with
+ * {@link TileOperation#of(String, long, long, long, Pipeline.Operation)}.
+ */
+public class RoiExecutor {
+
+	/**
+	 * Box of pixels, given by its origin and its size along x, y and z
+	 */
+	public static class Box {
+		private final long[] min;
+		private final long[] size;
+
+		private Box(long[] min, long[] size) {
+			this.min = min;
+			this.size = size;
+		}
+
+		/**
+		 * Create a box
+		 * @param x
+		 * 	the first column of the box
+		 * @param y
+		 * 	the first row of the box
+		 * @param z
+		 * 	the first plane of the box, 0 for 2D images
+		 * @param width
+		 * 	the number of columns
+		 * @param height
+		 * 	the number of rows
+		 * @param depth
+		 * 	the number of planes, 1 for 2D images
+		 * @return the box
+		 */
+		public static Box of(long x, long y, long z, long width, long height, long depth) {
+			if (width <= 0 || height <= 0 || depth <= 0)
+				throw new IllegalArgumentException("The size of a box has to be positive: " + width + "x" + height + "x" + depth);
+			return new Box(new long[] {x, y, z}, new long[] {width, height, depth});
+		}
+
+		/**
+		 * The bounding boxes of the labels of a label image
+		 * @param device
+		 * 	the device where the label image is
+		 * @param labels
+		 * 	the label image
+		 * @param margin
+		 * 	the number of pixels added around every bounding box, along every dimension
+		 * @return a box per label, in the order of the labels
+		 */
+		public static List<Box> ofLabels(DeviceJ device, ArrayJ labels, long margin) {
+			HashMap<String, ArrayList<Float>> table = Tier3.statisticsOfLabelledPixels(device, labels, null);
+			List<Box> boxes = new ArrayList<Box>();
+			ArrayList<Float> labelColumn = table.get("label");
+			for (int row = 0; row < labelColumn.size(); row++) {
+				if (labelColumn.get(row) < 1 || table.get("area").get(row) == 0)
+					continue;
+				long[] boxMin = new long[3];
+				long[] boxSize = new long[3];
+				String[] axes = new String[] {"x", "y", "z"};
+				for (int d = 0; d < 3; d++) {
+					long first = (long) (float) table.get("bbox_min_" + axes[d]).get(row);
+					long last = (long) (float) table.get("bbox_max_" + axes[d]).get(row);
+					long extra = d < labels.getNDimensions() ? margin : 0;
+					boxMin[d] = first - extra;
+					boxSize[d] = last - first + 1 + 2 * extra;
+				}
+				boxes.add(new Box(boxMin, boxSize));
+			}
+			return boxes;
+		}
+
+		/**
+		 *
+		 * @return the first pixel of the box along x, y and z
+		 */
+		public long[] getMin() {
+			return min.clone();
+		}
+
+		/**
+		 *
+		 * @return the size of the box along x, y and z
+		 */
+		public long[] getSize() {
+			return size.clone();
+		}
+
+		@Override
+		public String toString() {
+			return "Box[min=" + Arrays.toString(min) + ", size=" + Arrays.toString(size) + "]";
+		}
+	}
+
+	private final DeviceJ device;
+
+	/**
+	 * Create an executor
+	 * @param device
+	 * 	the device where the images are
+	 */
+	public RoiExecutor(DeviceJ device) {
+		this.device = Objects.requireNonNull(device, "device cannot be null");
+	}
+
+	/**
+	 * Apply the operation within the given boxes
+	 * @param input
+	 * 	the input image
+	 * @param operation
+	 * 	the operation to apply
+	 * @param output
+	 * 	the image where the results are pasted, keeping its values outside of the boxes, or null to paste them into
+	 * 	a copy of the input, in which case the operation has to keep the data type of the input
+	 * @param boxes
+	 * 	the regions of interest, clipped to the image. Overlapping boxes get the same values
+	 * @return the output
+	 */
+	public ArrayJ execute(ArrayJ input, TileOperation operation, ArrayJ output, Box... boxes) {
+		return execute(input, operation, output, Arrays.asList(boxes));
+	}
+
+	/**
+	 * Apply the operation within the given boxes
+	 * @param input
+	 * 	the input image
+	 * @param operation
+	 * 	the operation to apply
+	 * @param output
+	 * 	the image where the results are pasted, keeping its values outside of the boxes, or null to paste them into
+	 * 	a copy of the input, in which case the operation has to keep the data type of the input
+	 * @param boxes
+	 * 	the regions of interest, clipped to the image. Overlapping boxes get the same values
+	 * @return the output
+	 */
+	public ArrayJ execute(ArrayJ input, TileOperation operation, ArrayJ output, List<Box> boxes) {
+		Objects.requireNonNull(input, "input cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		Objects.requireNonNull(boxes, "boxes cannot be null");
+		if (output == null)
+			output = Tier1.copy(device, input, null);
+		else if (output.sharesMemoryWith(input))
+			// the halos of the next boxes have to see the input before the previous boxes were pasted
+			input = Tier1.copy(device, input, null);
+		long[] dims = input.getDimensions();
+		long[] halo = operation.getHalo();
+		for (Box box : boxes) {
+			long[] interiorMin = new long[3];
+			long[] interiorMax = new long[3];
+			long[] regionMin = new long[3];
+			long[] regionMax = new long[3];
+			boolean empty = false;
+			for (int d = 0; d < 3; d++) {
+				interiorMin[d] = Math.max(0, box.min[d]);
+				interiorMax[d] = Math.min(dims[d] - 1, box.min[d] + box.size[d] - 1);
+				empty |= interiorMin[d] > interiorMax[d];
+				regionMin[d] = Math.max(0, interiorMin[d] - halo[d]);
+				regionMax[d] = Math.min(dims[d] - 1, interiorMax[d] + halo[d]);
+			}
+			if (empty)
+				continue;
+			ArrayJ region = Tier1.crop(device, input, null, (int) regionMin[0], (int) regionMin[1], (int) regionMin[2],
+					(int) (regionMax[0] - regionMin[0] + 1), (int) (regionMax[1] - regionMin[1] + 1),
+					(int) (regionMax[2] - regionMin[2] + 1));
+			ArrayJ result = operation.apply(device, region, null);
+			ArrayJ interior = Tier1.crop(device, result, null, (int) (interiorMin[0] - regionMin[0]),
+					(int) (interiorMin[1] - regionMin[1]), (int) (interiorMin[2] - regionMin[2]),
+					(int) (interiorMax[0] - interiorMin[0] + 1), (int) (interiorMax[1] - interiorMin[1] + 1),
+					(int) (interiorMax[2] - interiorMin[2] + 1));
+			Tier1.paste(device, interior, output, (int) interiorMin[0], (int) interiorMin[1], (int) interiorMin[2]);
+		}
+		return output;
+	}
+
+	@Override
+	public String toString() {
+		return "RoiExecutor[" + device.getName() + "]";
+	}
+}
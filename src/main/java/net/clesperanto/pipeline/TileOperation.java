@@ -0,0 +1,161 @@
+package net.clesperanto.pipeline;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+
+/**
+ * Local operation that can be applied to an image tile by tile, together with the halo it needs.
+ *
+ * The value of an output pixel of a local operation only depends on the input pixels within its
+ * neighborhood. A tile processed with a halo at least as wide as that neighborhood gives, inside its
+ * interior, exactly the values the operation gives on the whole image. The halos of the factory methods
+ * are derived from the radius or sigma of the operation, the halos of chained operations add up.
+ *
+ * <pre>
+ * TileOperation operation = TileOperation.gaussianBlur(2, 2, 1).then(TileOperation.topHatBox(10, 10, 2));
+ * </pre>
+ *
+ * Operations are immutable.
+ */
+public class TileOperation {
+
+	private final String name;
+	/** halo needed along x, y and z */
+	private final long[] halo;
+	private final Pipeline.Operation operation;
+
+	private TileOperation(String name, long[] halo, Pipeline.Operation operation) {
+		this.name = name;
+		this.halo = halo;
+		this.operation = operation;
+	}
+
+	/**
+	 * Create a local operation
+	 * @param name
+	 * 	the name of the operation
+	 * @param haloX
+	 * 	the radius of the neighborhood along x
+	 * @param haloY
+	 * 	the radius of the neighborhood along y
+	 * @param haloZ
+	 * 	the radius of the neighborhood along z
+	 * @param operation
+	 * 	the operation, called with a null output if it has to allocate its output
+	 * @return the operation
+	 */
+	public static TileOperation of(String name, long haloX, long haloY, long haloZ, Pipeline.Operation operation) {
+		Objects.requireNonNull(name, "name cannot be null");
+		Objects.requireNonNull(operation, "operation cannot be null");
+		if (haloX < 0 || haloY < 0 || haloZ < 0)
+			throw new IllegalArgumentException("The halo of " + name + " cannot be negative");
+		return new TileOperation(name, new long[] {haloX, haloY, haloZ}, operation);
+	}
+
+	/**
+	 * Chain another operation after this one
+	 * @param next
+	 * 	the operation applied to the result of this one
+	 * @return the chained operation, whose halo is the sum of both halos
+	 */
+	public TileOperation then(TileOperation next) {
+		Pipeline.Operation first = operation;
+		return new TileOperation(name + ">" + next.name,
+				new long[] {halo[0] + next.halo[0], halo[1] + next.halo[1], halo[2] + next.halo[2]},
+				(d, in, out) -> next.operation.apply(d, first.apply(d, in, null), out));
+	}
+
+	/** Radius of the kernel of {@code Tier1.gaussianBlur}, which is cut at 4 sigma */
+	private static long gaussianHalo(float sigma) {
+		return sigma <= 0 ? 0 : (long) Math.ceil(4 * sigma) + 1;
+	}
+
+	private static long sphereHalo(float radius) {
+		return (long) Math.ceil(Math.max(0, radius));
+	}
+
+	/** See {@code Tier1.gaussianBlur} */
+	public static TileOperation gaussianBlur(float sigmaX, float sigmaY, float sigmaZ) {
+		return of("gaussianBlur", gaussianHalo(sigmaX), gaussianHalo(sigmaY), gaussianHalo(sigmaZ),
+				(d, in, out) -> Tier1.gaussianBlur(d, in, out, sigmaX, sigmaY, sigmaZ));
+	}
+
+	/** See {@code Tier1.mean} */
+	public static TileOperation meanBox(int radiusX, int radiusY, int radiusZ) {
+		return of("meanBox", radiusX, radiusY, radiusZ, (d, in, out) -> Tier1.mean(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@code Tier1.maximum} */
+	public static TileOperation maximumBox(int radiusX, int radiusY, int radiusZ) {
+		return of("maximumBox", radiusX, radiusY, radiusZ, (d, in, out) -> Tier1.maximum(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@code Tier1.minimum} */
+	public static TileOperation minimumBox(int radiusX, int radiusY, int radiusZ) {
+		return of("minimumBox", radiusX, radiusY, radiusZ, (d, in, out) -> Tier1.minimum(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@code Tier1.median} */
+	public static TileOperation medianBox(int radiusX, int radiusY, int radiusZ) {
+		return of("medianBox", radiusX, radiusY, radiusZ, (d, in, out) -> Tier1.median(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@code Tier2.topHat}, a minimum then a maximum filter, so twice the radius */
+	public static TileOperation topHatBox(int radiusX, int radiusY, int radiusZ) {
+		return of("topHatBox", 2L * radiusX, 2L * radiusY, 2L * radiusZ,
+				(d, in, out) -> Tier2.topHat(d, in, out, radiusX, radiusY, radiusZ, "box"));
+	}
+
+	/** See {@code Tier2.topHat}, a minimum then a maximum filter, so twice the radius */
+	public static TileOperation topHatSphere(float radiusX, float radiusY, float radiusZ) {
+		return of("topHatSphere", 2 * sphereHalo(radiusX), 2 * sphereHalo(radiusY), 2 * sphereHalo(radiusZ),
+				(d, in, out) -> Tier2.topHat(d, in, out, radiusX, radiusY, radiusZ, "sphere"));
+	}
+
+	/** See {@code Tier2.differenceOfGaussian} */
+	public static TileOperation differenceOfGaussian(float sigma1X, float sigma1Y, float sigma1Z, float sigma2X, float sigma2Y, float sigma2Z) {
+		return of("differenceOfGaussian", Math.max(gaussianHalo(sigma1X), gaussianHalo(sigma2X)),
+				Math.max(gaussianHalo(sigma1Y), gaussianHalo(sigma2Y)), Math.max(gaussianHalo(sigma1Z), gaussianHalo(sigma2Z)),
+				(d, in, out) -> Tier2.differenceOfGaussian(d, in, out, sigma1X, sigma1Y, sigma1Z, sigma2X, sigma2Y, sigma2Z));
+	}
+
+	/**
+	 * Apply the operation to a tile
+	 * @param device
+	 * 	the device where the operation is executed
+	 * @param input
+	 * 	the tile, including its halo
+	 * @param output
+	 * 	the array where the result is written, null to allocate it
+	 * @return the result, with the shape of the tile
+	 */
+	public ArrayJ apply(DeviceJ device, ArrayJ input, ArrayJ output) {
+		return operation.apply(device, input, output);
+	}
+
+	/**
+	 *
+	 * @return the halo needed along x, y and z
+	 */
+	public long[] getHalo() {
+		return halo.clone();
+	}
+
+	/**
+	 *
+	 * @return the name of the operation
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return "TileOperation[" + name + ", halo=" + Arrays.toString(halo) + "]";
+	}
+}
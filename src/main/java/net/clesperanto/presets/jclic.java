@@ -1,7 +1,6 @@
 
 package net.clesperanto.presets;
 
-import org.bytedeco.javacpp.Loader;
 import org.bytedeco.javacpp.annotation.Platform;
 import org.bytedeco.javacpp.annotation.Properties;
 import org.bytedeco.javacpp.presets.javacpp;
@@ -23,9 +22,6 @@ import org.bytedeco.javacpp.tools.InfoMapper;
 				"macosx" }, include = "clesperantoj.hpp", link = "JCLIc") }, target = "net.clesperanto._internals.jclic")
 
 public class jclic implements InfoMapper {
-	static {
-		Loader.load();
-	}
 
 	public void map(InfoMap infoMap) {
 
@@ -45,6 +41,6 @@ public class jclic implements InfoMapper {
 
 		infoMap.put(
 				new Info("cle::Array", "cle::Device", "cle::BackendManager", "cle::Backend", "toArrayJVector",
-						"std::shared_ptr<cle::Array>").skip());
+						"std::shared_ptr<cle::Array>", "std::shared_ptr<void>").skip());
 	}
 }
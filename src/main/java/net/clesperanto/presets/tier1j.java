@@ -1,20 +1,21 @@
 package net.clesperanto.presets;
 
-import org.bytedeco.javacpp.Loader;
 import org.bytedeco.javacpp.annotation.Platform;
 import org.bytedeco.javacpp.annotation.Properties;
 import org.bytedeco.javacpp.tools.InfoMap;
 import org.bytedeco.javacpp.tools.InfoMapper;
 
+/**
+ * Wrapper of the tier 1 kernels. The tier is compiled into its own native library,
+ * JCLIc_tier1, which only depends on the core library JCLIc, so that only the tiers
+ * actually used by an application are loaded.
+ */
 @Properties(inherit = jclic.class, value = {
         @Platform(compiler = { "cpp17" }, define = { "SHARED_PTR_NAMESPACE std" }, include = {
-                "kernelj.hpp" }, link = { "JCLIc" })
-}, target = "net.clesperanto._internals.kernelj")
+                "tier1j.hpp" }, link = { "JCLIc_tier1", "JCLIc" })
+}, target = "net.clesperanto._internals.tier1j")
 
-public class kernelj implements InfoMapper {
-    static {
-        Loader.load();
-    }
+public class tier1j implements InfoMapper {
 
     public void map(InfoMap infoMap) {
 
@@ -0,0 +1,23 @@
+package net.clesperanto.presets;
+
+import org.bytedeco.javacpp.annotation.Platform;
+import org.bytedeco.javacpp.annotation.Properties;
+import org.bytedeco.javacpp.tools.InfoMap;
+import org.bytedeco.javacpp.tools.InfoMapper;
+
+/**
+ * Wrapper of the tier 6 kernels. The tier is compiled into its own native library,
+ * JCLIc_tier6, which only depends on the core library JCLIc, so that only the tiers
+ * actually used by an application are loaded.
+ */
+@Properties(inherit = jclic.class, value = {
+        @Platform(compiler = { "cpp17" }, define = { "SHARED_PTR_NAMESPACE std" }, include = {
+                "tier6j.hpp" }, link = { "JCLIc_tier6", "JCLIc" })
+}, target = "net.clesperanto._internals.tier6j")
+
+public class tier6j implements InfoMapper {
+
+    public void map(InfoMap infoMap) {
+
+    }
+}
@@ -0,0 +1,23 @@
+package net.clesperanto.presets;
+
+import org.bytedeco.javacpp.annotation.Platform;
+import org.bytedeco.javacpp.annotation.Properties;
+import org.bytedeco.javacpp.tools.InfoMap;
+import org.bytedeco.javacpp.tools.InfoMapper;
+
+/**
+ * Wrapper of the tier 7 kernels. The tier is compiled into its own native library,
+ * JCLIc_tier7, which only depends on the core library JCLIc, so that only the tiers
+ * actually used by an application are loaded.
+ */
+@Properties(inherit = jclic.class, value = {
+        @Platform(compiler = { "cpp17" }, define = { "SHARED_PTR_NAMESPACE std" }, include = {
+                "tier7j.hpp" }, link = { "JCLIc_tier7", "JCLIc" })
+}, target = "net.clesperanto._internals.tier7j")
+
+public class tier7j implements InfoMapper {
+
+    public void map(InfoMap infoMap) {
+
+    }
+}
@@ -0,0 +1,23 @@
+package net.clesperanto.presets;
+
+import org.bytedeco.javacpp.annotation.Platform;
+import org.bytedeco.javacpp.annotation.Properties;
+import org.bytedeco.javacpp.tools.InfoMap;
+import org.bytedeco.javacpp.tools.InfoMapper;
+
+/**
+ * Wrapper of the tier 8 kernels. The tier is compiled into its own native library,
+ * JCLIc_tier8, which only depends on the core library JCLIc, so that only the tiers
+ * actually used by an application are loaded.
+ */
+@Properties(inherit = jclic.class, value = {
+        @Platform(compiler = { "cpp17" }, define = { "SHARED_PTR_NAMESPACE std" }, include = {
+                "tier8j.hpp" }, link = { "JCLIc_tier8", "JCLIc" })
+}, target = "net.clesperanto._internals.tier8j")
+
+public class tier8j implements InfoMapper {
+
+    public void map(InfoMap infoMap) {
+
+    }
+}
@@ -0,0 +1,30 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.BackendJ;
+import net.clesperanto.core.DeviceCandidate;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class TestBackendProbe {
+
+    @Test
+    public void testProbe() {
+    	List<DeviceCandidate> candidates = BackendJ.probe(true);
+    	assertFalse(candidates.isEmpty());
+    	for (int i = 1; i < candidates.size(); i++)
+    		assertTrue(candidates.get(i - 1).getScore() >= candidates.get(i).getScore());
+    	for (DeviceCandidate candidate : candidates)
+    		assertTrue(BackendJ.getAvailableBackends().contains(candidate.getBackend()));
+    }
+
+    @Test
+    public void testBestDevice() {
+    	DeviceCandidate best = BackendJ.probe().get(0);
+    	DeviceJ device = DeviceJ.getBestDevice();
+    	assertEquals(best.getName(), device.getName());
+    	assertEquals(best.getBackend(), BackendJ.getBackend());
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.kernels.Tier3;
+import net.clesperanto.kernels.Tier4;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.DeviceScalar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDeviceScalar {
+
+    @Test
+    public void testReductions() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 20 * 10 * 3;
+    	float[] data = new float[n];
+    	for (int i = 0; i < n; i++)
+    		data[i] = (i * 37) % 101 - 50;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 20, 10, 3, 3, "buffer");
+    	MemoryJ.writeFloatBuffer(input, data, n);
+    	ArrayJ other = MemoryJ.makeFloatBuffer(device, 20, 10, 3, 3, "buffer");
+    	other.fillMemory(1);
+
+    	DeviceScalar max = DeviceScalar.maximumOfAllPixels(device, input);
+    	assertFalse(max.isRead());
+    	assertEquals(Tier2.maximumOfAllPixels(device, input), max.get());
+    	assertTrue(max.isRead());
+    	assertEquals(Tier2.minimumOfAllPixels(device, input), DeviceScalar.minimumOfAllPixels(device, input).get());
+    	assertEquals(Tier2.sumOfAllPixels(device, input), DeviceScalar.sumOfAllPixels(device, input).get(), 1e-2f);
+    	assertEquals(Tier3.meanOfAllPixels(device, input), DeviceScalar.meanOfAllPixels(device, input).get(), 1e-4f);
+    	assertEquals(Tier4.meanSquaredError(device, input, other), DeviceScalar.meanSquaredError(device, input, other).get(), 1e-2f);
+    }
+
+    @Test
+    public void testTreeReduction() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	// 300 x 20 rows, reduced in three passes of 64 values
+    	int n = 8 * 300 * 20;
+    	float[] data = new float[n];
+    	double sum = 0;
+    	for (int i = 0; i < n; i++) {
+    		data[i] = (i * 37) % 101;
+    		sum += data[i];
+    	}
+    	data[n / 3] = 1000;
+    	sum += 1000 - (n / 3 * 37) % 101;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 8, 300, 20, 3, "buffer");
+    	MemoryJ.writeFloatBuffer(input, data, n);
+
+    	assertEquals(1000, DeviceScalar.maximumOfAllPixels(device, input).get());
+    	assertEquals(0, DeviceScalar.minimumOfAllPixels(device, input).get());
+    	assertEquals(sum, DeviceScalar.sumOfAllPixels(device, input).get(), 1e-5 * sum);
+    	assertEquals(sum / n, DeviceScalar.meanOfAllPixels(device, input).get(), 1e-5 * sum / n);
+    }
+
+    @Test
+    public void testWideRows() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	// rows of 1000 pixels, reduced in 16 blocks of 64 pixels, the last one partial
+    	int n = 1000 * 2;
+    	float[] data = new float[n];
+    	for (int i = 0; i < n; i++)
+    		data[i] = i % 1000;
+    	data[1999] = -5;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 1000, 2, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(input, data, n);
+
+    	assertEquals(999, DeviceScalar.maximumOfAllPixels(device, input).get());
+    	assertEquals(-5, DeviceScalar.minimumOfAllPixels(device, input).get());
+    	assertEquals(2 * 499500 - 1004, DeviceScalar.sumOfAllPixels(device, input).get(), 1e-2f);
+    }
+
+    @Test
+    public void testNormalization() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	float[] data = new float[] {1, 2, 4, 8};
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 4, 1, 1, 1, "buffer");
+    	MemoryJ.writeFloatBuffer(input, data, data.length);
+
+    	DeviceScalar max = DeviceScalar.maximumOfAllPixels(device, input);
+    	ArrayJ normalized = max.divideImageByScalar(device, input, null);
+    	assertFalse(max.isRead());
+    	float[] values = new float[4];
+    	MemoryJ.readFloatBuffer(normalized, values, values.length);
+    	assertArrayEquals(new float[] {0.125f, 0.25f, 0.5f, 1}, values, 1e-6f);
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.ElementwiseChain;
+import net.clesperanto.core.LazyGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestElementwiseChain {
+
+    @Test
+    public void testFusedMatchesTier1() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 64, 64, 1, 2, "buffer");
+    	in.fillMemory(-3);
+
+    	ArrayJ expected = Tier1.addImageAndScalar(device, in, null, 1);
+    	expected = Tier1.multiplyImageAndScalar(device, expected, null, 2);
+    	expected = Tier1.absolute(device, expected, null);
+    	expected = Tier1.power(device, expected, null, 2);
+    	ArrayJ expectedMask = Tier1.greaterConstant(device, expected, null, 5);
+
+    	ElementwiseChain chain = ElementwiseChain.start().addImageAndScalar(1).multiplyImageAndScalar(2).absolute().power(2);
+    	ArrayJ fused = chain.execute(device, in, null);
+    	ArrayJ fusedMask = chain.greaterConstant(5).execute(device, in, null);
+
+    	float[] expectedValues = new float[64 * 64];
+    	float[] fusedValues = new float[64 * 64];
+    	MemoryJ.readFloatBuffer(expected, expectedValues, expectedValues.length);
+    	MemoryJ.readFloatBuffer(fused, fusedValues, fusedValues.length);
+    	assertArrayEquals(expectedValues, fusedValues, 1e-5f);
+    	assertEquals(expectedMask.getDataType(), fusedMask.getDataType());
+
+    	// a different scalar reuses the generated kernel
+    	int kernels = ElementwiseChain.getCachedKernelCount();
+    	ElementwiseChain.start().addImageAndScalar(7).multiplyImageAndScalar(3).absolute().power(0.5f).execute(device, in, null);
+    	assertEquals(kernels, ElementwiseChain.getCachedKernelCount());
+    }
+
+    @Test
+    public void testLazyGraphFusion() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	in.fillMemory(2);
+
+    	LazyGraph graph = new LazyGraph(device);
+    	LazyGraph.Node node = graph.input(in);
+    	node = graph.applyElementwise(ElementwiseChain.start().addImageAndScalar(1), node);
+    	node = graph.applyElementwise(ElementwiseChain.start().multiplyImageAndScalar(-2), node);
+    	node = graph.applyElementwise(ElementwiseChain.start().absolute(), node);
+
+    	float[] values = new float[16 * 16];
+    	MemoryJ.readFloatBuffer(graph.pull(node), values, values.length);
+    	assertEquals(6, values[0]);
+    	assertEquals(1, graph.getExecutedCount());
+    }
+}
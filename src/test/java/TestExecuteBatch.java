@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Batch;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.OperationEvent;
+import net.clesperanto.pipeline.Pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestExecuteBatch {
+
+    private static List<ArrayJ> inputs(DeviceJ device, int count) {
+    	List<ArrayJ> inputs = new ArrayList<ArrayJ>();
+    	for (int n = 0; n < count; n++) {
+    		float[] values = new float[32 * 32];
+    		for (int i = 0; i < values.length; i++)
+    			values[i] = (i * (n + 3)) % 17;
+    		ArrayJ input = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    		MemoryJ.writeFloatBuffer(input, values, values.length);
+    		inputs.add(input);
+    	}
+    	return inputs;
+    }
+
+    private static List<ArrayJ> outputs(DeviceJ device, int count) {
+    	List<ArrayJ> outputs = new ArrayList<ArrayJ>();
+    	for (int n = 0; n < count; n++)
+    		outputs.add(MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer"));
+    	return outputs;
+    }
+
+    private static void assertSameValues(ArrayJ expected, ArrayJ actual) {
+    	float[] e = new float[32 * 32];
+    	float[] a = new float[32 * 32];
+    	MemoryJ.readFloatBuffer(expected, e, e.length);
+    	MemoryJ.readFloatBuffer(actual, a, a.length);
+    	assertArrayEquals(e, a, 1e-5f);
+    }
+
+    @Test
+    public void testListOverloads() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	List<ArrayJ> inputs = inputs(device, 4);
+
+    	List<ArrayJ> blurred = Batch.gaussianBlur(device, inputs, null, 1, 2, 0);
+    	List<ArrayJ> topHat = Batch.topHat(device, inputs, null, 2, 2, 0, "box");
+    	Pipeline pipeline = Pipeline.on(device).gaussianBlur(1, 1, 0).topHatBox(2, 2, 0);
+    	List<ArrayJ> piped = pipeline.run(inputs, outputs(device, inputs.size()));
+    	assertEquals(inputs.size(), blurred.size());
+    	assertEquals(inputs.size(), topHat.size());
+    	assertEquals(inputs.size(), piped.size());
+    	// the batch restores the blocking mode
+    	assertFalse(device.isNonBlocking());
+
+    	for (int n = 0; n < inputs.size(); n++) {
+    		assertSameValues(Tier1.gaussianBlur(device, inputs.get(n), null, 1, 2, 0), blurred.get(n));
+    		assertSameValues(Tier2.topHat(device, inputs.get(n), null, 2, 2, 0, "box"), topHat.get(n));
+    		assertSameValues(pipeline.run(inputs.get(n)), piped.get(n));
+    	}
+    	pipeline.close();
+    }
+
+    @Test
+    public void testSingleProfilingEvent() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	List<ArrayJ> inputs = inputs(device, 3);
+    	List<OperationEvent> events = new ArrayList<OperationEvent>();
+    	device.addProfilingListener(events::add);
+    	device.setProfiling(true);
+    	try {
+    		Batch.topHat(device, inputs, null, 1, 1, 0, "box");
+    	} finally {
+    		device.setProfiling(false);
+    	}
+    	assertEquals(1, events.size());
+    	assertEquals("Tier2.topHat[3]", events.get(0).getName());
+    	assertEquals(OperationEvent.Kind.KERNEL, events.get(0).getKind());
+    	assertFalse(device.isNonBlocking());
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.ExecutionPlan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestExecutionPlan {
+
+    @Test
+    public void testCaptureAndReplay() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ first = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	first.fillMemory(1);
+    	ArrayJ scratch = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+
+    	ExecutionPlan plan = ExecutionPlan.capture(device, Arrays.asList(first), (d, in) -> {
+    		ArrayJ shifted = Tier1.addImageAndScalar(d, in.get(0), scratch, -3);
+    		return Arrays.asList(Tier1.absolute(d, shifted, null));
+    	});
+    	assertEquals(Arrays.asList("Tier1.addImageAndScalar", "Tier1.absolute"), plan.getCallNames());
+
+    	float[] values = new float[32 * 32];
+    	MemoryJ.readFloatBuffer(plan.replay(Arrays.asList(first)).get(0), values, values.length);
+    	assertEquals(2, values[0]);
+
+    	// new data is bound without copying and flows through the captured calls
+    	ArrayJ second = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	second.fillMemory(-4);
+    	List<ArrayJ> results = plan.replay(Arrays.asList(second));
+    	MemoryJ.readFloatBuffer(results.get(0), values, values.length);
+    	assertEquals(7, values[0]);
+
+    	// the array allocated while capturing is written again by every replay
+    	ArrayJ result = results.get(0);
+    	ArrayJ memory = new ArrayJ(result.getRaw(), device);
+    	assertSame(result, plan.replay(Arrays.asList(first)).get(0));
+    	assertTrue(result.sharesMemoryWith(memory));
+
+    	// the outputs are bound in place of the results, not copied
+    	ArrayJ output = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	assertSame(output, plan.replay(Arrays.asList(second), Arrays.asList(output)).get(0));
+    	assertTrue(result.sharesMemoryWith(output));
+    	MemoryJ.readFloatBuffer(output, values, values.length);
+    	assertEquals(7, values[0]);
+    	// and released by the next replay
+    	assertTrue(plan.replay(Arrays.asList(first)).get(0).sharesMemoryWith(memory));
+    	MemoryJ.readFloatBuffer(output, values, values.length);
+    	assertEquals(7, values[0]);
+
+    	ArrayJ other = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	assertThrows(IllegalArgumentException.class, () -> plan.replay(Arrays.asList(other)));
+    }
+
+    @Test
+    public void testPooledScratchStaysWithThePlan() throws Exception {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayPool pool = ArrayPool.forDevice(device);
+    	pool.evict();
+    	ArrayJ first = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	first.fillMemory(1);
+
+    	// the in-place mean writes into a scratch array of the pool and releases it
+    	ExecutionPlan plan = ExecutionPlan.capture(device, Arrays.asList(first), (d, in) -> {
+    		return Arrays.asList(Tier1.mean(d, in.get(0), in.get(0), 1, 1, 0, "box"));
+    	});
+    	assertEquals(0, pool.getPooledBytes());
+
+    	// an array acquired by other code is not the scratch array the plan writes into
+    	ArrayJ[] acquired = new ArrayJ[1];
+    	Thread other = new Thread(() -> acquired[0] = pool.acquire(device, DataType.FLOAT32, first.getDimensions(), "buffer"));
+    	other.start();
+    	other.join();
+    	acquired[0].fillMemory(5);
+    	plan.replay(Arrays.asList(first));
+    	float[] values = new float[32 * 32];
+    	MemoryJ.readFloatBuffer(acquired[0], values, values.length);
+    	assertEquals(5, values[0]);
+    	MemoryJ.readFloatBuffer(first, values, values.length);
+    	assertEquals(1, values[0], 1e-5f);
+
+    	plan.close();
+    	assertEquals(first.getSizeInBytes(), pool.getPooledBytes());
+    	assertThrows(IllegalStateException.class, () -> plan.replay(Arrays.asList(first)));
+    }
+}
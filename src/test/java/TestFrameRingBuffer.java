@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.pipeline.FrameRingBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFrameRingBuffer {
+
+    private static float[] read(ArrayJ array) {
+    	float[] values = new float[(int) (array.getWidth() * array.getHeight())];
+    	MemoryJ.readFloatBuffer(array, values, values.length);
+    	return values;
+    }
+
+    @Test
+    public void testWindowOperators() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	FrameRingBuffer window = new FrameRingBuffer(device, 4, 3, 3);
+    	ArrayJ frame = MemoryJ.makeFloatBuffer(device, new long[] {4, 3}, "buffer");
+    	// frames t = 0..4 with value t * t, the window ends with 4, 9, 16
+    	for (int t = 0; t < 5; t++) {
+    		float[] values = new float[12];
+    		for (int i = 0; i < values.length; i++)
+    			values[i] = t * t + i;
+    		MemoryJ.writeFloatBuffer(frame, values, values.length);
+    		window.push(frame);
+    		if (t == 0)
+    			assertEquals(0, read(window.derivative(null))[5]);
+    	}
+    	assertEquals(3, window.getCount());
+
+    	float[] mean = read(window.mean(null));
+    	float[] median = read(window.median(null));
+    	float[] derivative = read(window.derivative(null));
+    	for (int i = 0; i < 12; i++) {
+    		assertEquals((4 + 9 + 16) / 3f + i, mean[i], 1e-4);
+    		assertEquals(9 + i, median[i]);
+    		assertEquals(16 - 9, derivative[i]);
+    	}
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.pipeline.FrameStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class TestFrameStream {
+
+    @Test
+    public void testResultsInOrder() throws InterruptedException {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 64 * 64;
+    	List<float[]> results = Collections.synchronizedList(new ArrayList<float[]>());
+    	FrameStream<float[], float[]> stream = new FrameStream<float[], float[]>(device, new long[] {64, 64},
+    			DataType.FLOAT32, DataType.FLOAT32, 2,
+    			(frame, target) -> target.asFloatBuffer().put(frame),
+    			(d, in, out) -> Tier1.multiplyImageAndScalar(d, in, out, 2),
+    			source -> {
+    				float[] data = new float[n];
+    				source.asFloatBuffer().get(data);
+    				return data;
+    			},
+    			results::add);
+    	for (int i = 0; i < 20; i++) {
+    		float[] frame = new float[n];
+    		Arrays.fill(frame, i);
+    		stream.submit(frame);
+    	}
+    	stream.close();
+
+    	assertEquals(20, stream.getDeliveredCount());
+    	for (int i = 0; i < 20; i++)
+    		assertEquals(2 * i, results.get(i)[n - 1]);
+    	assertThrows(IllegalStateException.class, () -> stream.submit(new float[n]));
+    }
+
+    @Test
+    public void testSubmitBlocksAtCapacity() throws InterruptedException {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	CountDownLatch uploading = new CountDownLatch(1);
+    	CountDownLatch release = new CountDownLatch(1);
+    	FrameStream<float[], float[]> stream = new FrameStream<float[], float[]>(device, new long[] {4, 4},
+    			DataType.FLOAT32, DataType.FLOAT32, 2,
+    			(frame, target) -> {
+    				uploading.countDown();
+    				try {
+    					release.await();
+    				} catch (InterruptedException ex) {
+    					Thread.currentThread().interrupt();
+    				}
+    				target.asFloatBuffer().put(frame);
+    			},
+    			(d, in, out) -> Tier1.copy(d, in, out),
+    			source -> new float[0],
+    			result -> {});
+    	// the first frame is taken by the upload thread, the next two fill the queue
+    	stream.submit(new float[16]);
+    	uploading.await();
+    	stream.submit(new float[16]);
+    	stream.submit(new float[16]);
+
+    	Thread producer = new Thread(() -> {
+    		try {
+    			stream.submit(new float[16]);
+    		} catch (InterruptedException ex) {
+    			Thread.currentThread().interrupt();
+    		}
+    	});
+    	producer.start();
+    	producer.join(300);
+    	assertTrue(producer.isAlive(), "submit should block while 2 frames are waiting");
+
+    	release.countDown();
+    	producer.join(5000);
+    	assertFalse(producer.isAlive());
+    	stream.close();
+    	assertEquals(4, stream.getDeliveredCount());
+    }
+}
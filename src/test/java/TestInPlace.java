@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestInPlace {
+
+    private static float[] ramp(int n) {
+    	float[] values = new float[n];
+    	for (int i = 0; i < n; i++)
+    		values[i] = i % 7;
+    	return values;
+    }
+
+    @Test
+    public void testPointwiseInPlace() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ image = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	image.fillMemory(-2);
+
+    	ArrayJ result = Tier1.absolute(device, image, image);
+    	assertTrue(result.sharesMemoryWith(image));
+    	float[] values = new float[16 * 16];
+    	MemoryJ.readFloatBuffer(image, values, values.length);
+    	assertEquals(2, values[0]);
+    }
+
+    @Test
+    public void testNeighborhoodInPlace() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 32 * 32;
+    	ArrayJ image = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(image, ramp(n), n);
+    	ArrayJ expected = Tier1.mean(device, image, null, 1, 1, 0, "box");
+    	ArrayJ otherView = new ArrayJ(image.getRaw(), device);
+    	assertTrue(otherView.sharesMemoryWith(image));
+    	assertFalse(expected.sharesMemoryWith(image));
+
+    	ArrayPool pool = ArrayPool.forDevice(device);
+    	pool.evict();
+    	ArrayJ result = Tier1.mean(device, image, otherView, 1, 1, 0, "box");
+    	assertSame(otherView, result);
+    	// the scratch array went back to the pool
+    	assertEquals(image.getSizeInBytes(), pool.getPooledBytes());
+
+    	float[] expectedValues = new float[n];
+    	float[] values = new float[n];
+    	MemoryJ.readFloatBuffer(expected, expectedValues, n);
+    	MemoryJ.readFloatBuffer(image, values, n);
+    	assertArrayEquals(expectedValues, values, 1e-5f);
+    }
+
+    private static void assertSameValues(ArrayJ expected, ArrayJ actual, int n) {
+    	float[] expectedValues = new float[n];
+    	float[] values = new float[n];
+    	MemoryJ.readFloatBuffer(expected, expectedValues, n);
+    	MemoryJ.readFloatBuffer(actual, values, n);
+    	assertArrayEquals(expectedValues, values, 1e-5f);
+    }
+
+    @Test
+    public void testTransposeInPlace() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 16 * 16;
+    	ArrayJ image = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(image, ramp(n), n);
+    	ArrayJ expected = Tier1.transposeXy(device, image, null);
+
+    	ArrayJ result = Tier1.transposeXy(device, image, image);
+    	assertSame(image, result);
+    	assertSameValues(expected, image, n);
+    }
+
+    @Test
+    public void testSecondInputInPlace() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 16 * 16;
+    	ArrayJ image = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(image, ramp(n), n);
+    	ArrayJ kernel = MemoryJ.makeFloatBuffer(device, 3, 3, 1, 2, "buffer");
+    	kernel.fillMemory(1);
+    	ArrayJ expected = Tier1.convolve(device, image, kernel, null);
+
+    	ArrayJ result = Tier1.convolve(device, image, kernel, image);
+    	assertSame(image, result);
+    	assertSameValues(expected, image, n);
+    }
+
+    @Test
+    public void testPartialOutputInPlace() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 16 * 16;
+    	float[] values = ramp(n);
+    	ArrayJ image = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(image, values, n);
+    	ArrayJ flag = MemoryJ.makeFloatBuffer(device, 1, 1, 1, 1, "buffer");
+    	// the pixels the filter does not write have to keep their value
+    	ArrayJ expected = Tier1.copy(device, image, null);
+    	Tier1.nonzeroMaximum(device, image, flag, expected, "box");
+
+    	ArrayJ result = Tier1.nonzeroMaximum(device, image, flag, image, "box");
+    	assertSame(image, result);
+    	assertSameValues(expected, image, n);
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.LazyGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLazyGraph {
+
+    @Test
+    public void testDeferredChain() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayPool.forDevice(device).evict();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	in.fillMemory(-1);
+
+    	LazyGraph graph = new LazyGraph(device);
+    	LazyGraph.Node node = graph.input(in);
+    	for (int i = 0; i < 10; i ++)
+    		node = graph.apply("addImageAndScalar", (d, inputs, out) -> Tier1.addImageAndScalar(d, inputs[0], out, 1), node);
+    	LazyGraph.Node absolute = graph.apply("absolute", (d, inputs, out) -> Tier1.absolute(d, inputs[0], out), node);
+    	assertEquals(0, graph.getExecutedCount());
+    	assertFalse(absolute.isMaterialized());
+
+    	float sum = graph.reduce(absolute, a -> Tier2.sumOfAllPixels(device, a));
+    	assertEquals(9 * 32 * 32, sum);
+    	assertEquals(11, graph.getExecutedCount());
+    	// only two intermediates were ever alive at the same time, they are back in the pool
+    	assertEquals(2 * 32 * 32 * 4, ArrayPool.forDevice(device).getPooledBytes());
+
+    	// the last intermediate was released, consuming it again computes it once more
+    	LazyGraph.Node negative = graph.apply("multiplyImageAndScalar", (d, inputs, out) -> Tier1.multiplyImageAndScalar(d, inputs[0], out, -1), node);
+    	ArrayJ result = graph.pull(negative);
+    	float[] values = new float[32 * 32];
+    	MemoryJ.readFloatBuffer(result, values, values.length);
+    	assertEquals(-9, values[0]);
+    	assertEquals(22, graph.getExecutedCount());
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.MemoryQuotaExceededException;
+import net.clesperanto.core.MemoryTracker;
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.ArrayPool;
+import net.clesperanto.core.DataType;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+public class TestMemoryTracker {
+
+    /**
+     * Collect the unreachable arrays until their phantom references have all been drained,
+     * so that no release happens while the test counts its own arrays
+     */
+    private static long settle(MemoryTracker tracker) throws InterruptedException {
+    	long previous = -1;
+    	for (int i = 0; i < 50; i++) {
+    		tracker.cleanup();
+    		long allocated = tracker.getAllocatedBytes(DataType.FLOAT32);
+    		if (allocated == previous)
+    			return allocated;
+    		previous = allocated;
+    		Thread.sleep(20);
+    	}
+    	return previous;
+    }
+
+    @Test
+    public void testAccounting() throws InterruptedException {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	MemoryTracker tracker = device.getMemoryTracker();
+    	long before = settle(tracker);
+
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	assertEquals(before + 16 * 16 * 4, tracker.getAllocatedBytes(DataType.FLOAT32));
+
+    	// passing the output explicitly must not count the same memory twice
+    	ArrayJ out = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	Tier1.absolute(device, in, out);
+    	assertEquals(before + 2 * 16 * 16 * 4, tracker.getAllocatedBytes(DataType.FLOAT32));
+
+    	// outputs created by the kernels are counted too
+    	ArrayJ created = Tier1.absolute(device, in, null);
+    	assertEquals(before + 3 * 16 * 16 * 4, tracker.getAllocatedBytes(DataType.FLOAT32));
+    	assertNotNull(created);
+
+    	// memory freed while its arrays are waiting to be drained must not hide a new allocation
+    	in = null;
+    	out = null;
+    	created = null;
+    	for (int i = 0; i < 20; i++)
+    		MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    	assertEquals(before, settle(tracker));
+    }
+
+    @Test
+    public void testHardQuota() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	MemoryTracker tracker = device.getMemoryTracker();
+    	tracker.cleanup();
+    	long allocated = tracker.getAllocatedBytes();
+    	tracker.setQuota(0, allocated + 1024 * 4);
+    	try {
+    		ArrayJ small = MemoryJ.makeFloatBuffer(device, 1024, 1, 1, 1, "buffer");
+    		assertThrows(MemoryQuotaExceededException.class,
+    				() -> MemoryJ.makeFloatBuffer(device, 1024, 1, 1, 1, "buffer"));
+    		small = null;
+    		// once the first array is unreachable the cleanup should make room for the new one
+    		assertNotNull(MemoryJ.makeFloatBuffer(device, 1024, 1, 1, 1, "buffer"));
+    	} finally {
+    		tracker.setQuota(0, 0);
+    	}
+    }
+
+    @Test
+    public void testSpillSizeGuard() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	assertTrue(MemoryJ.makeFloatBuffer(device, 1024, 1, 1, 1, "buffer").isSpillable());
+    	ArrayJ large;
+    	try {
+    		// one byte more than the largest host buffer
+    		large = MemoryJ.makeUByteBuffer(device, ArrayJ.MAX_SPILL_BYTES + 1, 1, 1, 1, "buffer");
+    	} catch (RuntimeException ex) {
+    		Assumptions.abort("The device cannot allocate " + (ArrayJ.MAX_SPILL_BYTES + 1) + " bytes: " + ex.getMessage());
+    		return;
+    	}
+    	assertEquals(ArrayJ.MAX_SPILL_BYTES + 1, large.getSizeInBytes());
+    	assertFalse(large.isSpillable());
+    }
+
+    @Test
+    public void testArrayPool() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayPool pool = ArrayPool.forDevice(device);
+    	pool.evict();
+
+    	ArrayJ first = pool.acquire(device, DataType.FLOAT32, new long[] {32, 32}, "buffer");
+    	pool.release(first);
+    	assertEquals(32 * 32 * 4, pool.getPooledBytes());
+
+    	// the same shape and type reuses the free array, a different one allocates a new array
+    	assertSame(first, pool.acquire(device, DataType.FLOAT32, new long[] {32, 32, 1}, "buffer"));
+    	assertEquals(0, pool.getPooledBytes());
+    	assertNotSame(first, pool.acquire(device, DataType.INT32, new long[] {32, 32}, "buffer"));
+
+    	pool.release(first);
+    	pool.evict();
+    	assertEquals(0, pool.getPooledBytes());
+    	assertFalse(first.isSpilled());
+    }
+
+    @Test
+    public void testSoftQuotaGcRateLimited() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	MemoryTracker tracker = device.getMemoryTracker();
+    	long soft = tracker.getSoftQuota();
+    	long hard = tracker.getHardQuota();
+    	ArrayJ[] arrays = new ArrayJ[50];
+    	long before = gcCount();
+    	try {
+    		tracker.setQuota(1, 0);
+    		for (int i = 0; i < arrays.length; i++)
+    			arrays[i] = MemoryJ.makeFloatBuffer(device, 16, 16, 1, 2, "buffer");
+    		// every allocation is over the soft quota, but the collections are rate limited
+    		assertTrue(gcCount() - before < arrays.length / 2, "too many garbage collections");
+    	} finally {
+    		tracker.setQuota(soft, hard);
+    	}
+    	assertNotNull(arrays[arrays.length - 1]);
+    }
+
+    private static long gcCount() {
+    	long count = 0;
+    	for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+    		count += Math.max(0, gc.getCollectionCount());
+    	return count;
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.kernels.Tier7;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.pipeline.ParameterSweep;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+public class TestParameterSweep {
+
+    @Test
+    public void testVoronoiOtsuSweep() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 64 * 64;
+    	float[] data = new float[n];
+    	for (int y = 0; y < 64; y++) {
+    		for (int x = 0; x < 64; x++)
+    			data[x + 64 * y] = ((x / 16 + y / 16) % 2 == 0) ? 100 : 0;
+    	}
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 64, 64, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(input, data, n);
+
+    	float[] spotSigmas = new float[] {1, 2, 3};
+    	float[] outlineSigmas = new float[] {1, 2};
+    	ParameterSweep sweep = ParameterSweep.voronoiOtsuLabeling(device, spotSigmas, outlineSigmas);
+    	Map<ParameterSweep.Point, Float> counts = sweep.evaluate(input, labels -> Tier2.maximumOfAllPixels(device, labels));
+    	assertEquals(6, counts.size());
+    	// 3 spot blurs and detections, 2 outline blurs and thresholds, then 6 binary ands and labelings
+    	assertEquals(3 + 3 + 2 + 2 + 6 + 6, sweep.getExecutedCount());
+
+    	for (ParameterSweep.Point point : sweep.getPoints()) {
+    		ArrayJ expected = Tier7.voronoiOtsuLabeling(device, input, null, point.get("spot_sigma"), point.get("outline_sigma"));
+    		assertEquals(Tier2.maximumOfAllPixels(device, expected), counts.get(point));
+    	}
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.kernels.Tier2;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.pipeline.Pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPipeline {
+
+    @Test
+    public void testPingPong() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	in.fillMemory(3);
+
+    	Pipeline pipeline = Pipeline.on(device).gaussianBlur(1, 1, 0).meanBox(1, 1, 0).topHatBox(2, 2, 0).gaussianBlur(1, 1, 0);
+    	ArrayJ result = pipeline.run(in);
+    	// four float steps alternate between two scratch arrays
+    	assertEquals(2, pipeline.getScratchCount());
+
+    	ArrayJ expected = Tier1.gaussianBlur(device, in, null, 1, 1, 0);
+    	expected = Tier1.mean(device, expected, null, 1, 1, 0, "box");
+    	expected = Tier2.topHat(device, expected, null, 2, 2, 0, "box");
+    	expected = Tier1.gaussianBlur(device, expected, null, 1, 1, 0);
+    	float[] expectedValues = new float[32 * 32];
+    	float[] values = new float[32 * 32];
+    	MemoryJ.readFloatBuffer(expected, expectedValues, expectedValues.length);
+    	MemoryJ.readFloatBuffer(result, values, values.length);
+    	assertArrayEquals(expectedValues, values, 1e-5f);
+
+    	// a second input of the same shape reuses the scratch arrays
+    	ArrayJ other = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	assertSame(result, pipeline.run(other));
+    	assertEquals(2, pipeline.getScratchCount());
+    	pipeline.close();
+    	assertEquals(0, pipeline.getScratchCount());
+    }
+
+    @Test
+    public void testSegmentation() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	in.fillMemory(1);
+
+    	try (Pipeline pipeline = Pipeline.on(device).gaussianBlur(2, 2, 0).thresholdOtsu().connectedComponentsLabeling("box")) {
+    		ArrayJ labels = pipeline.run(in);
+    		assertEquals("uint", labels.getDataType());
+    		// one float, one binary and one label array
+    		assertEquals(3, pipeline.getScratchCount());
+    	}
+    }
+}
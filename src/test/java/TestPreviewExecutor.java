@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.kernels.Tier6;
+import net.clesperanto.pipeline.PreviewExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPreviewExecutor {
+
+    @Test
+    public void testPreviewAndRefinement() throws Exception {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int width = 64;
+    	int height = 48;
+    	float[] values = new float[width * height];
+    	for (int y = 0; y < height; y++)
+    		for (int x = 0; x < width; x++)
+    			values[y * width + x] = (x / 16 + y / 16) % 2 == 0 ? 200 : 10;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, new long[] {width, height}, "buffer");
+    	MemoryJ.writeFloatBuffer(input, values, values.length);
+
+    	try (PreviewExecutor executor = new PreviewExecutor(device, 4)) {
+    		PreviewExecutor.Preview first = executor.preview(input, PreviewExecutor.gaussOtsuLabeling(2));
+    		PreviewExecutor.Preview second = executor.preview(input, PreviewExecutor.gaussOtsuLabeling(2));
+    		assertTrue(first.isCancelled());
+    		assertEquals(0.25f, second.getScale());
+    		assertEquals(width / 4, second.getCoarse().getWidth());
+    		assertEquals(height / 4, second.getCoarse().getHeight());
+
+    		ArrayJ refined = second.getRefinement().get();
+    		assertEquals(width, refined.getWidth());
+    		ArrayJ expected = Tier6.gaussOtsuLabeling(device, input, null, 2);
+    		int[] e = new int[width * height];
+    		int[] r = new int[width * height];
+    		MemoryJ.readUIntBuffer(expected, e, e.length);
+    		MemoryJ.readUIntBuffer(refined, r, r.length);
+    		assertArrayEquals(e, r);
+    	}
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.DeviceEvent;
+import net.clesperanto.core.OperationEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestProfiling {
+
+    @Test
+    public void testProfilingEvents() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	List<OperationEvent> events = new ArrayList<OperationEvent>();
+    	device.addProfilingListener(events::add);
+
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 64, 64, 1, 2, "buffer");
+    	in.fillMemory(-1);
+    	assertTrue(events.isEmpty());
+
+    	device.setProfiling(true);
+    	ArrayJ out = Tier1.absolute(device, in, null);
+    	float[] result = new float[64 * 64];
+    	MemoryJ.readFloatBuffer(out, result, result.length);
+    	device.setProfiling(false);
+
+    	assertEquals(2, events.size());
+    	assertEquals("Tier1.absolute", events.get(0).getName());
+    	assertEquals(OperationEvent.Kind.KERNEL, events.get(0).getKind());
+    	assertEquals("MemoryJ.readFloatBuffer", events.get(1).getName());
+    	assertEquals(OperationEvent.Kind.TRANSFER, events.get(1).getKind());
+    	for (OperationEvent event : events) {
+    		assertTrue(event.getStart() <= event.getReturned());
+    		assertTrue(event.getReturned() <= event.getEnd());
+    		assertEquals(event.getTotalTime(), event.getCallTime() + event.getWaitTime());
+    	}
+    	assertEquals(1, result[0]);
+    }
+
+    @Test
+    public void testNonBlocking() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 256, 256, 1, 2, "buffer");
+    	in.fillMemory(-1);
+
+    	device.setNonBlocking(true);
+    	try {
+    		assertTrue(device.isNonBlocking());
+    		// the mode belongs to the native device, not to the Java object
+    		assertTrue(DeviceJ.getDefaultDevice().isNonBlocking());
+    		ArrayJ out = in;
+    		for (int i = 0; i < 10; i++)
+    			out = Tier1.addImageAndScalar(device, out, null, 1);
+    		device.flush();
+    		DeviceEvent barrier = device.enqueueBarrier();
+    		barrier.await();
+    		assertTrue(barrier.isComplete());
+    		// reading waits for the queue
+    		float[] result = new float[256 * 256];
+    		MemoryJ.readFloatBuffer(out, result, result.length);
+    		assertEquals(9, result[0]);
+    	} finally {
+    		device.setNonBlocking(false);
+    	}
+    	assertFalse(device.isNonBlocking());
+    }
+
+    @Test
+    public void testWaitCoversTheKernel() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	List<OperationEvent> events = new ArrayList<OperationEvent>();
+    	device.addProfilingListener(events::add);
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 1024, 1024, 1, 2, "buffer");
+    	in.fillMemory(1);
+    	// warm up, so that the program is compiled before profiling
+    	Tier1.gaussianBlur(device, in, null, 20, 20, 0);
+
+    	assertFalse(device.isNonBlocking());
+    	device.setProfiling(true);
+    	Tier1.gaussianBlur(device, in, null, 20, 20, 0);
+    	device.setProfiling(false);
+
+    	assertEquals(1, events.size());
+    	assertTrue(events.get(0).getWaitTime() > 0, "the kernel runs after the call returned");
+    	// the blocking mode is restored after the call
+    	assertFalse(device.isNonBlocking());
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.pipeline.PyramidBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPyramidBuilder {
+
+    @Test
+    public void testMeanAndMaximum() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	// 5x3, odd sizes keep a last partial block
+    	float[] values = new float[] {
+    			1, 2, 3, 4, 5,
+    			6, 7, 8, 9, 10,
+    			11, 12, 13, 14, 15};
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, new long[] {5, 3}, "buffer");
+    	MemoryJ.writeFloatBuffer(input, values, values.length);
+
+    	List<ArrayJ> mean = new PyramidBuilder(device).setLevels(10).build(input);
+    	// 5x3, 3x2, 2x1, 1x1
+    	assertEquals(4, mean.size());
+    	assertSame(input, mean.get(0));
+    	float[] level1 = new float[6];
+    	MemoryJ.readFloatBuffer(mean.get(1), level1, level1.length);
+    	assertArrayEquals(new float[] {4, 6, 7.5f, 11.5f, 13.5f, 15}, level1, 1e-5f);
+    	assertEquals(1, mean.get(3).getWidth());
+    	assertEquals(1, mean.get(3).getHeight());
+
+    	List<ArrayJ> max = new PyramidBuilder(device).setLevels(2).setReduction(PyramidBuilder.Reduction.MAXIMUM)
+    			.build(input);
+    	assertEquals(2, max.size());
+    	MemoryJ.readFloatBuffer(max.get(1), level1, level1.length);
+    	assertArrayEquals(new float[] {7, 9, 10, 12, 14, 15}, level1);
+    }
+
+    @Test
+    public void testMeanOfIntegerImageIsRounded() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	// block means 2.5, 2.25 and 2.75, which would all be 2 if truncated
+    	byte[] values = new byte[] {
+    			1, 2, 1, 1, 2, 2,
+    			3, 4, 3, 4, 3, 4};
+    	ArrayJ input = MemoryJ.makeUByteBuffer(device, new long[] {6, 2}, "buffer");
+    	MemoryJ.writeUByteBuffer(input, values, values.length);
+
+    	List<ArrayJ> mean = new PyramidBuilder(device).setLevels(2).build(input);
+    	assertEquals(input.getDataType(), mean.get(1).getDataType());
+    	byte[] level1 = new byte[3];
+    	MemoryJ.readUByteBuffer(mean.get(1), level1, level1.length);
+    	assertArrayEquals(new byte[] {3, 2, 3}, level1);
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.ResultCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+public class TestResultCache {
+
+    @Test
+    public void testMemoization() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ResultCache cache = ResultCache.forDevice(device);
+    	cache.invalidateAll();
+    	ArrayJ in = MemoryJ.makeFloatBuffer(device, 32, 32, 1, 2, "buffer");
+    	in.fillMemory(1);
+
+    	int[] calls = new int[1];
+    	ArrayJ first = cache.compute("gaussianBlur", Arrays.asList(in), new Object[] {2f}, () -> {
+    		calls[0]++;
+    		return Tier1.gaussianBlur(device, in, null, 2, 2, 0);
+    	});
+    	ArrayJ second = cache.compute("gaussianBlur", Arrays.asList(in), new Object[] {2f}, () -> {
+    		calls[0]++;
+    		return Tier1.gaussianBlur(device, in, null, 2, 2, 0);
+    	});
+    	assertSame(first, second);
+    	assertEquals(1, calls[0]);
+
+    	// other parameters or modified content are computed again
+    	cache.compute("gaussianBlur", Arrays.asList(in), new Object[] {3f}, () -> {
+    		calls[0]++;
+    		return Tier1.gaussianBlur(device, in, null, 3, 3, 0);
+    	});
+    	in.fillMemory(2);
+    	cache.compute("gaussianBlur", Arrays.asList(in), new Object[] {2f}, () -> {
+    		calls[0]++;
+    		return Tier1.gaussianBlur(device, in, null, 2, 2, 0);
+    	});
+    	assertEquals(3, calls[0]);
+    	assertEquals(3, cache.size());
+
+    	// the budget evicts the least recently used results
+    	cache.setMaxBytes(2 * 32 * 32 * 4);
+    	assertEquals(2, cache.size());
+    	cache.invalidate("gaussianBlur");
+    	assertEquals(0, cache.size());
+    	assertEquals(0, cache.getCachedBytes());
+    	cache.setMaxBytes(256L * 1024 * 1024);
+    }
+
+    @Test
+    public void testContentHashOfWideRows() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	// rows of 200 pixels, hashed in 4 blocks, the last one partial
+    	float[] data = new float[200 * 3];
+    	ArrayJ array = MemoryJ.makeFloatBuffer(device, 200, 3, 1, 2, "buffer");
+    	MemoryJ.writeFloatBuffer(array, data, data.length);
+    	long hash = ResultCache.contentHash(device, array);
+    	assertEquals(hash, ResultCache.contentHash(device, array));
+
+    	data[599] = 1;
+    	MemoryJ.writeFloatBuffer(array, data, data.length);
+    	assertNotEquals(hash, ResultCache.contentHash(device, array));
+    }
+}
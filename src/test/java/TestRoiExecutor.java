@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.pipeline.RoiExecutor;
+import net.clesperanto.pipeline.TileOperation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRoiExecutor {
+
+    @Test
+    public void testBoxesMatchWholeImage() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int width = 60;
+    	int height = 40;
+    	float[] values = new float[width * height];
+    	for (int i = 0; i < values.length; i++)
+    		values[i] = (i * 7919) % 255;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, new long[] {width, height}, "buffer");
+    	MemoryJ.writeFloatBuffer(input, values, values.length);
+
+    	TileOperation operation = TileOperation.gaussianBlur(1.5f, 1.5f, 0);
+    	float[] whole = new float[values.length];
+    	MemoryJ.readFloatBuffer(operation.apply(device, input, null), whole, whole.length);
+
+    	// the second box sticks out of the image
+    	RoiExecutor.Box first = RoiExecutor.Box.of(10, 5, 0, 12, 8, 1);
+    	RoiExecutor.Box second = RoiExecutor.Box.of(50, 30, 0, 20, 20, 1);
+    	ArrayJ output = new RoiExecutor(device).execute(input, operation, null, first, second);
+    	float[] result = new float[values.length];
+    	MemoryJ.readFloatBuffer(output, result, result.length);
+
+    	for (int y = 0; y < height; y++) {
+    		for (int x = 0; x < width; x++) {
+    			int i = y * width + x;
+    			boolean inside = x >= 10 && x < 22 && y >= 5 && y < 13 || x >= 50 && y >= 30;
+    			assertEquals(inside ? whole[i] : values[i], result[i], 1e-4);
+    		}
+    	}
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.TemporalStatistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTemporalStatistics {
+
+    private static float[] read(ArrayJ array) {
+    	float[] values = new float[(int) (array.getWidth() * array.getHeight() * array.getDepth())];
+    	MemoryJ.readFloatBuffer(array, values, values.length);
+    	return values;
+    }
+
+    @Test
+    public void testStatistics() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	long[] dims = new long[] {4, 3};
+    	TemporalStatistics statistics = new TemporalStatistics(device, dims);
+    	ArrayJ frame = MemoryJ.makeFloatBuffer(device, dims, "buffer");
+    	int n = 50;
+    	for (int t = 0; t < n; t++) {
+    		float[] values = new float[12];
+    		for (int i = 0; i < values.length; i++)
+    			values[i] = 1000 + i + t;
+    		// pixel 0 is missing in every other frame
+    		if (t % 2 == 1)
+    			values[0] = Float.NaN;
+    		MemoryJ.writeFloatBuffer(frame, values, values.length);
+    		statistics.add(frame);
+    		if (t == 9) {
+    			float[] mean = read(statistics.getMean());
+    			assertEquals(1000 + 5 + 4.5f, mean[5], 1e-3);
+    		}
+    	}
+    	assertEquals(n, statistics.getFrameCount());
+
+    	float[] count = read(statistics.getCount());
+    	float[] mean = read(statistics.getMean());
+    	float[] variance = read(statistics.getVariance());
+    	float[] std = read(statistics.getStandardDeviation());
+    	float[] min = read(statistics.getMinimum());
+    	float[] max = read(statistics.getMaximum());
+    	for (int i = 1; i < 12; i++) {
+    		assertEquals(n, count[i]);
+    		assertEquals(1000 + i + (n - 1) / 2f, mean[i], 1e-3);
+    		// variance of 0..n-1
+    		assertEquals((n * n - 1) / 12f, variance[i], 1e-2);
+    		assertEquals(Math.sqrt((n * n - 1) / 12f), std[i], 1e-3);
+    		assertEquals(1000 + i, min[i]);
+    		assertEquals(1000 + i + n - 1, max[i]);
+    	}
+    	assertEquals(n / 2, count[0]);
+    	assertEquals(1000, min[0]);
+    	assertEquals(1000 + n - 2, max[0]);
+    }
+}
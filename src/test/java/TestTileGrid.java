@@ -0,0 +1,38 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.core.TileGrid;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTileGrid {
+
+    @Test
+    public void testTilesAndIndex() {
+    	// 10x5 from (2, 1), the last tiles are cut at the border
+    	TileGrid grid = new TileGrid(new long[] {2, 1}, new long[] {11, 5}, new long[] {4, 3, 7});
+    	assertEquals(6, grid.size());
+    	assertArrayEquals(new long[] {3, 2}, grid.getTileCounts());
+    	List<TileGrid.Tile> tiles = new ArrayList<TileGrid.Tile>();
+    	for (TileGrid.Tile tile : grid)
+    		tiles.add(tile);
+    	assertEquals(6, tiles.size());
+    	assertArrayEquals(new long[] {2, 1}, tiles.get(0).getMin());
+    	assertArrayEquals(new long[] {5, 3}, tiles.get(0).getMax());
+    	assertArrayEquals(new long[] {10, 1}, tiles.get(2).getMin());
+    	assertArrayEquals(new long[] {11, 3}, tiles.get(2).getMax());
+    	assertArrayEquals(new long[] {2, 3}, tiles.get(2).getDimensions());
+    	assertArrayEquals(new long[] {6, 4}, tiles.get(4).getMin());
+    	assertArrayEquals(new long[] {9, 5}, tiles.get(4).getMax());
+    	for (int t = 0; t < tiles.size(); t++) {
+    		assertEquals(t, grid.indexOf(tiles.get(t).getMin()));
+    		assertEquals(t, grid.indexOf(tiles.get(t).getMax()));
+    	}
+
+    	TileGrid.Tile region = grid.expand(tiles.get(4), new long[] {2, 2, 2});
+    	assertArrayEquals(new long[] {4, 2}, region.getMin());
+    	assertArrayEquals(new long[] {11, 5}, region.getMax());
+    }
+}
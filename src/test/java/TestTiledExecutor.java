@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.imglib2.ImgLib2Converters;
+import net.clesperanto.imglib2.TiledExecutor;
+import net.clesperanto.pipeline.TileOperation;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.view.Views;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTiledExecutor {
+
+    @Test
+    public void testTiledMatchesWholeImage() {
+    	long[] dims = new long[] {70, 50, 12};
+    	float[] values = new float[70 * 50 * 12];
+    	for (int i = 0; i < values.length; i++)
+    		values[i] = (i * 7919) % 255;
+    	ArrayImg<FloatType, FloatArray> input = ArrayImgs.floats(values, dims);
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	TileOperation operation = TileOperation.gaussianBlur(1.5f, 1.5f, 1).then(TileOperation.maximumBox(2, 2, 1));
+    	assertArrayEquals(new long[] {7 + 2, 7 + 2, 5 + 1}, operation.getHalo());
+
+    	ArrayJ whole = operation.apply(device, ImgLib2Converters.copyImgLib2ToArrayJ(input, device, "buffer"), null);
+    	RandomAccessibleInterval<FloatType> expected = ImgLib2Converters.copyArrayJToImgLib2(whole);
+
+    	ArrayImg<FloatType, FloatArray> tiled = ArrayImgs.floats(dims);
+    	new TiledExecutor(device, new long[] {32, 16, 5}).execute(input, operation, tiled);
+
+    	float[] result = tiled.update(null).getCurrentStorageArray();
+    	int i = 0;
+    	for (FloatType px : Views.flatIterable(expected))
+    		assertEquals(px.get(), result[i++]);
+    }
+}
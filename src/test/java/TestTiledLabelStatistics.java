@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.imglib2.ImgLib2Converters;
+import net.clesperanto.imglib2.TiledLabelStatistics;
+import net.clesperanto.kernels.Tier3;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.img.basictypeaccess.array.IntArray;
+import net.imglib2.type.numeric.integer.UnsignedIntType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTiledLabelStatistics {
+
+    @Test
+    public void testTiledMatchesWholeImage() {
+    	long[] dims = new long[] {30, 20, 6};
+    	int[] labels = new int[30 * 20 * 6];
+    	float[] intensities = new float[labels.length];
+    	for (int z = 0; z < 6; z++) {
+    		for (int y = 0; y < 20; y++) {
+    			for (int x = 0; x < 30; x++) {
+    				int i = (z * 20 + y) * 30 + x;
+    				// blocks of 7x6x3 pixels spanning several tiles, with some background
+    				labels[i] = (x + y) % 11 == 0 ? 0 : 1 + x / 7 + 5 * (y / 6) + 20 * (z / 3);
+    				intensities[i] = (i * 7919) % 101;
+    			}
+    		}
+    	}
+    	ArrayImg<UnsignedIntType, IntArray> labelImg = ArrayImgs.unsignedInts(labels, dims);
+    	ArrayImg<FloatType, FloatArray> intensityImg = ArrayImgs.floats(intensities, dims);
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	HashMap<String, ArrayList<Float>> expected = Tier3.statisticsOfLabelledPixels(device,
+    			ImgLib2Converters.copyImgLib2ToArrayJ(labelImg, device, "buffer"),
+    			ImgLib2Converters.copyImgLib2ToArrayJ(intensityImg, device, "buffer"));
+    	HashMap<String, ArrayList<Float>> tiled = new TiledLabelStatistics(new long[] {8, 8, 4}, device)
+    			.compute(labelImg, intensityImg);
+
+    	ArrayList<Float> tiledLabels = tiled.get("label");
+    	int compared = 0;
+    	for (int row = 0; row < expected.get("label").size(); row++) {
+    		if (expected.get("area").get(row) == 0)
+    			continue;
+    		int tiledRow = tiledLabels.indexOf(expected.get("label").get(row));
+    		assertTrue(tiledRow >= 0);
+    		for (String column : new String[] {"area", "bbox_min_x", "bbox_max_y", "bbox_depth", "sum_intensity",
+    				"mean_intensity", "standard_deviation_intensity", "min_intensity", "max_intensity", "centroid_x",
+    				"centroid_z", "mass_center_y"}) {
+    			float e = expected.get(column).get(row);
+    			assertEquals(e, tiled.get(column).get(tiledRow), 1e-3 * Math.max(1, Math.abs(e)), column);
+    		}
+    		compared++;
+    	}
+    	assertEquals(compared, tiledLabels.size());
+    }
+
+    @Test
+    public void testHighOffsetLowVariance() {
+    	long[] dims = new long[] {40, 40};
+    	int[] labels = new int[40 * 40];
+    	float[] intensities = new float[labels.length];
+    	double sum = 0;
+    	for (int i = 0; i < labels.length; i++) {
+    		// a single label over all the tiles, intensities around 3e4 with a standard deviation of about 10
+    		labels[i] = 1;
+    		intensities[i] = 30000 + (i * 7919) % 35 - 17;
+    		sum += intensities[i];
+    	}
+    	double mean = sum / labels.length;
+    	double m2 = 0;
+    	for (float v : intensities)
+    		m2 += (v - mean) * (v - mean);
+    	double std = Math.sqrt(m2 / labels.length);
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	HashMap<String, ArrayList<Float>> tiled = new TiledLabelStatistics(new long[] {16, 16}, device)
+    			.compute(ArrayImgs.unsignedInts(labels, dims), ArrayImgs.floats(intensities, dims));
+    	int row = tiled.get("label").indexOf(1f);
+    	assertEquals(mean, tiled.get("mean_intensity").get(row), 1e-2);
+    	assertEquals(std, tiled.get("standard_deviation_intensity").get(row), 1e-2 * std);
+    }
+}
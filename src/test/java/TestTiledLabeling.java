@@ -0,0 +1,60 @@
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.imglib2.ImgLib2Converters;
+import net.clesperanto.imglib2.TiledLabeling;
+import net.clesperanto.kernels.Tier5;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.ByteArray;
+import net.imglib2.img.basictypeaccess.array.IntArray;
+import net.imglib2.loops.LoopBuilder;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.integer.UnsignedIntType;
+import net.imglib2.view.Views;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTiledLabeling {
+
+    @Test
+    public void testTiledMatchesWholeImage() {
+    	long[] dims = new long[] {40, 30};
+    	byte[] values = new byte[40 * 30];
+    	for (int y = 0; y < 30; y++) {
+    		for (int x = 0; x < 40; x++) {
+    			// a U shape whose arms are only connected through another tile, a diagonal line and some spots
+    			boolean u = (x == 5 || x == 25) && y >= 2 && y < 28 || y == 27 && x >= 5 && x <= 25;
+    			boolean diagonal = x == y + 8 && x > 30;
+    			boolean spot = x % 7 == 3 && y % 9 == 4;
+    			values[y * 40 + x] = (byte) (u || diagonal || spot ? 1 : 0);
+    		}
+    	}
+    	ArrayImg<UnsignedByteType, ByteArray> input = ArrayImgs.unsignedBytes(values, dims);
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ whole = Tier5.connectedComponentsLabeling(device, ImgLib2Converters.copyImgLib2ToArrayJ(input, device, "buffer"),
+    			null, "box");
+    	RandomAccessibleInterval<UnsignedIntType> expected = ImgLib2Converters.copyArrayJToImgLib2(whole);
+    	while (expected.numDimensions() > 2)
+    		expected = Views.hyperSlice(expected, expected.numDimensions() - 1, 0);
+
+    	ArrayImg<UnsignedIntType, IntArray> tiled = ArrayImgs.unsignedInts(dims);
+    	long count = new TiledLabeling(device, new long[] {8, 8}).connectedComponentsLabeling(input, tiled, "box");
+
+    	// same partition up to the numbering of the labels
+    	Map<Long, Long> mapping = new HashMap<Long, Long>();
+    	Map<Long, Long> inverse = new HashMap<Long, Long>();
+    	LoopBuilder.setImages(expected, tiled).forEachPixel((e, t) -> {
+    		assertEquals(e.get() == 0, t.get() == 0);
+    		assertEquals(mapping.computeIfAbsent(e.get(), k -> t.get()), t.get());
+    		assertEquals(inverse.computeIfAbsent(t.get(), k -> e.get()), e.get());
+    	});
+    	assertEquals(mapping.size() - 1, count);
+    }
+}
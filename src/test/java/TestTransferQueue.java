@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import net.clesperanto.kernels.Tier1;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceEvent;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.TransferQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class TestTransferQueue {
+
+    @Test
+    public void testTransfersOrderedByEvents() {
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	int n = 64 * 64;
+    	ArrayJ input = MemoryJ.makeFloatBuffer(device, 64, 64, 1, 2, "buffer");
+    	ArrayJ output = MemoryJ.makeFloatBuffer(device, 64, 64, 1, 2, "buffer");
+    	ByteBuffer source = ByteBuffer.allocateDirect(n * 4).order(ByteOrder.nativeOrder());
+    	ByteBuffer target = ByteBuffer.allocateDirect(n * 4).order(ByteOrder.nativeOrder());
+    	for (int i = 0; i < n; i++)
+    		source.putFloat(i * 4, i);
+
+    	TransferQueue queue = new TransferQueue(device);
+    	DeviceEvent uploaded = queue.write(source, input, null);
+    	DeviceEvent processed;
+    	synchronized (device.getLock()) {
+    		uploaded.enqueueWait(device);
+    		Tier1.multiplyImageAndScalar(device, input, output, 3);
+    		processed = device.enqueueBarrier();
+    	}
+    	DeviceEvent downloaded = queue.read(output, target, processed);
+    	downloaded.await();
+    	assertTrue(downloaded.isComplete());
+    	assertEquals(3 * (n - 1), target.getFloat((n - 1) * 4));
+
+    	assertThrows(IllegalArgumentException.class, () -> queue.write(ByteBuffer.allocate(n * 4), input, null));
+    	assertThrows(IllegalArgumentException.class, () -> queue.read(output, ByteBuffer.allocateDirect(16), null));
+    }
+}
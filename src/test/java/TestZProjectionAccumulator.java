@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+
+import ij.ImageStack;
+import ij.process.ShortProcessor;
+import net.clesperanto.imagej.ImageJConverters;
+import net.clesperanto.imglib2.ImgLib2Converters;
+import net.clesperanto.kernels.Tier1;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.type.numeric.real.FloatType;
+import net.clesperanto.core.ArrayJ;
+import net.clesperanto.core.DeviceJ;
+import net.clesperanto.core.MemoryJ;
+import net.clesperanto.core.ZProjectionAccumulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestZProjectionAccumulator {
+
+    private static float[] read(ArrayJ array) {
+    	float[] values = new float[(int) (array.getWidth() * array.getHeight())];
+    	MemoryJ.readFloatBuffer(array, values, values.length);
+    	return values;
+    }
+
+    private static void assertClose(ArrayJ expected, ArrayJ actual) {
+    	float[] e = read(expected);
+    	float[] a = read(actual);
+    	for (int i = 0; i < e.length; i++)
+    		assertEquals(e[i], a[i], 1e-3 * Math.max(1, Math.abs(e[i])));
+    }
+
+    @Test
+    public void testImgLib2Slabs() {
+    	long[] dims = new long[] {20, 15, 11};
+    	float[] values = new float[20 * 15 * 11];
+    	for (int i = 0; i < values.length; i++)
+    		values[i] = (i * 7919) % 255;
+    	ArrayImg<FloatType, FloatArray> input = ArrayImgs.floats(values, dims);
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ArrayJ whole = ImgLib2Converters.copyImgLib2ToArrayJ(input, device, "buffer");
+    	// 11 planes in slabs of 4, the last one is thinner
+    	ZProjectionAccumulator accumulator = ZProjectionAccumulator.project(device,
+    			ImgLib2Converters.slabs(input, 4, device, "buffer"));
+    	assertEquals(11, accumulator.getCount());
+
+    	assertClose(Tier1.maximumZProjection(device, whole, null), accumulator.getMaximum());
+    	assertClose(Tier1.sumZProjection(device, whole, null), accumulator.getSum());
+    	assertClose(Tier1.meanZProjection(device, whole, null), accumulator.getMean());
+    	assertClose(Tier1.stdZProjection(device, whole, null), accumulator.getStandardDeviation());
+    }
+
+    @Test
+    public void testImageStackSlabs() {
+    	ImageStack stack = new ImageStack(8, 6);
+    	for (int z = 0; z < 5; z++) {
+    		short[] pixels = new short[8 * 6];
+    		for (int i = 0; i < pixels.length; i++)
+    			pixels[i] = (short) (i * (z + 1));
+    		stack.addSlice(new ShortProcessor(8, 6, pixels, null));
+    	}
+
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ZProjectionAccumulator accumulator = ZProjectionAccumulator.project(device,
+    			ImageJConverters.slabs(stack, 2, device, "buffer"));
+    	assertEquals(5, accumulator.getCount());
+    	float[] max = read(accumulator.getMaximum());
+    	float[] mean = read(accumulator.getMean());
+    	for (int i = 0; i < max.length; i++) {
+    		assertEquals(5 * i, max[i]);
+    		assertEquals(3 * i, mean[i], 1e-3);
+    	}
+    }
+
+    @Test
+    public void testHighOffsetLowVariance() {
+    	long[] dims = new long[] {6, 5, 40};
+    	float[] values = new float[6 * 5 * 40];
+    	for (int i = 0; i < values.length; i++)
+    		values[i] = 30000 + (i * 7919) % 35 - 17;
+    	DeviceJ device = DeviceJ.getDefaultDevice();
+    	ZProjectionAccumulator accumulator = ZProjectionAccumulator.project(device,
+    			ImgLib2Converters.slabs(ArrayImgs.floats(values, dims), 7, device, "buffer"));
+    	float[] mean = read(accumulator.getMean());
+    	float[] std = read(accumulator.getStandardDeviation());
+    	for (int p = 0; p < 30; p++) {
+    		double sum = 0;
+    		for (int z = 0; z < 40; z++)
+    			sum += values[z * 30 + p];
+    		double m = sum / 40;
+    		double m2 = 0;
+    		for (int z = 0; z < 40; z++)
+    			m2 += (values[z * 30 + p] - m) * (values[z * 30 + p] - m);
+    		double expected = Math.sqrt(m2 / 40);
+    		assertEquals(m, mean[p], 1e-2);
+    		assertEquals(expected, std[p], 1e-2 * expected);
+    	}
+    }
+}